@@ -1,13 +1,27 @@
 package com.craftresourcemanagement.asset.controllers;
 
 import com.craftresourcemanagement.asset.dto.AssetDTO;
+import com.craftresourcemanagement.asset.dto.AssetFilter;
+import com.craftresourcemanagement.asset.dto.AssetPageResponse;
 import com.craftresourcemanagement.asset.entities.Asset;
 import com.craftresourcemanagement.asset.services.AssetService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -16,10 +30,19 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class AssetController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final List<String> DEPRECIATION_CSV_COLUMNS = List.of(
+            "id", "period", "assetTag", "model", "modelNo", "serial", "depreciation", "numberOfMonths",
+            "purchaseDate", "purchaseCost", "currentValue", "monthlyDepreciation", "diff",
+            "previousValue", "periodDepreciation");
+
     private final AssetService assetService;
+    private final ObjectMapper objectMapper;
 
-    public AssetController(AssetService assetService) {
+    public AssetController(AssetService assetService, ObjectMapper objectMapper) {
         this.assetService = assetService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
@@ -29,6 +52,69 @@ public class AssetController {
         return ResponseEntity.ok(assetService.getAllAssets(status, category));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<AssetPageResponse> searchAssets(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Long locationId,
+            @RequestParam(required = false) Long companyId,
+            @RequestParam(required = false) Long assignedTo,
+            @RequestParam(required = false) String assignedType,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        if (size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        AssetFilter filter = new AssetFilter();
+        filter.setStatus(status);
+        filter.setCategory(category);
+        filter.setLocationId(locationId);
+        filter.setCompanyId(companyId);
+        filter.setAssignedTo(assignedTo);
+        filter.setAssignedType(assignedType);
+        filter.setSearch(q);
+        try {
+            return ResponseEntity.ok(assetService.searchAssets(filter, sort, direction, cursor, Math.min(size, MAX_PAGE_SIZE)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<Page<AssetDTO>> getAssetsPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        PageRequest pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), Sort.by("id"));
+        return ResponseEntity.ok(assetService.getAssetsPage(pageable));
+    }
+
+    /** Streams every asset as newline-delimited JSON without holding the inventory in memory. */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAssets() {
+        StreamingResponseBody body = out -> assetService.streamAssets(STREAM_CHUNK_SIZE, chunk -> writeLines(out, chunk));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    private void writeLines(OutputStream out, List<AssetDTO> chunk) {
+        try {
+            for (AssetDTO dto : chunk) {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("/counts")
     public ResponseEntity<Map<String, Long>> getAssetCounts() {
         return ResponseEntity.ok(assetService.getAssetCounts());
@@ -100,8 +186,80 @@ public class AssetController {
     }
 
     @GetMapping("/reports/depreciation")
-    public ResponseEntity<List<Map<String, Object>>> getDepreciationReport() {
-        return ResponseEntity.ok(assetService.getDepreciationReport());
+    public ResponseEntity<List<Map<String, Object>>> getDepreciationReport(@RequestParam(required = false) String period) {
+        YearMonth month = parsePeriod(period);
+        if (month == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(assetService.getDepreciationReport(month));
+    }
+
+    /** Streams the month's depreciation ledger as CSV, chunk by chunk. */
+    @GetMapping(value = "/reports/depreciation/csv", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportDepreciationReport(@RequestParam(required = false) String period) {
+        YearMonth month = parsePeriod(period);
+        if (month == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> {
+            out.write((String.join(",", DEPRECIATION_CSV_COLUMNS) + "\n").getBytes(StandardCharsets.UTF_8));
+            assetService.streamDepreciationReport(month, STREAM_CHUNK_SIZE, chunk -> writeCsvRows(out, chunk));
+        };
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=depreciation_report_" + month + ".csv")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(body);
+    }
+
+    @PostMapping("/reports/depreciation/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildDepreciationLedger(@RequestParam(required = false) String period) {
+        YearMonth month = parsePeriod(period);
+        if (month == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        int assets = assetService.rebuildDepreciationLedger(month);
+        return ResponseEntity.ok(Map.of("period", month.toString(), "assets", assets));
+    }
+
+    private static YearMonth parsePeriod(String period) {
+        if (period == null || period.isBlank()) {
+            return YearMonth.now();
+        }
+        try {
+            return YearMonth.parse(period.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private void writeCsvRows(OutputStream out, List<Map<String, Object>> chunk) {
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (Map<String, Object> row : chunk) {
+                for (int i = 0; i < DEPRECIATION_CSV_COLUMNS.size(); i++) {
+                    if (i > 0) {
+                        lines.append(',');
+                    }
+                    lines.append(csvField(row.get(DEPRECIATION_CSV_COLUMNS.get(i))));
+                }
+                lines.append('\n');
+            }
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal d ? d.toPlainString() : value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
     }
 
 @GetMapping("/licenses")
@@ -0,0 +1,39 @@
+package com.craftresourcemanagement.asset.dto;
+
+/**
+ * Query-level filters for asset listings. Null fields are not applied.
+ * <p>
+ * {@code status} accepts a status label id, name or type, or one of the asset count keys
+ * (deployed, ready-to-deploy, requestable, byod, due-for-audit, due-for-checkin, ...).
+ * {@code category} accepts a category id or name.
+ */
+public class AssetFilter {
+    private String status;
+    private String category;
+    private Long locationId;
+    private Long companyId;
+    private Long assignedTo;
+    private String assignedType;
+    private String search;
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Long getLocationId() { return locationId; }
+    public void setLocationId(Long locationId) { this.locationId = locationId; }
+
+    public Long getCompanyId() { return companyId; }
+    public void setCompanyId(Long companyId) { this.companyId = companyId; }
+
+    public Long getAssignedTo() { return assignedTo; }
+    public void setAssignedTo(Long assignedTo) { this.assignedTo = assignedTo; }
+
+    public String getAssignedType() { return assignedType; }
+    public void setAssignedType(String assignedType) { this.assignedType = assignedType; }
+
+    public String getSearch() { return search; }
+    public void setSearch(String search) { this.search = search; }
+}
@@ -0,0 +1,30 @@
+package com.craftresourcemanagement.asset.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/** One keyset page of assets; pass {@code next_cursor} back to fetch the following page. */
+public class AssetPageResponse {
+    private final List<AssetDTO> items;
+
+    @JsonProperty("next_cursor")
+    private final String nextCursor;
+
+    @JsonProperty("has_more")
+    private final boolean hasMore;
+
+    public AssetPageResponse(List<AssetDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    public List<AssetDTO> getItems() { return items; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+
+    public int getSize() { return items.size(); }
+}
@@ -0,0 +1,110 @@
+package com.craftresourcemanagement.asset.entities;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Straight-line depreciation of one asset as of the end of one month. The display columns
+ * (tag, model, schedule name) are copied so the report never joins back to the asset tables.
+ */
+@Entity
+@Table(name = "asset_depreciation_snapshots",
+       uniqueConstraints = @UniqueConstraint(name = "uk_depreciation_snapshot_period_asset", columnNames = {"period", "asset_id"}))
+public class AssetDepreciationSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** First day of the month the snapshot closes. */
+    @Column(nullable = false)
+    private LocalDate period;
+
+    @Column(name = "asset_id", nullable = false)
+    private Long assetId;
+
+    @Column(name = "asset_tag")
+    private String assetTag;
+
+    @Column(name = "serial")
+    private String serial;
+
+    @Column(name = "model_id")
+    private Long modelId;
+
+    @Column(name = "model_name")
+    private String modelName;
+
+    @Column(name = "model_number", length = 100)
+    private String modelNumber;
+
+    @Column(name = "depreciation_id")
+    private Long depreciationId;
+
+    @Column(name = "depreciation_name", length = 100)
+    private String depreciationName;
+
+    @Column(name = "number_of_months")
+    private Integer numberOfMonths;
+
+    @Column(name = "purchase_date")
+    private LocalDate purchaseDate;
+
+    @Column(name = "purchase_cost", precision = 13, scale = 4)
+    private BigDecimal purchaseCost;
+
+    @Column(name = "monthly_depreciation", precision = 13, scale = 4)
+    private BigDecimal monthlyDepreciation;
+
+    @Column(name = "accumulated_depreciation", precision = 13, scale = 4)
+    private BigDecimal accumulatedDepreciation;
+
+    @Column(name = "current_value", precision = 13, scale = 4)
+    private BigDecimal currentValue;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        computedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public LocalDate getPeriod() { return period; }
+    public void setPeriod(LocalDate period) { this.period = period; }
+    public Long getAssetId() { return assetId; }
+    public void setAssetId(Long assetId) { this.assetId = assetId; }
+    public String getAssetTag() { return assetTag; }
+    public void setAssetTag(String assetTag) { this.assetTag = assetTag; }
+    public String getSerial() { return serial; }
+    public void setSerial(String serial) { this.serial = serial; }
+    public Long getModelId() { return modelId; }
+    public void setModelId(Long modelId) { this.modelId = modelId; }
+    public String getModelName() { return modelName; }
+    public void setModelName(String modelName) { this.modelName = modelName; }
+    public String getModelNumber() { return modelNumber; }
+    public void setModelNumber(String modelNumber) { this.modelNumber = modelNumber; }
+    public Long getDepreciationId() { return depreciationId; }
+    public void setDepreciationId(Long depreciationId) { this.depreciationId = depreciationId; }
+    public String getDepreciationName() { return depreciationName; }
+    public void setDepreciationName(String depreciationName) { this.depreciationName = depreciationName; }
+    public Integer getNumberOfMonths() { return numberOfMonths; }
+    public void setNumberOfMonths(Integer numberOfMonths) { this.numberOfMonths = numberOfMonths; }
+    public LocalDate getPurchaseDate() { return purchaseDate; }
+    public void setPurchaseDate(LocalDate purchaseDate) { this.purchaseDate = purchaseDate; }
+    public BigDecimal getPurchaseCost() { return purchaseCost; }
+    public void setPurchaseCost(BigDecimal purchaseCost) { this.purchaseCost = purchaseCost; }
+    public BigDecimal getMonthlyDepreciation() { return monthlyDepreciation; }
+    public void setMonthlyDepreciation(BigDecimal monthlyDepreciation) { this.monthlyDepreciation = monthlyDepreciation; }
+    public BigDecimal getAccumulatedDepreciation() { return accumulatedDepreciation; }
+    public void setAccumulatedDepreciation(BigDecimal accumulatedDepreciation) { this.accumulatedDepreciation = accumulatedDepreciation; }
+    public BigDecimal getCurrentValue() { return currentValue; }
+    public void setCurrentValue(BigDecimal currentValue) { this.currentValue = currentValue; }
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
@@ -0,0 +1,27 @@
+package com.craftresourcemanagement.asset.repositories;
+
+import com.craftresourcemanagement.asset.entities.AssetDepreciationSnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AssetDepreciationSnapshotRepository extends JpaRepository<AssetDepreciationSnapshot, Long> {
+
+    boolean existsByPeriod(LocalDate period);
+
+    List<AssetDepreciationSnapshot> findByPeriodAndAssetIdGreaterThanOrderByAssetIdAsc(LocalDate period, Long assetId, Pageable pageable);
+
+    List<AssetDepreciationSnapshot> findByPeriodAndAssetIdIn(LocalDate period, Collection<Long> assetIds);
+
+    @Modifying
+    @Query("DELETE FROM AssetDepreciationSnapshot s WHERE s.period = :period AND s.assetId IN :assetIds")
+    int deleteByPeriodAndAssetIds(@Param("period") LocalDate period, @Param("assetIds") Collection<Long> assetIds);
+}
@@ -2,8 +2,19 @@ package com.craftresourcemanagement.asset.repositories;
 
 import com.craftresourcemanagement.asset.entities.AssetModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AssetModelRepository extends JpaRepository<AssetModel, Long> {
+
+    @Query("SELECT m.id FROM AssetModel m WHERE m.depreciationId = :depreciationId")
+    List<Long> findIdsByDepreciationId(@Param("depreciationId") Long depreciationId);
+
+    @Query("SELECT m.depreciationId AS groupId, COUNT(m) AS total FROM AssetModel m " +
+           "WHERE m.depreciationId IS NOT NULL GROUP BY m.depreciationId")
+    List<AssetRepository.GroupCount> countByDepreciation();
 }
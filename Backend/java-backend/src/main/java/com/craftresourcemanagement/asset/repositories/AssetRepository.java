@@ -1,10 +1,95 @@
 package com.craftresourcemanagement.asset.repositories;
 
 import com.craftresourcemanagement.asset.entities.Asset;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface AssetRepository extends JpaRepository<Asset, Long> {
+public interface AssetRepository extends JpaRepository<Asset, Long>, AssetRepositoryCustom {
     boolean existsByAssetTag(String assetTag);
+
+    List<Asset> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT a.id FROM Asset a WHERE a.modelId IN :modelIds")
+    List<Long> findIdsByModelIdIn(@Param("modelIds") Collection<Long> modelIds);
+
+    /** Every dashboard counter in one scan of assets joined to their status label. */
+    @Query("SELECT COUNT(a) AS total, " +
+           "SUM(CASE WHEN a.assignedTo IS NOT NULL THEN 1 ELSE 0 END) AS deployed, " +
+           "SUM(CASE WHEN a.assignedTo IS NULL AND LOWER(s.statusType) = 'deployable' THEN 1 ELSE 0 END) AS readyToDeploy, " +
+           "SUM(CASE WHEN LOWER(s.statusType) = 'pending' THEN 1 ELSE 0 END) AS pending, " +
+           "SUM(CASE WHEN LOWER(s.statusType) = 'undeployable' THEN 1 ELSE 0 END) AS undeployable, " +
+           "SUM(CASE WHEN LOWER(s.statusType) = 'archived' THEN 1 ELSE 0 END) AS archived, " +
+           "SUM(CASE WHEN LOWER(s.statusType) = 'maintenance' THEN 1 ELSE 0 END) AS maintenance, " +
+           "SUM(CASE WHEN a.byod = true THEN 1 ELSE 0 END) AS byod, " +
+           "SUM(CASE WHEN a.requestable = true THEN 1 ELSE 0 END) AS requestable, " +
+           "SUM(CASE WHEN a.nextAuditDate <= :today THEN 1 ELSE 0 END) AS dueForAudit, " +
+           "SUM(CASE WHEN a.expectedCheckin <= :today THEN 1 ELSE 0 END) AS dueForCheckin, " +
+           "SUM(a.purchaseCost) AS totalValue " +
+           "FROM Asset a LEFT JOIN StatusLabel s ON s.id = a.statusId")
+    CountSummary summarizeCounts(@Param("today") LocalDate today);
+
+    /** Cost, purchase date and depreciation schedule of every costed asset, for valuation. */
+    @Query("SELECT a.purchaseCost AS purchaseCost, a.purchaseDate AS purchaseDate, " +
+           "d.months AS months, d.depreciationMin AS floorValue " +
+           "FROM Asset a LEFT JOIN AssetModel m ON m.id = a.modelId LEFT JOIN Depreciation d ON d.id = m.depreciationId " +
+           "WHERE a.purchaseCost IS NOT NULL")
+    List<ValuationRow> findValuationRows();
+
+    @Query("SELECT a.supplierId AS groupId, COUNT(a) AS total FROM Asset a WHERE a.supplierId IS NOT NULL GROUP BY a.supplierId")
+    List<GroupCount> countBySupplier();
+
+    @Query("SELECT a.locationId AS groupId, COUNT(a) AS total FROM Asset a WHERE a.locationId IS NOT NULL GROUP BY a.locationId")
+    List<GroupCount> countByLocation();
+
+    @Query("SELECT a.modelId AS groupId, COUNT(a) AS total FROM Asset a WHERE a.modelId IS NOT NULL GROUP BY a.modelId")
+    List<GroupCount> countByModel();
+
+    @Query("SELECT a.statusId AS groupId, COUNT(a) AS total FROM Asset a WHERE a.statusId IS NOT NULL GROUP BY a.statusId")
+    List<GroupCount> countByStatus();
+
+    @Query("SELECT a.companyId AS groupId, COUNT(a) AS total FROM Asset a WHERE a.companyId IS NOT NULL GROUP BY a.companyId")
+    List<GroupCount> countByCompany();
+
+    long countByModelIdIsNotNull();
+
+    @Query("SELECT m.depreciationId AS groupId, COUNT(a) AS total FROM Asset a JOIN AssetModel m ON m.id = a.modelId " +
+           "WHERE m.depreciationId IS NOT NULL GROUP BY m.depreciationId")
+    List<GroupCount> countByDepreciation();
+
+    interface CountSummary {
+        Long getTotal();
+        Long getDeployed();
+        Long getReadyToDeploy();
+        Long getPending();
+        Long getUndeployable();
+        Long getArchived();
+        Long getMaintenance();
+        Long getByod();
+        Long getRequestable();
+        Long getDueForAudit();
+        Long getDueForCheckin();
+        BigDecimal getTotalValue();
+    }
+
+    /** Number of assets sharing one reference id. */
+    interface GroupCount {
+        Long getGroupId();
+        Long getTotal();
+    }
+
+    interface ValuationRow {
+        BigDecimal getPurchaseCost();
+        LocalDate getPurchaseDate();
+        Integer getMonths();
+        BigDecimal getFloorValue();
+    }
 }
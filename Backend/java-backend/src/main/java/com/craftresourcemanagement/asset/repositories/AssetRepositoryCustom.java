@@ -0,0 +1,85 @@
+package com.craftresourcemanagement.asset.repositories;
+
+import com.craftresourcemanagement.asset.dto.AssetFilter;
+import com.craftresourcemanagement.asset.entities.Asset;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+public interface AssetRepositoryCustom {
+
+    /**
+     * Returns assets matching the filter ordered by {@code sortField} then id, starting after
+     * {@code after} when given. A {@code limit} of zero or less returns every match.
+     */
+    List<Asset> search(AssetFilter filter, SortField sortField, boolean ascending, Cursor after, int limit);
+
+    /** Sortable asset columns; each is paired with id so the order is total. */
+    enum SortField {
+        ID("id", Asset::getId, Long::valueOf),
+        ASSET_TAG("assetTag", Asset::getAssetTag, Function.identity()),
+        NAME("name", Asset::getName, Function.identity()),
+        PURCHASE_DATE("purchaseDate", Asset::getPurchaseDate, LocalDate::parse),
+        PURCHASE_COST("purchaseCost", Asset::getPurchaseCost, BigDecimal::new),
+        CREATED_AT("createdAt", Asset::getCreatedAt, LocalDateTime::parse);
+
+        private final String attribute;
+        private final Function<Asset, Object> getter;
+        private final Function<String, Object> parser;
+
+        <T> SortField(String attribute, Function<Asset, T> getter, Function<String, T> parser) {
+            this.attribute = attribute;
+            this.getter = getter::apply;
+            this.parser = parser::apply;
+        }
+
+        public String attribute() {
+            return attribute;
+        }
+
+        public static SortField from(String value) {
+            if (value == null || value.isBlank()) {
+                return ID;
+            }
+            for (SortField field : values()) {
+                if (field.attribute.equalsIgnoreCase(value)
+                        || field.name().equalsIgnoreCase(value.replace('-', '_'))) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort field: " + value);
+        }
+    }
+
+    /** Position of the last row of a page: its sort value (possibly null) and id. */
+    record Cursor(Object value, Long id) {
+
+        public static Cursor of(Asset asset, SortField field) {
+            return new Cursor(field.getter.apply(asset), asset.getId());
+        }
+
+        public String encode() {
+            String raw = id + "|" + (value == null ? "" : "v" + (value instanceof BigDecimal d ? d.toPlainString() : value));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String token, SortField field) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                Long id = Long.valueOf(raw.substring(0, separator));
+                String encodedValue = raw.substring(separator + 1);
+                Object value = encodedValue.isEmpty() ? null : field.parser.apply(encodedValue.substring(1));
+                return new Cursor(value, id);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor for sort " + field.name().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+}
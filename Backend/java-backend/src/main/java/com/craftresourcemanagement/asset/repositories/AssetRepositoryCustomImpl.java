@@ -0,0 +1,182 @@
+package com.craftresourcemanagement.asset.repositories;
+
+import com.craftresourcemanagement.asset.dto.AssetFilter;
+import com.craftresourcemanagement.asset.entities.Asset;
+import com.craftresourcemanagement.asset.entities.AssetModel;
+import com.craftresourcemanagement.asset.entities.Category;
+import com.craftresourcemanagement.asset.entities.StatusLabel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Criteria-based asset search. Filters are pushed into the WHERE clause and pages are
+ * fetched with a seek predicate on (sort column, id) instead of an OFFSET, so the cost of
+ * a page does not grow with its position.
+ * <p>
+ * The seek predicate follows MySQL null ordering: nulls sort first ascending and last
+ * descending.
+ */
+public class AssetRepositoryCustomImpl implements AssetRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public AssetRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Asset> search(AssetFilter filter, SortField sortField, boolean ascending, Cursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Asset> query = cb.createQuery(Asset.class);
+        Root<Asset> asset = query.from(Asset.class);
+
+        List<Predicate> predicates = filter != null ? filterPredicates(cb, query, asset, filter) : new ArrayList<>();
+        if (after != null) {
+            predicates.add(seekPredicate(cb, asset, sortField, ascending, after));
+        }
+        if (!predicates.isEmpty()) {
+            // Hibernate 6.1 fails on an empty WHERE built from a zero-length predicate array
+            query.where(predicates.toArray(new Predicate[0]));
+        }
+
+        List<Order> order = new ArrayList<>();
+        if (sortField != SortField.ID) {
+            Path<?> sortPath = asset.get(sortField.attribute());
+            order.add(ascending ? cb.asc(sortPath) : cb.desc(sortPath));
+        }
+        order.add(ascending ? cb.asc(asset.get("id")) : cb.desc(asset.get("id")));
+        query.orderBy(order);
+
+        TypedQuery<Asset> typed = entityManager.createQuery(query);
+        if (limit > 0) {
+            typed.setMaxResults(limit);
+        }
+        return typed.getResultList();
+    }
+
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Asset> asset, AssetFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (hasText(filter.getStatus())) {
+            Predicate status = statusPredicate(cb, query, asset, filter.getStatus().trim().toLowerCase(Locale.ROOT));
+            if (status != null) {
+                predicates.add(status);
+            }
+        }
+
+        if (hasText(filter.getCategory())) {
+            String category = filter.getCategory().trim();
+            Subquery<Long> categoryIds = query.subquery(Long.class);
+            Root<Category> c = categoryIds.from(Category.class);
+            categoryIds.select(c.get("id"));
+            Long categoryId = parseId(category);
+            categoryIds.where(categoryId != null
+                ? cb.equal(c.get("id"), categoryId)
+                : cb.equal(cb.lower(c.get("name")), category.toLowerCase(Locale.ROOT)));
+
+            Subquery<Long> modelIds = query.subquery(Long.class);
+            Root<AssetModel> m = modelIds.from(AssetModel.class);
+            modelIds.select(m.get("id")).where(m.get("categoryId").in(categoryIds));
+            predicates.add(asset.get("modelId").in(modelIds));
+        }
+
+        if (filter.getLocationId() != null) {
+            predicates.add(cb.equal(asset.get("locationId"), filter.getLocationId()));
+        }
+        if (filter.getCompanyId() != null) {
+            predicates.add(cb.equal(asset.get("companyId"), filter.getCompanyId()));
+        }
+        if (filter.getAssignedTo() != null) {
+            predicates.add(cb.equal(asset.get("assignedTo"), filter.getAssignedTo()));
+        }
+        if (hasText(filter.getAssignedType())) {
+            predicates.add(cb.equal(cb.lower(asset.get("assignedType")), filter.getAssignedType().trim().toLowerCase(Locale.ROOT)));
+        }
+
+        if (hasText(filter.getSearch())) {
+            String pattern = "%" + escapeLike(filter.getSearch().trim().toLowerCase(Locale.ROOT)) + "%";
+            predicates.add(cb.or(
+                cb.like(cb.lower(asset.get("assetTag")), pattern, '\\'),
+                cb.like(cb.lower(asset.get("serial")), pattern, '\\'),
+                cb.like(cb.lower(asset.get("name")), pattern, '\\')));
+        }
+
+        return predicates;
+    }
+
+    private Predicate statusPredicate(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Asset> asset, String status) {
+        LocalDate today = LocalDate.now();
+        return switch (status) {
+            case "list-all", "all" -> null;
+            case "deployed" -> cb.isNotNull(asset.get("assignedTo"));
+            case "ready-to-deploy" -> cb.and(cb.isNull(asset.get("assignedTo")),
+                asset.get("statusId").in(statusIdsByType(cb, query, "deployable")));
+            case "un-deployable" -> asset.get("statusId").in(statusIdsByType(cb, query, "undeployable"));
+            case "requestable" -> cb.isTrue(asset.get("requestable"));
+            case "byod" -> cb.isTrue(asset.get("byod"));
+            case "due-for-audit" -> cb.lessThanOrEqualTo(asset.get("nextAuditDate"), today);
+            case "due-for-checkin" -> cb.lessThanOrEqualTo(asset.get("expectedCheckin"), today);
+            default -> {
+                Long statusId = parseId(status);
+                if (statusId != null) {
+                    yield cb.equal(asset.get("statusId"), statusId);
+                }
+                Subquery<Long> statusIds = query.subquery(Long.class);
+                Root<StatusLabel> s = statusIds.from(StatusLabel.class);
+                statusIds.select(s.get("id")).where(cb.or(
+                    cb.equal(cb.lower(s.get("name")), status),
+                    cb.equal(cb.lower(s.get("statusType")), status)));
+                yield asset.get("statusId").in(statusIds);
+            }
+        };
+    }
+
+    private Subquery<Long> statusIdsByType(CriteriaBuilder cb, CriteriaQuery<?> query, String statusType) {
+        Subquery<Long> statusIds = query.subquery(Long.class);
+        Root<StatusLabel> s = statusIds.from(StatusLabel.class);
+        return statusIds.select(s.get("id")).where(cb.equal(cb.lower(s.get("statusType")), statusType));
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Predicate seekPredicate(CriteriaBuilder cb, Root<Asset> asset, SortField sortField, boolean ascending, Cursor after) {
+        Path<Long> id = asset.get("id");
+        Predicate idAfter = ascending ? cb.greaterThan(id, after.id()) : cb.lessThan(id, after.id());
+        if (sortField == SortField.ID) {
+            return idAfter;
+        }
+
+        Path<Comparable> column = asset.get(sortField.attribute());
+        if (after.value() == null) {
+            // Inside the null block: remaining nulls by id, then (ascending only) every non-null row
+            Predicate nullsAfter = cb.and(cb.isNull(column), idAfter);
+            return ascending ? cb.or(nullsAfter, cb.isNotNull(column)) : nullsAfter;
+        }
+
+        Comparable value = (Comparable) after.value();
+        Predicate beyond = ascending ? cb.greaterThan(column, value) : cb.lessThan(column, value);
+        Predicate tie = cb.and(cb.equal(column, value), idAfter);
+        return ascending ? cb.or(beyond, tie) : cb.or(beyond, tie, cb.isNull(column));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
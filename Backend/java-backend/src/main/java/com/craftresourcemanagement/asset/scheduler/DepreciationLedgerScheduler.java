@@ -0,0 +1,26 @@
+package com.craftresourcemanagement.asset.scheduler;
+
+import com.craftresourcemanagement.asset.services.impl.DepreciationLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+@Component
+public class DepreciationLedgerScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(DepreciationLedgerScheduler.class);
+    private final DepreciationLedger depreciationLedger;
+
+    public DepreciationLedgerScheduler(DepreciationLedger depreciationLedger) {
+        this.depreciationLedger = depreciationLedger;
+    }
+
+    @Scheduled(cron = "0 15 0 1 * *") // 1st of month at 00:15
+    public void rollDepreciationLedgerForward() {
+        log.info("Running depreciation ledger roll forward job");
+        depreciationLedger.rollForward(YearMonth.now());
+    }
+}
@@ -1,11 +1,17 @@
 package com.craftresourcemanagement.asset.services;
 
 import com.craftresourcemanagement.asset.dto.AssetDTO;
+import com.craftresourcemanagement.asset.dto.AssetFilter;
+import com.craftresourcemanagement.asset.dto.AssetPageResponse;
 import com.craftresourcemanagement.asset.entities.Asset;
 
 import java.io.IOException;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface AssetService {
@@ -13,6 +19,9 @@ public interface AssetService {
     // Asset CRUD
     AssetDTO createAsset(Asset asset, Long userId);
     List<AssetDTO> getAllAssets(String status, String category);
+    Page<AssetDTO> getAssetsPage(Pageable pageable);
+    AssetPageResponse searchAssets(AssetFilter filter, String sort, String direction, String cursor, int size);
+    void streamAssets(int chunkSize, Consumer<List<AssetDTO>> sink);
     AssetDTO getAssetById(Long id);
     AssetDTO updateAsset(Long id, Asset asset, Long userId);
     void deleteAsset(Long id, Long userId);
@@ -85,6 +94,9 @@ public interface AssetService {
 
     // Reports
     List<Map<String, Object>> getDepreciationReport();
+    List<Map<String, Object>> getDepreciationReport(YearMonth period);
+    void streamDepreciationReport(YearMonth period, int chunkSize, Consumer<List<Map<String, Object>>> sink);
+    int rebuildDepreciationLedger(YearMonth period);
     List<Map<String, Object>> getMaintenanceReport();
 
     // Asset Audits
@@ -0,0 +1,157 @@
+package com.craftresourcemanagement.asset.services.impl;
+
+import com.craftresourcemanagement.asset.repositories.AssetRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Asset dashboard numbers computed from aggregate queries rather than by loading assets.
+ * <p>
+ * Counters come from one conditional-sum query; current value is accumulated in a single
+ * pass over a narrow projection. Results are kept for {@code asset.stats.cache-ttl-seconds}
+ * (0 disables caching) and dropped whenever the service changes an asset or a status label
+ * commits.
+ */
+@Component
+public class AssetAggregates {
+
+    private final AssetRepository assetRepository;
+    private final long ttlMillis;
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Cached<Map<String, Long>> counts;
+    private volatile Cached<Map<String, Object>> stats;
+
+    private record Cached<T>(T value, long expiresAt) {
+    }
+
+    public AssetAggregates(AssetRepository assetRepository,
+                           @Value("${asset.stats.cache-ttl-seconds:30}") long ttlSeconds) {
+        this.assetRepository = assetRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public Map<String, Long> getCounts() {
+        Cached<Map<String, Long>> cached = counts;
+        if (isFresh(cached)) {
+            return cached.value();
+        }
+        long startedAt = generation.get();
+        Cached<Map<String, Long>> computed = compute(this::computeCounts);
+        if (generation.get() == startedAt) {
+            counts = computed;
+        }
+        return computed.value();
+    }
+
+    public Map<String, Object> getStats() {
+        Cached<Map<String, Object>> cached = stats;
+        if (isFresh(cached)) {
+            return cached.value();
+        }
+        long startedAt = generation.get();
+        Cached<Map<String, Object>> computed = compute(this::computeStats);
+        if (generation.get() == startedAt) {
+            stats = computed;
+        }
+        return computed.value();
+    }
+
+    /**
+     * Drops cached numbers once the change is visible: inside a transaction this waits
+     * for the commit, so a reader cannot cache the old rows after the drop. Results
+     * computed concurrently with the drop are not cached. A rolled-back change keeps
+     * the cache.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop();
+                }
+            });
+        } else {
+            drop();
+        }
+    }
+
+    private void drop() {
+        generation.incrementAndGet();
+        counts = null;
+        stats = null;
+    }
+
+    private Map<String, Long> computeCounts() {
+        AssetRepository.CountSummary summary = assetRepository.summarizeCounts(LocalDate.now());
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("list-all", orZero(summary.getTotal()));
+        result.put("deployed", orZero(summary.getDeployed()));
+        result.put("ready-to-deploy", orZero(summary.getReadyToDeploy()));
+        result.put("pending", orZero(summary.getPending()));
+        result.put("un-deployable", orZero(summary.getUndeployable()));
+        result.put("byod", orZero(summary.getByod()));
+        result.put("archived", orZero(summary.getArchived()));
+        result.put("requestable", orZero(summary.getRequestable()));
+        result.put("due-for-audit", orZero(summary.getDueForAudit()));
+        result.put("due-for-checkin", orZero(summary.getDueForCheckin()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    private Map<String, Object> computeStats() {
+        LocalDate today = LocalDate.now();
+        AssetRepository.CountSummary summary = assetRepository.summarizeCounts(today);
+        BigDecimal totalValue = summary.getTotalValue() != null ? summary.getTotalValue() : BigDecimal.ZERO;
+
+        BigDecimal totalCurrentValue = BigDecimal.ZERO;
+        for (AssetRepository.ValuationRow row : assetRepository.findValuationRows()) {
+            totalCurrentValue = totalCurrentValue.add(currentValue(row, today));
+        }
+
+        double depreciationRate = totalValue.compareTo(BigDecimal.ZERO) > 0
+            ? totalValue.subtract(totalCurrentValue).divide(totalValue, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100)).doubleValue()
+            : 0.0;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalAssets", orZero(summary.getTotal()));
+        result.put("activeAssets", orZero(summary.getDeployed()));
+        result.put("maintenanceAssets", orZero(summary.getMaintenance()));
+        result.put("disposedAssets", orZero(summary.getArchived()));
+        result.put("totalValue", totalValue);
+        result.put("depreciationRate", depreciationRate);
+        return Collections.unmodifiableMap(result);
+    }
+
+    static BigDecimal currentValue(AssetRepository.ValuationRow row, LocalDate asOf) {
+        if (row.getPurchaseDate() == null || row.getMonths() == null || row.getMonths() <= 0) {
+            return row.getPurchaseCost();
+        }
+        BigDecimal floorValue = row.getFloorValue() != null ? row.getFloorValue() : BigDecimal.ZERO;
+        return AssetReadModel.depreciatedValue(row.getPurchaseCost(), row.getPurchaseDate(), row.getMonths(), floorValue, asOf);
+    }
+
+    private <T> Cached<T> compute(Supplier<T> supplier) {
+        return new Cached<>(supplier.get(), System.currentTimeMillis() + ttlMillis);
+    }
+
+    private boolean isFresh(Cached<?> cached) {
+        return cached != null && ttlMillis > 0 && System.currentTimeMillis() < cached.expiresAt();
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
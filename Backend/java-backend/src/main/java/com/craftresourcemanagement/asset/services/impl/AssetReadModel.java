@@ -0,0 +1,305 @@
+package com.craftresourcemanagement.asset.services.impl;
+
+import com.craftresourcemanagement.asset.dto.AssetDTO;
+import com.craftresourcemanagement.asset.entities.*;
+import com.craftresourcemanagement.asset.repositories.*;
+import com.craftresourcemanagement.hr.entities.User;
+import com.craftresourcemanagement.hr.repositories.UserRepository;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Builds asset read models without per-row lookups.
+ * <p>
+ * A {@link References} instance collects the ids referenced by a batch of assets, loads each
+ * reference table once with {@code findAllById} and joins the rows in memory. Rows already
+ * loaded are reused, so one instance can serve a whole request or a chunked stream.
+ */
+@Component
+public class AssetReadModel {
+
+    private final AssetRepository assetRepository;
+    private final StatusLabelRepository statusLabelRepository;
+    private final AssetModelRepository assetModelRepository;
+    private final CategoryRepository categoryRepository;
+    private final ManufacturerRepository manufacturerRepository;
+    private final DepreciationRepository depreciationRepository;
+    private final CompanyRepository companyRepository;
+    private final LocationRepository locationRepository;
+    private final SupplierRepository supplierRepository;
+    private final UserRepository userRepository;
+
+    public AssetReadModel(AssetRepository assetRepository, StatusLabelRepository statusLabelRepository,
+                          AssetModelRepository assetModelRepository, CategoryRepository categoryRepository,
+                          ManufacturerRepository manufacturerRepository, DepreciationRepository depreciationRepository,
+                          CompanyRepository companyRepository, LocationRepository locationRepository,
+                          SupplierRepository supplierRepository, UserRepository userRepository) {
+        this.assetRepository = assetRepository;
+        this.statusLabelRepository = statusLabelRepository;
+        this.assetModelRepository = assetModelRepository;
+        this.categoryRepository = categoryRepository;
+        this.manufacturerRepository = manufacturerRepository;
+        this.depreciationRepository = depreciationRepository;
+        this.companyRepository = companyRepository;
+        this.locationRepository = locationRepository;
+        this.supplierRepository = supplierRepository;
+        this.userRepository = userRepository;
+    }
+
+    public References references() {
+        return new References();
+    }
+
+    public List<AssetDTO> toDTOs(List<Asset> assets) {
+        References references = new References();
+        references.loadFor(assets);
+        return assets.stream().map(references::toDTO).toList();
+    }
+
+    public AssetDTO toDTO(Asset asset) {
+        return toDTOs(List.of(asset)).get(0);
+    }
+
+    /**
+     * Straight-line value of an asset after the months elapsed since purchase, never below the
+     * schedule's floor value.
+     */
+    public static BigDecimal depreciatedValue(Asset asset, Depreciation depreciation, LocalDate asOf) {
+        return depreciatedValue(asset.getPurchaseCost(), asset.getPurchaseDate(), depreciation.getMonths(),
+                depreciation.getDepreciationMin(), asOf);
+    }
+
+    public static BigDecimal depreciatedValue(BigDecimal purchaseCost, LocalDate purchaseDate, int totalMonths,
+                                              BigDecimal floorValue, LocalDate asOf) {
+        long monthsPassed = ChronoUnit.MONTHS.between(purchaseDate, asOf);
+
+        BigDecimal depreciableAmount = purchaseCost.subtract(floorValue);
+        BigDecimal monthlyDepreciation = depreciableAmount.divide(BigDecimal.valueOf(totalMonths), 2, RoundingMode.HALF_UP);
+        BigDecimal totalDepreciation = monthlyDepreciation.multiply(BigDecimal.valueOf(Math.min(monthsPassed, totalMonths)));
+
+        return purchaseCost.subtract(totalDepreciation).max(floorValue);
+    }
+
+    /** Per-request view of the reference tables, loaded lazily in batches. */
+    public final class References {
+
+        private final Table<Asset> assets = new Table<>(assetRepository, Asset::getId);
+        private final Table<StatusLabel> statuses = new Table<>(statusLabelRepository, StatusLabel::getId);
+        private final Table<AssetModel> models = new Table<>(assetModelRepository, AssetModel::getId);
+        private final Table<Category> categories = new Table<>(categoryRepository, Category::getId);
+        private final Table<Manufacturer> manufacturers = new Table<>(manufacturerRepository, Manufacturer::getId);
+        private final Table<Depreciation> depreciations = new Table<>(depreciationRepository, Depreciation::getId);
+        private final Table<Company> companies = new Table<>(companyRepository, Company::getId);
+        private final Table<Location> locations = new Table<>(locationRepository, Location::getId);
+        private final Table<Supplier> suppliers = new Table<>(supplierRepository, Supplier::getId);
+        private final Table<User> users = new Table<>(userRepository, User::getId);
+
+        private References() {
+        }
+
+        /** Loads every row referenced by the given assets that is not loaded yet. */
+        public void loadFor(Collection<Asset> batch) {
+            Set<Long> statusIds = new HashSet<>();
+            Set<Long> modelIds = new HashSet<>();
+            Set<Long> companyIds = new HashSet<>();
+            Set<Long> locationIds = new HashSet<>();
+            Set<Long> supplierIds = new HashSet<>();
+            Set<Long> userIds = new HashSet<>();
+            for (Asset asset : batch) {
+                addIfPresent(statusIds, asset.getStatusId());
+                addIfPresent(modelIds, asset.getModelId());
+                addIfPresent(companyIds, asset.getCompanyId());
+                addIfPresent(locationIds, asset.getLocationId());
+                addIfPresent(locationIds, asset.getRtdLocationId());
+                addIfPresent(supplierIds, asset.getSupplierId());
+                if (asset.getAssignedTo() != null && "user".equalsIgnoreCase(asset.getAssignedType())) {
+                    userIds.add(asset.getAssignedTo());
+                }
+            }
+            statuses.load(statusIds);
+            loadModels(modelIds);
+            companies.load(companyIds);
+            locations.load(locationIds);
+            suppliers.load(supplierIds);
+            users.load(userIds);
+        }
+
+        /** Loads the assets, models and locations referenced by asset audit records. */
+        public void loadForAudits(Collection<AssetAudit> audits) {
+            Set<Long> assetIds = new HashSet<>();
+            Set<Long> locationIds = new HashSet<>();
+            for (AssetAudit audit : audits) {
+                addIfPresent(assetIds, audit.getAssetId());
+                addIfPresent(locationIds, audit.getLocationId());
+            }
+            assets.load(assetIds);
+            Set<Long> modelIds = new HashSet<>();
+            for (Long assetId : assetIds) {
+                Asset asset = assets.get(assetId);
+                if (asset != null) {
+                    addIfPresent(modelIds, asset.getModelId());
+                }
+            }
+            loadModels(modelIds);
+            locations.load(locationIds);
+        }
+
+        private void loadModels(Set<Long> modelIds) {
+            models.load(modelIds);
+            Set<Long> categoryIds = new HashSet<>();
+            Set<Long> manufacturerIds = new HashSet<>();
+            Set<Long> depreciationIds = new HashSet<>();
+            for (Long modelId : modelIds) {
+                AssetModel model = models.get(modelId);
+                if (model != null) {
+                    addIfPresent(categoryIds, model.getCategoryId());
+                    addIfPresent(manufacturerIds, model.getManufacturerId());
+                    addIfPresent(depreciationIds, model.getDepreciationId());
+                }
+            }
+            categories.load(categoryIds);
+            manufacturers.load(manufacturerIds);
+            depreciations.load(depreciationIds);
+        }
+
+        public Asset asset(Long id) {
+            return assets.get(id);
+        }
+
+        public AssetModel model(Long id) {
+            return models.get(id);
+        }
+
+        public Location location(Long id) {
+            return locations.get(id);
+        }
+
+        /** Builds the DTO from rows already loaded by {@link #loadFor(Collection)}. */
+        public AssetDTO toDTO(Asset asset) {
+            AssetDTO dto = new AssetDTO();
+            dto.setId(asset.getId());
+            dto.setAssetTag(asset.getAssetTag());
+            dto.setName(asset.getName());
+            dto.setSerial(asset.getSerial());
+            dto.setModelId(asset.getModelId());
+            dto.setStatusId(asset.getStatusId());
+            dto.setPurchaseDate(asset.getPurchaseDate());
+            dto.setPurchaseCost(asset.getPurchaseCost());
+            dto.setEolDate(asset.getEolDate());
+            dto.setNotes(asset.getNotes());
+            dto.setExpectedCheckin(asset.getExpectedCheckin());
+            dto.setNextAuditDate(asset.getNextAuditDate());
+            dto.setImage(asset.getImage());
+            dto.setOrderNumber(asset.getOrderNumber());
+            dto.setWarrantyMonths(asset.getWarrantyMonths());
+            dto.setCompanyId(asset.getCompanyId());
+            dto.setLocationId(asset.getLocationId());
+            dto.setRtdLocationId(asset.getRtdLocationId());
+            dto.setSupplierId(asset.getSupplierId());
+            dto.setAssignedTo(asset.getAssignedTo());
+            dto.setAssignedType(asset.getAssignedType());
+
+            StatusLabel status = statuses.get(asset.getStatusId());
+            if (status != null) {
+                dto.setStatusName(status.getName());
+            }
+
+            AssetModel model = models.get(asset.getModelId());
+            if (model != null) {
+                dto.setModelName(model.getName());
+                dto.setModelNumber(model.getModelNumber());
+                Category category = categories.get(model.getCategoryId());
+                if (category != null) {
+                    dto.setCategoryName(category.getName());
+                }
+                Manufacturer manufacturer = manufacturers.get(model.getManufacturerId());
+                if (manufacturer != null) {
+                    dto.setManufacturerName(manufacturer.getName());
+                }
+
+                // Current value with depreciation, or purchase cost when the model has no schedule
+                if (asset.getPurchaseDate() != null && asset.getPurchaseCost() != null && model.getDepreciationId() != null) {
+                    Depreciation depreciation = depreciations.get(model.getDepreciationId());
+                    if (depreciation != null) {
+                        dto.setCurrentValue(depreciatedValue(asset, depreciation, LocalDate.now()));
+                    }
+                } else if (asset.getPurchaseCost() != null) {
+                    dto.setCurrentValue(asset.getPurchaseCost());
+                }
+            }
+
+            Company company = companies.get(asset.getCompanyId());
+            if (company != null) {
+                dto.setCompanyName(company.getName());
+            }
+            Location location = locations.get(asset.getLocationId());
+            if (location != null) {
+                dto.setLocationName(location.getName());
+            }
+            Location rtdLocation = locations.get(asset.getRtdLocationId());
+            if (rtdLocation != null) {
+                dto.setRtdLocationName(rtdLocation.getName());
+            }
+            Supplier supplier = suppliers.get(asset.getSupplierId());
+            if (supplier != null) {
+                dto.setSupplierName(supplier.getName());
+            }
+
+            if (asset.getAssignedTo() != null && "user".equalsIgnoreCase(asset.getAssignedType())) {
+                User user = users.get(asset.getAssignedTo());
+                if (user != null) {
+                    String fullName = (user.getFirstName() != null ? user.getFirstName() : "") +
+                                      " " +
+                                      (user.getLastName() != null ? user.getLastName() : "");
+                    dto.setAssignedToName(fullName.trim());
+                }
+            }
+
+            return dto;
+        }
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    /** Rows of one reference table keyed by id; ids are only ever requested once. */
+    private static final class Table<T> {
+        private final JpaRepository<T, Long> repository;
+        private final Function<T, Long> idOf;
+        private final Map<Long, T> rows = new HashMap<>();
+        private final Set<Long> requested = new HashSet<>();
+
+        Table(JpaRepository<T, Long> repository, Function<T, Long> idOf) {
+            this.repository = repository;
+            this.idOf = idOf;
+        }
+
+        void load(Set<Long> ids) {
+            List<Long> missing = new ArrayList<>();
+            for (Long id : ids) {
+                if (requested.add(id)) {
+                    missing.add(id);
+                }
+            }
+            if (!missing.isEmpty()) {
+                for (T row : repository.findAllById(missing)) {
+                    rows.put(idOf.apply(row), row);
+                }
+            }
+        }
+
+        T get(Long id) {
+            return id != null ? rows.get(id) : null;
+        }
+    }
+}
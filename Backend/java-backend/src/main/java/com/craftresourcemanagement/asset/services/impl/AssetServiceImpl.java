@@ -1,6 +1,8 @@
 package com.craftresourcemanagement.asset.services.impl;
 
 import com.craftresourcemanagement.asset.dto.AssetDTO;
+import com.craftresourcemanagement.asset.dto.AssetFilter;
+import com.craftresourcemanagement.asset.dto.AssetPageResponse;
 import com.craftresourcemanagement.asset.entities.*;
 import com.craftresourcemanagement.asset.repositories.*;
 import com.craftresourcemanagement.asset.services.AssetService;
@@ -8,6 +10,10 @@ import com.craftresourcemanagement.hr.services.CloudinaryService;
 import com.craftresourcemanagement.hr.repositories.UserRepository;
 import com.craftresourcemanagement.system.repositories.AuditLogRepository;
 import com.craftresourcemanagement.system.entities.AuditLog;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,11 +21,12 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,6 +49,9 @@ public class AssetServiceImpl implements AssetService {
     private final LicenseRepository licenseRepository;
     private final LicenseAssignmentRepository licenseAssignmentRepository;
     private final AssetMaintenanceRepository assetMaintenanceRepository;
+    private final AssetReadModel assetReadModel;
+    private final AssetAggregates assetAggregates;
+    private final DepreciationLedger depreciationLedger;
 
     public AssetServiceImpl(AssetRepository assetRepository, AuditLogRepository auditLogRepository,
                            AssetAuditRepository assetAuditRepository,
@@ -52,7 +62,9 @@ public class AssetServiceImpl implements AssetService {
                            DepartmentRepository departmentRepository, CloudinaryService cloudinaryService,
                            UserRepository userRepository, LicenseRepository licenseRepository,
                            LicenseAssignmentRepository licenseAssignmentRepository,
-                           AssetMaintenanceRepository assetMaintenanceRepository) {
+                           AssetMaintenanceRepository assetMaintenanceRepository,
+                           AssetReadModel assetReadModel, AssetAggregates assetAggregates,
+                           DepreciationLedger depreciationLedger) {
         this.assetRepository = assetRepository;
         this.auditLogRepository = auditLogRepository;
         this.assetAuditRepository = assetAuditRepository;
@@ -70,6 +82,9 @@ public class AssetServiceImpl implements AssetService {
         this.licenseRepository = licenseRepository;
         this.licenseAssignmentRepository = licenseAssignmentRepository;
         this.assetMaintenanceRepository = assetMaintenanceRepository;
+        this.assetReadModel = assetReadModel;
+        this.assetAggregates = assetAggregates;
+        this.depreciationLedger = depreciationLedger;
     }
 
     @Override
@@ -80,6 +95,8 @@ public class AssetServiceImpl implements AssetService {
             asset.setAssetTag(generateUniqueAssetTag());
         }
         Asset saved = assetRepository.save(asset);
+        assetAggregates.invalidate();
+        depreciationLedger.refreshAssets(List.of(saved.getId()));
         String userName = getUserName(userId);
         logAudit(userId, "Asset Created by " + userName, "Asset", saved.getId(), 
                 String.format("%s created new asset '%s' with tag %s", userName, saved.getName(), saved.getAssetTag()));
@@ -98,8 +115,54 @@ public class AssetServiceImpl implements AssetService {
 
     @Override
     public List<AssetDTO> getAllAssets(String status, String category) {
-        List<Asset> assets = assetRepository.findAll();
-        return assets.stream().map(this::convertToDTO).toList();
+        AssetFilter filter = new AssetFilter();
+        filter.setStatus(status);
+        filter.setCategory(category);
+        List<Asset> assets = assetRepository.search(filter, AssetRepositoryCustom.SortField.ID, true, null, 0);
+        return assetReadModel.toDTOs(assets);
+    }
+
+    @Override
+    public AssetPageResponse searchAssets(AssetFilter filter, String sort, String direction, String cursor, int size) {
+        AssetRepositoryCustom.SortField sortField = AssetRepositoryCustom.SortField.from(sort);
+        boolean ascending = direction == null || !"desc".equalsIgnoreCase(direction);
+        AssetRepositoryCustom.Cursor after = cursor != null && !cursor.isBlank()
+            ? AssetRepositoryCustom.Cursor.decode(cursor, sortField)
+            : null;
+
+        // Fetch one extra row to learn whether another page exists
+        List<Asset> rows = assetRepository.search(filter, sortField, ascending, after, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<Asset> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore
+            ? AssetRepositoryCustom.Cursor.of(page.get(page.size() - 1), sortField).encode()
+            : null;
+        return new AssetPageResponse(assetReadModel.toDTOs(page), nextCursor);
+    }
+
+    @Override
+    public Page<AssetDTO> getAssetsPage(Pageable pageable) {
+        Page<Asset> page = assetRepository.findAll(pageable);
+        return new PageImpl<>(assetReadModel.toDTOs(page.getContent()), pageable, page.getTotalElements());
+    }
+
+    @Override
+    public void streamAssets(int chunkSize, Consumer<List<AssetDTO>> sink) {
+        // Seek by id so each chunk is an indexed range scan; reference rows are shared across chunks
+        AssetReadModel.References references = assetReadModel.references();
+        Long lastId = 0L;
+        while (true) {
+            List<Asset> chunk = assetRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                return;
+            }
+            references.loadFor(chunk);
+            sink.accept(chunk.stream().map(references::toDTO).toList());
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
+        }
     }
 
     @Override
@@ -136,6 +199,8 @@ public class AssetServiceImpl implements AssetService {
         if (asset.getImage() != null) existing.setImage(asset.getImage());
         
         Asset updated = assetRepository.saveAndFlush(existing);
+        assetAggregates.invalidate();
+        depreciationLedger.refreshAssets(List.of(updated.getId()));
         
         String userName = getUserName(userId);
         logAudit(userId, "Asset Updated by " + userName, "Asset", updated.getId(), 
@@ -152,6 +217,8 @@ public class AssetServiceImpl implements AssetService {
         logAudit(userId, "Asset Deleted by " + userName, "Asset", id, 
                 String.format("%s permanently deleted asset '%s' (%s)", userName, asset.getName(), asset.getAssetTag()));
         assetRepository.deleteById(id);
+        assetAggregates.invalidate();
+        depreciationLedger.refreshAssets(List.of(id));
     }
 
     @Override
@@ -183,6 +250,7 @@ public class AssetServiceImpl implements AssetService {
         asset.setLastCheckout(LocalDateTime.now());
         
         Asset updated = assetRepository.save(asset);
+        assetAggregates.invalidate();
         
         String userName = getUserName(userId);
         String assigneeName = getAssigneeName(assignedTo, assignedType);
@@ -228,6 +296,7 @@ public class AssetServiceImpl implements AssetService {
         }
         
         Asset updated = assetRepository.save(asset);
+        assetAggregates.invalidate();
         
         // Extract note for audit log
         String note = checkinData.containsKey("notes") ? (String) checkinData.get("notes") : "";
@@ -244,103 +313,12 @@ public class AssetServiceImpl implements AssetService {
 
     @Override
     public Map<String, Long> getAssetCounts() {
-        List<Asset> all = assetRepository.findAll();
-        List<StatusLabel> statuses = statusLabelRepository.findAll();
-        
-        Map<String, Long> statusCounts = statuses.stream()
-            .collect(Collectors.toMap(
-                s -> s.getStatusType().toLowerCase(),
-                s -> all.stream().filter(a -> s.getId().equals(a.getStatusId())).count(),
-                Long::sum
-            ));
-        
-        long deployed = all.stream().filter(a -> a.getAssignedTo() != null).count();
-        long readyToDeploy = all.stream().filter(a -> a.getAssignedTo() == null && 
-            statusLabelRepository.findById(a.getStatusId())
-                .map(s -> "deployable".equalsIgnoreCase(s.getStatusType()))
-                .orElse(false)).count();
-        long byod = all.stream().filter(a -> Boolean.TRUE.equals(a.getByod())).count();
-        long requestable = all.stream().filter(a -> Boolean.TRUE.equals(a.getRequestable())).count();
-        long dueForAudit = all.stream().filter(a -> a.getNextAuditDate() != null && 
-            !a.getNextAuditDate().isAfter(LocalDate.now())).count();
-        long dueForCheckin = all.stream().filter(a -> a.getExpectedCheckin() != null && 
-            !a.getExpectedCheckin().isAfter(LocalDate.now())).count();
-        
-        return Map.of(
-            "list-all", (long) all.size(),
-            "deployed", deployed,
-            "ready-to-deploy", readyToDeploy,
-            "pending", statusCounts.getOrDefault("pending", 0L),
-            "un-deployable", statusCounts.getOrDefault("undeployable", 0L),
-            "byod", byod,
-            "archived", statusCounts.getOrDefault("archived", 0L),
-            "requestable", requestable,
-            "due-for-audit", dueForAudit,
-            "due-for-checkin", dueForCheckin
-        );
+        return assetAggregates.getCounts();
     }
 
     @Override
     public Map<String, Object> getAssetStats() {
-        List<Asset> all = assetRepository.findAll();
-        List<StatusLabel> statuses = statusLabelRepository.findAll();
-        
-        long maintenanceAssets = statuses.stream()
-            .filter(s -> "maintenance".equalsIgnoreCase(s.getStatusType()))
-            .mapToLong(s -> all.stream().filter(a -> s.getId().equals(a.getStatusId())).count())
-            .sum();
-        
-        long disposedAssets = statuses.stream()
-            .filter(s -> "archived".equalsIgnoreCase(s.getStatusType()))
-            .mapToLong(s -> all.stream().filter(a -> s.getId().equals(a.getStatusId())).count())
-            .sum();
-        
-        BigDecimal totalValue = all.stream()
-            .filter(a -> a.getPurchaseCost() != null)
-            .map(Asset::getPurchaseCost)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal totalCurrentValue = all.stream()
-            .map(this::calculateCurrentValue)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        double depreciationRate = totalValue.compareTo(BigDecimal.ZERO) > 0 
-            ? totalValue.subtract(totalCurrentValue).divide(totalValue, 4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100)).doubleValue()
-            : 0.0;
-        
-        return Map.of(
-            "totalAssets", all.size(),
-            "activeAssets", all.stream().filter(a -> a.getAssignedTo() != null).count(),
-            "maintenanceAssets", maintenanceAssets,
-            "disposedAssets", disposedAssets,
-            "totalValue", totalValue,
-            "depreciationRate", depreciationRate
-        );
-    }
-    
-    private BigDecimal calculateCurrentValue(Asset asset) {
-        if (asset.getPurchaseDate() == null || asset.getPurchaseCost() == null || asset.getModelId() == null) {
-            return asset.getPurchaseCost() != null ? asset.getPurchaseCost() : BigDecimal.ZERO;
-        }
-        
-        return assetModelRepository.findById(asset.getModelId())
-            .flatMap(model -> model.getDepreciationId() != null 
-                ? depreciationRepository.findById(model.getDepreciationId()) 
-                : Optional.empty())
-            .map(depreciation -> {
-                long monthsPassed = ChronoUnit.MONTHS.between(asset.getPurchaseDate(), LocalDate.now());
-                int totalMonths = depreciation.getMonths();
-                BigDecimal purchaseCost = asset.getPurchaseCost();
-                BigDecimal floorValue = depreciation.getDepreciationMin();
-                
-                BigDecimal depreciableAmount = purchaseCost.subtract(floorValue);
-                BigDecimal monthlyDepreciation = depreciableAmount.divide(BigDecimal.valueOf(totalMonths), 2, RoundingMode.HALF_UP);
-                BigDecimal totalDepreciation = monthlyDepreciation.multiply(BigDecimal.valueOf(Math.min(monthsPassed, totalMonths)));
-                
-                return purchaseCost.subtract(totalDepreciation).max(floorValue);
-            })
-            .orElse(asset.getPurchaseCost());
+        return assetAggregates.getStats();
     }
 
     @Override
@@ -559,6 +537,8 @@ public class AssetServiceImpl implements AssetService {
 
 
     public List<Map<String, Object>> getAllCategories() {
+        // qty is the number of assets with any model, the same for every category
+        long assetsWithModel = assetRepository.countByModelIdIsNotNull();
         return categoryRepository.findAll().stream()
             .map(c -> {
                 Map<String, Object> map = new HashMap<>();
@@ -567,7 +547,7 @@ public class AssetServiceImpl implements AssetService {
                 map.put("type", c.getCategoryType());
                 map.put("image", c.getImage());
                 map.put("acceptance", c.getRequireAcceptance());
-                map.put("qty", assetRepository.findAll().stream().filter(a -> a.getModelId() != null).count());
+                map.put("qty", assetsWithModel);
                 return map;
             }).collect(Collectors.toList());
     }
@@ -665,6 +645,7 @@ public class AssetServiceImpl implements AssetService {
 
     @Override
     public List<Map<String, Object>> getAllSuppliers() {
+        Map<Long, Long> assetCounts = toCountMap(assetRepository.countBySupplier());
         return supplierRepository.findAll().stream()
             .map(s -> {
                 Map<String, Object> map = new HashMap<>();
@@ -674,7 +655,7 @@ public class AssetServiceImpl implements AssetService {
                 map.put("city", s.getCity());
                 map.put("state", s.getState());
                 map.put("url", s.getUrl());
-                map.put("assets", assetRepository.findAll().stream().filter(a -> s.getId().equals(a.getSupplierId())).count());
+                map.put("assets", assetCounts.getOrDefault(s.getId(), 0L));
                 return map;
             }).collect(Collectors.toList());
     }
@@ -719,6 +700,7 @@ public class AssetServiceImpl implements AssetService {
 
     @Override
     public List<Map<String, Object>> getAllLocations() {
+        Map<Long, Long> assetCounts = toCountMap(assetRepository.countByLocation());
         return locationRepository.findAll().stream()
             .map(l -> {
                 Map<String, Object> map = new HashMap<>();
@@ -728,7 +710,7 @@ public class AssetServiceImpl implements AssetService {
                 map.put("city", l.getCity());
                 map.put("state", l.getState());
                 map.put("parent", l.getParentId());
-                map.put("assets", assetRepository.findAll().stream().filter(a -> l.getId().equals(a.getLocationId())).count());
+                map.put("assets", assetCounts.getOrDefault(l.getId(), 0L));
                 return map;
             }).collect(Collectors.toList());
     }
@@ -771,6 +753,7 @@ public class AssetServiceImpl implements AssetService {
 
     @Override
     public List<Map<String, Object>> getAllModels() {
+        Map<Long, Long> assetCounts = toCountMap(assetRepository.countByModel());
         return assetModelRepository.findAll().stream()
             .map(m -> {
                 Map<String, Object> map = new HashMap<>();
@@ -779,7 +762,7 @@ public class AssetServiceImpl implements AssetService {
                 map.put("modelNo", m.getModelNumber());
                 map.put("image", m.getImage());
                 map.put("minQty", m.getMinAmt());
-                map.put("assets", assetRepository.findAll().stream().filter(a -> m.getId().equals(a.getModelId())).count());
+                map.put("assets", assetCounts.getOrDefault(m.getId(), 0L));
                 return map;
             }).collect(Collectors.toList());
     }
@@ -805,6 +788,7 @@ public class AssetServiceImpl implements AssetService {
         if (data.containsKey("name")) model.setName((String) data.get("name"));
         if (data.containsKey("modelNo")) model.setModelNumber((String) data.get("modelNo"));
         AssetModel saved = assetModelRepository.save(model);
+        depreciationLedger.refreshModel(saved.getId());
         Map<String, Object> result = new HashMap<>();
         result.put("id", saved.getId());
         result.put("name", saved.getName());
@@ -815,17 +799,19 @@ public class AssetServiceImpl implements AssetService {
     @Transactional
     public void deleteModel(Long id) {
         assetModelRepository.deleteById(id);
+        depreciationLedger.refreshModel(id);
     }
 
     @Override
     public List<Map<String, Object>> getAllStatusLabels() {
+        Map<Long, Long> assetCounts = toCountMap(assetRepository.countByStatus());
         return statusLabelRepository.findAll().stream()
             .map(s -> {
                 Map<String, Object> map = new HashMap<>();
                 map.put("id", s.getId());
                 map.put("name", s.getName());
                 map.put("statusType", s.getStatusType());
-                map.put("assets", assetRepository.findAll().stream().filter(a -> s.getId().equals(a.getStatusId())).count());
+                map.put("assets", assetCounts.getOrDefault(s.getId(), 0L));
                 return map;
             }).collect(Collectors.toList());
     }
@@ -850,6 +836,7 @@ public class AssetServiceImpl implements AssetService {
         if (data.containsKey("name")) statusLabel.setName((String) data.get("name"));
         if (data.containsKey("statusType")) statusLabel.setStatusType((String) data.get("statusType"));
         StatusLabel saved = statusLabelRepository.save(statusLabel);
+        assetAggregates.invalidate();
         Map<String, Object> result = new HashMap<>();
         result.put("id", saved.getId());
         result.put("name", saved.getName());
@@ -860,10 +847,13 @@ public class AssetServiceImpl implements AssetService {
     @Transactional
     public void deleteStatusLabel(Long id) {
         statusLabelRepository.deleteById(id);
+        assetAggregates.invalidate();
     }
 
     @Override
     public List<Map<String, Object>> getAllDepreciations() {
+        Map<Long, Long> assetCounts = toCountMap(assetRepository.countByDepreciation());
+        Map<Long, Long> modelCounts = toCountMap(assetModelRepository.countByDepreciation());
         return depreciationRepository.findAll().stream()
             .map(d -> {
                 Map<String, Object> map = new HashMap<>();
@@ -871,8 +861,8 @@ public class AssetServiceImpl implements AssetService {
                 map.put("name", d.getName());
                 map.put("term", d.getMonths() + " months");
                 map.put("floorValue", d.getDepreciationMin());
-                map.put("assets", assetModelRepository.findAll().stream().filter(m -> d.getId().equals(m.getDepreciationId())).mapToLong(m -> assetRepository.findAll().stream().filter(a -> m.getId().equals(a.getModelId())).count()).sum());
-                map.put("assetModels", assetModelRepository.findAll().stream().filter(m -> d.getId().equals(m.getDepreciationId())).count());
+                map.put("assets", assetCounts.getOrDefault(d.getId(), 0L));
+                map.put("assetModels", modelCounts.getOrDefault(d.getId(), 0L));
                 return map;
             }).collect(Collectors.toList());
     }
@@ -899,6 +889,7 @@ public class AssetServiceImpl implements AssetService {
         if (data.containsKey("months")) depreciation.setMonths(((Number) data.get("months")).intValue());
         if (data.containsKey("floorValue")) depreciation.setDepreciationMin(new BigDecimal(data.get("floorValue").toString()));
         Depreciation saved = depreciationRepository.save(depreciation);
+        depreciationLedger.refreshDepreciation(saved.getId());
         Map<String, Object> result = new HashMap<>();
         result.put("id", saved.getId());
         result.put("name", saved.getName());
@@ -909,16 +900,18 @@ public class AssetServiceImpl implements AssetService {
     @Transactional
     public void deleteDepreciation(Long id) {
         depreciationRepository.deleteById(id);
+        depreciationLedger.refreshDepreciation(id);
     }
 
     @Override
     public List<Map<String, Object>> getAllCompanies() {
+        Map<Long, Long> assetCounts = toCountMap(assetRepository.countByCompany());
         return companyRepository.findAll().stream()
             .map(c -> {
                 Map<String, Object> map = new HashMap<>();
                 map.put("id", c.getId());
                 map.put("name", c.getName());
-                map.put("assets", assetRepository.findAll().stream().filter(a -> c.getId().equals(a.getCompanyId())).count());
+                map.put("assets", assetCounts.getOrDefault(c.getId(), 0L));
                 return map;
             }).collect(Collectors.toList());
     }
@@ -1000,54 +993,22 @@ public class AssetServiceImpl implements AssetService {
 
     @Override
     public List<Map<String, Object>> getDepreciationReport() {
-        List<Asset> assets = assetRepository.findAll();
-        List<Map<String, Object>> report = new ArrayList<>();
-        
-        for (Asset asset : assets) {
-            if (asset.getPurchaseDate() == null || asset.getPurchaseCost() == null || asset.getModelId() == null) {
-                continue;
-            }
-            
-            AssetModel model = assetModelRepository.findById(asset.getModelId()).orElse(null);
-            if (model == null || model.getDepreciationId() == null) {
-                continue;
-            }
-            
-            Depreciation depreciation = depreciationRepository.findById(model.getDepreciationId()).orElse(null);
-            if (depreciation == null) {
-                continue;
-            }
-            
-            // Calculate depreciation using straight-line method
-            long monthsPassed = ChronoUnit.MONTHS.between(asset.getPurchaseDate(), LocalDate.now());
-            int totalMonths = depreciation.getMonths();
-            BigDecimal purchaseCost = asset.getPurchaseCost();
-            BigDecimal floorValue = depreciation.getDepreciationMin();
-            
-            BigDecimal depreciableAmount = purchaseCost.subtract(floorValue);
-            BigDecimal monthlyDepreciation = depreciableAmount.divide(BigDecimal.valueOf(totalMonths), 2, RoundingMode.HALF_UP);
-            
-            BigDecimal totalDepreciation = monthlyDepreciation.multiply(BigDecimal.valueOf(Math.min(monthsPassed, totalMonths)));
-            BigDecimal currentValue = purchaseCost.subtract(totalDepreciation).max(floorValue);
-            
-            Map<String, Object> record = new HashMap<>();
-            record.put("id", asset.getId());
-            record.put("assetTag", asset.getAssetTag());
-            record.put("model", model.getName());
-            record.put("modelNo", model.getModelNumber());
-            record.put("serial", asset.getSerial());
-            record.put("depreciation", depreciation.getName());
-            record.put("numberOfMonths", totalMonths);
-            record.put("purchaseDate", asset.getPurchaseDate().toString());
-            record.put("purchaseCost", purchaseCost);
-            record.put("currentValue", currentValue);
-            record.put("monthlyDepreciation", monthlyDepreciation);
-            record.put("diff", totalDepreciation);
-            
-            report.add(record);
-        }
-        
-        return report;
+        return depreciationLedger.report(YearMonth.now());
+    }
+
+    @Override
+    public List<Map<String, Object>> getDepreciationReport(YearMonth period) {
+        return depreciationLedger.report(period);
+    }
+
+    @Override
+    public void streamDepreciationReport(YearMonth period, int chunkSize, Consumer<List<Map<String, Object>>> sink) {
+        depreciationLedger.streamReport(period, chunkSize, sink);
+    }
+
+    @Override
+    public int rebuildDepreciationLedger(YearMonth period) {
+        return depreciationLedger.rollForward(period);
     }
 
     @Override
@@ -1086,6 +1047,7 @@ public class AssetServiceImpl implements AssetService {
             }
             assetRepository.save(asset);
         });
+        assetAggregates.invalidate();
         
         String userName = getUserName(audit.getAuditedBy());
         assetRepository.findById(audit.getAssetId()).ifPresent(asset -> {
@@ -1145,8 +1107,11 @@ public class AssetServiceImpl implements AssetService {
 
     @Override
     public List<Map<String, Object>> getAllAssetAudits() {
-        return assetAuditRepository.findAll().stream()
-            .map(this::convertAuditToMap)
+        List<AssetAudit> audits = assetAuditRepository.findAll();
+        AssetReadModel.References references = assetReadModel.references();
+        references.loadForAudits(audits);
+        return audits.stream()
+            .map(audit -> convertAuditToMap(audit, references))
             .collect(Collectors.toList());
     }
 
@@ -1158,6 +1123,12 @@ public class AssetServiceImpl implements AssetService {
     }
 
     private Map<String, Object> convertAuditToMap(AssetAudit audit) {
+        AssetReadModel.References references = assetReadModel.references();
+        references.loadForAudits(List.of(audit));
+        return convertAuditToMap(audit, references);
+    }
+
+    private Map<String, Object> convertAuditToMap(AssetAudit audit, AssetReadModel.References references) {
         Map<String, Object> map = new HashMap<>();
         map.put("id", audit.getId());
         map.put("assetId", audit.getAssetId());
@@ -1173,122 +1144,35 @@ public class AssetServiceImpl implements AssetService {
         map.put("updatedAt", audit.getUpdatedAt());
         
         // Add asset details
-        assetRepository.findById(audit.getAssetId()).ifPresent(asset -> {
+        Asset asset = references.asset(audit.getAssetId());
+        if (asset != null) {
             map.put("assetTag", asset.getAssetTag());
             map.put("assetName", asset.getName());
-            if (asset.getModelId() != null) {
-                assetModelRepository.findById(asset.getModelId()).ifPresent(model -> {
-                    map.put("modelName", model.getName());
-                });
+            AssetModel model = references.model(asset.getModelId());
+            if (model != null) {
+                map.put("modelName", model.getName());
             }
-        });
+        }
         
         // Add location name
-        if (audit.getLocationId() != null) {
-            locationRepository.findById(audit.getLocationId()).ifPresent(location -> {
-                map.put("locationName", location.getName());
-            });
+        Location location = references.location(audit.getLocationId());
+        if (location != null) {
+            map.put("locationName", location.getName());
         }
         
         return map;
     }
 
     private AssetDTO convertToDTO(Asset asset) {
-        AssetDTO dto = new AssetDTO();
-        dto.setId(asset.getId());
-        dto.setAssetTag(asset.getAssetTag());
-        dto.setName(asset.getName());
-        dto.setSerial(asset.getSerial());
-        dto.setModelId(asset.getModelId());
-        dto.setStatusId(asset.getStatusId());
-        dto.setPurchaseDate(asset.getPurchaseDate());
-        dto.setPurchaseCost(asset.getPurchaseCost());
-        dto.setEolDate(asset.getEolDate());
-        dto.setNotes(asset.getNotes());
-        dto.setExpectedCheckin(asset.getExpectedCheckin());
-        dto.setNextAuditDate(asset.getNextAuditDate());
-        dto.setImage(asset.getImage());
-        dto.setOrderNumber(asset.getOrderNumber());
-        dto.setWarrantyMonths(asset.getWarrantyMonths());
-        dto.setCompanyId(asset.getCompanyId());
-        dto.setLocationId(asset.getLocationId());
-        dto.setRtdLocationId(asset.getRtdLocationId());
-        dto.setSupplierId(asset.getSupplierId());
-        dto.setAssignedTo(asset.getAssignedTo());
-        dto.setAssignedType(asset.getAssignedType());
-        
-        // Populate related entity names
-        if (asset.getStatusId() != null) {
-            statusLabelRepository.findById(asset.getStatusId())
-                .ifPresent(status -> dto.setStatusName(status.getName()));
-        }
-        
-        if (asset.getModelId() != null) {
-            assetModelRepository.findById(asset.getModelId()).ifPresent(model -> {
-                dto.setModelName(model.getName());
-                dto.setModelNumber(model.getModelNumber());
-                if (model.getCategoryId() != null) {
-                    categoryRepository.findById(model.getCategoryId())
-                        .ifPresent(category -> dto.setCategoryName(category.getName()));
-                }
-                if (model.getManufacturerId() != null) {
-                    manufacturerRepository.findById(model.getManufacturerId())
-                        .ifPresent(manufacturer -> dto.setManufacturerName(manufacturer.getName()));
-                }
-                
-                // Calculate current value with depreciation
-                if (asset.getPurchaseDate() != null && asset.getPurchaseCost() != null && model.getDepreciationId() != null) {
-                    depreciationRepository.findById(model.getDepreciationId()).ifPresent(depreciation -> {
-                        long monthsPassed = ChronoUnit.MONTHS.between(asset.getPurchaseDate(), LocalDate.now());
-                        int totalMonths = depreciation.getMonths();
-                        BigDecimal purchaseCost = asset.getPurchaseCost();
-                        BigDecimal floorValue = depreciation.getDepreciationMin();
-                        
-                        BigDecimal depreciableAmount = purchaseCost.subtract(floorValue);
-                        BigDecimal monthlyDepreciation = depreciableAmount.divide(BigDecimal.valueOf(totalMonths), 2, RoundingMode.HALF_UP);
-                        BigDecimal totalDepreciation = monthlyDepreciation.multiply(BigDecimal.valueOf(Math.min(monthsPassed, totalMonths)));
-                        BigDecimal currentValue = purchaseCost.subtract(totalDepreciation).max(floorValue);
-                        
-                        dto.setCurrentValue(currentValue);
-                    });
-                } else if (asset.getPurchaseCost() != null) {
-                    // If no depreciation, current value equals purchase cost
-                    dto.setCurrentValue(asset.getPurchaseCost());
-                }
-            });
-        }
-        
-        if (asset.getCompanyId() != null) {
-            companyRepository.findById(asset.getCompanyId())
-                .ifPresent(company -> dto.setCompanyName(company.getName()));
-        }
-        
-        if (asset.getLocationId() != null) {
-            locationRepository.findById(asset.getLocationId())
-                .ifPresent(location -> dto.setLocationName(location.getName()));
-        }
-        
-        if (asset.getRtdLocationId() != null) {
-            locationRepository.findById(asset.getRtdLocationId())
-                .ifPresent(location -> dto.setRtdLocationName(location.getName()));
-        }
-        
-        if (asset.getSupplierId() != null) {
-            supplierRepository.findById(asset.getSupplierId())
-                .ifPresent(supplier -> dto.setSupplierName(supplier.getName()));
-        }
-        
-        // Populate assigned user name
-        if (asset.getAssignedTo() != null && "user".equalsIgnoreCase(asset.getAssignedType())) {
-            userRepository.findById(asset.getAssignedTo()).ifPresent(user -> {
-                String fullName = (user.getFirstName() != null ? user.getFirstName() : "") + 
-                                  " " + 
-                                  (user.getLastName() != null ? user.getLastName() : "");
-                dto.setAssignedToName(fullName.trim());
-            });
+        return assetReadModel.toDTO(asset);
+    }
+
+    private static Map<Long, Long> toCountMap(List<AssetRepository.GroupCount> counts) {
+        Map<Long, Long> result = new HashMap<>();
+        for (AssetRepository.GroupCount count : counts) {
+            result.put(count.getGroupId(), count.getTotal());
         }
-        
-        return dto;
+        return result;
     }
 
     private String getUserName(Long userId) {
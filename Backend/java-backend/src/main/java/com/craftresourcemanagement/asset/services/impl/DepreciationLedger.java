@@ -0,0 +1,300 @@
+package com.craftresourcemanagement.asset.services.impl;
+
+import com.craftresourcemanagement.asset.entities.Asset;
+import com.craftresourcemanagement.asset.entities.AssetDepreciationSnapshot;
+import com.craftresourcemanagement.asset.entities.AssetModel;
+import com.craftresourcemanagement.asset.entities.Depreciation;
+import com.craftresourcemanagement.asset.repositories.AssetDepreciationSnapshotRepository;
+import com.craftresourcemanagement.asset.repositories.AssetModelRepository;
+import com.craftresourcemanagement.asset.repositories.AssetRepository;
+import com.craftresourcemanagement.asset.repositories.DepreciationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Month-end depreciation snapshots per asset, kept in {@code asset_depreciation_snapshots}.
+ * <p>
+ * The current month is rebuilt in chunks by {@link #rollForward(YearMonth)} (monthly job, or
+ * lazily on the first report of a month) and then kept up to date row by row as assets,
+ * models and schedules change. Earlier months are left as closed, so the report can show
+ * what each asset lost since the previous month.
+ */
+@Component
+public class DepreciationLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepreciationLedger.class);
+
+    private final AssetRepository assetRepository;
+    private final AssetModelRepository assetModelRepository;
+    private final DepreciationRepository depreciationRepository;
+    private final AssetDepreciationSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock rollLock = new ReentrantLock();
+
+    @Value("${asset.depreciation.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public DepreciationLedger(AssetRepository assetRepository,
+                              AssetModelRepository assetModelRepository,
+                              DepreciationRepository depreciationRepository,
+                              AssetDepreciationSnapshotRepository snapshotRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.assetRepository = assetRepository;
+        this.assetModelRepository = assetModelRepository;
+        this.depreciationRepository = depreciationRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Recomputes every snapshot of the month, one transaction per chunk of assets. */
+    public int rollForward(YearMonth month) {
+        rollLock.lock();
+        try {
+            LocalDate period = month.atDay(1);
+            Schedules schedules = new Schedules(assetModelRepository.findAll(), depreciationRepository.findAll());
+            int written = 0;
+            Long lastId = 0L;
+            while (true) {
+                List<Asset> chunk = assetRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                Integer saved = transactionTemplate.execute(status -> write(period, chunk, schedules));
+                written += saved != null ? saved : 0;
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+            logger.info("Depreciation ledger for {}: {} assets", month, written);
+            return written;
+        } finally {
+            rollLock.unlock();
+        }
+    }
+
+    /** Refreshes the current month for the given assets; ids of deleted assets drop their row. */
+    @Transactional
+    public void refreshAssets(Collection<Long> assetIds) {
+        LocalDate period = YearMonth.now().atDay(1);
+        if (assetIds.isEmpty() || !snapshotRepository.existsByPeriod(period)) {
+            // Nothing to keep current until the month has been rolled forward
+            return;
+        }
+        List<Asset> assets = assetRepository.findAllById(assetIds);
+        Set<Long> deleted = new HashSet<>(assetIds);
+        assets.forEach(asset -> deleted.remove(asset.getId()));
+        if (!deleted.isEmpty()) {
+            snapshotRepository.deleteByPeriodAndAssetIds(period, deleted);
+        }
+        write(period, assets, Schedules.loadFor(assets, assetModelRepository, depreciationRepository));
+    }
+
+    @Transactional
+    public void refreshModel(Long modelId) {
+        refreshAssets(assetRepository.findIdsByModelIdIn(List.of(modelId)));
+    }
+
+    @Transactional
+    public void refreshDepreciation(Long depreciationId) {
+        List<Long> modelIds = assetModelRepository.findIdsByDepreciationId(depreciationId);
+        if (!modelIds.isEmpty()) {
+            refreshAssets(assetRepository.findIdsByModelIdIn(modelIds));
+        }
+    }
+
+    public List<Map<String, Object>> report(YearMonth month) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        streamReport(month, chunkSize, rows::addAll);
+        return rows;
+    }
+
+    /**
+     * Hands the month's rows to {@code sink} in asset id order, each with the value lost since
+     * the previous month's snapshot. The current month is built first if it does not exist.
+     */
+    public void streamReport(YearMonth month, int size, Consumer<List<Map<String, Object>>> sink) {
+        LocalDate period = month.atDay(1);
+        LocalDate previousPeriod = month.minusMonths(1).atDay(1);
+        if (month.equals(YearMonth.now())) {
+            ensureRolled(month);
+        }
+        Long lastId = 0L;
+        while (true) {
+            List<AssetDepreciationSnapshot> chunk = snapshotRepository
+                .findByPeriodAndAssetIdGreaterThanOrderByAssetIdAsc(period, lastId, PageRequest.of(0, size));
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Map<Long, AssetDepreciationSnapshot> previous = new HashMap<>();
+            List<Long> ids = chunk.stream().map(AssetDepreciationSnapshot::getAssetId).toList();
+            for (AssetDepreciationSnapshot snapshot : snapshotRepository.findByPeriodAndAssetIdIn(previousPeriod, ids)) {
+                previous.put(snapshot.getAssetId(), snapshot);
+            }
+            sink.accept(chunk.stream().map(s -> toRow(s, previous.get(s.getAssetId()), previousPeriod)).toList());
+            if (chunk.size() < size) {
+                return;
+            }
+            lastId = chunk.get(chunk.size() - 1).getAssetId();
+        }
+    }
+
+    private void ensureRolled(YearMonth month) {
+        // A roll forward in progress has only committed part of the month
+        if (!rollLock.isLocked() && snapshotRepository.existsByPeriod(month.atDay(1))) {
+            return;
+        }
+        rollLock.lock();
+        try {
+            if (!snapshotRepository.existsByPeriod(month.atDay(1))) {
+                rollForward(month);
+            }
+        } finally {
+            rollLock.unlock();
+        }
+    }
+
+    private int write(LocalDate period, List<Asset> assets, Schedules schedules) {
+        if (assets.isEmpty()) {
+            return 0;
+        }
+        Map<Long, AssetDepreciationSnapshot> existing = new HashMap<>();
+        for (AssetDepreciationSnapshot snapshot : snapshotRepository.findByPeriodAndAssetIdIn(period,
+                assets.stream().map(Asset::getId).toList())) {
+            existing.put(snapshot.getAssetId(), snapshot);
+        }
+
+        LocalDate asOf = YearMonth.from(period).atEndOfMonth();
+        List<AssetDepreciationSnapshot> updated = new ArrayList<>();
+        List<Long> stale = new ArrayList<>();
+        for (Asset asset : assets) {
+            AssetModel model = asset.getModelId() != null ? schedules.models().get(asset.getModelId()) : null;
+            Depreciation depreciation = model != null && model.getDepreciationId() != null
+                ? schedules.depreciations().get(model.getDepreciationId()) : null;
+            AssetDepreciationSnapshot snapshot = existing.get(asset.getId());
+            if (!isDepreciable(asset, depreciation, asOf)) {
+                if (snapshot != null) {
+                    stale.add(asset.getId());
+                }
+                continue;
+            }
+            if (snapshot == null) {
+                snapshot = new AssetDepreciationSnapshot();
+                snapshot.setPeriod(period);
+                snapshot.setAssetId(asset.getId());
+            }
+            fill(snapshot, asset, model, depreciation, asOf);
+            updated.add(snapshot);
+        }
+        if (!stale.isEmpty()) {
+            snapshotRepository.deleteByPeriodAndAssetIds(period, stale);
+        }
+        snapshotRepository.saveAll(updated);
+        return updated.size();
+    }
+
+    private static boolean isDepreciable(Asset asset, Depreciation depreciation, LocalDate asOf) {
+        return depreciation != null
+            && depreciation.getMonths() != null && depreciation.getMonths() > 0
+            && asset.getPurchaseCost() != null
+            && asset.getPurchaseDate() != null && !asset.getPurchaseDate().isAfter(asOf);
+    }
+
+    static void fill(AssetDepreciationSnapshot snapshot, Asset asset, AssetModel model, Depreciation depreciation, LocalDate asOf) {
+        // Straight-line method, never below the schedule's floor value
+        int totalMonths = depreciation.getMonths();
+        long monthsPassed = ChronoUnit.MONTHS.between(asset.getPurchaseDate(), asOf);
+        BigDecimal purchaseCost = asset.getPurchaseCost();
+        BigDecimal floorValue = depreciation.getDepreciationMin() != null ? depreciation.getDepreciationMin() : BigDecimal.ZERO;
+
+        BigDecimal monthlyDepreciation = purchaseCost.subtract(floorValue)
+            .divide(BigDecimal.valueOf(totalMonths), 2, RoundingMode.HALF_UP);
+        BigDecimal totalDepreciation = monthlyDepreciation.multiply(BigDecimal.valueOf(Math.min(monthsPassed, totalMonths)));
+
+        snapshot.setAssetTag(asset.getAssetTag());
+        snapshot.setSerial(asset.getSerial());
+        snapshot.setModelId(model.getId());
+        snapshot.setModelName(model.getName());
+        snapshot.setModelNumber(model.getModelNumber());
+        snapshot.setDepreciationId(depreciation.getId());
+        snapshot.setDepreciationName(depreciation.getName());
+        snapshot.setNumberOfMonths(totalMonths);
+        snapshot.setPurchaseDate(asset.getPurchaseDate());
+        snapshot.setPurchaseCost(purchaseCost);
+        snapshot.setMonthlyDepreciation(monthlyDepreciation);
+        snapshot.setAccumulatedDepreciation(totalDepreciation);
+        snapshot.setCurrentValue(purchaseCost.subtract(totalDepreciation).max(floorValue));
+    }
+
+    static Map<String, Object> toRow(AssetDepreciationSnapshot snapshot, AssetDepreciationSnapshot previous, LocalDate previousPeriod) {
+        // Assets bought after the previous month closed start from their purchase cost
+        BigDecimal previousValue = previous != null ? previous.getCurrentValue()
+            : snapshot.getPurchaseDate().isAfter(YearMonth.from(previousPeriod).atEndOfMonth()) ? snapshot.getPurchaseCost()
+            : null;
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", snapshot.getAssetId());
+        row.put("period", YearMonth.from(snapshot.getPeriod()).toString());
+        row.put("assetTag", snapshot.getAssetTag());
+        row.put("model", snapshot.getModelName());
+        row.put("modelNo", snapshot.getModelNumber());
+        row.put("serial", snapshot.getSerial());
+        row.put("depreciation", snapshot.getDepreciationName());
+        row.put("numberOfMonths", snapshot.getNumberOfMonths());
+        row.put("purchaseDate", snapshot.getPurchaseDate().toString());
+        row.put("purchaseCost", snapshot.getPurchaseCost());
+        row.put("currentValue", snapshot.getCurrentValue());
+        row.put("monthlyDepreciation", snapshot.getMonthlyDepreciation());
+        row.put("diff", snapshot.getAccumulatedDepreciation());
+        row.put("previousValue", previousValue);
+        row.put("periodDepreciation", previousValue != null ? previousValue.subtract(snapshot.getCurrentValue()) : null);
+        return row;
+    }
+
+    /** Models and schedules by id. */
+    private record Schedules(Map<Long, AssetModel> models, Map<Long, Depreciation> depreciations) {
+
+        Schedules(List<AssetModel> models, List<Depreciation> depreciations) {
+            this(index(models, AssetModel::getId), index(depreciations, Depreciation::getId));
+        }
+
+        static Schedules loadFor(List<Asset> assets, AssetModelRepository modelRepository, DepreciationRepository depreciationRepository) {
+            Set<Long> modelIds = new HashSet<>();
+            assets.forEach(asset -> {
+                if (asset.getModelId() != null) {
+                    modelIds.add(asset.getModelId());
+                }
+            });
+            List<AssetModel> models = modelRepository.findAllById(modelIds);
+            Set<Long> depreciationIds = new HashSet<>();
+            models.forEach(model -> {
+                if (model.getDepreciationId() != null) {
+                    depreciationIds.add(model.getDepreciationId());
+                }
+            });
+            return new Schedules(models, depreciationRepository.findAllById(depreciationIds));
+        }
+
+        private static <T> Map<Long, T> index(List<T> rows, Function<T, Long> idOf) {
+            Map<Long, T> byId = new HashMap<>();
+            rows.forEach(row -> byId.put(idOf.apply(row), row));
+            return byId;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
@@ -21,6 +22,24 @@ public class AsyncConfig {
     @Value("${audit.executor.queue-capacity:100}")
     private int queueCapacity;
 
+    @Value("${payroll.executor.core-pool-size:4}")
+    private int payrollCorePoolSize;
+
+    @Value("${payroll.executor.max-pool-size:8}")
+    private int payrollMaxPoolSize;
+
+    @Value("${payroll.executor.queue-capacity:50}")
+    private int payrollQueueCapacity;
+
+    @Value("${notifications.executor.core-pool-size:4}")
+    private int notificationCorePoolSize;
+
+    @Value("${notifications.executor.max-pool-size:8}")
+    private int notificationMaxPoolSize;
+
+    @Value("${notifications.executor.queue-capacity:200}")
+    private int notificationQueueCapacity;
+
     @Bean(name = "auditExecutor")
     public Executor auditExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -33,4 +52,40 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Bounded pool for payroll chunk computation. When the queue is full the
+     * submitting thread runs the chunk itself, which throttles submission.
+     */
+    @Bean(name = "payrollExecutor")
+    public Executor payrollExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(payrollCorePoolSize);
+        executor.setMaxPoolSize(payrollMaxPoolSize);
+        executor.setQueueCapacity(payrollQueueCapacity);
+        executor.setThreadNamePrefix("payroll-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(120);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded pool for outbound notification deliveries. Like the payroll pool,
+     * a full queue makes the submitting job thread deliver the message itself.
+     */
+    @Bean(name = "notificationExecutor")
+    public Executor notificationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(notificationCorePoolSize);
+        executor.setMaxPoolSize(notificationMaxPoolSize);
+        executor.setQueueCapacity(notificationQueueCapacity);
+        executor.setThreadNamePrefix("notify-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,50 @@
+package com.craftresourcemanagement.config;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Builds WebClients for the Node.js and Python services on one shared
+ * connection pool, with connect and response timeouts applied.
+ */
+@Component
+public class IntegrationWebClientFactory {
+
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient httpClient;
+
+    public IntegrationWebClientFactory(@Value("${integration.http.max-connections:50}") int maxConnections,
+                                       @Value("${integration.http.connect-timeout-ms:2000}") int connectTimeoutMs,
+                                       @Value("${integration.http.response-timeout-ms:5000}") long responseTimeoutMs,
+                                       @Value("${integration.http.max-idle-seconds:30}") long maxIdleSeconds) {
+        this.connectionProvider = ConnectionProvider.builder("hr-integration")
+            .maxConnections(maxConnections)
+            .pendingAcquireTimeout(Duration.ofMillis(responseTimeoutMs))
+            .maxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+            .build();
+        this.httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+            .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+    }
+
+    public WebClient create(String baseUrl) {
+        return WebClient.builder()
+            .baseUrl(baseUrl)
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionProvider.dispose();
+    }
+}
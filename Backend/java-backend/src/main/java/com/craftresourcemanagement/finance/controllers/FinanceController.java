@@ -2,11 +2,13 @@ package com.craftresourcemanagement.finance.controllers;
 
 import com.craftresourcemanagement.finance.entities.*;
 import com.craftresourcemanagement.finance.services.FinanceService;
-import com.craftresourcemanagement.finance.services.AccountingIntegrationService;
+import com.craftresourcemanagement.finance.services.impl.DepartmentClient;
 import com.craftresourcemanagement.finance.dto.BudgetResponse;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -15,11 +17,11 @@ import java.util.Map;
 public class FinanceController {
 
     private final FinanceService financeService;
-    private final AccountingIntegrationService accountingIntegrationService;
+    private final DepartmentClient departmentClient;
 
-    public FinanceController(FinanceService financeService, AccountingIntegrationService accountingIntegrationService) {
+    public FinanceController(FinanceService financeService, DepartmentClient departmentClient) {
         this.financeService = financeService;
-        this.accountingIntegrationService = accountingIntegrationService;
+        this.departmentClient = departmentClient;
     }
 
     // Chart of Account endpoints
@@ -34,8 +36,9 @@ public class FinanceController {
     }
 
     @GetMapping("/accounts")
-    public ResponseEntity<List<ChartOfAccount>> getAllChartOfAccounts() {
-        return ResponseEntity.ok(financeService.getAllChartOfAccounts());
+    public ResponseEntity<List<ChartOfAccount>> getAllChartOfAccounts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(financeService.getChartOfAccountsAsOf(asOf));
     }
 
     @GetMapping("/accounts/{id}")
@@ -75,6 +78,11 @@ public class FinanceController {
         return ResponseEntity.ok(budgets);
     }
 
+    @GetMapping("/departments/cache/metrics")
+    public ResponseEntity<Map<String, Object>> getDepartmentCacheMetrics() {
+        return ResponseEntity.ok(departmentClient.getMetrics());
+    }
+
     @GetMapping("/budgets/{id}")
     public ResponseEntity<Budget> getBudgetById(@PathVariable Long id) {
         Budget budget = financeService.getBudgetById(id);
@@ -277,22 +285,15 @@ public class FinanceController {
 
     @PatchMapping("/account-payables/{id}/status")
     public ResponseEntity<AccountPayable> updateAccountPayableStatus(@PathVariable Long id, @RequestBody Map<String, String> statusUpdate) {
-        AccountPayable ap = financeService.getAccountPayableById(id);
-        if (ap == null) {
-            return ResponseEntity.notFound().build();
+        try {
+            AccountPayable updated = financeService.updateAccountPayableStatus(id, statusUpdate.get("status"));
+            if (updated == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(updated);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        String newStatus = statusUpdate.get("status");
-        ap.setStatus(newStatus);
-        AccountPayable updated = financeService.updateAccountPayable(id, ap);
-        
-        // Create journal entries based on status
-        if ("Approved".equals(newStatus)) {
-            accountingIntegrationService.createJournalEntryForPayable(updated);
-        } else if ("Paid".equals(newStatus)) {
-            accountingIntegrationService.createPaymentMadeEntry(updated);
-        }
-        
-        return ResponseEntity.ok(updated);
     }
 
     // Account Receivable endpoints
@@ -332,20 +333,15 @@ public class FinanceController {
 
     @PatchMapping("/account-receivables/{id}/status")
     public ResponseEntity<AccountReceivable> updateAccountReceivableStatus(@PathVariable Long id, @RequestBody Map<String, String> statusUpdate) {
-        AccountReceivable ar = financeService.getAccountReceivableById(id);
-        if (ar == null) {
-            return ResponseEntity.notFound().build();
+        try {
+            AccountReceivable updated = financeService.updateAccountReceivableStatus(id, statusUpdate.get("status"));
+            if (updated == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(updated);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        String newStatus = statusUpdate.get("status");
-        ar.setStatus(newStatus);
-        AccountReceivable updated = financeService.updateAccountReceivable(id, ar);
-        
-        // Create journal entry when invoice is sent
-        if ("Sent".equals(newStatus)) {
-            accountingIntegrationService.createJournalEntryForReceivable(updated);
-        }
-        
-        return ResponseEntity.ok(updated);
     }
 
     // Invoice Number Generation endpoints
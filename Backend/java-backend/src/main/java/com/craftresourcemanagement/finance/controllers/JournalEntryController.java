@@ -2,21 +2,30 @@ package com.craftresourcemanagement.finance.controllers;
 
 import com.craftresourcemanagement.finance.entities.JournalEntry;
 import com.craftresourcemanagement.finance.services.FinanceService;
+import com.craftresourcemanagement.finance.services.JournalPostingEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/journal-entries")
 @CrossOrigin(origins = "*")
 public class JournalEntryController {
 
+    private static final Logger logger = LoggerFactory.getLogger(JournalEntryController.class);
+
     @Autowired
     private FinanceService financeService;
 
+    @Autowired
+    private JournalPostingEngine journalPostingEngine;
+
     @GetMapping
     public ResponseEntity<List<JournalEntry>> getAllJournalEntries() {
         List<JournalEntry> journalEntries = financeService.getAllJournalEntries();
@@ -43,6 +52,40 @@ public class JournalEntryController {
         }
     }
 
+    /**
+     * Posts one balanced transaction with any number of lines.
+     */
+    @PostMapping("/postings")
+    public ResponseEntity<Map<String, Object>> postTransaction(@RequestBody JournalPostingEngine.Posting posting) {
+        try {
+            String entryNumber = journalPostingEngine.post(posting);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(Map.of("entryNumber", entryNumber, "lines", posting.lines().size()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Posts many balanced transactions in chunked transactions. Nothing is written
+     * if any posting is invalid; on a later failure earlier chunks stay committed.
+     */
+    @PostMapping("/postings/bulk")
+    public ResponseEntity<?> postTransactions(@RequestBody List<JournalPostingEngine.Posting> postings) {
+        try {
+            JournalPostingEngine.Progress result = journalPostingEngine.postAll(postings, progress ->
+                    logger.info("Bulk journal posting: {}/{} postings, {} lines committed",
+                            progress.postingsPosted(), progress.postingsTotal(), progress.linesWritten()));
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<JournalEntry> updateJournalEntry(
             @PathVariable Long id,
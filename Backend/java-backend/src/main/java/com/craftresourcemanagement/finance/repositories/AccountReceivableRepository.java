@@ -2,8 +2,15 @@ package com.craftresourcemanagement.finance.repositories;
 
 import com.craftresourcemanagement.finance.entities.AccountReceivable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AccountReceivableRepository extends JpaRepository<AccountReceivable, Long> {
+
+    /** Highest numeric suffix of the invoice numbers starting with {@code prefix}, or null if none. */
+    @Query(value = "SELECT MAX(CAST(SUBSTRING(invoice_number, LENGTH(:prefix) + 1) AS UNSIGNED)) "
+            + "FROM account_receivables WHERE invoice_number LIKE CONCAT(:prefix, '%')", nativeQuery = true)
+    Long findMaxInvoiceSuffix(@Param("prefix") String prefix);
 }
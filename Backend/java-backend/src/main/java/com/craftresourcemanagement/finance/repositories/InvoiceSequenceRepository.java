@@ -23,4 +23,12 @@ public interface InvoiceSequenceRepository extends JpaRepository<InvoiceSequence
     @Modifying
     @Query("UPDATE InvoiceSequence s SET s.lastNumber = s.lastNumber + 1 WHERE s.sequenceType = :sequenceType")
     int incrementSequence(@Param("sequenceType") String sequenceType);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE InvoiceSequence s SET s.lastNumber = s.lastNumber + :count WHERE s.sequenceType = :sequenceType")
+    int reserveBlock(@Param("sequenceType") String sequenceType, @Param("count") long count);
+
+    @Modifying
+    @Query("DELETE FROM InvoiceSequence s WHERE s.sequenceType LIKE :pattern AND s.sequenceType < :cutoff")
+    int deleteKeysBefore(@Param("pattern") String pattern, @Param("cutoff") String cutoff);
 }
@@ -6,12 +6,36 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
 @Repository
 public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long> {
 
-    @Query("SELECT SUM(j.amount) FROM JournalEntry j WHERE j.accountCode = :accountCode")
-    Double calculateBalanceByAccountCode(@Param("accountCode") String accountCode);
-
     @Query("SELECT COUNT(j) FROM JournalEntry j WHERE j.reference LIKE :prefix")
     Long countByReferencePrefix(@Param("prefix") String prefix);
+
+    String ACCOUNT_TOTALS_SELECT = "SELECT j.accountCode AS accountCode, " +
+            "SUM(CASE WHEN j.totalDebit IS NULL AND j.totalCredit IS NULL THEN 0 " +
+            "ELSE COALESCE(j.totalDebit, 0) - COALESCE(j.totalCredit, 0) END) AS debitMinusCredit, " +
+            "SUM(CASE WHEN j.totalDebit IS NULL AND j.totalCredit IS NULL THEN j.amount ELSE 0 END) AS unsidedAmount " +
+            "FROM JournalEntry j ";
+
+    /** Debit/credit totals of every account in one grouped scan. */
+    @Query(ACCOUNT_TOTALS_SELECT + "GROUP BY j.accountCode")
+    List<AccountTotals> sumByAccountCode();
+
+    @Query(ACCOUNT_TOTALS_SELECT + "WHERE j.entryDate <= :asOf GROUP BY j.accountCode")
+    List<AccountTotals> sumByAccountCodeAsOf(@Param("asOf") LocalDate asOf);
+
+    /**
+     * Per-account sums: debits minus credits for sided lines, plus the plain amount of lines
+     * that carry neither a debit nor a credit total.
+     */
+    interface AccountTotals {
+        String getAccountCode();
+        BigDecimal getDebitMinusCredit();
+        BigDecimal getUnsidedAmount();
+    }
 }
@@ -2,15 +2,16 @@ package com.craftresourcemanagement.finance.services;
 
 import com.craftresourcemanagement.finance.entities.AccountPayable;
 import com.craftresourcemanagement.finance.entities.AccountReceivable;
-import com.craftresourcemanagement.finance.entities.JournalEntry;
-import com.craftresourcemanagement.finance.repositories.JournalEntryRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.craftresourcemanagement.finance.services.JournalPostingEngine.Line;
+import com.craftresourcemanagement.finance.services.JournalPostingEngine.Posting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * Service to integrate Accounts Payable/Receivable with Journal Entries
@@ -19,14 +20,12 @@ import java.time.format.DateTimeFormatter;
 @Service
 public class AccountingIntegrationService {
 
-    @Autowired
-    private JournalEntryRepository journalEntryRepository;
+    private static final Logger logger = LoggerFactory.getLogger(AccountingIntegrationService.class);
 
-    private String generateEntryNumber(String suffix) {
-        LocalDate now = LocalDate.now();
-        String dateStr = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = journalEntryRepository.count() + 1;
-        return String.format("JE-%s-%03d-%s", dateStr, count, suffix);
+    private final JournalPostingEngine journalPostingEngine;
+
+    public AccountingIntegrationService(JournalPostingEngine journalPostingEngine) {
+        this.journalPostingEngine = journalPostingEngine;
     }
 
     /**
@@ -36,37 +35,13 @@ public class AccountingIntegrationService {
      */
     @Transactional
     public void createJournalEntryForPayable(AccountPayable payable) {
-        LocalDate now = LocalDate.now();
-        Long userId = payable.getCreatedBy() != null ? payable.getCreatedBy() : 1L;
         String baseRef = "AP-" + payable.getInvoiceNumber();
-        
-        // Debit: Expense Account
-        JournalEntry debit = new JournalEntry();
-        debit.setEntryNumber(generateEntryNumber("L01"));
-        debit.setEntryDate(now);
-        debit.setDescription("AP Invoice: " + payable.getInvoiceNumber() + " (Expense)");
-        debit.setAmount(payable.getAmount());
-        debit.setAccountCode(payable.getExpenseAccountCode());
-        debit.setReference(baseRef + "-DR");
-        debit.setStatus("posted");
-        debit.setTotalDebit(payable.getAmount());
-        debit.setTotalCredit(BigDecimal.ZERO);
-        debit.setCreatedBy(userId);
-        journalEntryRepository.save(debit);
-        
-        // Credit: Accounts Payable
-        JournalEntry credit = new JournalEntry();
-        credit.setEntryNumber(generateEntryNumber("L02"));
-        credit.setEntryDate(now);
-        credit.setDescription("AP Invoice: " + payable.getInvoiceNumber() + " (AP)");
-        credit.setAmount(payable.getAmount());
-        credit.setAccountCode(payable.getApAccountCode());
-        credit.setReference(baseRef + "-CR");
-        credit.setStatus("posted");
-        credit.setTotalDebit(BigDecimal.ZERO);
-        credit.setTotalCredit(payable.getAmount());
-        credit.setCreatedBy(userId);
-        journalEntryRepository.save(credit);
+        BigDecimal amount = payable.getAmount();
+        postPair(payable.getCreatedBy(), "AP Invoice: " + payable.getInvoiceNumber(),
+            Line.debit(payable.getExpenseAccountCode(), amount,
+                "AP Invoice: " + payable.getInvoiceNumber() + " (Expense)", baseRef + "-DR"),
+            Line.credit(payable.getApAccountCode(), amount,
+                "AP Invoice: " + payable.getInvoiceNumber() + " (AP)", baseRef + "-CR"));
     }
 
     /**
@@ -76,37 +51,13 @@ public class AccountingIntegrationService {
      */
     @Transactional
     public void createJournalEntryForReceivable(AccountReceivable receivable) {
-        LocalDate now = LocalDate.now();
-        Long userId = receivable.getCreatedBy() != null ? receivable.getCreatedBy() : 1L;
         String baseRef = "AR-" + receivable.getInvoiceNumber();
-        
-        // Debit: Accounts Receivable
-        JournalEntry debit = new JournalEntry();
-        debit.setEntryNumber(generateEntryNumber("L01"));
-        debit.setEntryDate(now);
-        debit.setDescription("AR Invoice: " + receivable.getInvoiceNumber() + " (AR)");
-        debit.setAmount(receivable.getAmount());
-        debit.setAccountCode(receivable.getArAccountCode());
-        debit.setReference(baseRef + "-DR");
-        debit.setStatus("posted");
-        debit.setTotalDebit(receivable.getAmount());
-        debit.setTotalCredit(BigDecimal.ZERO);
-        debit.setCreatedBy(userId);
-        journalEntryRepository.save(debit);
-        
-        // Credit: Revenue Account
-        JournalEntry credit = new JournalEntry();
-        credit.setEntryNumber(generateEntryNumber("L02"));
-        credit.setEntryDate(now);
-        credit.setDescription("AR Invoice: " + receivable.getInvoiceNumber() + " (Revenue)");
-        credit.setAmount(receivable.getAmount());
-        credit.setAccountCode(receivable.getRevenueAccountCode());
-        credit.setReference(baseRef + "-CR");
-        credit.setStatus("posted");
-        credit.setTotalDebit(BigDecimal.ZERO);
-        credit.setTotalCredit(receivable.getAmount());
-        credit.setCreatedBy(userId);
-        journalEntryRepository.save(credit);
+        BigDecimal amount = receivable.getAmount();
+        postPair(receivable.getCreatedBy(), "AR Invoice: " + receivable.getInvoiceNumber(),
+            Line.debit(receivable.getArAccountCode(), amount,
+                "AR Invoice: " + receivable.getInvoiceNumber() + " (AR)", baseRef + "-DR"),
+            Line.credit(receivable.getRevenueAccountCode(), amount,
+                "AR Invoice: " + receivable.getInvoiceNumber() + " (Revenue)", baseRef + "-CR"));
     }
 
     /**
@@ -116,37 +67,11 @@ public class AccountingIntegrationService {
      */
     @Transactional
     public void createPaymentReceivedEntry(AccountReceivable receivable, BigDecimal paymentAmount) {
-        LocalDate now = LocalDate.now();
-        Long userId = receivable.getCreatedBy() != null ? receivable.getCreatedBy() : 1L;
         String baseRef = "PMT-" + receivable.getInvoiceNumber();
-        
-        // Debit: Bank Account
-        JournalEntry debit = new JournalEntry();
-        debit.setEntryNumber(generateEntryNumber("L01"));
-        debit.setEntryDate(now);
-        debit.setDescription("Payment received for Invoice: " + receivable.getInvoiceNumber() + " (Bank)");
-        debit.setAmount(paymentAmount);
-        debit.setAccountCode("1120"); // Bank Account
-        debit.setReference(baseRef + "-DR");
-        debit.setStatus("posted");
-        debit.setTotalDebit(paymentAmount);
-        debit.setTotalCredit(BigDecimal.ZERO);
-        debit.setCreatedBy(userId);
-        journalEntryRepository.save(debit);
-        
-        // Credit: Accounts Receivable
-        JournalEntry credit = new JournalEntry();
-        credit.setEntryNumber(generateEntryNumber("L02"));
-        credit.setEntryDate(now);
-        credit.setDescription("Payment received for Invoice: " + receivable.getInvoiceNumber() + " (AR)");
-        credit.setAmount(paymentAmount);
-        credit.setAccountCode(receivable.getArAccountCode());
-        credit.setReference(baseRef + "-CR");
-        credit.setStatus("posted");
-        credit.setTotalDebit(BigDecimal.ZERO);
-        credit.setTotalCredit(paymentAmount);
-        credit.setCreatedBy(userId);
-        journalEntryRepository.save(credit);
+        String description = "Payment received for Invoice: " + receivable.getInvoiceNumber();
+        postPair(receivable.getCreatedBy(), description,
+            Line.debit("1120", paymentAmount, description + " (Bank)", baseRef + "-DR"), // Bank Account
+            Line.credit(receivable.getArAccountCode(), paymentAmount, description + " (AR)", baseRef + "-CR"));
     }
 
     /**
@@ -156,36 +81,23 @@ public class AccountingIntegrationService {
      */
     @Transactional
     public void createPaymentMadeEntry(AccountPayable payable) {
-        LocalDate now = LocalDate.now();
-        Long userId = payable.getCreatedBy() != null ? payable.getCreatedBy() : 1L;
         String baseRef = "PMT-" + payable.getInvoiceNumber();
-        
-        // Debit: Accounts Payable
-        JournalEntry debit = new JournalEntry();
-        debit.setEntryNumber(generateEntryNumber("L01"));
-        debit.setEntryDate(now);
-        debit.setDescription("Payment made for Invoice: " + payable.getInvoiceNumber() + " (AP)");
-        debit.setAmount(payable.getAmount());
-        debit.setAccountCode(payable.getApAccountCode());
-        debit.setReference(baseRef + "-DR");
-        debit.setStatus("posted");
-        debit.setTotalDebit(payable.getAmount());
-        debit.setTotalCredit(BigDecimal.ZERO);
-        debit.setCreatedBy(userId);
-        journalEntryRepository.save(debit);
-        
-        // Credit: Bank Account
-        JournalEntry credit = new JournalEntry();
-        credit.setEntryNumber(generateEntryNumber("L02"));
-        credit.setEntryDate(now);
-        credit.setDescription("Payment made for Invoice: " + payable.getInvoiceNumber() + " (Bank)");
-        credit.setAmount(payable.getAmount());
-        credit.setAccountCode("1120"); // Bank Account
-        credit.setReference(baseRef + "-CR");
-        credit.setStatus("posted");
-        credit.setTotalDebit(BigDecimal.ZERO);
-        credit.setTotalCredit(payable.getAmount());
-        credit.setCreatedBy(userId);
-        journalEntryRepository.save(credit);
+        String description = "Payment made for Invoice: " + payable.getInvoiceNumber();
+        postPair(payable.getCreatedBy(), description,
+            Line.debit(payable.getApAccountCode(), payable.getAmount(), description + " (AP)", baseRef + "-DR"),
+            Line.credit("1120", payable.getAmount(), description + " (Bank)", baseRef + "-CR")); // Bank Account
+    }
+
+    /**
+     * Posts a two-line entry. A zero or missing amount has nothing to record, so the
+     * entry is skipped rather than rejected; other invalid postings throw
+     * IllegalArgumentException.
+     */
+    private void postPair(Long createdBy, String description, Line debit, Line credit) {
+        if (debit.debit() == null || debit.debit().signum() == 0) {
+            logger.info("Skipping zero-amount journal entry: {}", description);
+            return;
+        }
+        journalPostingEngine.post(new Posting(LocalDate.now(), description, createdBy, List.of(debit, credit)));
     }
 }
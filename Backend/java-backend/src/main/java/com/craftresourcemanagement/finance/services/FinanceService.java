@@ -3,6 +3,7 @@ package com.craftresourcemanagement.finance.services;
 import com.craftresourcemanagement.finance.entities.*;
 import com.craftresourcemanagement.finance.dto.BudgetResponse;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface FinanceService {
@@ -10,6 +11,7 @@ public interface FinanceService {
     // Chart of Account
     ChartOfAccount createChartOfAccount(ChartOfAccount coa);
     List<ChartOfAccount> getAllChartOfAccounts();
+    List<ChartOfAccount> getChartOfAccountsAsOf(LocalDate asOf);
     ChartOfAccount getChartOfAccountById(Long id);
     ChartOfAccount updateChartOfAccount(Long id, ChartOfAccount coa);
     void deleteChartOfAccount(Long id);
@@ -40,6 +42,7 @@ public interface FinanceService {
     List<AccountPayable> getAllAccountPayables();
     AccountPayable getAccountPayableById(Long id);
     AccountPayable updateAccountPayable(Long id, AccountPayable ap);
+    AccountPayable updateAccountPayableStatus(Long id, String status);
     void deleteAccountPayable(Long id);
 
     // Account Receivable
@@ -47,6 +50,7 @@ public interface FinanceService {
     List<AccountReceivable> getAllAccountReceivables();
     AccountReceivable getAccountReceivableById(Long id);
     AccountReceivable updateAccountReceivable(Long id, AccountReceivable ar);
+    AccountReceivable updateAccountReceivableStatus(Long id, String status);
     void deleteAccountReceivable(Long id);
 
     // Invoice Number Generation
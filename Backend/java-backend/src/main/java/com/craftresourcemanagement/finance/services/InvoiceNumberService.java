@@ -1,7 +1,10 @@
 package com.craftresourcemanagement.finance.services;
 
 import com.craftresourcemanagement.finance.entities.InvoiceSequence;
+import com.craftresourcemanagement.finance.repositories.AccountPayableRepository;
+import com.craftresourcemanagement.finance.repositories.AccountReceivableRepository;
 import com.craftresourcemanagement.finance.repositories.InvoiceSequenceRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -9,13 +12,24 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
 @Service
-@Transactional
 public class InvoiceNumberService {
 
     private final InvoiceSequenceRepository invoiceSequenceRepository;
+    private final AccountPayableRepository accountPayableRepository;
+    private final AccountReceivableRepository accountReceivableRepository;
+    private final SequenceAllocator sequenceAllocator;
+    private final int blockSize;
 
-    public InvoiceNumberService(InvoiceSequenceRepository invoiceSequenceRepository) {
+    public InvoiceNumberService(InvoiceSequenceRepository invoiceSequenceRepository,
+                                AccountPayableRepository accountPayableRepository,
+                                AccountReceivableRepository accountReceivableRepository,
+                                SequenceAllocator sequenceAllocator,
+                                @Value("${finance.invoice.sequence-block-size:100}") int blockSize) {
         this.invoiceSequenceRepository = invoiceSequenceRepository;
+        this.accountPayableRepository = accountPayableRepository;
+        this.accountReceivableRepository = accountReceivableRepository;
+        this.sequenceAllocator = sequenceAllocator;
+        this.blockSize = Math.max(1, blockSize);
     }
 
     /**
@@ -35,52 +49,57 @@ public class InvoiceNumberService {
     }
 
     /**
-     * Thread-safe method to generate invoice numbers
+     * Thread-safe method to generate invoice numbers. Numbers come from blocks reserved
+     * per day, so no row lock is held and numbering restarts at 0001 each day; numbers
+     * left unused in a block when a node stops are skipped. A day's counter starts above
+     * the highest number already stored for that day, so numbers issued before the
+     * counter existed are not handed out again.
      */
     private String generateInvoiceNumber(String sequenceType) {
-        // Get current date for the invoice number
         String dateString = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        
-        // Get or create sequence with pessimistic lock
-        InvoiceSequence sequence = invoiceSequenceRepository.findBySequenceTypeWithLock(sequenceType)
-                .orElseGet(() -> createNewSequence(sequenceType));
-
-        // Increment the sequence number
-        sequence.setLastNumber(sequence.getLastNumber() + 1);
-        invoiceSequenceRepository.save(sequence);
+        String key = dailyKey(sequenceType, dateString);
+        long number = sequenceAllocator.next(key, sequenceType, blockSize, () -> highestIssued(sequenceType, key + "-"));
 
         // Format: PREFIX-YYYYMMDD-NNNN
-        return String.format("%s-%s-%04d", 
-                sequence.getPrefix(), 
-                dateString, 
-                sequence.getLastNumber());
+        return String.format("%s-%s-%04d", sequenceType, dateString, number);
     }
 
-    /**
-     * Creates a new sequence for the given type
-     */
-    private InvoiceSequence createNewSequence(String sequenceType) {
-        String prefix = sequenceType.equals("AP") ? "AP" : "AR";
-        InvoiceSequence newSequence = new InvoiceSequence(sequenceType, prefix);
-        return invoiceSequenceRepository.save(newSequence);
+    private long highestIssued(String sequenceType, String numberPrefix) {
+        Long highest = "AP".equals(sequenceType)
+                ? accountPayableRepository.findMaxInvoiceSuffix(numberPrefix)
+                : accountReceivableRepository.findMaxInvoiceSuffix(numberPrefix);
+        return highest != null ? highest : 0L;
+    }
+
+    private static String dailyKey(String sequenceType, String dateString) {
+        return sequenceType + "-" + dateString;
+    }
+
+    private static String todayKey(String sequenceType) {
+        return dailyKey(sequenceType, LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")));
     }
 
     /**
-     * Reset sequence for a given type (useful for testing or year-end reset)
+     * Reset today's sequence for a given type (useful for testing)
      */
+    @Transactional
     public void resetSequence(String sequenceType) {
-        invoiceSequenceRepository.findBySequenceType(sequenceType)
+        String key = todayKey(sequenceType);
+        invoiceSequenceRepository.findBySequenceType(key)
                 .ifPresent(sequence -> {
                     sequence.setLastNumber(0L);
                     invoiceSequenceRepository.save(sequence);
                 });
+        sequenceAllocator.discard(key);
     }
 
     /**
-     * Get current sequence number for a given type
+     * Get today's high-water mark for a given type. This counts reserved numbers,
+     * so it can run ahead of the last number actually issued.
      */
+    @Transactional(readOnly = true)
     public Long getCurrentSequenceNumber(String sequenceType) {
-        return invoiceSequenceRepository.findBySequenceType(sequenceType)
+        return invoiceSequenceRepository.findBySequenceType(todayKey(sequenceType))
                 .map(InvoiceSequence::getLastNumber)
                 .orElse(0L);
     }
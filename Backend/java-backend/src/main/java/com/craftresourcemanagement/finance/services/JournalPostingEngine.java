@@ -0,0 +1,227 @@
+package com.craftresourcemanagement.finance.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Posts balanced double-entry transactions to journal_entries.
+ *
+ * A posting is validated in memory (at least two lines, one side per line,
+ * debits equal credits at cent precision), takes one entry number and writes
+ * all of its lines with one JDBC batch insert. Bulk imports are validated up
+ * front and then written in chunks of whole postings, each chunk in its own
+ * transaction, so a failure leaves every earlier chunk committed.
+ */
+@Service
+public class JournalPostingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalPostingEngine.class);
+
+    private static final String ENTRY_PREFIX = "JE";
+    private static final String STATUS_POSTED = "posted";
+
+    private static final String INSERT_LINE_SQL =
+        "INSERT INTO journal_entries (entry_number, entry_date, description, amount, account_code, "
+            + "reference, status, total_debit, total_credit, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceAllocator sequenceAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final int entryNumberBlockSize;
+    private final int chunkLines;
+
+    public JournalPostingEngine(JdbcTemplate jdbcTemplate,
+                                SequenceAllocator sequenceAllocator,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${finance.journal.sequence-block-size:50}") int entryNumberBlockSize,
+                                @Value("${finance.journal.bulk-chunk-lines:1000}") int chunkLines) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequenceAllocator = sequenceAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entryNumberBlockSize = Math.max(1, entryNumberBlockSize);
+        this.chunkLines = Math.max(1, chunkLines);
+    }
+
+    /**
+     * One side of a posting: exactly one of debit and credit is positive.
+     * Description and reference are optional; the posting description is used when absent.
+     */
+    public record Line(String accountCode, BigDecimal debit, BigDecimal credit, String description, String reference) {
+
+        public static Line debit(String accountCode, BigDecimal amount, String description, String reference) {
+            return new Line(accountCode, amount, null, description, reference);
+        }
+
+        public static Line credit(String accountCode, BigDecimal amount, String description, String reference) {
+            return new Line(accountCode, null, amount, description, reference);
+        }
+    }
+
+    /**
+     * A balanced transaction. Entry date defaults to today and createdBy to the system user.
+     */
+    public record Posting(LocalDate entryDate, String description, Long createdBy, List<Line> lines) {
+    }
+
+    /**
+     * Progress of a bulk import, reported after every committed chunk.
+     */
+    public record Progress(int postingsPosted, int postingsTotal, int linesWritten, int chunksCommitted) {
+    }
+
+    private record Row(String entryNumber, LocalDate entryDate, String description, BigDecimal amount,
+                       String accountCode, String reference, BigDecimal debit, BigDecimal credit, Long createdBy) {
+    }
+
+    /**
+     * Posts one transaction in the caller's transaction and returns its entry number.
+     */
+    @Transactional
+    public String post(Posting posting) {
+        validate(posting, 0);
+        List<Row> rows = new ArrayList<>(posting.lines().size());
+        String entryNumber = toRows(posting, rows);
+        insert(rows);
+        return entryNumber;
+    }
+
+    /**
+     * Posts many transactions, e.g. a month-end import. Nothing is written unless
+     * every posting is valid.
+     */
+    public Progress postAll(List<Posting> postings, Consumer<Progress> progressListener) {
+        for (int i = 0; i < postings.size(); i++) {
+            validate(postings.get(i), i);
+        }
+
+        int posted = 0;
+        int linesWritten = 0;
+        int chunks = 0;
+        Progress progress = new Progress(0, postings.size(), 0, 0);
+        List<Row> rows = new ArrayList<>(chunkLines);
+        int chunkPostings = 0;
+        for (int i = 0; i < postings.size(); i++) {
+            toRows(postings.get(i), rows);
+            chunkPostings++;
+            boolean last = i == postings.size() - 1;
+            boolean full = last || rows.size() + postings.get(i + 1).lines().size() > chunkLines;
+            if (!full) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(rows));
+            } catch (RuntimeException e) {
+                logger.error("Bulk journal posting stopped after {} of {} postings: {}", posted, postings.size(), e.getMessage());
+                throw new RuntimeException("Bulk journal posting stopped after " + posted + " of "
+                    + postings.size() + " postings: " + e.getMessage(), e);
+            }
+            posted += chunkPostings;
+            linesWritten += rows.size();
+            chunks++;
+            progress = new Progress(posted, postings.size(), linesWritten, chunks);
+            if (progressListener != null) {
+                progressListener.accept(progress);
+            }
+            rows.clear();
+            chunkPostings = 0;
+        }
+        logger.info("Bulk journal posting finished: {} postings, {} lines in {} chunks", posted, linesWritten, chunks);
+        return progress;
+    }
+
+    /**
+     * Rejects postings that would leave the ledger out of balance. {@code index}
+     * identifies the posting in bulk error messages.
+     */
+    static void validate(Posting posting, int index) {
+        if (posting == null || posting.lines() == null || posting.lines().size() < 2) {
+            throw new IllegalArgumentException("Posting " + index + " needs at least two lines");
+        }
+        BigDecimal debits = BigDecimal.ZERO;
+        BigDecimal credits = BigDecimal.ZERO;
+        for (int i = 0; i < posting.lines().size(); i++) {
+            Line line = posting.lines().get(i);
+            if (line == null || line.accountCode() == null || line.accountCode().isBlank()) {
+                throw new IllegalArgumentException("Posting " + index + " line " + (i + 1) + " has no account code");
+            }
+            BigDecimal debit = cents(line.debit());
+            BigDecimal credit = cents(line.credit());
+            if (debit.signum() < 0 || credit.signum() < 0 || (debit.signum() > 0) == (credit.signum() > 0)) {
+                throw new IllegalArgumentException("Posting " + index + " line " + (i + 1)
+                    + " must have exactly one positive debit or credit amount");
+            }
+            debits = debits.add(debit);
+            credits = credits.add(credit);
+        }
+        if (debits.compareTo(credits) != 0) {
+            throw new IllegalArgumentException("Posting " + index + " is unbalanced: debits " + debits
+                + " do not equal credits " + credits);
+        }
+    }
+
+    private String toRows(Posting posting, List<Row> rows) {
+        String entryNumber = nextEntryNumber();
+        LocalDate entryDate = posting.entryDate() != null ? posting.entryDate() : LocalDate.now();
+        Long createdBy = posting.createdBy() != null ? posting.createdBy() : 1L;
+        int lineNo = 1;
+        for (Line line : posting.lines()) {
+            BigDecimal debit = cents(line.debit());
+            BigDecimal credit = cents(line.credit());
+            rows.add(new Row(
+                String.format("%s-L%02d", entryNumber, lineNo++),
+                entryDate,
+                line.description() != null ? line.description() : posting.description(),
+                debit.signum() > 0 ? debit : credit,
+                line.accountCode(),
+                line.reference(),
+                debit,
+                credit,
+                createdBy));
+        }
+        return entryNumber;
+    }
+
+    private void insert(List<Row> rows) {
+        jdbcTemplate.batchUpdate(INSERT_LINE_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.entryNumber());
+            ps.setDate(2, Date.valueOf(row.entryDate()));
+            ps.setString(3, row.description());
+            ps.setBigDecimal(4, row.amount());
+            ps.setString(5, row.accountCode());
+            ps.setString(6, row.reference());
+            ps.setString(7, STATUS_POSTED);
+            ps.setBigDecimal(8, row.debit());
+            ps.setBigDecimal(9, row.credit());
+            ps.setLong(10, row.createdBy());
+        });
+    }
+
+    /**
+     * One number per posting, drawn from a per-day block sequence; the lines of the
+     * posting share it and differ only by their line suffix.
+     */
+    private String nextEntryNumber() {
+        String dateStr = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        long number = sequenceAllocator.next(ENTRY_PREFIX + "-" + dateStr, ENTRY_PREFIX, entryNumberBlockSize);
+        return String.format("JE-%s-%03d", dateStr, number);
+    }
+
+    private static BigDecimal cents(BigDecimal amount) {
+        return amount == null ? BigDecimal.ZERO.setScale(2) : amount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
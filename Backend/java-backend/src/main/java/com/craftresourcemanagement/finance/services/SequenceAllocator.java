@@ -0,0 +1,169 @@
+package com.craftresourcemanagement.finance.services;
+
+import com.craftresourcemanagement.finance.entities.InvoiceSequence;
+import com.craftresourcemanagement.finance.repositories.InvoiceSequenceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out sequence numbers from blocks reserved in {@code invoice_sequences} (hi/lo).
+ * <p>
+ * Each node reserves {@code blockSize} numbers at a time with one atomic UPDATE in its own
+ * short transaction, then serves them from memory. Blocks never overlap, so numbers are unique
+ * across nodes; numbers left in a block when a node stops are skipped, so sequences can have
+ * gaps and are only ordered within a node.
+ * <p>
+ * A key's row is created on its first reservation, starting above an optional seed, and rows
+ * of the same prefix older than {@link #RETAINED_KEYS} days are deleted at the same time.
+ */
+@Service
+public class SequenceAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceAllocator.class);
+
+    /** Daily keys kept per prefix; older ones are deleted when a new key's row is created. */
+    static final int RETAINED_KEYS = 7;
+    static final int MAX_RESERVE_ATTEMPTS = 3;
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final InvoiceSequenceRepository invoiceSequenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public SequenceAllocator(InvoiceSequenceRepository invoiceSequenceRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.invoiceSequenceRepository = invoiceSequenceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Next number of {@code sequenceType}, a key such as {@code JE-20240118}. Blocks of other
+     * keys sharing {@code prefix} are dropped when a new key starts, so daily keys roll over.
+     */
+    public long next(String sequenceType, String prefix, int blockSize) {
+        return next(sequenceType, prefix, blockSize, () -> 0L);
+    }
+
+    /**
+     * Like {@link #next(String, String, int)}, but a key without a stored row starts after
+     * {@code seed}, e.g. the highest number already issued under it by other means.
+     */
+    public long next(String sequenceType, String prefix, int blockSize, LongSupplier seed) {
+        Block block = blocks.get(sequenceType);
+        if (block == null) {
+            block = blocks.computeIfAbsent(sequenceType, key -> new Block());
+            blocks.keySet().removeIf(key -> key.startsWith(prefix + "-") && !key.equals(sequenceType));
+        }
+        long value = block.take();
+        if (value > 0) {
+            return value;
+        }
+        synchronized (block) {
+            value = block.take();
+            while (value <= 0) {
+                long high = reserve(sequenceType, prefix, blockSize, seed);
+                block.refill(high - blockSize + 1, high);
+                value = block.take();
+            }
+            return value;
+        }
+    }
+
+    /** Forgets this node's unused numbers of {@code sequenceType}, e.g. after the stored mark was reset. */
+    public void discard(String sequenceType) {
+        blocks.remove(sequenceType);
+    }
+
+    /**
+     * Moves the stored high-water mark up by {@code blockSize}; returns the new mark. A
+     * reservation that loses a row-creation race, a deadlock or a lock wait is retried,
+     * up to {@link #MAX_RESERVE_ATTEMPTS} attempts in all.
+     */
+    protected long reserve(String sequenceType, String prefix, int blockSize, LongSupplier seed) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return reserveOnce(sequenceType, prefix, blockSize, seed);
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+                // Another node created the row first; its UPDATE path now applies
+                logger.debug("Sequence {} created concurrently, retrying reservation", sequenceType);
+            } catch (DeadlockLoserDataAccessException | CannotAcquireLockException e) {
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Sequence {} reservation lost a lock (attempt {}), retrying", sequenceType, attempt);
+            }
+        }
+    }
+
+    private long reserveOnce(String sequenceType, String prefix, int blockSize, LongSupplier seed) {
+        Long high = transactionTemplate.execute(status -> {
+            if (invoiceSequenceRepository.reserveBlock(sequenceType, blockSize) == 0) {
+                long start = Math.max(0L, seed.getAsLong());
+                InvoiceSequence sequence = new InvoiceSequence(sequenceType, prefix);
+                sequence.setLastNumber(start + blockSize);
+                invoiceSequenceRepository.saveAndFlush(sequence);
+                purgeOlderKeys(sequenceType, prefix);
+                return start + blockSize;
+            }
+            return invoiceSequenceRepository.findBySequenceType(sequenceType)
+                    .map(InvoiceSequence::getLastNumber)
+                    .orElseThrow(() -> new IllegalStateException("Sequence " + sequenceType + " disappeared"));
+        });
+        return high != null ? high : 0L;
+    }
+
+    /** Daily keys are {@code PREFIX-yyyyMMdd}, so they sort by date within a prefix. */
+    private void purgeOlderKeys(String sequenceType, String prefix) {
+        String dailyPrefix = prefix + "-";
+        if (!sequenceType.startsWith(dailyPrefix)) {
+            return;
+        }
+        try {
+            LocalDate day = LocalDate.parse(sequenceType.substring(dailyPrefix.length()), DAY_FORMAT);
+            String cutoff = dailyPrefix + day.minusDays(RETAINED_KEYS).format(DAY_FORMAT);
+            int purged = invoiceSequenceRepository.deleteKeysBefore(dailyPrefix + "%", cutoff);
+            if (purged > 0) {
+                logger.debug("Purged {} {} sequences before {}", purged, prefix, cutoff);
+            }
+        } catch (DateTimeParseException e) {
+            // not a daily key, nothing to purge
+        }
+    }
+
+    /** Numbers reserved by this node; a range is replaced whole so takers never mix two ranges. */
+    private static final class Block {
+        private volatile Range range = new Range(new AtomicLong(1), 0);
+
+        long take() {
+            Range current = range;
+            long value = current.next().getAndIncrement();
+            return value <= current.end() ? value : -1;
+        }
+
+        void refill(long start, long end) {
+            range = new Range(new AtomicLong(start), end);
+        }
+    }
+
+    private record Range(AtomicLong next, long end) {
+    }
+}
@@ -1,41 +1,177 @@
 package com.craftresourcemanagement.finance.services.impl;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.core.ParameterizedTypeReference;
+import reactor.core.publisher.Mono;
 
-
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
-
+/**
+ * Department directory backed by the Node.js lookup API.
+ * <p>
+ * The full department list is downloaded once and kept as an id to name map until the TTL
+ * expires. Concurrent callers that find the snapshot expired share a single reload; if the
+ * reload fails the previous snapshot keeps being served until the retry delay has passed.
+ */
 @Component
 public class DepartmentClient {
 
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentClient.class);
+
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> DEPARTMENT_LIST =
+            new ParameterizedTypeReference<>() {};
+
     private final WebClient webClient;
+    private final Duration ttl;
+    private final Duration retryDelay;
+    private final Duration loadTimeout;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile Directory directory;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+
+    private record Directory(Map<Long, String> names, long loadedAt, long expiresAt) {
+        boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+    }
 
-    public DepartmentClient(@Value("${nodejs.service.url}") String baseUrl) {
-        this.webClient = WebClient.builder()
-                .baseUrl(baseUrl)
-                .build();
+    @Autowired
+    public DepartmentClient(@Value("${nodejs.service.url}") String baseUrl,
+                            @Value("${department.cache.ttl-seconds:300}") long ttlSeconds,
+                            @Value("${department.cache.retry-seconds:30}") long retrySeconds,
+                            @Value("${department.cache.load-timeout-seconds:10}") long loadTimeoutSeconds) {
+        this(WebClient.builder().baseUrl(baseUrl).build(),
+                Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(retrySeconds), Duration.ofSeconds(loadTimeoutSeconds));
+    }
+
+    protected DepartmentClient(WebClient webClient, Duration ttl, Duration retryDelay, Duration loadTimeout) {
+        this.webClient = webClient;
+        this.ttl = ttl;
+        this.retryDelay = retryDelay;
+        this.loadTimeout = loadTimeout;
     }
 
     public String getDepartmentNameById(Long departmentId) {
-        List<Map<String, Object>> departments = webClient.get()
+        if (departmentId == null) {
+            return null;
+        }
+        return directory().get(departmentId);
+    }
+
+    /**
+     * Resolves many department ids against a single directory snapshot. Unknown ids are
+     * left out of the returned map.
+     */
+    public Map<Long, String> resolve(Collection<Long> departmentIds) {
+        if (departmentIds == null || departmentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, String> names = directory();
+        Map<Long, String> resolved = new HashMap<>();
+        for (Long id : departmentIds) {
+            String name = id != null ? names.get(id) : null;
+            if (name != null) {
+                resolved.put(id, name);
+            }
+        }
+        return resolved;
+    }
+
+    public Map<Long, String> getDirectory() {
+        return directory();
+    }
+
+    /** Forces the next lookup to reload the directory. */
+    public void invalidate() {
+        directory = null;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Directory current = directory;
+        long now = System.currentTimeMillis();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        metrics.put("loads", loads.get());
+        metrics.put("loadFailures", loadFailures.get());
+        metrics.put("size", current != null ? current.names().size() : 0);
+        metrics.put("ageSeconds", current != null ? (now - current.loadedAt()) / 1000 : null);
+        metrics.put("fresh", current != null && current.isFresh(now));
+        return metrics;
+    }
+
+    protected Mono<List<Map<String, Object>>> fetchDepartments() {
+        return webClient.get()
                 .uri("/api/lookup/departments")
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<List<Map<String, Object>>>() {})
-                .block();
+                .bodyToMono(DEPARTMENT_LIST);
+    }
+
+    private Map<Long, String> directory() {
+        Directory current = directory;
+        if (current != null && current.isFresh(System.currentTimeMillis())) {
+            hits.incrementAndGet();
+            return current.names();
+        }
+
+        misses.incrementAndGet();
+        loadLock.lock();
+        try {
+            // Another caller may have reloaded while we waited for the lock
+            current = directory;
+            long now = System.currentTimeMillis();
+            if (current != null && current.isFresh(now)) {
+                return current.names();
+            }
+            try {
+                Directory loaded = new Directory(load(), now, now + ttl.toMillis());
+                directory = loaded;
+                return loaded.names();
+            } catch (RuntimeException e) {
+                loadFailures.incrementAndGet();
+                Map<Long, String> stale = current != null ? current.names() : Collections.emptyMap();
+                logger.warn("Failed to load department directory, serving {} cached entries: {}", stale.size(), e.getMessage());
+                directory = new Directory(stale, current != null ? current.loadedAt() : now, now + retryDelay.toMillis());
+                return stale;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
 
+    private Map<Long, String> load() {
+        loads.incrementAndGet();
+        List<Map<String, Object>> departments = fetchDepartments().block(loadTimeout);
         if (departments == null) {
-            return null;
+            throw new IllegalStateException("Empty department lookup response");
         }
 
-        return departments.stream()
-                .filter(dept -> dept.get("id") != null && dept.get("id").equals(departmentId.intValue()))
-                .map(dept -> (String) dept.get("name"))
-                .findFirst()
-                .orElse(null);
+        Map<Long, String> names = new HashMap<>(departments.size() * 2);
+        for (Map<String, Object> dept : departments) {
+            Object id = dept.get("id");
+            if (id instanceof Number number) {
+                names.put(number.longValue(), (String) dept.get("name"));
+            }
+        }
+        logger.debug("Loaded {} departments into directory cache", names.size());
+        return Collections.unmodifiableMap(names);
     }
 }
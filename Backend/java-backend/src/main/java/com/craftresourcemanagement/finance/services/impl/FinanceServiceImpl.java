@@ -2,6 +2,7 @@ package com.craftresourcemanagement.finance.services.impl;
 
 import com.craftresourcemanagement.finance.entities.*;
 import com.craftresourcemanagement.finance.repositories.*;
+import com.craftresourcemanagement.finance.services.AccountingIntegrationService;
 import com.craftresourcemanagement.finance.services.FinanceService;
 import com.craftresourcemanagement.finance.services.InvoiceNumberService;
 import com.craftresourcemanagement.finance.dto.BudgetResponse;
@@ -16,8 +17,15 @@ import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.math.BigDecimal;
 
 @Service
@@ -35,6 +43,7 @@ public class FinanceServiceImpl implements FinanceService {
     private final BudgetRequestRepository budgetRequestRepository;
     private final DepartmentClient departmentClient;
     private final InvoiceNumberService invoiceNumberService;
+    private final AccountingIntegrationService accountingIntegrationService;
 
     private final OpenAIClient openAIClient;
     private final AuditClient auditClient;
@@ -51,7 +60,8 @@ public class FinanceServiceImpl implements FinanceService {
                              OpenAIClient openAIClient,
                              DepartmentClient departmentClient,
                              AuditClient auditClient,
-                             InvoiceNumberService invoiceNumberService) {
+                             InvoiceNumberService invoiceNumberService,
+                             AccountingIntegrationService accountingIntegrationService) {
         this.chartOfAccountRepository = chartOfAccountRepository;
         this.budgetRepository = budgetRepository;
         this.journalEntryRepository = journalEntryRepository;
@@ -62,6 +72,7 @@ public class FinanceServiceImpl implements FinanceService {
         this.departmentClient = departmentClient;
         this.auditClient = auditClient;
         this.invoiceNumberService = invoiceNumberService;
+        this.accountingIntegrationService = accountingIntegrationService;
     }
 
     // Chart of Account
@@ -72,17 +83,52 @@ public class FinanceServiceImpl implements FinanceService {
 
     @Override
     public List<ChartOfAccount> getAllChartOfAccounts() {
+        return getChartOfAccountsAsOf(null);
+    }
+
+    @Override
+    public List<ChartOfAccount> getChartOfAccountsAsOf(LocalDate asOf) {
         List<ChartOfAccount> accounts = chartOfAccountRepository.findAll();
 
-        // Calculate balance for each account by aggregating journal entries
-        for (ChartOfAccount account : accounts) {
-            Double balance = journalEntryRepository.calculateBalanceByAccountCode(account.getAccountCode());
-            account.setBalance(balance != null ? balance : 0.0);
+        // One grouped query for every balance, joined to the accounts by code
+        List<JournalEntryRepository.AccountTotals> totals = asOf != null
+            ? journalEntryRepository.sumByAccountCodeAsOf(asOf)
+            : journalEntryRepository.sumByAccountCode();
+        Map<String, JournalEntryRepository.AccountTotals> totalsByCode = new HashMap<>();
+        for (JournalEntryRepository.AccountTotals total : totals) {
+            totalsByCode.put(total.getAccountCode(), total);
         }
 
+        for (ChartOfAccount account : accounts) {
+            account.setBalance(balanceOf(account.getAccountType(), totalsByCode.get(account.getAccountCode())));
+        }
         return accounts;
     }
 
+    /**
+     * Balance on the account's normal side: assets and expenses grow with debits, liabilities,
+     * equity and revenue with credits. Lines without debit/credit totals count as increases.
+     */
+    static double balanceOf(String accountType, JournalEntryRepository.AccountTotals totals) {
+        if (totals == null) {
+            return 0.0;
+        }
+        BigDecimal sided = totals.getDebitMinusCredit() != null ? totals.getDebitMinusCredit() : BigDecimal.ZERO;
+        BigDecimal unsided = totals.getUnsidedAmount() != null ? totals.getUnsidedAmount() : BigDecimal.ZERO;
+        if (!isDebitNormal(accountType)) {
+            sided = sided.negate();
+        }
+        return sided.add(unsided).doubleValue();
+    }
+
+    private static boolean isDebitNormal(String accountType) {
+        if (accountType == null) {
+            return true;
+        }
+        String type = accountType.trim().toLowerCase(Locale.ROOT);
+        return type.startsWith("asset") || type.startsWith("expense");
+    }
+
     @Override
     public ChartOfAccount getChartOfAccountById(Long id) {
         return chartOfAccountRepository.findById(id).orElse(null);
@@ -164,13 +210,20 @@ public class FinanceServiceImpl implements FinanceService {
     @Override
     public List<BudgetResponse> getAllBudgets() {
         List<Budget> budgets = budgetRepository.findAll();
+
+        // Resolve all department names against one directory snapshot
+        Set<Long> departmentIds = budgets.stream()
+            .map(Budget::getDepartmentId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<Long, String> departmentNames = departmentClient.resolve(departmentIds);
+
         return budgets.stream()
             .map(budget -> {
-                String departmentName = null;
-                if (budget.getDepartmentId() != null) {
-                    departmentName = departmentClient.getDepartmentNameById(budget.getDepartmentId());
-                }
-                
+                String departmentName = budget.getDepartmentId() != null
+                    ? departmentNames.get(budget.getDepartmentId())
+                    : null;
+
                 BigDecimal remainingAmount = calculateRemainingAmount(budget);
                 
                 return new BudgetResponse.Builder()
@@ -378,6 +431,26 @@ public class FinanceServiceImpl implements FinanceService {
         return null;
     }
 
+    /**
+     * Moves a payable to a new status. Approving posts the expense entry and paying
+     * posts the payment entry in the same transaction as the status change, so a
+     * rejected entry (IllegalArgumentException) leaves the invoice as it was.
+     */
+    @Override
+    public AccountPayable updateAccountPayableStatus(Long id, String status) {
+        AccountPayable ap = accountPayableRepository.findById(id).orElse(null);
+        if (ap == null) {
+            return null;
+        }
+        ap.setStatus(status);
+        if ("Approved".equals(status)) {
+            accountingIntegrationService.createJournalEntryForPayable(ap);
+        } else if ("Paid".equals(status)) {
+            accountingIntegrationService.createPaymentMadeEntry(ap);
+        }
+        return updateAccountPayable(id, ap);
+    }
+
     @Override
     public void deleteAccountPayable(Long id) {
         accountPayableRepository.deleteById(id);
@@ -458,6 +531,23 @@ public class FinanceServiceImpl implements FinanceService {
         return null;
     }
 
+    /**
+     * Moves a receivable to a new status. Sending posts the receivable entry in the
+     * same transaction as the status change.
+     */
+    @Override
+    public AccountReceivable updateAccountReceivableStatus(Long id, String status) {
+        AccountReceivable ar = accountReceivableRepository.findById(id).orElse(null);
+        if (ar == null) {
+            return null;
+        }
+        ar.setStatus(status);
+        if ("Sent".equals(status)) {
+            accountingIntegrationService.createJournalEntryForReceivable(ar);
+        }
+        return updateAccountReceivable(id, ar);
+    }
+
     @Override
     public void deleteAccountReceivable(Long id) {
         accountReceivableRepository.deleteById(id);
@@ -2,8 +2,11 @@ package com.craftresourcemanagement.hr.controllers;
 
 import com.craftresourcemanagement.hr.services.DashboardService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/hr")
 public class DashboardController {
@@ -19,4 +22,11 @@ public class DashboardController {
         // For now, return a placeholder response
         return ResponseEntity.ok(dashboardService.getDashboardKpis(employeeId));
     }
+
+    @GetMapping("/dashboard/team-attendance")
+    public ResponseEntity<?> getTeamAttendanceOverview(@RequestParam Integer departmentId,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(dashboardService.getTeamAttendanceOverview(departmentId, startDate, endDate));
+    }
 }
@@ -1,14 +1,19 @@
 package com.craftresourcemanagement.hr.controllers;
 
 import com.craftresourcemanagement.hr.entities.User;
+import com.craftresourcemanagement.hr.repositories.UserRepository;
 import com.craftresourcemanagement.hr.services.EmployeeService;
 import com.craftresourcemanagement.hr.services.CloudinaryService;
 import com.craftresourcemanagement.hr.services.NotificationService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,6 +22,8 @@ import java.util.Map;
 @RequestMapping("/hr/employees")
 public class EmployeeController {
 
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 500;
+
     private final EmployeeService employeeService;
     private final CloudinaryService cloudinaryService;
     private final NotificationService notificationService;
@@ -48,29 +55,99 @@ public class EmployeeController {
         }
     }
 
+    /**
+     * Users in id order. Without page or size every matching user is returned,
+     * read {@value #MAX_DIRECTORY_PAGE_SIZE} at a time; with either, one page is
+     * returned and X-Page-Size carries the size actually used, which is capped at
+     * {@value #MAX_DIRECTORY_PAGE_SIZE}.
+     */
     @GetMapping("/list")
     public ResponseEntity<List<User>> listEmployees(
             @RequestParam(required = false) String filter,
             @RequestParam(required = false) Integer departmentId,
-            @RequestParam(required = false) Integer roleId) {
+            @RequestParam(required = false) Integer roleId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if ((page != null && page < 0) || (size != null && size < 1)) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            List<User> employees;
-            if (filter != null) {
-                employees = employeeService.getFilteredUsers(filter, departmentId, roleId);
-            } else {
-                employees = employeeService.listAllEmployees();
+            if (page == null && size == null) {
+                return ResponseEntity.ok(listAll(filter, departmentId, roleId));
             }
-            return ResponseEntity.ok(employees);
+            int pageSize = size != null ? Math.min(size, MAX_DIRECTORY_PAGE_SIZE) : MAX_DIRECTORY_PAGE_SIZE;
+            Pageable pageable = PageRequest.of(page != null ? page : 0, pageSize, Sort.by("id"));
+            return ResponseEntity.ok()
+                .header("X-Page-Size", String.valueOf(pageSize))
+                .body(listPage(filter, departmentId, roleId, pageable));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
         }
     }
 
+    private List<User> listAll(String filter, Integer departmentId, Integer roleId) {
+        List<User> employees = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            List<User> batch = listPage(filter, departmentId, roleId,
+                PageRequest.of(page, MAX_DIRECTORY_PAGE_SIZE, Sort.by("id")));
+            employees.addAll(batch);
+            if (batch.size() < MAX_DIRECTORY_PAGE_SIZE) {
+                return employees;
+            }
+        }
+    }
+
+    private List<User> listPage(String filter, Integer departmentId, Integer roleId, Pageable pageable) {
+        if (filter != null) {
+            return employeeService.getFilteredUsers(filter, departmentId, roleId, pageable);
+        }
+        return employeeService.listAllEmployees(pageable);
+    }
+
+    /**
+     * Directory rows in id order, filtered in the database. Pass the returned
+     * nextCursor as afterId to read the following page; it is null on the last page.
+     */
+    @GetMapping("/directory")
+    public ResponseEntity<?> getDirectory(
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) Integer departmentId,
+            @RequestParam(required = false) Integer roleId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        if (afterId < 0 || size < 1) {
+            return ResponseEntity.badRequest().body("afterId must be >= 0 and size >= 1");
+        }
+        int limit = Math.min(size, MAX_DIRECTORY_PAGE_SIZE);
+        List<UserRepository.DirectoryEntry> rows = employeeService.getEmployeeDirectory(
+            filter, departmentId, roleId, status, search, afterId, limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        List<UserRepository.DirectoryEntry> items = hasMore ? rows.subList(0, limit) : rows;
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", items);
+        response.put("size", items.size());
+        response.put("nextCursor", hasMore ? items.get(limit - 1).getId() : null);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/counts")
     public ResponseEntity<Map<String, Long>> getPeopleCounts() {
         return ResponseEntity.ok(employeeService.getPeopleCounts());
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getPeopleStats() {
+        return ResponseEntity.ok(employeeService.getPeopleStats());
+    }
+
+    @GetMapping("/reviews/scheduling-metrics")
+    public ResponseEntity<Map<String, Object>> getReviewSchedulingMetrics() {
+        return ResponseEntity.ok(employeeService.getReviewSchedulingMetrics());
+    }
+
     @GetMapping("/provisioned")
     public ResponseEntity<?> getProvisionedEmployees() {
         try {
@@ -182,14 +259,19 @@ public class EmployeeController {
         }
     }
 
+    @GetMapping("/notifications/metrics")
+    public ResponseEntity<Map<String, Object>> getNotificationMetrics() {
+        return ResponseEntity.ok(notificationService.getDispatchMetrics());
+    }
+
     @PostMapping("/test-birthday-notifications")
     public ResponseEntity<?> testBirthdayNotifications() {
         try {
             List<User> birthdayEmployees = employeeService.getEmployeesWithBirthdayToday();
             List<User> anniversaryEmployees = employeeService.getEmployeesWithAnniversaryToday();
             
-            birthdayEmployees.forEach(notificationService::sendBirthdayGreeting);
-            anniversaryEmployees.forEach(notificationService::sendAnniversaryGreeting);
+            notificationService.sendBirthdayGreetings(birthdayEmployees);
+            notificationService.sendAnniversaryGreetings(anniversaryEmployees);
             
             Map<String, Object> response = new HashMap<>();
             response.put("birthdayCount", birthdayEmployees.size());
@@ -1,15 +1,29 @@
 package com.craftresourcemanagement.hr.controllers;
 
 import com.craftresourcemanagement.hr.entities.*;
+import com.craftresourcemanagement.hr.repositories.PayslipRepository;
 import com.craftresourcemanagement.hr.services.PayrollService;
 import com.craftresourcemanagement.hr.services.EmployeeService;
 import com.craftresourcemanagement.hr.services.AttendanceIntegrationService;
 import com.craftresourcemanagement.utils.AuditClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,6 +33,8 @@ import java.util.Optional;
 public class PayrollController {
 
     private static final Logger logger = LoggerFactory.getLogger(PayrollController.class);
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 500;
     private final PayrollService payrollService;
     private final EmployeeService employeeService;
     private final AuditClient auditClient;
@@ -84,6 +100,22 @@ public class PayrollController {
         }
     }
 
+    /**
+     * Payslips whose pay period lies within [from, to], one page at a time.
+     */
+    @GetMapping("/payslips/period")
+    public ResponseEntity<Page<PayslipRepository.PayslipSummary>> getPayslipsByPeriod(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1 || to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+        PageRequest pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), Sort.by("id"));
+        return ResponseEntity.ok(payrollService.getPayslipSummariesByPeriod(from, to, pageable));
+    }
+
     @GetMapping("/payslips/{id}")
     public ResponseEntity<Payslip> getPayslipById(@PathVariable Long id) {
         Payslip payslip = payrollService.getPayslipById(id);
@@ -312,15 +344,13 @@ public class PayrollController {
                 request.getCreatedBy()
             );
 
-            List<Payslip> payslips = payrollService.getAllPayslips().stream()
-                .filter(p -> p.getPayrollRun() != null && p.getPayrollRun().getId().equals(payrollRun.getId()))
-                .toList();
+            int payslipCount = (int) payrollService.countPayslipsByRun(payrollRun.getId());
 
             ProcessPayrollResponse response = new ProcessPayrollResponse(
                 payrollRun.getId(),
-                payslips.size(),
+                payslipCount,
                 "SUCCESS",
-                "Payroll processed successfully for " + payslips.size() + " employees"
+                "Payroll processed successfully for " + payslipCount + " employees"
             );
 
             return ResponseEntity.ok(response);
@@ -331,55 +361,132 @@ public class PayrollController {
         }
     }
 
+    @GetMapping("/runs/{id}/payslips")
+    public ResponseEntity<Page<PayslipRepository.PayslipSummary>> getPayslipsByRun(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        PageRequest pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), Sort.by("id"));
+        return ResponseEntity.ok(payrollService.getPayslipSummariesByRun(id, pageable));
+    }
+
+    /**
+     * Totals of the last {@code runs} finished payroll runs with a department or
+     * job-grade breakdown, read from the aggregates written during processing.
+     */
+    @GetMapping("/analytics/trend")
+    public ResponseEntity<List<Map<String, Object>>> getPayrollTrend(
+            @RequestParam(defaultValue = "12") int runs,
+            @RequestParam(defaultValue = "department") String dimension) {
+        if (runs < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(payrollService.getPayrollTrend(runs, dimension));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/analytics/runs/{id}/rebuild")
+    public ResponseEntity<Void> rebuildPayrollAggregates(@PathVariable Long id) {
+        if (payrollService.getPayrollRunById(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        payrollService.rebuildPayrollAggregates(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/runs/{id}/resume")
+    public ResponseEntity<ProcessPayrollResponse> resumePayroll(@PathVariable Long id,
+                                                                @RequestBody(required = false) ProcessPayrollRequest request) {
+        try {
+            // The run keeps the options it was started with; only the caller is taken from the body
+            PayrollRun payrollRun = payrollService.resumePayroll(id, request != null ? request.getCreatedBy() : null);
+            int payslipCount = (int) payrollService.countPayslipsByRun(payrollRun.getId());
+            return ResponseEntity.ok(new ProcessPayrollResponse(
+                payrollRun.getId(),
+                payslipCount,
+                "SUCCESS",
+                "Payroll resumed and completed for " + payslipCount + " employees"
+            ));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ProcessPayrollResponse(id, 0, "ERROR", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error resuming payroll run {}: {}", id, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                .body(new ProcessPayrollResponse(id, 0, "ERROR", "Failed to resume payroll: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/runs/{id}/report")
-    public ResponseEntity<String> generatePayrollReport(@PathVariable Long id, @RequestParam(defaultValue = "csv") String format) {
+    public ResponseEntity<StreamingResponseBody> generatePayrollReport(@PathVariable Long id, @RequestParam(defaultValue = "csv") String format) {
         try {
             PayrollRun run = payrollService.getPayrollRunById(id);
             if (run == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            List<Payslip> payslips = payrollService.getAllPayslips().stream()
-                .filter(p -> p.getPayrollRun() != null && p.getPayrollRun().getId().equals(id))
-                .toList();
-
             if ("html".equalsIgnoreCase(format)) {
-                String htmlReport = generateHTMLReport(run, payslips);
+                long payslipCount = payrollService.countPayslipsByRun(id);
+                StreamingResponseBody body = out -> {
+                    write(out, htmlReportHeader(run, payslipCount));
+                    ReportTotals totals = new ReportTotals();
+                    payrollService.streamPayslipExportRows(id, EXPORT_CHUNK_SIZE, chunk -> writeHtmlRows(out, chunk, totals));
+                    write(out, htmlReportFooter(totals));
+                };
                 return ResponseEntity.ok()
                     .header("Content-Disposition", "attachment; filename=crmspayroll.report_" + id + ".html")
                     .header("Content-Type", "text/html")
-                    .body(htmlReport);
-            }
-
-            StringBuilder report = new StringBuilder();
-            report.append("Employee ID,Name,Gross Pay,Tax Deductions,Other Deductions,Net Pay\n");
-            
-            for (Payslip p : payslips) {
-                report.append(String.format("%s,%s %s,%.2f,%.2f,%.2f,%.2f\n",
-                    p.getUser().getEmployeeId(),
-                    p.getUser().getFirstName(),
-                    p.getUser().getLastName(),
-                    p.getGrossPay(),
-                    p.getTaxDeductions(),
-                    p.getOtherDeductions(),
-                    p.getNetPay()));
+                    .body(body);
             }
 
+            StreamingResponseBody body = out -> {
+                write(out, "Employee ID,Name,Gross Pay,Tax Deductions,Other Deductions,Net Pay\n");
+                payrollService.streamPayslipExportRows(id, EXPORT_CHUNK_SIZE, chunk -> writeReportRows(out, chunk));
+            };
             return ResponseEntity.ok()
                 .header("Content-Disposition", "attachment; filename=payroll_report_" + id + ".csv")
                 .header("Content-Type", "text/csv")
-                .body(report.toString());
+                .body(body);
         } catch (Exception e) {
             logger.error("Error generating report: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
-    private String generateHTMLReport(PayrollRun run, List<Payslip> payslips) {
-        double totalGross = payslips.stream().mapToDouble(p -> p.getGrossPay().doubleValue()).sum();
-        double totalDeductions = payslips.stream().mapToDouble(p -> p.getTaxDeductions().add(p.getOtherDeductions()).doubleValue()).sum();
-        double totalNet = payslips.stream().mapToDouble(p -> p.getNetPay().doubleValue()).sum();
-        long processedCount = payslips.stream().filter(p -> "COMPLETED".equals(run.getStatus())).count();
+    private void writeReportRows(OutputStream out, List<PayslipRepository.ExportRow> chunk) {
+        StringBuilder lines = new StringBuilder();
+        for (PayslipRepository.ExportRow p : chunk) {
+            lines.append(p.getEmployeeId()).append(',')
+                .append(p.getFirstName()).append(' ').append(p.getLastName()).append(',')
+                .append(money(p.getGrossPay())).append(',')
+                .append(money(p.getTaxDeductions())).append(',')
+                .append(money(p.getOtherDeductions())).append(',')
+                .append(money(p.getNetPay())).append('\n');
+        }
+        write(out, lines);
+    }
+
+    /** Footer sums, added up from the rows as they are written so the two always agree. */
+    private static final class ReportTotals {
+        private BigDecimal gross = BigDecimal.ZERO;
+        private BigDecimal deductions = BigDecimal.ZERO;
+        private BigDecimal net = BigDecimal.ZERO;
+
+        void add(PayslipRepository.ExportRow row, BigDecimal rowDeductions) {
+            gross = gross.add(orZero(row.getGrossPay()));
+            deductions = deductions.add(rowDeductions);
+            net = net.add(orZero(row.getNetPay()));
+        }
+    }
+
+    private String htmlReportHeader(PayrollRun run, long payslipCount) {
+        long processedCount = "COMPLETED".equals(run.getStatus()) ? payslipCount : 0L;
 
         String logoSvg = "data:image/svg+xml,%3Csvg xmlns='http://www.w3.org/2000/svg' viewBox='0 0 100 100'%3E%3Crect fill='%232563eb' width='100' height='100'/%3E%3Ctext x='50' y='55' font-size='40' fill='white' text-anchor='middle' font-family='Arial' font-weight='bold'%3ECRM%3C/text%3E%3C/svg%3E";
 
@@ -403,66 +510,96 @@ public class PayrollController {
         html.append("<div class='header-text'><h1>CRAFT RESOURCE MANAGEMENT</h1><p>Payroll Report</p>");
         html.append("<p>Period: ").append(run.getStartDate()).append(" - ").append(run.getEndDate()).append("</p></div></div>");
         html.append("<div class='info'><p><strong>Report Generated:</strong> ").append(java.time.LocalDateTime.now()).append("</p>");
-        html.append("<p><strong>Total Employees:</strong> ").append(payslips.size()).append("</p>");
-        html.append("<p><strong>Status:</strong> ").append(processedCount).append(" Processed, ").append(payslips.size() - processedCount).append(" Pending</p></div>");
+        html.append("<p><strong>Total Employees:</strong> ").append(payslipCount).append("</p>");
+        html.append("<p><strong>Status:</strong> ").append(processedCount).append(" Processed, ").append(payslipCount - processedCount).append(" Pending</p></div>");
         html.append("<table><thead><tr><th>Employee Name</th><th>Gross Pay</th><th>Deductions</th><th>Net Pay</th><th>Status</th></tr></thead><tbody>");
-        
-        for (Payslip p : payslips) {
-            html.append("<tr><td>").append(p.getUser().getFirstName()).append(" ").append(p.getUser().getLastName()).append("</td>");
-            html.append("<td>$").append(String.format("%.2f", p.getGrossPay())).append("</td>");
-            html.append("<td>$").append(String.format("%.2f", p.getTaxDeductions().add(p.getOtherDeductions()))).append("</td>");
-            html.append("<td>$").append(String.format("%.2f", p.getNetPay())).append("</td>");
+        return html.toString();
+    }
+
+    private void writeHtmlRows(OutputStream out, List<PayslipRepository.ExportRow> chunk, ReportTotals totals) {
+        StringBuilder html = new StringBuilder();
+        for (PayslipRepository.ExportRow p : chunk) {
+            BigDecimal deductions = orZero(p.getTaxDeductions()).add(orZero(p.getOtherDeductions()));
+            totals.add(p, deductions);
+            html.append("<tr><td>").append(escapeHtml(p.getFirstName())).append(" ").append(escapeHtml(p.getLastName())).append("</td>");
+            html.append("<td>$").append(money(p.getGrossPay())).append("</td>");
+            html.append("<td>$").append(money(deductions)).append("</td>");
+            html.append("<td>$").append(money(p.getNetPay())).append("</td>");
             html.append("<td><span class='status-processed'>Processed</span></td></tr>");
         }
-        
+        write(out, html);
+    }
+
+    private String htmlReportFooter(ReportTotals totals) {
+        StringBuilder html = new StringBuilder();
         html.append("</tbody></table><div class='totals'>");
-        html.append("<div>Total Gross Pay: $").append(String.format("%.2f", totalGross)).append("</div>");
-        html.append("<div>Total Deductions: $").append(String.format("%.2f", totalDeductions)).append("</div>");
-        html.append("<div>Total Net Pay: $").append(String.format("%.2f", totalNet)).append("</div></div>");
+        html.append("<div>Total Gross Pay: $").append(money(totals.gross)).append("</div>");
+        html.append("<div>Total Deductions: $").append(money(totals.deductions)).append("</div>");
+        html.append("<div>Total Net Pay: $").append(money(totals.net)).append("</div></div>");
         html.append("<div class='footer'><p>This is an official payroll report generated by Craft Resource Management System</p>");
         html.append("<p>&copy; ").append(java.time.Year.now().getValue()).append(" Craft Resource Management. All rights reserved.</p></div>");
         html.append("<script>window.onload=()=>window.print();</script></body></html>");
-        
         return html.toString();
     }
 
     @GetMapping("/runs/{id}/bank-file")
-    public ResponseEntity<String> generateBankFile(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> generateBankFile(@PathVariable Long id) {
         try {
             PayrollRun run = payrollService.getPayrollRunById(id);
             if (run == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            List<Payslip> payslips = payrollService.getAllPayslips().stream()
-                .filter(p -> p.getPayrollRun() != null && p.getPayrollRun().getId().equals(id))
-                .toList();
-
-            StringBuilder bankFile = new StringBuilder();
-            bankFile.append("Account Number,Account Name,Bank Name,Amount,Reference\n");
-            
-            for (Payslip p : payslips) {
-                String accountNumber = p.getUser().getAccountNumber() != null ? p.getUser().getAccountNumber() : "N/A";
-                String bankName = p.getUser().getBankName() != null ? p.getUser().getBankName() : "N/A";
-                bankFile.append(String.format("%s,%s %s,%s,%.2f,PAYROLL_%s\n",
-                    accountNumber,
-                    p.getUser().getFirstName(),
-                    p.getUser().getLastName(),
-                    bankName,
-                    p.getNetPay(),
-                    run.getId()));
-            }
-
+            StreamingResponseBody body = out -> {
+                write(out, "Account Number,Account Name,Bank Name,Amount,Reference\n");
+                payrollService.streamPayslipExportRows(id, EXPORT_CHUNK_SIZE, chunk -> writeBankRows(out, chunk, run.getId()));
+            };
             return ResponseEntity.ok()
                 .header("Content-Disposition", "attachment; filename=bank_transfer_" + id + ".csv")
                 .header("Content-Type", "text/csv")
-                .body(bankFile.toString());
+                .body(body);
         } catch (Exception e) {
             logger.error("Error generating bank file: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    private void writeBankRows(OutputStream out, List<PayslipRepository.ExportRow> chunk, Long runId) {
+        StringBuilder lines = new StringBuilder();
+        for (PayslipRepository.ExportRow p : chunk) {
+            lines.append(p.getAccountNumber() != null ? p.getAccountNumber() : "N/A").append(',')
+                .append(p.getFirstName()).append(' ').append(p.getLastName()).append(',')
+                .append(p.getBankName() != null ? p.getBankName() : "N/A").append(',')
+                .append(money(p.getNetPay())).append(',')
+                .append("PAYROLL_").append(runId).append('\n');
+        }
+        write(out, lines);
+    }
+
+    private static void write(OutputStream out, CharSequence text) {
+        try {
+            out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static String money(BigDecimal value) {
+        return orZero(value).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
     @GetMapping("/attendance-review/{userId}")
     public ResponseEntity<?> getAttendanceReview(@PathVariable Long userId, 
                                                   @RequestParam String startDate, 
@@ -475,28 +612,7 @@ public class PayrollController {
             
             List<Map<String, Object>> attendanceRecords = attendanceIntegrationService
                 .getUserAttendanceByDateRange(userId, startDate, endDate);
-            
-            Map<String, Object> summary = new java.util.HashMap<>();
-            summary.put("userId", userId);
-            summary.put("period", startDate + " to " + endDate);
-            summary.put("totalDays", attendanceRecords.size());
-            
-            long lateDays = attendanceRecords.stream()
-                .filter(rec -> Boolean.TRUE.equals(rec.get("is_late")))
-                .count();
-            long earlyDepartures = attendanceRecords.stream()
-                .filter(rec -> Boolean.TRUE.equals(rec.get("is_early_departure")))
-                .count();
-            double totalOvertimeHours = attendanceRecords.stream()
-                .mapToDouble(rec -> {
-                    Object overtimeObj = rec.get("overtime_hours");
-                    return overtimeObj != null ? Double.parseDouble(overtimeObj.toString()) : 0.0;
-                })
-                .sum();
-            
-            summary.put("lateDays", lateDays);
-            summary.put("earlyDepartures", earlyDepartures);
-            summary.put("totalOvertimeHours", totalOvertimeHours);
+            Map<String, Object> summary = buildAttendanceSummary(userId, startDate, endDate, attendanceRecords);
             summary.put("records", attendanceRecords);
             
             auditClient.logActionAsync(userId, "viewed attendance review",
@@ -509,4 +625,65 @@ public class PayrollController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    /**
+     * Attendance review for several employees at once, fetched with one bulk lookup.
+     */
+    @GetMapping("/attendance-review")
+    public ResponseEntity<?> getBulkAttendanceReview(@RequestParam List<Long> userIds,
+                                                     @RequestParam String startDate,
+                                                     @RequestParam String endDate) {
+        try {
+            List<Long> ids = userIds.stream().distinct().toList();
+            if (ids.isEmpty()) {
+                return ResponseEntity.badRequest().body("userIds is required");
+            }
+
+            Map<Long, List<Map<String, Object>>> attendanceByUser = attendanceIntegrationService
+                .getAttendanceByDateRange(ids, startDate, endDate);
+            List<Map<String, Object>> summaries = ids.stream()
+                .map(id -> {
+                    Map<String, Object> summary = buildAttendanceSummary(id, startDate, endDate,
+                        attendanceByUser.getOrDefault(id, List.of()));
+                    summary.put("available", attendanceByUser.containsKey(id));
+                    return summary;
+                })
+                .toList();
+
+            auditClient.logActionAsync(null, "viewed bulk attendance review",
+                String.format("{\"module\":\"payroll\",\"operation\":\"VIEW\",\"employeeCount\":%d,\"period\":\"%s to %s\"}",
+                    ids.size(), startDate, endDate), "java-backend", "ATTENDANCE_REVIEW", null);
+
+            return ResponseEntity.ok(summaries);
+        } catch (Exception e) {
+            logger.error("Error fetching bulk attendance review: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    private Map<String, Object> buildAttendanceSummary(Long userId, String startDate, String endDate,
+                                                       List<Map<String, Object>> attendanceRecords) {
+        Map<String, Object> summary = new java.util.HashMap<>();
+        summary.put("userId", userId);
+        summary.put("period", startDate + " to " + endDate);
+        summary.put("totalDays", attendanceRecords.size());
+
+        long lateDays = attendanceRecords.stream()
+            .filter(rec -> Boolean.TRUE.equals(rec.get("is_late")))
+            .count();
+        long earlyDepartures = attendanceRecords.stream()
+            .filter(rec -> Boolean.TRUE.equals(rec.get("is_early_departure")))
+            .count();
+        double totalOvertimeHours = attendanceRecords.stream()
+            .mapToDouble(rec -> {
+                Object overtimeObj = rec.get("overtime_hours");
+                return overtimeObj != null ? Double.parseDouble(overtimeObj.toString()) : 0.0;
+            })
+            .sum();
+
+        summary.put("lateDays", lateDays);
+        summary.put("earlyDepartures", earlyDepartures);
+        summary.put("totalOvertimeHours", totalOvertimeHours);
+        return summary;
+    }
 }
@@ -52,6 +52,31 @@ public class PayrollRun {
     @Column(name = "run_date", nullable = false)
     private LocalDateTime runDate;
 
+    @Column(name = "total_employees")
+    private Integer totalEmployees;
+
+    @Column(name = "processed_employees")
+    private Integer processedEmployees;
+
+    @Column(name = "department_id")
+    private Integer departmentId;
+
+    @Column(name = "include_overtime")
+    private Boolean includeOvertime;
+
+    @Column(name = "include_bonuses")
+    private Boolean includeBonuses;
+
+    @Column(name = "include_deductions")
+    private Boolean includeDeductions;
+
+    // Lease columns are only written by PayrollEngine through compare-and-set updates
+    @Column(name = "processing_owner", insertable = false, updatable = false)
+    private String processingOwner;
+
+    @Column(name = "heartbeat_at", insertable = false, updatable = false)
+    private LocalDateTime heartbeatAt;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -63,6 +88,10 @@ public class PayrollRun {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public Integer getRunMonth() {
         return runMonth;
     }
@@ -166,4 +195,60 @@ public class PayrollRun {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Integer getTotalEmployees() {
+        return totalEmployees;
+    }
+
+    public void setTotalEmployees(Integer totalEmployees) {
+        this.totalEmployees = totalEmployees;
+    }
+
+    public Integer getProcessedEmployees() {
+        return processedEmployees;
+    }
+
+    public void setProcessedEmployees(Integer processedEmployees) {
+        this.processedEmployees = processedEmployees;
+    }
+
+    public Integer getDepartmentId() {
+        return departmentId;
+    }
+
+    public void setDepartmentId(Integer departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public Boolean getIncludeOvertime() {
+        return includeOvertime;
+    }
+
+    public void setIncludeOvertime(Boolean includeOvertime) {
+        this.includeOvertime = includeOvertime;
+    }
+
+    public Boolean getIncludeBonuses() {
+        return includeBonuses;
+    }
+
+    public void setIncludeBonuses(Boolean includeBonuses) {
+        this.includeBonuses = includeBonuses;
+    }
+
+    public Boolean getIncludeDeductions() {
+        return includeDeductions;
+    }
+
+    public void setIncludeDeductions(Boolean includeDeductions) {
+        this.includeDeductions = includeDeductions;
+    }
+
+    public String getProcessingOwner() {
+        return processingOwner;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
 }
@@ -0,0 +1,61 @@
+package com.craftresourcemanagement.hr.entities;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Totals of one payroll run for one department or job grade. Rows are added to
+ * chunk by chunk while the run is processed, so trends never rescan payslips.
+ * A dimension id of 0 groups employees without a department or job grade.
+ */
+@Entity
+@Table(name = "payroll_run_aggregates",
+       uniqueConstraints = @UniqueConstraint(name = "uk_payroll_run_aggregate",
+                                             columnNames = {"payroll_run_id", "dimension", "dimension_id"}))
+public class PayrollRunAggregate {
+
+    public static final String DEPARTMENT = "DEPARTMENT";
+    public static final String JOB_GRADE = "JOB_GRADE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "payroll_run_id", nullable = false)
+    private Long payrollRunId;
+
+    @Column(nullable = false, length = 20)
+    private String dimension;
+
+    @Column(name = "dimension_id", nullable = false)
+    private Long dimensionId;
+
+    @Column(nullable = false)
+    private Integer employees;
+
+    @Column(name = "total_gross", precision = 15, scale = 2, nullable = false)
+    private BigDecimal totalGross;
+
+    @Column(name = "total_deductions", precision = 15, scale = 2, nullable = false)
+    private BigDecimal totalDeductions;
+
+    @Column(name = "total_net", precision = 15, scale = 2, nullable = false)
+    private BigDecimal totalNet;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public Long getPayrollRunId() { return payrollRunId; }
+    public void setPayrollRunId(Long payrollRunId) { this.payrollRunId = payrollRunId; }
+    public String getDimension() { return dimension; }
+    public void setDimension(String dimension) { this.dimension = dimension; }
+    public Long getDimensionId() { return dimensionId; }
+    public void setDimensionId(Long dimensionId) { this.dimensionId = dimensionId; }
+    public Integer getEmployees() { return employees; }
+    public void setEmployees(Integer employees) { this.employees = employees; }
+    public BigDecimal getTotalGross() { return totalGross; }
+    public void setTotalGross(BigDecimal totalGross) { this.totalGross = totalGross; }
+    public BigDecimal getTotalDeductions() { return totalDeductions; }
+    public void setTotalDeductions(BigDecimal totalDeductions) { this.totalDeductions = totalDeductions; }
+    public BigDecimal getTotalNet() { return totalNet; }
+    public void setTotalNet(BigDecimal totalNet) { this.totalNet = totalNet; }
+}
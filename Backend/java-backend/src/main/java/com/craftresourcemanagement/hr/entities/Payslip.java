@@ -6,7 +6,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "payslips")
+@Table(name = "payslips",
+       uniqueConstraints = @UniqueConstraint(name = "uk_payslips_run_user",
+                                             columnNames = {"payroll_run_id", "user_id"}))
 public class Payslip {
 
     @Id
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "performance_reviews")
+@Table(name = "performance_reviews",
+       uniqueConstraints = @UniqueConstraint(name = "uk_performance_reviews_employee_date",
+                                             columnNames = {"employee_id", "review_date"}))
 public class PerformanceReview {
 
     @Id
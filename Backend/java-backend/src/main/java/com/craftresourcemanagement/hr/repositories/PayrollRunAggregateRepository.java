@@ -0,0 +1,14 @@
+package com.craftresourcemanagement.hr.repositories;
+
+import com.craftresourcemanagement.hr.entities.PayrollRunAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PayrollRunAggregateRepository extends JpaRepository<PayrollRunAggregate, Long> {
+    List<PayrollRunAggregate> findByPayrollRunIdInAndDimensionOrderByPayrollRunIdAscDimensionIdAsc(
+        Collection<Long> payrollRunIds, String dimension);
+}
@@ -1,10 +1,16 @@
 package com.craftresourcemanagement.hr.repositories;
 
 import com.craftresourcemanagement.hr.entities.PayrollRun;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface PayrollRunRepository extends JpaRepository<PayrollRun, Long> {
     long countByStatus(String status);
+
+    List<PayrollRun> findByStatusInOrderByEndDateDescIdDesc(Collection<String> statuses, Pageable pageable);
 }
@@ -3,13 +3,82 @@ package com.craftresourcemanagement.hr.repositories;
 import com.craftresourcemanagement.hr.entities.Payslip;
 import com.craftresourcemanagement.hr.entities.User;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 
 @Repository
 public interface PayslipRepository extends JpaRepository<Payslip, Long> {
+
+    String SUMMARY_SELECT = "SELECT p.id AS id, p.payrollRun.id AS payrollRunId, u.id AS userId, "
+        + "u.employeeId AS employeeId, u.firstName AS firstName, u.lastName AS lastName, "
+        + "p.payPeriodStart AS payPeriodStart, p.payPeriodEnd AS payPeriodEnd, p.grossPay AS grossPay, "
+        + "p.taxDeductions AS taxDeductions, p.otherDeductions AS otherDeductions, p.netPay AS netPay "
+        + "FROM Payslip p JOIN p.user u ";
+
     List<Payslip> findByUserOrderByPayPeriodEndDesc(User user);
+
+    @Query("SELECT p.user.id FROM Payslip p WHERE p.payrollRun.id = ?1")
+    List<Long> findUserIdsByPayrollRunId(Long payrollRunId);
+
+    long countByPayrollRunId(Long payrollRunId);
+
+    /**
+     * Payslip with its employee's identifying fields, read in one select without
+     * loading the User or PayrollRun entities.
+     */
+    interface PayslipSummary {
+        Long getId();
+        Long getPayrollRunId();
+        Long getUserId();
+        String getEmployeeId();
+        String getFirstName();
+        String getLastName();
+        LocalDate getPayPeriodStart();
+        LocalDate getPayPeriodEnd();
+        BigDecimal getGrossPay();
+        BigDecimal getTaxDeductions();
+        BigDecimal getOtherDeductions();
+        BigDecimal getNetPay();
+    }
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.payrollRun.id = :runId",
+        countQuery = "SELECT COUNT(p) FROM Payslip p WHERE p.payrollRun.id = :runId")
+    Page<PayslipSummary> findSummariesByPayrollRunId(@Param("runId") Long payrollRunId, Pageable pageable);
+
+    /** Payslips whose pay period lies within [from, to]. */
+    @Query(value = SUMMARY_SELECT + "WHERE p.payPeriodStart >= :from AND p.payPeriodEnd <= :to",
+        countQuery = "SELECT COUNT(p) FROM Payslip p WHERE p.payPeriodStart >= :from AND p.payPeriodEnd <= :to")
+    Page<PayslipSummary> findSummariesByPayPeriod(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    /**
+     * Flat payslip row for report and bank file exports; read as a projection so
+     * streamed chunks are never held by the persistence context.
+     */
+    interface ExportRow {
+        Long getId();
+        String getEmployeeId();
+        String getFirstName();
+        String getLastName();
+        String getAccountNumber();
+        String getBankName();
+        BigDecimal getGrossPay();
+        BigDecimal getTaxDeductions();
+        BigDecimal getOtherDeductions();
+        BigDecimal getNetPay();
+    }
+
+    @Query("SELECT p.id AS id, u.employeeId AS employeeId, u.firstName AS firstName, u.lastName AS lastName, "
+        + "u.accountNumber AS accountNumber, u.bankName AS bankName, p.grossPay AS grossPay, "
+        + "p.taxDeductions AS taxDeductions, p.otherDeductions AS otherDeductions, p.netPay AS netPay "
+        + "FROM Payslip p JOIN p.user u WHERE p.payrollRun.id = :runId AND p.id > :lastId ORDER BY p.id")
+    List<ExportRow> findExportRowsByPayrollRunId(@Param("runId") Long payrollRunId, @Param("lastId") Long lastId, Pageable pageable);
 }
@@ -1,11 +1,14 @@
 package com.craftresourcemanagement.hr.repositories;
 
 import com.craftresourcemanagement.hr.entities.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,8 +17,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmployeeId(String employeeId);
     List<User> findByAccountStatus(String accountStatus);
     List<User> findByDepartmentId(Integer departmentId);
+    List<User> findByDepartmentId(Integer departmentId, Pageable pageable);
     List<User> findByRoleId(Integer roleId);
-    List<User> findByIsActive(Integer isActive);
+    List<User> findByRoleIdIn(Collection<Integer> roleIds, Pageable pageable);
+    List<User> findByIsActive(Integer isActive, Pageable pageable);
     
     @Query("SELECT COUNT(u) FROM User u WHERE u.isActive = CASE WHEN ?1 = true THEN 1 ELSE 0 END")
     long countByIsActive(boolean isActive);
@@ -23,6 +28,90 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.departmentId = ?1")
     long countByDepartmentId(long departmentId);
     
+    @Query("SELECT u FROM User u WHERE (u.isActive = 1 OR u.accountStatus = 'ACTIVE') AND (?1 IS NULL OR u.departmentId = ?1)")
+    List<User> findActiveForPayroll(Integer departmentId);
+    
+    /** The columns the employee directory shows, without credentials or personal details. */
+    interface DirectoryEntry {
+        Long getId();
+        String getEmployeeId();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+        Integer getDepartmentId();
+        Integer getRoleId();
+        Integer getJobGradeId();
+        String getAccountStatus();
+        Integer getIsActive();
+        String getProfilePictureUrl();
+    }
+
+    /**
+     * One keyset page of the directory: rows after {@code afterId} matching every non-null filter, by id.
+     * {@code roleIds} only applies when {@code allRoles} is false and must not be empty.
+     */
+    @Query("SELECT u.id AS id, u.employeeId AS employeeId, u.firstName AS firstName, u.lastName AS lastName, "
+        + "u.email AS email, u.departmentId AS departmentId, u.roleId AS roleId, u.jobGradeId AS jobGradeId, "
+        + "u.accountStatus AS accountStatus, u.isActive AS isActive, u.profilePictureUrl AS profilePictureUrl "
+        + "FROM User u WHERE u.id > :afterId "
+        + "AND (:departmentId IS NULL OR u.departmentId = :departmentId) "
+        + "AND (:allRoles = true OR u.roleId IN :roleIds) "
+        + "AND (:isActive IS NULL OR u.isActive = :isActive) "
+        + "AND (:accountStatus IS NULL OR u.accountStatus = :accountStatus) "
+        + "AND (:search IS NULL OR LOWER(u.firstName) LIKE :search ESCAPE '!' OR LOWER(u.lastName) LIKE :search ESCAPE '!' "
+        + "OR LOWER(u.email) LIKE :search ESCAPE '!' OR LOWER(u.employeeId) LIKE :search ESCAPE '!') "
+        + "ORDER BY u.id")
+    List<DirectoryEntry> findDirectoryPage(@Param("afterId") Long afterId,
+                                           @Param("departmentId") Integer departmentId,
+                                           @Param("allRoles") boolean allRoles,
+                                           @Param("roleIds") Collection<Integer> roleIds,
+                                           @Param("isActive") Integer isActive,
+                                           @Param("accountStatus") String accountStatus,
+                                           @Param("search") String search,
+                                           Pageable pageable);
+
+    interface PeopleSummary {
+        Long getTotal();
+        Long getActive();
+        Long getInactive();
+        Long getAdmins();
+        Long getAssets();
+        Long getProvisioned();
+    }
+
+    interface GroupCount {
+        Integer getGroupId();
+        Long getTotal();
+    }
+
+    interface StatusCount {
+        String getStatus();
+        Long getTotal();
+    }
+
+    @Query("SELECT COUNT(u) AS total, "
+        + "SUM(CASE WHEN u.isActive = 1 THEN 1 ELSE 0 END) AS active, "
+        + "SUM(CASE WHEN u.isActive = 0 THEN 1 ELSE 0 END) AS inactive, "
+        + "SUM(CASE WHEN u.roleId IN :adminRoleIds THEN 1 ELSE 0 END) AS admins, "
+        + "SUM(CASE WHEN u.departmentId = :assetsDepartmentId THEN 1 ELSE 0 END) AS assets, "
+        + "SUM(CASE WHEN u.accountStatus = 'PROVISIONED' THEN 1 ELSE 0 END) AS provisioned "
+        + "FROM User u")
+    PeopleSummary summarizePeople(@Param("adminRoleIds") Collection<Integer> adminRoleIds,
+                                  @Param("assetsDepartmentId") Integer assetsDepartmentId);
+
+    @Query("SELECT u.departmentId AS groupId, COUNT(u) AS total FROM User u WHERE u.departmentId IS NOT NULL GROUP BY u.departmentId")
+    List<GroupCount> countByDepartment();
+
+    @Query("SELECT u.roleId AS groupId, COUNT(u) AS total FROM User u WHERE u.roleId IS NOT NULL GROUP BY u.roleId")
+    List<GroupCount> countByRole();
+
+    @Query("SELECT u.jobGradeId AS groupId, COUNT(u) AS total FROM User u WHERE u.jobGradeId IS NOT NULL GROUP BY u.jobGradeId")
+    List<GroupCount> countByJobGrade();
+
+    @Query("SELECT COALESCE(u.accountStatus, 'UNKNOWN') AS status, COUNT(u) AS total FROM User u "
+        + "GROUP BY COALESCE(u.accountStatus, 'UNKNOWN')")
+    List<StatusCount> countByAccountStatus();
+
     // Automated workflow queries
     @Query("SELECT u FROM User u WHERE MONTH(u.dateOfBirth) = MONTH(?1) AND DAY(u.dateOfBirth) = DAY(?1)")
     List<User> findByBirthdayToday(LocalDate today);
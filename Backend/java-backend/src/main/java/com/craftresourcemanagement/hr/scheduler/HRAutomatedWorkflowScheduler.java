@@ -25,11 +25,8 @@ public class HRAutomatedWorkflowScheduler {
     public void sendBirthdayAndAnniversaryNotifications() {
         log.info("Running birthday/anniversary notifications job");
         
-        var birthdayEmployees = employeeService.getEmployeesWithBirthdayToday();
-        birthdayEmployees.forEach(notificationService::sendBirthdayGreeting);
-        
-        var anniversaryEmployees = employeeService.getEmployeesWithAnniversaryToday();
-        anniversaryEmployees.forEach(notificationService::sendAnniversaryGreeting);
+        notificationService.sendBirthdayGreetings(employeeService.getEmployeesWithBirthdayToday());
+        notificationService.sendAnniversaryGreetings(employeeService.getEmployeesWithAnniversaryToday());
     }
 
     @Scheduled(cron = "0 0 8 * * *") // Daily at 8 AM
@@ -37,7 +34,7 @@ public class HRAutomatedWorkflowScheduler {
         log.info("Running probation end alerts job");
         var twoWeeksFromNow = LocalDate.now().plusWeeks(2);
         var employees = employeeService.getEmployeesWithProbationEndingOn(twoWeeksFromNow);
-        employees.forEach(notificationService::sendProbationEndAlert);
+        notificationService.sendProbationEndAlerts(employees);
     }
 
     @Scheduled(cron = "0 0 8 * * *") // Daily at 8 AM
@@ -45,7 +42,7 @@ public class HRAutomatedWorkflowScheduler {
         log.info("Running contract renewal reminders job");
         var oneMonthFromNow = LocalDate.now().plusMonths(1);
         var employees = employeeService.getEmployeesWithContractExpiringOn(oneMonthFromNow);
-        employees.forEach(notificationService::sendContractRenewalReminder);
+        notificationService.sendContractRenewalReminders(employees);
     }
 
     @Scheduled(cron = "0 0 10 * * *") // Daily at 10 AM
@@ -53,7 +50,7 @@ public class HRAutomatedWorkflowScheduler {
         log.info("Running training due date reminders job");
         var threeDaysFromNow = LocalDate.now().plusDays(3);
         var trainings = employeeService.getTrainingsEndingOn(threeDaysFromNow);
-        trainings.forEach(notificationService::sendTrainingDueReminder);
+        notificationService.sendTrainingDueReminders(trainings);
     }
 
     @Scheduled(cron = "0 0 9 1 * *") // 1st of month at 9 AM
@@ -66,6 +63,6 @@ public class HRAutomatedWorkflowScheduler {
     public void leaveBalanceAlerts() {
         log.info("Running leave balance alerts job");
         var employees = employeeService.getEmployeesWithLowLeaveBalance(5);
-        employees.forEach(notificationService::sendLeaveBalanceAlert);
+        notificationService.sendLeaveBalanceAlerts(employees);
     }
 }
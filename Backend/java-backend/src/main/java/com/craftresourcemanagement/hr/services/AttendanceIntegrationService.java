@@ -1,30 +1,54 @@
 package com.craftresourcemanagement.hr.services;
 
+import com.craftresourcemanagement.config.IntegrationWebClientFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Collections;
 
 @Service
 public class AttendanceIntegrationService {
-    
-    @Value("${python.service.url}")
-    private String pythonBackendUrl;
-    
-    private final RestTemplate restTemplate = new RestTemplate();
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceIntegrationService.class);
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> RECORD_LIST =
+        new ParameterizedTypeReference<List<Map<String, Object>>>() {};
+
+    private final WebClient webClient;
+    private final int bulkConcurrency;
+    private final Duration bulkTimeout;
+
+    @Autowired
+    public AttendanceIntegrationService(IntegrationWebClientFactory webClientFactory,
+                                        @Value("${python.service.url}") String pythonBackendUrl,
+                                        @Value("${integration.bulk.concurrency:16}") int bulkConcurrency,
+                                        @Value("${integration.bulk.timeout-seconds:30}") long bulkTimeoutSeconds) {
+        this(webClientFactory.create(pythonBackendUrl), bulkConcurrency, Duration.ofSeconds(bulkTimeoutSeconds));
+    }
+
+    protected AttendanceIntegrationService(WebClient webClient, int bulkConcurrency, Duration bulkTimeout) {
+        this.webClient = webClient;
+        this.bulkConcurrency = bulkConcurrency;
+        this.bulkTimeout = bulkTimeout;
+    }
 
     public Map<String, Object> getMonthlyAttendanceStats() {
         try {
-            String url = pythonBackendUrl + "/api/attendance/stats/monthly";
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                url, HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-            return response.getBody();
+            Map<String, Object> stats = webClient.get()
+                .uri("/api/attendance/stats/monthly")
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .block();
+            return stats != null ? stats : Collections.emptyMap();
         } catch (Exception e) {
             return Collections.emptyMap();
         }
@@ -32,14 +56,31 @@ public class AttendanceIntegrationService {
 
     public List<Map<String, Object>> getUserAttendanceByDateRange(Long userId, String startDate, String endDate) {
         try {
-            String url = String.format("%s/api/attendance/user/%d/date-range?startDate=%s&endDate=%s", 
-                pythonBackendUrl, userId, startDate, endDate);
-            ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                url, HttpMethod.GET, null, new ParameterizedTypeReference<List<Map<String, Object>>>() {}
-            );
-            return response.getBody() != null ? response.getBody() : Collections.emptyList();
+            List<Map<String, Object>> records = fetchUserAttendance(userId, startDate, endDate).block();
+            return records != null ? records : Collections.emptyList();
         } catch (Exception e) {
             return Collections.emptyList();
         }
     }
+
+    /**
+     * Attendance records for many users over one date range, fetched in parallel.
+     * Users whose lookup failed are absent from the returned map.
+     */
+    public Map<Long, List<Map<String, Object>>> getAttendanceByDateRange(Collection<Long> userIds,
+                                                                         String startDate, String endDate) {
+        return BulkLookup.fetchAll(userIds, userId -> fetchUserAttendance(userId, startDate, endDate),
+            bulkConcurrency, bulkTimeout, logger, "attendance");
+    }
+
+    protected Mono<List<Map<String, Object>>> fetchUserAttendance(Long userId, String startDate, String endDate) {
+        return webClient.get()
+            .uri(uriBuilder -> uriBuilder.path("/api/attendance/user/{userId}/date-range")
+                .queryParam("startDate", startDate)
+                .queryParam("endDate", endDate)
+                .build(userId))
+            .retrieve()
+            .bodyToMono(RECORD_LIST)
+            .defaultIfEmpty(Collections.emptyList());
+    }
 }
@@ -0,0 +1,54 @@
+package com.craftresourcemanagement.hr.services;
+
+import org.slf4j.Logger;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Fans per-user lookups out over the shared connection pool with bounded
+ * concurrency and collects them into a map keyed by user ID.
+ */
+final class BulkLookup {
+
+    private BulkLookup() {
+    }
+
+    /**
+     * Users whose lookup failed or did not finish within the timeout are absent from the result.
+     */
+    static Map<Long, List<Map<String, Object>>> fetchAll(Collection<Long> userIds,
+                                                        Function<Long, Mono<List<Map<String, Object>>>> fetcher,
+                                                        int concurrency, Duration timeout,
+                                                        Logger logger, String what) {
+        if (userIds == null || userIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<Long, List<Map<String, Object>>> results = Flux.fromIterable(new LinkedHashSet<>(userIds))
+            .filter(Objects::nonNull)
+            .flatMap(userId -> fetcher.apply(userId)
+                .map(records -> Map.entry(userId, records))
+                .onErrorResume(e -> {
+                    logger.warn("Failed to fetch {} for user {}: {}", what, userId, e.getMessage());
+                    return Mono.empty();
+                }), Math.max(1, concurrency))
+            .take(timeout)
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new)
+            .block();
+        if (results == null) {
+            return new HashMap<>();
+        }
+        if (results.size() < userIds.size()) {
+            logger.warn("Fetched {} for {} of {} users", what, results.size(), userIds.size());
+        }
+        return results;
+    }
+}
@@ -1,7 +1,9 @@
 package com.craftresourcemanagement.hr.services;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 public interface DashboardService {
     Map<String, Object> getDashboardKpis(Long employeeId);
+    Map<String, Object> getTeamAttendanceOverview(Integer departmentId, LocalDate startDate, LocalDate endDate);
 }
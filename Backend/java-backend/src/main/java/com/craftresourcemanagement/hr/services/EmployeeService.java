@@ -2,6 +2,8 @@ package com.craftresourcemanagement.hr.services;
 
 import com.craftresourcemanagement.hr.entities.EmployeeTraining;
 import com.craftresourcemanagement.hr.entities.User;
+import com.craftresourcemanagement.hr.repositories.UserRepository;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -10,9 +12,12 @@ import java.util.Optional;
 
 public interface EmployeeService {
     User registerEmployee(User user);
-    List<User> listAllEmployees();
-    List<User> getFilteredUsers(String filter, Integer departmentId, Integer roleId);
+    List<User> listAllEmployees(Pageable pageable);
+    List<User> getFilteredUsers(String filter, Integer departmentId, Integer roleId, Pageable pageable);
+    List<UserRepository.DirectoryEntry> getEmployeeDirectory(String filter, Integer departmentId, Integer roleId,
+                                                             String status, String search, Long afterId, int limit);
     Map<String, Long> getPeopleCounts();
+    Map<String, Object> getPeopleStats();
     Optional<User> findByEmployeeId(String employeeId);
     Optional<User> findById(Long id);
     List<User> getProvisionedEmployees();
@@ -26,4 +31,5 @@ public interface EmployeeService {
     List<EmployeeTraining> getTrainingsEndingOn(LocalDate date);
     List<User> getEmployeesWithLowLeaveBalance(int threshold);
     void autoSchedulePerformanceReviews();
+    Map<String, Object> getReviewSchedulingMetrics();
 }
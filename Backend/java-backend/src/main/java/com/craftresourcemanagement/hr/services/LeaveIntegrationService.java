@@ -1,48 +1,125 @@
 package com.craftresourcemanagement.hr.services;
 
+import com.craftresourcemanagement.config.IntegrationWebClientFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Collections;
 
 @Service
 public class LeaveIntegrationService {
-    
-    @Value("${nodejs.service.url}")
-    private String nodejsBackendUrl;
-    
-    private final RestTemplate restTemplate = new RestTemplate();
 
-    @SuppressWarnings("unchecked")
+    private static final Logger logger = LoggerFactory.getLogger(LeaveIntegrationService.class);
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_BODY =
+        new ParameterizedTypeReference<Map<String, Object>>() {};
+
+    private final WebClient webClient;
+    private final int bulkConcurrency;
+    private final Duration bulkTimeout;
+
+    @Autowired
+    public LeaveIntegrationService(IntegrationWebClientFactory webClientFactory,
+                                   @Value("${nodejs.service.url}") String nodejsBackendUrl,
+                                   @Value("${integration.bulk.concurrency:16}") int bulkConcurrency,
+                                   @Value("${integration.bulk.timeout-seconds:30}") long bulkTimeoutSeconds) {
+        this(webClientFactory.create(nodejsBackendUrl), bulkConcurrency, Duration.ofSeconds(bulkTimeoutSeconds));
+    }
+
+    protected LeaveIntegrationService(WebClient webClient, int bulkConcurrency, Duration bulkTimeout) {
+        this.webClient = webClient;
+        this.bulkConcurrency = bulkConcurrency;
+        this.bulkTimeout = bulkTimeout;
+    }
+
     public List<Map<String, Object>> getUserLeaveRequests(Long userId, String status) {
         try {
-            String url = String.format("%s/api/leave/user/%d?status=%s", nodejsBackendUrl, userId, status);
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                url, HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-            Map<String, Object> body = response.getBody();
-            return body != null ? (List<Map<String, Object>>) body.get("data") : Collections.emptyList();
+            List<Map<String, Object>> leaves = fetchUserLeaveRequests(userId, status).block();
+            return leaves != null ? leaves : Collections.emptyList();
         } catch (Exception e) {
             return Collections.emptyList();
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Leave requests with the given status that overlap [startDate, endDate] for many
+     * users, fetched in parallel. Users whose lookup failed are absent from the returned map.
+     */
+    public Map<Long, List<Map<String, Object>>> getLeaveRequestsByDateRange(Collection<Long> userIds, String status,
+                                                                            LocalDate startDate, LocalDate endDate) {
+        Map<Long, List<Map<String, Object>>> leaves = BulkLookup.fetchAll(userIds,
+            userId -> fetchUserLeaveRequests(userId, status), bulkConcurrency, bulkTimeout, logger, "leave requests");
+        Map<Long, List<Map<String, Object>>> inRange = new HashMap<>();
+        leaves.forEach((userId, requests) -> inRange.put(userId, requests.stream()
+            .filter(leave -> overlaps(leave, startDate, endDate))
+            .toList()));
+        return inRange;
+    }
+
     public List<Map<String, Object>> getEmployeesOnLeave() {
         try {
-            String url = nodejsBackendUrl + "/api/leave/employees-on-leave";
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                url, HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, Object>>() {}
-            );
-            Map<String, Object> body = response.getBody();
-            return body != null ? (List<Map<String, Object>>) body.get("data") : Collections.emptyList();
+            Map<String, Object> body = webClient.get()
+                .uri("/api/leave/employees-on-leave")
+                .retrieve()
+                .bodyToMono(RESPONSE_BODY)
+                .block();
+            return dataOf(body);
         } catch (Exception e) {
             return Collections.emptyList();
         }
     }
+
+    protected Mono<List<Map<String, Object>>> fetchUserLeaveRequests(Long userId, String status) {
+        return webClient.get()
+            .uri(uriBuilder -> uriBuilder.path("/api/leave/user/{userId}")
+                .queryParam("status", status)
+                .build(userId))
+            .retrieve()
+            .bodyToMono(RESPONSE_BODY)
+            .map(LeaveIntegrationService::dataOf)
+            .defaultIfEmpty(Collections.emptyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> dataOf(Map<String, Object> body) {
+        if (body == null || !(body.get("data") instanceof List)) {
+            return Collections.emptyList();
+        }
+        return (List<Map<String, Object>>) body.get("data");
+    }
+
+    /**
+     * Leaves without parseable dates are kept so that no deduction is silently dropped.
+     */
+    private static boolean overlaps(Map<String, Object> leave, LocalDate startDate, LocalDate endDate) {
+        LocalDate leaveStart = parseDate(leave.get("startDate"));
+        LocalDate leaveEnd = parseDate(leave.get("endDate"));
+        if (leaveStart == null || leaveEnd == null) {
+            return true;
+        }
+        return (endDate == null || !leaveStart.isAfter(endDate))
+            && (startDate == null || !leaveEnd.isBefore(startDate));
+    }
+
+    private static LocalDate parseDate(Object value) {
+        if (value == null || value.toString().length() < 10) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.toString().substring(0, 10));
+        } catch (Exception e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,309 @@
+package com.craftresourcemanagement.hr.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the notifications of a job in bulk instead of one blocking call per employee.
+ * <p>
+ * In-app notifications are written with one multi-row INSERT per batch. Outbound HTTP
+ * deliveries run in parallel on the bounded notification executor, paced by a rate limiter
+ * per destination URL. Every write or call is retried with backoff; a batch that still fails
+ * is inserted row by row, and only what fails on its own is stored in
+ * notification_dead_letters so it can be inspected and replayed. Duration and outcome
+ * counters are kept per job.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    static final String IN_APP = "in-app";
+
+    private static final String INSERT_PREFIX =
+        "INSERT INTO notifications (user_id, title, message, type, is_read, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS = 6;
+    private static final String DEAD_LETTER_SQL = "INSERT INTO notification_dead_letters "
+        + "(job, destination, recipient, payload, error, attempts, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final ObjectMapper PAYLOAD_MAPPER = new ObjectMapper();
+
+    public record InAppNotification(Long userId, String title, String message, String type) {
+    }
+
+    public record Delivery(String recipient, Object body) {
+    }
+
+    public record JobResult(String job, int total, int sent, int deadLettered, long elapsedMillis) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor executor;
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final Map<Integer, String> insertSqlBySize = new ConcurrentHashMap<>();
+    private final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, JobMetrics> jobs = new ConcurrentHashMap<>();
+
+    private final int batchSize;
+    private final double ratePerSecond;
+    private final int maxAttempts;
+    private final long backoffDelay;
+    private final double backoffMultiplier;
+    private final long maxBackoffDelay;
+
+    public NotificationDispatcher(JdbcTemplate jdbcTemplate,
+                                  @Qualifier("notificationExecutor") Executor executor,
+                                  @Value("${notifications.batch.size:200}") int batchSize,
+                                  @Value("${notifications.rate-per-second:20}") double ratePerSecond,
+                                  @Value("${notifications.retry.max-attempts:3}") int maxAttempts,
+                                  @Value("${notifications.retry.backoff.delay:500}") long backoffDelay,
+                                  @Value("${notifications.retry.backoff.multiplier:2}") double backoffMultiplier,
+                                  @Value("${notifications.retry.backoff.max-delay:5000}") long maxBackoffDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        this.batchSize = Math.max(1, batchSize);
+        this.ratePerSecond = ratePerSecond;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffDelay = backoffDelay;
+        this.backoffMultiplier = backoffMultiplier;
+        this.maxBackoffDelay = maxBackoffDelay;
+    }
+
+    /** Stores in-app notifications, one multi-row INSERT per batch. */
+    public JobResult sendInApp(String job, List<InAppNotification> notifications) {
+        long start = System.nanoTime();
+        JobMetrics metrics = metrics(job);
+        LocalDateTime createdAt = LocalDateTime.now();
+        int sent = 0;
+        int deadLettered = 0;
+        for (int from = 0; from < notifications.size(); from += batchSize) {
+            List<InAppNotification> batch = notifications.subList(from, Math.min(from + batchSize, notifications.size()));
+            String error = withRetry(job, metrics, () -> insertBatch(batch, createdAt));
+            if (error == null) {
+                sent += batch.size();
+                continue;
+            }
+            for (InAppNotification notification : batch) {
+                String rowError = batch.size() > 1 ? insertOne(notification, createdAt) : error;
+                if (rowError == null) {
+                    sent++;
+                } else {
+                    deadLetter(job, IN_APP, String.valueOf(notification.userId()), notification, rowError);
+                    deadLettered++;
+                }
+            }
+        }
+        return record(job, metrics, notifications.size(), sent, deadLettered, start);
+    }
+
+    /**
+     * POSTs each delivery as JSON to {@code url} on the notification executor and waits
+     * for all of them. Calls to the same URL are paced to the configured rate.
+     */
+    public JobResult post(String job, String url, List<Delivery> deliveries) {
+        long start = System.nanoTime();
+        JobMetrics metrics = metrics(job);
+        RateLimiter limiter = limiters.computeIfAbsent(url, key -> new RateLimiter(ratePerSecond));
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger deadLettered = new AtomicInteger();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(deliveries.size());
+        for (Delivery delivery : deliveries) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                String error = withRetry(job, metrics, () -> {
+                    limiter.acquire();
+                    send(url, delivery.body());
+                });
+                if (error == null) {
+                    sent.incrementAndGet();
+                } else {
+                    deadLetter(job, url, delivery.recipient(), delivery.body(), error);
+                    deadLettered.incrementAndGet();
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return record(job, metrics, deliveries.size(), sent.get(), deadLettered.get(), start);
+    }
+
+    protected void send(String url, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        restTemplate.postForObject(url, new HttpEntity<>(body, headers), String.class);
+    }
+
+    /** Runs the action up to maxAttempts times; returns null on success, else the last error. */
+    private String withRetry(String job, JobMetrics metrics, Runnable action) {
+        long delay = backoffDelay;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                action.run();
+                return null;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                }
+                metrics.retries.incrementAndGet();
+                logger.warn("Notification job {} attempt {} failed, retrying in {}ms: {}", job, attempt, delay, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return "Interrupted";
+                }
+                delay = Math.min(maxBackoffDelay, (long) (delay * backoffMultiplier));
+            }
+        }
+    }
+
+    private void insertBatch(List<InAppNotification> batch, LocalDateTime createdAt) {
+        String sql = insertSqlBySize.computeIfAbsent(batch.size(), size ->
+            INSERT_PREFIX + String.join(", ", Collections.nCopies(size, ROW_PLACEHOLDERS)));
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        Object[] args = new Object[batch.size() * COLUMNS];
+        int i = 0;
+        for (InAppNotification notification : batch) {
+            args[i++] = notification.userId();
+            args[i++] = notification.title();
+            args[i++] = notification.message();
+            args[i++] = notification.type();
+            args[i++] = false;
+            args[i++] = timestamp;
+        }
+        jdbcTemplate.update(sql, args);
+    }
+
+    /** Single-row insert for a batch that kept failing; returns null on success, else the error. */
+    private String insertOne(InAppNotification notification, LocalDateTime createdAt) {
+        try {
+            insertBatch(List.of(notification), createdAt);
+            return null;
+        } catch (Exception e) {
+            return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+    }
+
+    private void deadLetter(String job, String destination, String recipient, Object payload, String error) {
+        try {
+            jdbcTemplate.update(DEAD_LETTER_SQL, job, destination, recipient, toJson(payload),
+                error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error,
+                maxAttempts, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (Exception e) {
+            logger.error("Failed to dead-letter notification for {} from job {}: {}", recipient, job, e.getMessage());
+        }
+    }
+
+    private static String toJson(Object payload) {
+        try {
+            return PAYLOAD_MAPPER.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(payload);
+        }
+    }
+
+    private JobMetrics metrics(String job) {
+        return jobs.computeIfAbsent(job, key -> new JobMetrics());
+    }
+
+    private JobResult record(String job, JobMetrics metrics, int total, int sent, int deadLettered, long startNanos) {
+        long millis = (System.nanoTime() - startNanos) / 1_000_000;
+        metrics.runs.incrementAndGet();
+        metrics.messages.addAndGet(total);
+        metrics.sent.addAndGet(sent);
+        metrics.deadLettered.addAndGet(deadLettered);
+        metrics.totalMillis.addAndGet(millis);
+        metrics.lastMillis.set(millis);
+        metrics.maxMillis.accumulateAndGet(millis, Math::max);
+        if (deadLettered > 0) {
+            logger.warn("Notification job {}: {} of {} sent, {} dead-lettered in {}ms", job, sent, total, deadLettered, millis);
+        } else {
+            logger.info("Notification job {}: {} sent in {}ms", job, sent, millis);
+        }
+        return new JobResult(job, total, sent, deadLettered, millis);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> result = new TreeMap<>();
+        jobs.forEach((job, metrics) -> {
+            long runs = metrics.runs.get();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("runs", runs);
+            row.put("messages", metrics.messages.get());
+            row.put("sent", metrics.sent.get());
+            row.put("deadLettered", metrics.deadLettered.get());
+            row.put("retries", metrics.retries.get());
+            row.put("lastMillis", metrics.lastMillis.get());
+            row.put("maxMillis", metrics.maxMillis.get());
+            row.put("avgMillis", runs > 0 ? (double) metrics.totalMillis.get() / runs : 0.0);
+            result.put(job, row);
+        });
+        return result;
+    }
+
+    private static final class JobMetrics {
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong messages = new AtomicLong();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong deadLettered = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong lastMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+    }
+
+    /** Hands out evenly spaced call slots; a rate of zero or less means no limit. */
+    private static final class RateLimiter {
+        private final long intervalNanos;
+        private long nextSlot = System.nanoTime();
+
+        private RateLimiter(double permitsPerSecond) {
+            this.intervalNanos = permitsPerSecond > 0 ? (long) (1_000_000_000L / permitsPerSecond) : 0;
+        }
+
+        void acquire() {
+            if (intervalNanos == 0) {
+                return;
+            }
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(now, nextSlot);
+                nextSlot = slot + intervalNanos;
+                waitNanos = slot - now;
+            }
+            if (waitNanos > 0) {
+                try {
+                    Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a send slot", e);
+                }
+            }
+        }
+    }
+}
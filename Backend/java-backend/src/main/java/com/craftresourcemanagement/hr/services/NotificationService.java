@@ -3,60 +3,39 @@ package com.craftresourcemanagement.hr.services;
 import com.craftresourcemanagement.hr.entities.EmployeeTraining;
 import com.craftresourcemanagement.hr.entities.Payslip;
 import com.craftresourcemanagement.hr.entities.User;
+import com.craftresourcemanagement.hr.services.NotificationDispatcher.Delivery;
+import com.craftresourcemanagement.hr.services.NotificationDispatcher.InAppNotification;
+import com.craftresourcemanagement.hr.services.NotificationDispatcher.JobResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 
 @Service
 public class NotificationService {
     
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
-    private final RestTemplate restTemplate = new RestTemplate();
     private final HRNotificationService hrNotificationService;
+    private final NotificationDispatcher notificationDispatcher;
     
     @Value("${nodejs.service.url}")
     private String nodejsBackendUrl;
 
-    public NotificationService(HRNotificationService hrNotificationService) {
+    public NotificationService(HRNotificationService hrNotificationService, NotificationDispatcher notificationDispatcher) {
         this.hrNotificationService = hrNotificationService;
+        this.notificationDispatcher = notificationDispatcher;
     }
 
     public void sendPayslipEmail(Payslip payslip) {
-        try {
-            Map<String, Object> emailRequest = new HashMap<>();
-            emailRequest.put("to", payslip.getUser().getEmail());
-            emailRequest.put("subject", "Your Payslip - " + payslip.getPayPeriodStart() + " to " + payslip.getPayPeriodEnd());
-            emailRequest.put("text", String.format(
-                "Dear %s %s,\n\nYour salary for the period %s to %s has been processed.\n\nNet Pay: $%.2f\n\nThank you,\nCraft Resource Management",
-                payslip.getUser().getFirstName(),
-                payslip.getUser().getLastName(),
-                payslip.getPayPeriodStart(),
-                payslip.getPayPeriodEnd(),
-                payslip.getNetPay()
-            ));
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(emailRequest, headers);
-            
-            restTemplate.postForObject(nodejsBackendUrl + "/api/communication/send-email", request, String.class);
-            logger.info("EMAIL NOTIFICATION: Sent payslip to {} ({}) - Net Pay: {}", 
-                payslip.getUser().getEmail(),
-                payslip.getUser().getFirstName() + " " + payslip.getUser().getLastName(),
-                payslip.getNetPay());
-        } catch (Exception e) {
-            logger.error("Failed to send email to {}: {}", payslip.getUser().getEmail(), e.getMessage());
-        }
+        sendBulkPayrollNotifications(List.of(payslip));
     }
 
     public void sendPayslipSMS(Payslip payslip) {
@@ -67,80 +46,160 @@ public class NotificationService {
         }
     }
 
-    public void sendBulkPayrollNotifications(java.util.List<Payslip> payslips) {
+    /** Emails every payslip in parallel through the dispatcher; failures end up dead-lettered. */
+    public JobResult sendBulkPayrollNotifications(List<Payslip> payslips) {
         logger.info("Sending notifications for {} payslips", payslips.size());
-        
-        for (Payslip payslip : payslips) {
-            try {
-                sendPayslipEmail(payslip);
-                sendPayslipSMS(payslip);
-            } catch (Exception e) {
-                logger.error("Failed to send notification for employee {}: {}", 
-                    payslip.getUser().getEmployeeId(), e.getMessage());
-            }
-        }
-        
+        List<Delivery> emails = payslips.stream()
+            .map(payslip -> new Delivery(payslip.getUser().getEmail(), payslipEmail(payslip)))
+            .toList();
+        JobResult result = notificationDispatcher.post("payslip-email", nodejsBackendUrl + "/api/communication/send-email", emails);
+        payslips.forEach(this::sendPayslipSMS);
         logger.info("Completed sending notifications for {} payslips", payslips.size());
+        return result;
+    }
+
+    private static Map<String, Object> payslipEmail(Payslip payslip) {
+        Map<String, Object> emailRequest = new HashMap<>();
+        emailRequest.put("to", payslip.getUser().getEmail());
+        emailRequest.put("subject", "Your Payslip - " + payslip.getPayPeriodStart() + " to " + payslip.getPayPeriodEnd());
+        emailRequest.put("text", String.format(
+            "Dear %s %s,\n\nYour salary for the period %s to %s has been processed.\n\nNet Pay: $%.2f\n\nThank you,\nCraft Resource Management",
+            payslip.getUser().getFirstName(),
+            payslip.getUser().getLastName(),
+            payslip.getPayPeriodStart(),
+            payslip.getPayPeriodEnd(),
+            payslip.getNetPay()
+        ));
+        return emailRequest;
     }
     
     // Automated workflow notification methods
     public void sendBirthdayGreeting(User employee) {
+        send(birthdayGreeting(employee));
+    }
+    
+    public void sendAnniversaryGreeting(User employee) {
+        send(anniversaryGreeting(employee));
+    }
+    
+    public void sendProbationEndAlert(User employee) {
+        send(probationEndAlert(employee));
+    }
+    
+    public void sendContractRenewalReminder(User employee) {
+        send(contractRenewalReminder(employee));
+    }
+    
+    public void sendTrainingDueReminder(EmployeeTraining training) {
+        send(trainingDueReminder(training));
+    }
+    
+    public void sendLeaveBalanceAlert(User employee) {
+        send(leaveBalanceAlert(employee));
+    }
+
+    // Bulk variants used by the scheduled jobs: one dispatcher run per job
+    public JobResult sendBirthdayGreetings(List<User> employees) {
+        return sendAll("birthday-greetings", employees, NotificationService::birthdayGreeting);
+    }
+
+    public JobResult sendAnniversaryGreetings(List<User> employees) {
+        return sendAll("anniversary-greetings", employees, NotificationService::anniversaryGreeting);
+    }
+
+    public JobResult sendProbationEndAlerts(List<User> employees) {
+        return sendAll("probation-end-alerts", employees, NotificationService::probationEndAlert);
+    }
+
+    public JobResult sendContractRenewalReminders(List<User> employees) {
+        return sendAll("contract-renewal-reminders", employees, NotificationService::contractRenewalReminder);
+    }
+
+    public JobResult sendTrainingDueReminders(List<EmployeeTraining> trainings) {
+        return sendAll("training-due-reminders", trainings, NotificationService::trainingDueReminder);
+    }
+
+    public JobResult sendLeaveBalanceAlerts(List<User> employees) {
+        return sendAll("leave-balance-alerts", employees, NotificationService::leaveBalanceAlert);
+    }
+
+    public Map<String, Object> getDispatchMetrics() {
+        return notificationDispatcher.getMetrics();
+    }
+
+    private <T> JobResult sendAll(String job, List<T> recipients, Function<T, InAppNotification> toNotification) {
+        List<InAppNotification> notifications = recipients.stream()
+            .map(toNotification)
+            .filter(Objects::nonNull)
+            .toList();
+        return notificationDispatcher.sendInApp(job, notifications);
+    }
+
+    private void send(InAppNotification notification) {
+        if (notification != null) {
+            hrNotificationService.sendNotification(
+                notification.userId(), notification.title(), notification.message(), notification.type());
+        }
+    }
+
+    private static InAppNotification birthdayGreeting(User employee) {
         logger.info("BIRTHDAY: Sending greeting to {} ({})", employee.getEmail(), employee.getFirstName());
-        hrNotificationService.sendNotification(
+        return new InAppNotification(
             employee.getId(),
             "🎉 Happy Birthday!",
             String.format("Happy Birthday %s! Wishing you a wonderful day filled with joy and happiness. The entire team wishes you all the best!", employee.getFirstName()),
             "INFO"
         );
     }
-    
-    public void sendAnniversaryGreeting(User employee) {
+
+    private static InAppNotification anniversaryGreeting(User employee) {
         logger.info("ANNIVERSARY: Sending greeting to {} ({})", employee.getEmail(), employee.getFirstName());
-        if (employee.getHireDate() != null) {
-            int years = Period.between(employee.getHireDate(), LocalDate.now()).getYears();
-            hrNotificationService.sendNotification(
-                employee.getId(),
-                "🎊 Work Anniversary!",
-                String.format("Congratulations %s on completing %d year%s with us! Thank you for your dedication and hard work.", 
-                    employee.getFirstName(), years, years > 1 ? "s" : ""),
-                "SUCCESS"
-            );
+        if (employee.getHireDate() == null) {
+            return null;
         }
+        int years = Period.between(employee.getHireDate(), LocalDate.now()).getYears();
+        return new InAppNotification(
+            employee.getId(),
+            "🎊 Work Anniversary!",
+            String.format("Congratulations %s on completing %d year%s with us! Thank you for your dedication and hard work.", 
+                employee.getFirstName(), years, years > 1 ? "s" : ""),
+            "SUCCESS"
+        );
     }
-    
-    public void sendProbationEndAlert(User employee) {
+
+    private static InAppNotification probationEndAlert(User employee) {
         logger.info("PROBATION ALERT: Notifying HR about {} - probation ending soon", employee.getEmployeeId());
-        hrNotificationService.sendNotification(
+        return new InAppNotification(
             employee.getId(),
             "Probation Period Ending Soon",
-            String.format("Your probation period will end in 2 weeks. Please ensure all required tasks are completed."),
+            "Your probation period will end in 2 weeks. Please ensure all required tasks are completed.",
             "WARNING"
         );
     }
-    
-    public void sendContractRenewalReminder(User employee) {
+
+    private static InAppNotification contractRenewalReminder(User employee) {
         logger.info("CONTRACT RENEWAL: Alerting HR about {} - contract expiring soon", employee.getEmployeeId());
-        hrNotificationService.sendNotification(
+        return new InAppNotification(
             employee.getId(),
             "Contract Renewal Reminder",
             "Your employment contract will expire in 1 month. Please contact HR for renewal procedures.",
             "WARNING"
         );
     }
-    
-    public void sendTrainingDueReminder(EmployeeTraining training) {
+
+    private static InAppNotification trainingDueReminder(EmployeeTraining training) {
         logger.info("TRAINING REMINDER: Notifying {} about upcoming training", training.getUser().getEmail());
-        hrNotificationService.sendNotification(
+        return new InAppNotification(
             training.getUser().getId(),
             "Training Reminder",
-            String.format("Reminder: Your training is due in 3 days. Please ensure you complete it on time."),
+            "Reminder: Your training is due in 3 days. Please ensure you complete it on time.",
             "INFO"
         );
     }
-    
-    public void sendLeaveBalanceAlert(User employee) {
+
+    private static InAppNotification leaveBalanceAlert(User employee) {
         logger.info("LEAVE BALANCE: Alerting {} about low leave balance", employee.getEmail());
-        hrNotificationService.sendNotification(
+        return new InAppNotification(
             employee.getId(),
             "Low Leave Balance",
             "Your leave balance is running low. Please plan your leaves accordingly.",
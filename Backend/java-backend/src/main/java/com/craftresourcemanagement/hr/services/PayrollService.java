@@ -1,8 +1,14 @@
 package com.craftresourcemanagement.hr.services;
 
 import com.craftresourcemanagement.hr.entities.*;
+import com.craftresourcemanagement.hr.repositories.PayslipRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface PayrollService {
 
@@ -17,6 +23,18 @@ public interface PayrollService {
     Payslip createPayslip(Payslip payslip);
     List<Payslip> getAllPayslips();
     Payslip getPayslipById(Long id);
+
+    // Payslips by run and by pay period
+    long countPayslipsByRun(Long payrollRunId);
+    Page<PayslipRepository.PayslipSummary> getPayslipSummariesByRun(Long payrollRunId, Pageable pageable);
+    Page<PayslipRepository.PayslipSummary> getPayslipSummariesByPeriod(LocalDate from, LocalDate to, Pageable pageable);
+
+    // Payroll analytics from per-run aggregates
+    List<Map<String, Object>> getPayrollTrend(int runs, String dimension);
+    void rebuildPayrollAggregates(Long payrollRunId);
+
+    // Payslip export for a payroll run
+    void streamPayslipExportRows(Long payrollRunId, int chunkSize, Consumer<List<PayslipRepository.ExportRow>> sink);
     Payslip updatePayslip(Long id, Payslip payslip);
     void deletePayslip(Long id);
 
@@ -63,4 +81,6 @@ public interface PayrollService {
                               java.time.LocalDate payDate, Integer departmentId, 
                               boolean includeOvertime, boolean includeBonuses, 
                               boolean includeDeductions, Long createdBy);
+
+    PayrollRun resumePayroll(Long payrollRunId, Long createdBy);
 }
@@ -1,14 +1,19 @@
 package com.craftresourcemanagement.hr.services.impl;
 
+import com.craftresourcemanagement.hr.entities.User;
 import com.craftresourcemanagement.hr.repositories.*;
+import com.craftresourcemanagement.hr.services.AttendanceIntegrationService;
 import com.craftresourcemanagement.hr.services.DashboardService;
+import com.craftresourcemanagement.hr.services.LeaveIntegrationService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -25,16 +30,22 @@ public class DashboardServiceImpl implements DashboardService {
     private final PayrollRunRepository payrollRunRepository;
     private final PerformanceReviewRepository performanceReviewRepository;
     private final EmployeeTrainingRepository employeeTrainingRepository;
+    private final AttendanceIntegrationService attendanceIntegrationService;
+    private final LeaveIntegrationService leaveIntegrationService;
 
     public DashboardServiceImpl(UserRepository userRepository,
                                PayrollRunRepository payrollRunRepository,
                                PerformanceReviewRepository performanceReviewRepository,
-                               EmployeeTrainingRepository employeeTrainingRepository) {
+                               EmployeeTrainingRepository employeeTrainingRepository,
+                               AttendanceIntegrationService attendanceIntegrationService,
+                               LeaveIntegrationService leaveIntegrationService) {
         this.restTemplate = new RestTemplate();
         this.userRepository = userRepository;
         this.payrollRunRepository = payrollRunRepository;
         this.performanceReviewRepository = performanceReviewRepository;
         this.employeeTrainingRepository = employeeTrainingRepository;
+        this.attendanceIntegrationService = attendanceIntegrationService;
+        this.leaveIntegrationService = leaveIntegrationService;
     }
 
     @Override
@@ -58,6 +69,56 @@ public class DashboardServiceImpl implements DashboardService {
         return kpis;
     }
 
+    /**
+     * Attendance and approved leave for every active employee in a department,
+     * using one bulk lookup per service instead of one call per employee.
+     */
+    @Override
+    public Map<String, Object> getTeamAttendanceOverview(Integer departmentId, LocalDate startDate, LocalDate endDate) {
+        List<User> team = userRepository.findByDepartmentId(departmentId).stream()
+            .filter(u -> u.getIsActive() != null && u.getIsActive() == 1)
+            .toList();
+        List<Long> userIds = team.stream().map(User::getId).toList();
+
+        Map<Long, List<Map<String, Object>>> attendance = attendanceIntegrationService
+            .getAttendanceByDateRange(userIds, startDate.toString(), endDate.toString());
+        Map<Long, List<Map<String, Object>>> leaves = leaveIntegrationService
+            .getLeaveRequestsByDateRange(userIds, "approved", startDate, endDate);
+
+        List<Map<String, Object>> members = new ArrayList<>();
+        long lateDays = 0;
+        long daysPresent = 0;
+        long employeesOnLeave = 0;
+        for (User user : team) {
+            List<Map<String, Object>> records = attendance.getOrDefault(user.getId(), List.of());
+            List<Map<String, Object>> userLeaves = leaves.getOrDefault(user.getId(), List.of());
+            long late = records.stream().filter(rec -> Boolean.TRUE.equals(rec.get("is_late"))).count();
+            daysPresent += records.size();
+            lateDays += late;
+            if (!userLeaves.isEmpty()) {
+                employeesOnLeave++;
+            }
+
+            Map<String, Object> member = new HashMap<>();
+            member.put("userId", user.getId());
+            member.put("name", user.getFirstName() + " " + user.getLastName());
+            member.put("daysPresent", records.size());
+            member.put("lateDays", late);
+            member.put("leaveRequests", userLeaves.size());
+            members.add(member);
+        }
+
+        Map<String, Object> overview = new HashMap<>();
+        overview.put("departmentId", departmentId);
+        overview.put("period", startDate + " to " + endDate);
+        overview.put("employeeCount", team.size());
+        overview.put("daysPresent", daysPresent);
+        overview.put("lateDays", lateDays);
+        overview.put("employeesOnLeave", employeesOnLeave);
+        overview.put("members", members);
+        return overview;
+    }
+
     public long getEmployeeCount() {
         return userRepository.count();
     }
@@ -1,16 +1,17 @@
 package com.craftresourcemanagement.hr.services.impl;
 
 import com.craftresourcemanagement.hr.entities.EmployeeTraining;
-import com.craftresourcemanagement.hr.entities.PerformanceReview;
 import com.craftresourcemanagement.hr.entities.User;
 import com.craftresourcemanagement.hr.repositories.EmployeeTrainingRepository;
-import com.craftresourcemanagement.hr.repositories.PerformanceReviewRepository;
 import com.craftresourcemanagement.hr.repositories.UserRepository;
 import com.craftresourcemanagement.hr.services.EmployeeService;
 import com.craftresourcemanagement.utils.AuditClient;
+import com.craftresourcemanagement.utils.UserDisplayNameCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,7 @@ import jakarta.persistence.StoredProcedureQuery;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Map;
 
@@ -37,19 +39,24 @@ public class EmployeeServiceImpl implements EmployeeService {
     private final EntityManager entityManager;
     private final AuditClient auditClient;
     private final EmployeeTrainingRepository trainingRepository;
-    private final PerformanceReviewRepository performanceReviewRepository;
+    private final PerformanceReviewScheduler performanceReviewScheduler;
+    private final PeopleStats peopleStats;
+    private final UserDisplayNameCache userDisplayNameCache;
     private final RestTemplate restTemplate;
     
     @Value("${nodejs.service.url:http://localhost:5001}")
     private String nodejsServiceUrl;
 
     public EmployeeServiceImpl(UserRepository userRepository, EntityManager entityManager, AuditClient auditClient,
-                               EmployeeTrainingRepository trainingRepository, PerformanceReviewRepository performanceReviewRepository) {
+                               EmployeeTrainingRepository trainingRepository, PerformanceReviewScheduler performanceReviewScheduler,
+                               PeopleStats peopleStats, UserDisplayNameCache userDisplayNameCache) {
         this.userRepository = userRepository;
         this.entityManager = entityManager;
         this.auditClient = auditClient;
         this.trainingRepository = trainingRepository;
-        this.performanceReviewRepository = performanceReviewRepository;
+        this.performanceReviewScheduler = performanceReviewScheduler;
+        this.peopleStats = peopleStats;
+        this.userDisplayNameCache = userDisplayNameCache;
         this.passwordEncoder = new BCryptPasswordEncoder();
         this.restTemplate = new RestTemplate();
     }
@@ -58,6 +65,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     public User registerEmployee(User user) {
         if (user.getId() == null) {
             User newUser = provisionNewEmployee(user);
+            peopleStats.invalidate();
             auditClient.logActionAsync(
                 newUser.getId(),
                 "has been provisioned as a new employee",
@@ -139,6 +147,8 @@ public class EmployeeServiceImpl implements EmployeeService {
             }
 
             User updatedUser = userRepository.save(user);
+            peopleStats.invalidate();
+            userDisplayNameCache.evict(updatedUser.getId());
             auditClient.logActionAsync(
                 updatedUser.getId(),
                 "has updated their profile information",
@@ -214,35 +224,84 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
-    public List<User> listAllEmployees() {
-        return userRepository.findAll();
+    public List<User> listAllEmployees(Pageable pageable) {
+        return userRepository.findAll(pageable).getContent();
     }
 
     @Override
-    public List<User> getFilteredUsers(String filter, Integer departmentId, Integer roleId) {
-        if ("all".equals(filter)) {
-            return userRepository.findAll();
-        } else if ("admin".equals(filter)) {
-            return userRepository.findAll().stream()
-                .filter(u -> u.getRoleId() != null && (u.getRoleId() == 1 || u.getRoleId() == 2 || u.getRoleId() == 3))
-                .toList();
+    public List<User> getFilteredUsers(String filter, Integer departmentId, Integer roleId, Pageable pageable) {
+        if ("admin".equals(filter)) {
+            return userRepository.findByRoleIdIn(PeopleStats.ADMIN_ROLE_IDS, pageable);
         } else if ("assets".equals(filter)) {
-            return userRepository.findByDepartmentId(departmentId != null ? departmentId : 6);
+            return userRepository.findByDepartmentId(departmentId != null ? departmentId : PeopleStats.ASSETS_DEPARTMENT_ID, pageable);
         } else if ("deleted".equals(filter)) {
-            return userRepository.findByIsActive(0);
+            return userRepository.findByIsActive(0, pageable);
         }
-        return userRepository.findAll();
+        return listAllEmployees(pageable);
+    }
+
+    /**
+     * Reads one keyset page of the directory projection. The people tabs
+     * ("admin", "assets", "deleted") and the explicit filters are all applied in
+     * the query; a status of "active" or "inactive" matches is_active, anything
+     * else the account status. A role ID on the admin tab narrows it to that role,
+     * or to nothing if the role is not an admin role.
+     */
+    @Override
+    public List<UserRepository.DirectoryEntry> getEmployeeDirectory(String filter, Integer departmentId, Integer roleId,
+                                                                    String status, String search, Long afterId, int limit) {
+        List<Integer> roleIds = null;
+        Integer isActive = null;
+        if ("admin".equals(filter)) {
+            roleIds = PeopleStats.ADMIN_ROLE_IDS;
+        } else if ("assets".equals(filter) && departmentId == null) {
+            departmentId = PeopleStats.ASSETS_DEPARTMENT_ID;
+        } else if ("deleted".equals(filter)) {
+            isActive = 0;
+        }
+        if (roleId != null) {
+            if (roleIds != null && !roleIds.contains(roleId)) {
+                return List.of();
+            }
+            roleIds = List.of(roleId);
+        }
+
+        String accountStatus = null;
+        if (status != null && !status.isBlank()) {
+            if ("active".equalsIgnoreCase(status)) {
+                isActive = 1;
+            } else if ("inactive".equalsIgnoreCase(status)) {
+                isActive = 0;
+            } else {
+                accountStatus = status.trim().toUpperCase(Locale.ROOT);
+            }
+        }
+
+        // IN needs a non-empty list even when the role filter is off
+        return userRepository.findDirectoryPage(afterId != null ? afterId : 0L, departmentId,
+            roleIds == null, roleIds != null ? roleIds : List.of(0),
+            isActive, accountStatus, toLikePattern(search), PageRequest.of(0, limit));
+    }
+
+    private static String toLikePattern(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String escaped = search.trim().toLowerCase(Locale.ROOT)
+            .replace("!", "!!")
+            .replace("%", "!%")
+            .replace("_", "!_");
+        return "%" + escaped + "%";
     }
 
     @Override
     public Map<String, Long> getPeopleCounts() {
-        List<User> all = userRepository.findAll();
-        return Map.of(
-            "all", (long) all.size(),
-            "admin", all.stream().filter(u -> u.getRoleId() != null && (u.getRoleId() == 1 || u.getRoleId() == 2 || u.getRoleId() == 3)).count(),
-            "assets", all.stream().filter(u -> u.getDepartmentId() != null && u.getDepartmentId() == 6).count(),
-            "deleted", all.stream().filter(u -> u.getIsActive() == 0).count()
-        );
+        return peopleStats.getCounts();
+    }
+
+    @Override
+    public Map<String, Object> getPeopleStats() {
+        return peopleStats.getStats();
     }
 
     @Override
@@ -272,6 +331,7 @@ public class EmployeeServiceImpl implements EmployeeService {
                 user.setAccountStatus("ACTIVE");
             }
             User updated = userRepository.save(user);
+            peopleStats.invalidate();
             String statusAction = updated.getIsActive() == 1 ? "activated" : "deactivated";
             auditClient.logActionAsync(
                 id,
@@ -327,27 +387,11 @@ public class EmployeeServiceImpl implements EmployeeService {
     
     @Override
     public void autoSchedulePerformanceReviews() {
-        LocalDate today = LocalDate.now();
-        List<User> employees = userRepository.findAll();
-        
-        for (User emp : employees) {
-            if (emp.getHireDate() != null) {
-                LocalDate nextReview = emp.getHireDate().plusYears(1);
-                while (nextReview.isBefore(today)) {
-                    nextReview = nextReview.plusYears(1);
-                }
-                
-                if (nextReview.getMonth() == today.getMonth() && nextReview.getYear() == today.getYear()) {
-                    PerformanceReview review = new PerformanceReview();
-                    review.setEmployeeId(emp.getId());
-                    review.setReviewDate(nextReview);
-                    review.setStatus("SCHEDULED");
-                    review.setReviewerId(1L);
-                    review.setRating(0.0);
-                    performanceReviewRepository.save(review);
-                    log.info("Scheduled performance review for employee {} on {}", emp.getEmployeeId(), nextReview);
-                }
-            }
-        }
+        performanceReviewScheduler.schedule(LocalDate.now());
+    }
+
+    @Override
+    public Map<String, Object> getReviewSchedulingMetrics() {
+        return performanceReviewScheduler.getMetrics();
     }
 }
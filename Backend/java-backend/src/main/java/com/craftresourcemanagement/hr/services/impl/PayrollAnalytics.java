@@ -0,0 +1,135 @@
+package com.craftresourcemanagement.hr.services.impl;
+
+import com.craftresourcemanagement.hr.entities.PayrollRun;
+import com.craftresourcemanagement.hr.entities.PayrollRunAggregate;
+import com.craftresourcemanagement.hr.repositories.PayrollRunAggregateRepository;
+import com.craftresourcemanagement.hr.repositories.PayrollRunRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reads payroll trends from payroll_run_aggregates, which PayrollEngine fills
+ * while a run is processed. A trend costs two indexed queries however many
+ * payslips the runs hold.
+ */
+@Component
+public class PayrollAnalytics {
+
+    static final int MAX_TREND_RUNS = 60;
+
+    private static final List<String> FINISHED_STATUSES = List.of("COMPLETED", "CLOSED");
+
+    private static final String DELETE_RUN_SQL = "DELETE FROM payroll_run_aggregates WHERE payroll_run_id = ?";
+    private static final String REBUILD_SQL =
+        "INSERT INTO payroll_run_aggregates (payroll_run_id, dimension, dimension_id, employees, "
+            + "total_gross, total_deductions, total_net) "
+            + "SELECT p.payroll_run_id, ?, COALESCE(u.%1$s, 0), COUNT(*), SUM(p.gross_pay), "
+            + "SUM(p.gross_pay - p.net_pay), SUM(p.net_pay) "
+            + "FROM payslips p JOIN users u ON u.id = p.user_id WHERE p.payroll_run_id = ? "
+            + "GROUP BY p.payroll_run_id, COALESCE(u.%1$s, 0)";
+
+    private final PayrollRunRepository payrollRunRepository;
+    private final PayrollRunAggregateRepository aggregateRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public PayrollAnalytics(PayrollRunRepository payrollRunRepository,
+                            PayrollRunAggregateRepository aggregateRepository,
+                            JdbcTemplate jdbcTemplate) {
+        this.payrollRunRepository = payrollRunRepository;
+        this.aggregateRepository = aggregateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Totals of the last {@code runs} finished runs, oldest first, each with its
+     * breakdown by department or job grade and the change in net pay since the
+     * run before it.
+     */
+    public List<Map<String, Object>> trend(int runs, String dimension) {
+        String dimensionKey = toDimension(dimension);
+        List<PayrollRun> recent = new ArrayList<>(payrollRunRepository.findByStatusInOrderByEndDateDescIdDesc(
+            FINISHED_STATUSES, PageRequest.of(0, Math.max(1, Math.min(runs, MAX_TREND_RUNS)))));
+        Collections.reverse(recent);
+        if (recent.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<PayrollRunAggregate>> byRun = aggregateRepository
+            .findByPayrollRunIdInAndDimensionOrderByPayrollRunIdAscDimensionIdAsc(
+                recent.stream().map(PayrollRun::getId).toList(), dimensionKey)
+            .stream()
+            .collect(Collectors.groupingBy(PayrollRunAggregate::getPayrollRunId));
+
+        List<Map<String, Object>> trend = new ArrayList<>(recent.size());
+        BigDecimal previousNet = null;
+        for (PayrollRun run : recent) {
+            List<PayrollRunAggregate> aggregates = byRun.getOrDefault(run.getId(), List.of());
+            BigDecimal net = orZero(run.getTotalNet());
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("runId", run.getId());
+            row.put("runMonth", run.getRunMonth());
+            row.put("runYear", run.getRunYear());
+            row.put("startDate", run.getStartDate());
+            row.put("endDate", run.getEndDate());
+            row.put("employees", aggregates.stream().mapToInt(PayrollRunAggregate::getEmployees).sum());
+            row.put("totalGross", orZero(run.getTotalGross()));
+            row.put("totalDeductions", orZero(run.getTotalDeductions()));
+            row.put("totalNet", net);
+            row.put("netChange", previousNet != null ? net.subtract(previousNet) : null);
+            row.put("breakdown", aggregates.stream().map(PayrollAnalytics::toBreakdown).toList());
+            trend.add(row);
+            previousNet = net;
+        }
+        return trend;
+    }
+
+    /**
+     * Recomputes a run's aggregates from its payslips, for runs processed before
+     * aggregates were recorded. Uses each employee's current department and grade.
+     */
+    @Transactional
+    public void rebuild(Long payrollRunId) {
+        jdbcTemplate.update(DELETE_RUN_SQL, payrollRunId);
+        jdbcTemplate.update(String.format(REBUILD_SQL, "department_id"), PayrollRunAggregate.DEPARTMENT, payrollRunId);
+        jdbcTemplate.update(String.format(REBUILD_SQL, "job_grade_id"), PayrollRunAggregate.JOB_GRADE, payrollRunId);
+    }
+
+    public void deleteRun(Long payrollRunId) {
+        jdbcTemplate.update(DELETE_RUN_SQL, payrollRunId);
+    }
+
+    static String toDimension(String dimension) {
+        if (dimension == null || dimension.isBlank() || "department".equalsIgnoreCase(dimension)) {
+            return PayrollRunAggregate.DEPARTMENT;
+        }
+        if ("job-grade".equalsIgnoreCase(dimension) || "jobGrade".equalsIgnoreCase(dimension)) {
+            return PayrollRunAggregate.JOB_GRADE;
+        }
+        throw new IllegalArgumentException("Unknown dimension: " + dimension);
+    }
+
+    private static Map<String, Object> toBreakdown(PayrollRunAggregate aggregate) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", aggregate.getDimensionId());
+        row.put("employees", aggregate.getEmployees());
+        row.put("totalGross", aggregate.getTotalGross());
+        row.put("totalDeductions", aggregate.getTotalDeductions());
+        row.put("totalNet", aggregate.getTotalNet());
+        return row;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
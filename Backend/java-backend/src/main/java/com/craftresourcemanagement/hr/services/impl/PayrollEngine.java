@@ -0,0 +1,469 @@
+package com.craftresourcemanagement.hr.services.impl;
+
+import com.craftresourcemanagement.hr.entities.JobGrade;
+import com.craftresourcemanagement.hr.entities.PayrollRun;
+import com.craftresourcemanagement.hr.entities.PayrollRunAggregate;
+import com.craftresourcemanagement.hr.entities.Payslip;
+import com.craftresourcemanagement.hr.entities.User;
+import com.craftresourcemanagement.hr.repositories.JobGradeRepository;
+import com.craftresourcemanagement.hr.repositories.PayrollRunRepository;
+import com.craftresourcemanagement.hr.repositories.PayslipRepository;
+import com.craftresourcemanagement.hr.repositories.UserRepository;
+import com.craftresourcemanagement.hr.services.AttendanceIntegrationService;
+import com.craftresourcemanagement.hr.services.LeaveIntegrationService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Computes payslips for a payroll run in parallel chunks.
+ *
+ * Each chunk prefetches its attendance and leave data in bulk, computes payslips in
+ * memory and writes them with a JDBC batch insert in its own short
+ * transaction. Run totals and progress are incremented on the payroll_runs
+ * row in the same transaction, so a run interrupted part way can be resumed:
+ * employees that already have a payslip for the run are skipped. Inside the
+ * transaction the chunk's existing payslips are looked up again, and only the
+ * payslips actually inserted are added to the totals and returned. Per-department
+ * and per-job-grade totals are added to payroll_run_aggregates alongside them.
+ *
+ * A run is processed by whoever holds its lease: processing_owner is claimed with a
+ * compare-and-set and every chunk transaction starts by renewing heartbeat_at under
+ * that owner, so a worker that has lost the lease writes nothing. A resume can only
+ * claim a run whose heartbeat is older than {@code payroll.engine.lease-timeout-seconds}.
+ */
+@Component
+public class PayrollEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PayrollEngine.class);
+
+    static final String STATUS_PROCESSING = "PROCESSING";
+    static final String STATUS_COMPLETED = "COMPLETED";
+
+    private static final String INSERT_PAYSLIP_SQL =
+        "INSERT INTO payslips (payroll_run_id, user_id, pay_period_start, pay_period_end, "
+            + "gross_pay, net_pay, tax_deductions, other_deductions) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE id = id";
+    private static final String EXISTING_PAYSLIPS_SQL =
+        "SELECT user_id FROM payslips WHERE payroll_run_id = ? AND user_id IN (%s)";
+    private static final String UPDATE_SALARY_SQL = "UPDATE users SET salary = ? WHERE id = ?";
+    private static final String UPDATE_PROGRESS_SQL =
+        "UPDATE payroll_runs SET processed_employees = COALESCE(processed_employees, 0) + ?, "
+            + "total_gross = COALESCE(total_gross, 0) + ?, total_deductions = COALESCE(total_deductions, 0) + ?, "
+            + "total_net = COALESCE(total_net, 0) + ? WHERE id = ?";
+    private static final String CLAIM_LEASE_SQL =
+        "UPDATE payroll_runs SET processing_owner = ?, heartbeat_at = NOW() WHERE id = ? AND status = 'PROCESSING' "
+            + "AND (processing_owner IS NULL OR heartbeat_at IS NULL OR heartbeat_at < NOW() - INTERVAL ? SECOND)";
+    private static final String RENEW_LEASE_SQL =
+        "UPDATE payroll_runs SET heartbeat_at = NOW() WHERE id = ? AND processing_owner = ?";
+    private static final String COMPLETE_SQL =
+        "UPDATE payroll_runs SET status = 'COMPLETED', processing_owner = NULL WHERE id = ? AND processing_owner = ?";
+    private static final String UPSERT_AGGREGATE_SQL =
+        "INSERT INTO payroll_run_aggregates (payroll_run_id, dimension, dimension_id, employees, "
+            + "total_gross, total_deductions, total_net) VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "employees = employees + VALUES(employees), total_gross = total_gross + VALUES(total_gross), "
+            + "total_deductions = total_deductions + VALUES(total_deductions), total_net = total_net + VALUES(total_net)";
+
+    private final UserRepository userRepository;
+    private final JobGradeRepository jobGradeRepository;
+    private final PayrollRunRepository payrollRunRepository;
+    private final PayslipRepository payslipRepository;
+    private final AttendanceIntegrationService attendanceIntegrationService;
+    private final LeaveIntegrationService leaveIntegrationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor payrollExecutor;
+
+    @Value("${payroll.engine.chunk-size:200}")
+    private int chunkSize = 200;
+
+    @Value("${payroll.engine.lease-timeout-seconds:300}")
+    private long leaseTimeoutSeconds = 300;
+
+    public PayrollEngine(UserRepository userRepository,
+            JobGradeRepository jobGradeRepository,
+            PayrollRunRepository payrollRunRepository,
+            PayslipRepository payslipRepository,
+            AttendanceIntegrationService attendanceIntegrationService,
+            LeaveIntegrationService leaveIntegrationService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("payrollExecutor") Executor payrollExecutor) {
+        this.userRepository = userRepository;
+        this.jobGradeRepository = jobGradeRepository;
+        this.payrollRunRepository = payrollRunRepository;
+        this.payslipRepository = payslipRepository;
+        this.attendanceIntegrationService = attendanceIntegrationService;
+        this.leaveIntegrationService = leaveIntegrationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.payrollExecutor = payrollExecutor;
+    }
+
+    /**
+     * Options that decide which components make up a payslip.
+     */
+    public record Options(Integer departmentId, boolean includeOvertime,
+                          boolean includeBonuses, boolean includeDeductions) {
+
+        /** The options a run was started with, or null if the run predates recording them. */
+        static Options of(PayrollRun payrollRun) {
+            if (payrollRun.getIncludeOvertime() == null || payrollRun.getIncludeBonuses() == null
+                    || payrollRun.getIncludeDeductions() == null) {
+                return null;
+            }
+            return new Options(payrollRun.getDepartmentId(), payrollRun.getIncludeOvertime(),
+                payrollRun.getIncludeBonuses(), payrollRun.getIncludeDeductions());
+        }
+    }
+
+    /**
+     * Outcome of a run: the refreshed run header and the payslips written by this invocation.
+     */
+    public record Result(PayrollRun payrollRun, List<Payslip> payslips, int employeeCount) {
+    }
+
+    /**
+     * Running totals of one department or job grade within a chunk.
+     */
+    record Bucket(String dimension, long dimensionId, int employees,
+                  BigDecimal gross, BigDecimal deductions, BigDecimal net) {
+
+        Bucket add(Payslip payslip) {
+            BigDecimal payslipDeductions = payslip.getGrossPay().subtract(payslip.getNetPay());
+            return new Bucket(dimension, dimensionId, employees + 1, gross.add(payslip.getGrossPay()),
+                deductions.add(payslipDeductions), net.add(payslip.getNetPay()));
+        }
+    }
+
+    /**
+     * Starts a new run: records its options and employee count, claims its lease and
+     * processes every eligible employee. The run must already be persisted.
+     */
+    public Result process(PayrollRun payrollRun, Options options) {
+        Integer departmentId = departmentFilter(options);
+        List<User> employees = userRepository.findActiveForPayroll(departmentId);
+
+        payrollRun.setStatus(STATUS_PROCESSING);
+        payrollRun.setDepartmentId(departmentId);
+        payrollRun.setIncludeOvertime(options.includeOvertime());
+        payrollRun.setIncludeBonuses(options.includeBonuses());
+        payrollRun.setIncludeDeductions(options.includeDeductions());
+        payrollRun.setTotalEmployees(employees.size());
+        if (payrollRun.getProcessedEmployees() == null) {
+            payrollRun.setProcessedEmployees(0);
+        }
+        PayrollRun saved = payrollRunRepository.save(payrollRun);
+
+        String owner = claim(saved.getId());
+        if (owner == null) {
+            throw new IllegalStateException("Payroll run " + saved.getId() + " is already being processed");
+        }
+        return run(saved, owner, options, employees);
+    }
+
+    /**
+     * Finishes a run left in PROCESSING with the options it was started with. Fails if
+     * another worker still holds the run's lease.
+     */
+    public Result resume(PayrollRun payrollRun) {
+        Options options = Options.of(payrollRun);
+        if (options == null) {
+            throw new IllegalStateException("Payroll run " + payrollRun.getId()
+                + " has no recorded options and cannot be resumed");
+        }
+        String owner = claim(payrollRun.getId());
+        if (owner == null) {
+            throw new IllegalStateException("Payroll run " + payrollRun.getId()
+                + " is still being processed or is no longer in PROCESSING status");
+        }
+        return run(payrollRun, owner, options, userRepository.findActiveForPayroll(departmentFilter(options)));
+    }
+
+    private Result run(PayrollRun payrollRun, String owner, Options options, List<User> employees) {
+        Long runId = payrollRun.getId();
+        Set<Long> alreadyPaid = new HashSet<>(payslipRepository.findUserIdsByPayrollRunId(runId));
+        List<User> pending = employees.stream()
+            .filter(u -> !alreadyPaid.contains(u.getId()))
+            .toList();
+
+        Map<Integer, JobGrade> jobGrades = loadJobGrades(pending);
+
+        List<List<User>> chunks = partition(pending, Math.max(1, chunkSize));
+        logger.info("Payroll run {}: {} employees pending in {} chunks ({} already processed)",
+            runId, pending.size(), chunks.size(), alreadyPaid.size());
+
+        List<CompletableFuture<List<Payslip>>> futures = chunks.stream()
+            .map(chunk -> CompletableFuture.supplyAsync(
+                () -> processChunk(payrollRun, owner, chunk, jobGrades, options), payrollExecutor))
+            .toList();
+
+        List<Payslip> payslips = new ArrayList<>();
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            for (CompletableFuture<List<Payslip>> future : futures) {
+                payslips.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.error("Payroll run {} stopped before completion, it can be resumed: {}", runId, cause.getMessage());
+            throw new RuntimeException("Payroll run " + runId + " did not complete: " + cause.getMessage(), cause);
+        }
+
+        if (jdbcTemplate.update(COMPLETE_SQL, runId, owner) == 0) {
+            throw new IllegalStateException("Payroll run " + runId + " lost its processing lease before completion");
+        }
+        PayrollRun completed = payrollRunRepository.findById(runId).orElse(payrollRun);
+        completed.setStatus(STATUS_COMPLETED);
+        return new Result(completed, payslips, employees.size());
+    }
+
+    /** Claims the run's lease, returning the new owner token or null if it is held or the run is not processing. */
+    private String claim(Long runId) {
+        String owner = UUID.randomUUID().toString();
+        return jdbcTemplate.update(CLAIM_LEASE_SQL, owner, runId, leaseTimeoutSeconds) == 1 ? owner : null;
+    }
+
+    private static Integer departmentFilter(Options options) {
+        return options.departmentId() != null && options.departmentId() > 0 ? options.departmentId() : null;
+    }
+
+    private Map<Integer, JobGrade> loadJobGrades(List<User> employees) {
+        Set<Integer> gradeIds = employees.stream()
+            .filter(u -> u.getSalary() == null || u.getSalary() <= 0)
+            .map(User::getJobGradeId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (gradeIds.isEmpty()) {
+            return Map.of();
+        }
+        return jobGradeRepository.findAllById(gradeIds).stream()
+            .collect(Collectors.toMap(JobGrade::getId, Function.identity()));
+    }
+
+    private List<Payslip> processChunk(PayrollRun payrollRun, String owner, List<User> chunk,
+                                     Map<Integer, JobGrade> jobGrades, Options options) {
+        String startDate = payrollRun.getStartDate().toString();
+        String endDate = payrollRun.getEndDate().toString();
+
+        // One bulk lookup per service for the whole chunk; users missing from the
+        // attendance map fall back to the flat overtime estimate
+        List<Long> userIds = chunk.stream().map(User::getId).toList();
+        Map<Long, List<Map<String, Object>>> attendance = options.includeOvertime()
+            ? attendanceIntegrationService.getAttendanceByDateRange(userIds, startDate, endDate) : Map.of();
+        Map<Long, List<Map<String, Object>>> leaves = leaveIntegrationService
+            .getLeaveRequestsByDateRange(userIds, "approved", payrollRun.getStartDate(), payrollRun.getEndDate());
+
+        List<Payslip> payslips = new ArrayList<>();
+        List<User> salaryUpdates = new ArrayList<>();
+
+        for (User employee : chunk) {
+            Double salary = employee.getSalary();
+
+            // Auto-set salary from job_grade_id if salary is null or 0
+            if ((salary == null || salary <= 0) && employee.getJobGradeId() != null) {
+                JobGrade jobGrade = jobGrades.get(employee.getJobGradeId());
+                if (jobGrade != null && jobGrade.getBaseSalary() != null) {
+                    employee.setSalary(jobGrade.getBaseSalary().doubleValue());
+                    salaryUpdates.add(employee);
+                }
+                salary = employee.getSalary();
+            }
+
+            // Skip if still no salary
+            if (salary == null || salary <= 0) {
+                continue;
+            }
+
+            payslips.add(computePayslip(employee, salary, payrollRun, options,
+                attendance.get(employee.getId()), leaves.getOrDefault(employee.getId(), List.of())));
+        }
+
+        return transactionTemplate.execute(status -> writeChunk(payrollRun.getId(), owner, salaryUpdates, payslips));
+    }
+
+    /** Writes the chunk and returns the payslips it inserted; those already stored for the run are left out. */
+    private List<Payslip> writeChunk(Long runId, String owner, List<User> salaryUpdates, List<Payslip> computed) {
+        // Renewing the heartbeat first locks the run row, so no other worker can claim
+        // the lease while this chunk's payslips are being written
+        if (jdbcTemplate.update(RENEW_LEASE_SQL, runId, owner) == 0) {
+            throw new IllegalStateException("Payroll run " + runId + " lost its processing lease");
+        }
+        if (!salaryUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SALARY_SQL, salaryUpdates, salaryUpdates.size(), (ps, user) -> {
+                ps.setDouble(1, user.getSalary());
+                ps.setLong(2, user.getId());
+            });
+        }
+        List<Payslip> payslips = withoutExisting(runId, computed);
+        BigDecimal gross = BigDecimal.ZERO;
+        BigDecimal deductions = BigDecimal.ZERO;
+        BigDecimal net = BigDecimal.ZERO;
+        if (!payslips.isEmpty()) {
+            List<Bucket> buckets = aggregate(payslips);
+            jdbcTemplate.batchUpdate(UPSERT_AGGREGATE_SQL, buckets, buckets.size(), (ps, bucket) -> {
+                ps.setLong(1, runId);
+                ps.setString(2, bucket.dimension());
+                ps.setLong(3, bucket.dimensionId());
+                ps.setInt(4, bucket.employees());
+                ps.setBigDecimal(5, bucket.gross());
+                ps.setBigDecimal(6, bucket.deductions());
+                ps.setBigDecimal(7, bucket.net());
+            });
+            jdbcTemplate.batchUpdate(INSERT_PAYSLIP_SQL, payslips, payslips.size(), (ps, payslip) -> {
+                ps.setLong(1, runId);
+                ps.setLong(2, payslip.getUser().getId());
+                ps.setDate(3, Date.valueOf(payslip.getPayPeriodStart()));
+                ps.setDate(4, Date.valueOf(payslip.getPayPeriodEnd()));
+                ps.setBigDecimal(5, payslip.getGrossPay());
+                ps.setBigDecimal(6, payslip.getNetPay());
+                ps.setBigDecimal(7, payslip.getTaxDeductions());
+                ps.setBigDecimal(8, payslip.getOtherDeductions());
+            });
+            for (Payslip payslip : payslips) {
+                gross = gross.add(payslip.getGrossPay());
+                deductions = deductions.add(payslip.getGrossPay().subtract(payslip.getNetPay()));
+                net = net.add(payslip.getNetPay());
+            }
+        }
+        // Only employees that got a payslip count as processed; those skipped for having
+        // no salary are picked up again on every resume
+        jdbcTemplate.update(UPDATE_PROGRESS_SQL, payslips.size(), gross, deductions, net, runId);
+        return payslips;
+    }
+
+    /**
+     * Drops payslips whose employee already has one for the run. The lease renewal holds the
+     * run row lock, so nothing else can insert for the run until this transaction ends; the
+     * upsert's no-op update only guards the key.
+     */
+    private List<Payslip> withoutExisting(Long runId, List<Payslip> payslips) {
+        if (payslips.isEmpty()) {
+            return payslips;
+        }
+        List<Object> args = new ArrayList<>(payslips.size() + 1);
+        args.add(runId);
+        payslips.forEach(payslip -> args.add(payslip.getUser().getId()));
+        String sql = String.format(EXISTING_PAYSLIPS_SQL, String.join(", ", Collections.nCopies(payslips.size(), "?")));
+        Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, args.toArray()));
+        if (existing.isEmpty()) {
+            return payslips;
+        }
+        return payslips.stream().filter(payslip -> !existing.contains(payslip.getUser().getId())).toList();
+    }
+
+    /**
+     * Groups payslips by their employee's department and job grade. Employees
+     * without one are counted under id 0.
+     */
+    static List<Bucket> aggregate(List<Payslip> payslips) {
+        Map<String, Bucket> buckets = new LinkedHashMap<>();
+        for (Payslip payslip : payslips) {
+            User user = payslip.getUser();
+            long departmentId = user.getDepartmentId() != null ? user.getDepartmentId() : 0L;
+            long jobGradeId = user.getJobGradeId() != null ? user.getJobGradeId() : 0L;
+            addTo(buckets, PayrollRunAggregate.DEPARTMENT, departmentId, payslip);
+            addTo(buckets, PayrollRunAggregate.JOB_GRADE, jobGradeId, payslip);
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private static void addTo(Map<String, Bucket> buckets, String dimension, long dimensionId, Payslip payslip) {
+        String key = dimension + ":" + dimensionId;
+        Bucket bucket = buckets.getOrDefault(key,
+            new Bucket(dimension, dimensionId, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+        buckets.put(key, bucket.add(payslip));
+    }
+
+    /**
+     * Pure payslip computation. A null attendance list means the lookup failed and
+     * overtime falls back to 15% of base salary.
+     */
+    static Payslip computePayslip(User employee, double salary, PayrollRun payrollRun, Options options,
+                                  List<Map<String, Object>> attendanceRecords,
+                                  List<Map<String, Object>> approvedLeaves) {
+        BigDecimal baseSalary = BigDecimal.valueOf(salary);
+
+        BigDecimal overtimePay = BigDecimal.ZERO;
+        if (options.includeOvertime()) {
+            if (attendanceRecords != null) {
+                double totalOvertimeHours = attendanceRecords.stream()
+                    .mapToDouble(rec -> {
+                        Object overtimeHoursObj = rec.get("overtime_hours");
+                        return overtimeHoursObj != null ? Double.parseDouble(overtimeHoursObj.toString()) : 0.0;
+                    })
+                    .sum();
+                double hourlyRate = salary / 160;
+                overtimePay = BigDecimal.valueOf(totalOvertimeHours * hourlyRate * 1.5);
+            } else {
+                overtimePay = baseSalary.multiply(BigDecimal.valueOf(0.15));
+            }
+        }
+
+        BigDecimal leaveDeduction = BigDecimal.ZERO;
+        long unpaidLeaveDays = approvedLeaves.stream()
+            .filter(lv -> {
+                Object isPaidObj = lv.get("isPaid");
+                return isPaidObj != null && !Boolean.parseBoolean(isPaidObj.toString());
+            })
+            .mapToLong(lv -> {
+                Object totalDaysObj = lv.get("totalDays");
+                return totalDaysObj != null ? Long.parseLong(totalDaysObj.toString()) : 0L;
+            })
+            .sum();
+        if (unpaidLeaveDays > 0) {
+            double dailyRate = salary / 22;
+            leaveDeduction = BigDecimal.valueOf(unpaidLeaveDays * dailyRate);
+        }
+
+        BigDecimal bonusPay = options.includeBonuses() ? baseSalary.multiply(BigDecimal.valueOf(0.10)) : BigDecimal.ZERO;
+        BigDecimal grossPay = baseSalary.add(overtimePay).add(bonusPay).subtract(leaveDeduction);
+
+        BigDecimal taxDeduction = grossPay.multiply(BigDecimal.valueOf(0.065));
+        BigDecimal otherDeduction = BigDecimal.valueOf(350);
+        BigDecimal deductions = options.includeDeductions() ? taxDeduction.add(otherDeduction) : BigDecimal.ZERO;
+        BigDecimal netPay = grossPay.subtract(deductions);
+
+        Payslip payslip = new Payslip();
+        payslip.setUser(employee);
+        payslip.setPayrollRun(payrollRun);
+        payslip.setPayPeriodStart(payrollRun.getStartDate());
+        payslip.setPayPeriodEnd(payrollRun.getEndDate());
+        payslip.setGrossPay(grossPay);
+        payslip.setTaxDeductions(taxDeduction);
+        payslip.setOtherDeductions(otherDeduction);
+        payslip.setNetPay(netPay);
+        return payslip;
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            chunks.add(items.subList(i, Math.min(items.size(), i + size)));
+        }
+        return chunks;
+    }
+}
@@ -7,8 +7,10 @@ import com.craftresourcemanagement.utils.AuditClient;
 import com.craftresourcemanagement.utils.OpenAIClient;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +20,7 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class PayrollServiceImpl implements PayrollService {
@@ -33,14 +36,13 @@ public class PayrollServiceImpl implements PayrollService {
     private final EmployeeTrainingRepository employeeTrainingRepository;
     private final PerformanceReviewRepository performanceReviewRepository;
     private final UserRepository userRepository;
-    private final JobGradeRepository jobGradeRepository;
 
     private final OpenAIClient openAIClient;
     private final AuditClient auditClient;
     private final com.craftresourcemanagement.hr.services.NotificationService notificationService;
     private final com.craftresourcemanagement.hr.services.HRNotificationService hrNotificationService;
-    private final com.craftresourcemanagement.hr.services.AttendanceIntegrationService attendanceIntegrationService;
-    private final com.craftresourcemanagement.hr.services.LeaveIntegrationService leaveIntegrationService;
+    private final PayrollEngine payrollEngine;
+    private final PayrollAnalytics payrollAnalytics;
 
     @Value("${openai.api.key}")
     private String openAIKey;
@@ -53,13 +55,12 @@ public class PayrollServiceImpl implements PayrollService {
             EmployeeTrainingRepository employeeTrainingRepository,
             PerformanceReviewRepository performanceReviewRepository,
             UserRepository userRepository,
-            JobGradeRepository jobGradeRepository,
             OpenAIClient openAIClient,
             AuditClient auditClient,
             com.craftresourcemanagement.hr.services.NotificationService notificationService,
             com.craftresourcemanagement.hr.services.HRNotificationService hrNotificationService,
-            com.craftresourcemanagement.hr.services.AttendanceIntegrationService attendanceIntegrationService,
-            com.craftresourcemanagement.hr.services.LeaveIntegrationService leaveIntegrationService) {
+            PayrollEngine payrollEngine,
+            PayrollAnalytics payrollAnalytics) {
         this.payrollRunRepository = payrollRunRepository;
         this.payslipRepository = payslipRepository;
         this.benefitPlanRepository = benefitPlanRepository;
@@ -68,13 +69,12 @@ public class PayrollServiceImpl implements PayrollService {
         this.employeeTrainingRepository = employeeTrainingRepository;
         this.performanceReviewRepository = performanceReviewRepository;
         this.userRepository = userRepository;
-        this.jobGradeRepository = jobGradeRepository;
         this.openAIClient = openAIClient;
         this.auditClient = auditClient;
         this.notificationService = notificationService;
         this.hrNotificationService = hrNotificationService;
-        this.attendanceIntegrationService = attendanceIntegrationService;
-        this.leaveIntegrationService = leaveIntegrationService;
+        this.payrollEngine = payrollEngine;
+        this.payrollAnalytics = payrollAnalytics;
     }
 
     // PayrollRun
@@ -114,6 +114,7 @@ public class PayrollServiceImpl implements PayrollService {
     @Override
     public void deletePayrollRun(Long id) {
         payrollRunRepository.deleteById(id);
+        payrollAnalytics.deleteRun(id);
         auditClient.logActionAsync(null, "deleted payroll run", 
             String.format("{\"module\":\"payroll\",\"operation\":\"DELETE\",\"runId\":%d}", id),
             SERVICE_NAME, "PAYROLL_RUN", id.toString());
@@ -139,6 +140,49 @@ public class PayrollServiceImpl implements PayrollService {
         return payslipRepository.findById(id).orElse(null);
     }
 
+    @Override
+    public long countPayslipsByRun(Long payrollRunId) {
+        return payslipRepository.countByPayrollRunId(payrollRunId);
+    }
+
+    @Override
+    public Page<PayslipRepository.PayslipSummary> getPayslipSummariesByRun(Long payrollRunId, Pageable pageable) {
+        return payslipRepository.findSummariesByPayrollRunId(payrollRunId, pageable);
+    }
+
+    @Override
+    public Page<PayslipRepository.PayslipSummary> getPayslipSummariesByPeriod(LocalDate from, LocalDate to, Pageable pageable) {
+        return payslipRepository.findSummariesByPayPeriod(from, to, pageable);
+    }
+
+    @Override
+    public List<Map<String, Object>> getPayrollTrend(int runs, String dimension) {
+        return payrollAnalytics.trend(runs, dimension);
+    }
+
+    @Override
+    public void rebuildPayrollAggregates(Long payrollRunId) {
+        payrollAnalytics.rebuild(payrollRunId);
+    }
+
+    @Override
+    public void streamPayslipExportRows(Long payrollRunId, int chunkSize, Consumer<List<PayslipRepository.ExportRow>> sink) {
+        // Seek by payslip id within the run so each chunk is an indexed range scan
+        Long lastId = 0L;
+        while (true) {
+            List<PayslipRepository.ExportRow> chunk = payslipRepository
+                .findExportRowsByPayrollRunId(payrollRunId, lastId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                return;
+            }
+            sink.accept(chunk);
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
+        }
+    }
+
     @Override
     public Payslip updatePayslip(Long id, Payslip payslip) {
         Optional<Payslip> existing = payslipRepository.findById(id);
@@ -430,8 +474,11 @@ public class PayrollServiceImpl implements PayrollService {
 
     }
 
+    /**
+     * Runs payroll through {@link PayrollEngine}. The run header is saved first and
+     * each chunk commits on its own, so no transaction spans the whole run.
+     */
     @Override
-    @Transactional
     public PayrollRun processPayroll(LocalDate startDate, LocalDate endDate, LocalDate payDate,
                                      Integer departmentId, boolean includeOvertime, 
                                      boolean includeBonuses, boolean includeDeductions, Long createdBy) {
@@ -441,132 +488,49 @@ public class PayrollServiceImpl implements PayrollService {
         payrollRun.setStartDate(startDate);
         payrollRun.setEndDate(endDate);
         payrollRun.setRunDate(payDate.atTime(23, 59, 59));
-        payrollRun.setStatus("COMPLETED");
+        payrollRun.setStatus(PayrollEngine.STATUS_PROCESSING);
         payrollRun.setCreatedBy(createdBy);
+        payrollRun.setTotalGross(BigDecimal.ZERO);
+        payrollRun.setTotalDeductions(BigDecimal.ZERO);
+        payrollRun.setTotalNet(BigDecimal.ZERO);
+        payrollRun.setProcessedEmployees(0);
+        PayrollRun savedRun = payrollRunRepository.save(payrollRun);
 
-        List<User> employees;
-        if (departmentId != null && departmentId > 0) {
-            employees = userRepository.findAll().stream()
-                .filter(u -> (u.getIsActive() == 1 || "ACTIVE".equals(u.getAccountStatus())) 
-                    && u.getDepartmentId() != null && u.getDepartmentId().equals(departmentId))
-                .toList();
-        } else {
-            employees = userRepository.findAll().stream()
-                .filter(u -> (u.getIsActive() == 1 || "ACTIVE".equals(u.getAccountStatus())))
-                .toList();
-        }
-
-        List<Payslip> processedPayslips = new java.util.ArrayList<>();
-        BigDecimal totalGross = BigDecimal.ZERO;
-        BigDecimal totalDeductions = BigDecimal.ZERO;
-        BigDecimal totalNet = BigDecimal.ZERO;
-
-        for (User employee : employees) {
-            Double salary = employee.getSalary();
-            
-            // Auto-set salary from job_grade_id if salary is null or 0
-            if ((salary == null || salary <= 0) && employee.getJobGradeId() != null) {
-                jobGradeRepository.findById(employee.getJobGradeId()).ifPresent(jobGrade -> {
-                    employee.setSalary(jobGrade.getBaseSalary().doubleValue());
-                    userRepository.save(employee);
-                });
-                salary = employee.getSalary();
-            }
-            
-            // Skip if still no salary
-            if (salary == null || salary <= 0) {
-                continue;
-            }
+        PayrollEngine.Result result = payrollEngine.process(savedRun,
+            new PayrollEngine.Options(departmentId, includeOvertime, includeBonuses, includeDeductions));
+        return report(result, createdBy, "PROCESS_PAYROLL");
+    }
 
-            BigDecimal baseSalary = BigDecimal.valueOf(salary);
-            
-            // Fetch attendance data for overtime calculation
-            BigDecimal overtimePay = BigDecimal.ZERO;
-            if (includeOvertime) {
-                try {
-                    List<Map<String, Object>> attendanceRecords = attendanceIntegrationService
-                        .getUserAttendanceByDateRange(employee.getId(), startDate.toString(), endDate.toString());
-                    double totalOvertimeHours = attendanceRecords.stream()
-                        .mapToDouble(rec -> {
-                            Object overtimeHoursObj = rec.get("overtime_hours");
-                            return overtimeHoursObj != null ? Double.parseDouble(overtimeHoursObj.toString()) : 0.0;
-                        })
-                        .sum();
-                    double hourlyRate = salary / 160;
-                    overtimePay = BigDecimal.valueOf(totalOvertimeHours * hourlyRate * 1.5);
-                } catch (Exception e) {
-                    logger.warn("Failed to fetch attendance for employee {}: {}", employee.getId(), e.getMessage());
-                    overtimePay = baseSalary.multiply(BigDecimal.valueOf(0.15));
-                }
-            }
-            
-            // Check for unpaid leave deductions
-            BigDecimal leaveDeduction = BigDecimal.ZERO;
-            try {
-                List<Map<String, Object>> approvedLeaves = leaveIntegrationService
-                    .getUserLeaveRequests(employee.getId(), "approved");
-                long unpaidLeaveDays = approvedLeaves.stream()
-                    .filter(lv -> {
-                        Object isPaidObj = lv.get("isPaid");
-                        return isPaidObj != null && !Boolean.parseBoolean(isPaidObj.toString());
-                    })
-                    .mapToLong(lv -> {
-                        Object totalDaysObj = lv.get("totalDays");
-                        return totalDaysObj != null ? Long.parseLong(totalDaysObj.toString()) : 0L;
-                    })
-                    .sum();
-                if (unpaidLeaveDays > 0) {
-                    double dailyRate = salary / 22;
-                    leaveDeduction = BigDecimal.valueOf(unpaidLeaveDays * dailyRate);
-                }
-            } catch (Exception e) {
-                logger.warn("Failed to fetch leave data for employee {}: {}", employee.getId(), e.getMessage());
-            }
-            
-            BigDecimal bonusPay = includeBonuses ? baseSalary.multiply(BigDecimal.valueOf(0.10)) : BigDecimal.ZERO;
-            BigDecimal grossPay = baseSalary.add(overtimePay).add(bonusPay).subtract(leaveDeduction);
-            
-            BigDecimal taxDeduction = grossPay.multiply(BigDecimal.valueOf(0.065));
-            BigDecimal otherDeduction = BigDecimal.valueOf(350);
-            BigDecimal deductions = includeDeductions ? taxDeduction.add(otherDeduction) : BigDecimal.ZERO;
-            BigDecimal netPay = grossPay.subtract(deductions);
-
-            totalGross = totalGross.add(grossPay);
-            totalDeductions = totalDeductions.add(deductions);
-            totalNet = totalNet.add(netPay);
-
-            Payslip payslip = new Payslip();
-            payslip.setUser(employee);
-            payslip.setPayPeriodStart(startDate);
-            payslip.setPayPeriodEnd(endDate);
-            payslip.setGrossPay(grossPay);
-            payslip.setTaxDeductions(taxDeduction);
-            payslip.setOtherDeductions(otherDeduction);
-            payslip.setNetPay(netPay);
-            processedPayslips.add(payslip);
+    /**
+     * Finishes a run left in PROCESSING with the options and employee count it was
+     * started with, once its processing lease has expired.
+     */
+    @Override
+    public PayrollRun resumePayroll(Long payrollRunId, Long createdBy) {
+        PayrollRun payrollRun = payrollRunRepository.findById(payrollRunId)
+            .orElseThrow(() -> new RuntimeException("Payroll run not found"));
+        if (!PayrollEngine.STATUS_PROCESSING.equals(payrollRun.getStatus())) {
+            throw new IllegalStateException("Only payroll runs in PROCESSING status can be resumed");
         }
+        return report(payrollEngine.resume(payrollRun), createdBy, "RESUME_PAYROLL");
+    }
 
-        payrollRun.setTotalGross(totalGross);
-        payrollRun.setTotalDeductions(totalDeductions);
-        payrollRun.setTotalNet(totalNet);
-        PayrollRun savedRun = payrollRunRepository.save(payrollRun);
+    private PayrollRun report(PayrollEngine.Result result, Long createdBy, String auditAction) {
+        List<Payslip> processedPayslips = result.payslips();
 
         for (Payslip payslip : processedPayslips) {
-            payslip.setPayrollRun(savedRun);
-            Payslip savedPayslip = payslipRepository.save(payslip);
-            
             // Send notification to employee
             try {
                 hrNotificationService.notifyPayrollProcessed(
-                    savedPayslip.getUser().getId(),
-                    savedPayslip.getUser().getFirstName() + " " + savedPayslip.getUser().getLastName(),
-                    savedPayslip.getNetPay().doubleValue(),
-                    savedPayslip.getPayPeriodStart().toString(),
-                    savedPayslip.getPayPeriodEnd().toString()
+                    payslip.getUser().getId(),
+                    payslip.getUser().getFirstName() + " " + payslip.getUser().getLastName(),
+                    payslip.getNetPay().doubleValue(),
+                    payslip.getPayPeriodStart().toString(),
+                    payslip.getPayPeriodEnd().toString()
                 );
             } catch (Exception e) {
                 logger.error("Failed to send notification to employee {}: {}", 
-                    savedPayslip.getUser().getId(), e.getMessage());
+                    payslip.getUser().getId(), e.getMessage());
             }
         }
 
@@ -576,10 +540,12 @@ public class PayrollServiceImpl implements PayrollService {
             logger.error("Failed to send notifications: {}", e.getMessage());
         }
 
+        PayrollRun savedRun = result.payrollRun();
         auditClient.logAction(createdBy, 
-                             "PROCESS_PAYROLL", 
-                             String.format("{\"employeeCount\": %d, \"startDate\": \"%s\", \"endDate\": \"%s\", \"totalGross\": %.2f, \"totalNet\": %.2f}", 
-                                 employees.size(), startDate, endDate, totalGross, totalNet));
+                             auditAction, 
+                             String.format("{\"runId\": %d, \"employeeCount\": %d, \"startDate\": \"%s\", \"endDate\": \"%s\", \"totalGross\": %.2f, \"totalNet\": %.2f}", 
+                                 savedRun.getId(), result.employeeCount(), savedRun.getStartDate(), savedRun.getEndDate(),
+                                 savedRun.getTotalGross(), savedRun.getTotalNet()));
 
         return savedRun;
     }
@@ -0,0 +1,131 @@
+package com.craftresourcemanagement.hr.services.impl;
+
+import com.craftresourcemanagement.hr.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * HR headcount numbers computed from aggregate queries rather than by loading users.
+ * <p>
+ * Tab counters come from one conditional-sum query; breakdowns are one GROUP BY each.
+ * Results are kept for {@code hr.people-stats.cache-ttl-seconds} (0 disables caching)
+ * and dropped whenever the employee service creates, updates or toggles a user.
+ */
+@Component
+public class PeopleStats {
+
+    static final List<Integer> ADMIN_ROLE_IDS = List.of(1, 2, 3);
+    static final int ASSETS_DEPARTMENT_ID = 6;
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Cached<Map<String, Long>> counts;
+    private volatile Cached<Map<String, Object>> stats;
+
+    private record Cached<T>(T value, long expiresAt) {
+    }
+
+    public PeopleStats(UserRepository userRepository,
+                       @Value("${hr.people-stats.cache-ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public Map<String, Long> getCounts() {
+        Cached<Map<String, Long>> cached = counts;
+        if (isFresh(cached)) {
+            return cached.value();
+        }
+        long startedAt = generation.get();
+        Cached<Map<String, Long>> computed = compute(this::computeCounts);
+        if (generation.get() == startedAt) {
+            counts = computed;
+        }
+        return computed.value();
+    }
+
+    public Map<String, Object> getStats() {
+        Cached<Map<String, Object>> cached = stats;
+        if (isFresh(cached)) {
+            return cached.value();
+        }
+        long startedAt = generation.get();
+        Cached<Map<String, Object>> computed = compute(this::computeStats);
+        if (generation.get() == startedAt) {
+            stats = computed;
+        }
+        return computed.value();
+    }
+
+    /** Drops cached numbers; results computed concurrently with the change are not cached. */
+    public void invalidate() {
+        generation.incrementAndGet();
+        counts = null;
+        stats = null;
+    }
+
+    private Map<String, Long> computeCounts() {
+        UserRepository.PeopleSummary summary = summarize();
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("all", orZero(summary.getTotal()));
+        result.put("admin", orZero(summary.getAdmins()));
+        result.put("assets", orZero(summary.getAssets()));
+        result.put("deleted", orZero(summary.getInactive()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    private Map<String, Object> computeStats() {
+        UserRepository.PeopleSummary summary = summarize();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", orZero(summary.getTotal()));
+        result.put("active", orZero(summary.getActive()));
+        result.put("inactive", orZero(summary.getInactive()));
+        result.put("admins", orZero(summary.getAdmins()));
+        result.put("provisioned", orZero(summary.getProvisioned()));
+        result.put("byDepartment", toMap(userRepository.countByDepartment()));
+        result.put("byRole", toMap(userRepository.countByRole()));
+        result.put("byJobGrade", toMap(userRepository.countByJobGrade()));
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (UserRepository.StatusCount row : userRepository.countByAccountStatus()) {
+            byStatus.put(row.getStatus(), orZero(row.getTotal()));
+        }
+        result.put("byStatus", Collections.unmodifiableMap(byStatus));
+        return Collections.unmodifiableMap(result);
+    }
+
+    private UserRepository.PeopleSummary summarize() {
+        return userRepository.summarizePeople(ADMIN_ROLE_IDS, ASSETS_DEPARTMENT_ID);
+    }
+
+    private static Map<Integer, Long> toMap(List<UserRepository.GroupCount> rows) {
+        Map<Integer, Long> result = new LinkedHashMap<>();
+        for (UserRepository.GroupCount row : rows) {
+            result.put(row.getGroupId(), orZero(row.getTotal()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private <T> Cached<T> compute(Supplier<T> supplier) {
+        return new Cached<>(supplier.get(), System.currentTimeMillis() + ttlMillis);
+    }
+
+    private boolean isFresh(Cached<?> cached) {
+        return cached != null && ttlMillis > 0 && System.currentTimeMillis() < cached.expiresAt();
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
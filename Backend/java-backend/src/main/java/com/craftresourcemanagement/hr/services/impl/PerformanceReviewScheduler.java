@@ -0,0 +1,149 @@
+package com.craftresourcemanagement.hr.services.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedules the upcoming anniversary performance reviews of a month in a few set-based
+ * statements.
+ * <p>
+ * Employees whose hire anniversary falls between the given day and the end of its month
+ * are selected with one hire_date range per past year, so the query stays on
+ * idx_users_hire_date. Anniversaries earlier in the month have passed and are left alone.
+ * Employees who already have a review dated in the month are skipped, the rest are
+ * batch-inserted, and the unique (employee_id, review_date) key makes a concurrent
+ * re-run a no-op.
+ */
+@Component
+public class PerformanceReviewScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(PerformanceReviewScheduler.class);
+
+    static final String INSERT_REVIEW_SQL =
+        "INSERT INTO performance_reviews (employee_id, user_id, reviewer_id, review_date, review_text, rating, status) "
+            + "VALUES (?, ?, ?, ?, '', 0, 'SCHEDULED') ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String SCHEDULED_IN_MONTH_SQL =
+        "SELECT employee_id FROM performance_reviews WHERE review_date BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long reviewerId;
+    private final int batchSize;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong reviewsScheduled = new AtomicLong();
+    private volatile Run lastRun;
+
+    public record Run(YearMonth month, int candidates, int alreadyScheduled, int scheduled,
+                      long elapsedMillis, LocalDateTime finishedAt) {
+    }
+
+    record Candidate(long userId, LocalDate hireDate) {
+    }
+
+    public PerformanceReviewScheduler(JdbcTemplate jdbcTemplate,
+                                      @Value("${hr.reviews.default-reviewer-id:1}") long reviewerId,
+                                      @Value("${hr.reviews.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reviewerId = reviewerId;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Schedules a review on each anniversary from {@code from} to the end of its month
+     * that does not have one yet. Only reviews this call inserted are counted: the
+     * month is read again afterwards, and a review a concurrent run wrote is not
+     * visible to this transaction.
+     */
+    @Transactional
+    public Run schedule(LocalDate from) {
+        long startedAt = System.currentTimeMillis();
+        YearMonth month = YearMonth.from(from);
+        List<Candidate> candidates = findAnniversaries(from);
+
+        Set<Long> existing = candidates.isEmpty() ? Set.of() : scheduledIn(month);
+
+        List<Candidate> pending = candidates.stream()
+            .filter(candidate -> !existing.contains(candidate.userId()))
+            .toList();
+
+        int scheduled = 0;
+        if (!pending.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_REVIEW_SQL, pending, batchSize, (ps, candidate) -> {
+                ps.setLong(1, candidate.userId());
+                ps.setLong(2, candidate.userId());
+                ps.setLong(3, reviewerId);
+                ps.setDate(4, Date.valueOf(reviewDate(candidate.hireDate(), month)));
+            });
+            Set<Long> after = scheduledIn(month);
+            scheduled = (int) pending.stream().filter(candidate -> after.contains(candidate.userId())).count();
+        }
+
+        Run run = new Run(month, candidates.size(), candidates.size() - pending.size(), scheduled,
+            System.currentTimeMillis() - startedAt, LocalDateTime.now());
+        runs.incrementAndGet();
+        reviewsScheduled.addAndGet(scheduled);
+        lastRun = run;
+        log.info("Performance review scheduling for {}: {} anniversaries, {} already scheduled, {} scheduled in {} ms",
+            month, run.candidates(), run.alreadyScheduled(), run.scheduled(), run.elapsedMillis());
+        return run;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Run run = lastRun;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("runs", runs.get());
+        metrics.put("reviewsScheduled", reviewsScheduled.get());
+        metrics.put("lastRun", run);
+        return metrics;
+    }
+
+    private Set<Long> scheduledIn(YearMonth month) {
+        return new HashSet<>(jdbcTemplate.queryForList(SCHEDULED_IN_MONTH_SQL, Long.class,
+            Date.valueOf(month.atDay(1)), Date.valueOf(month.atEndOfMonth())));
+    }
+
+    private List<Candidate> findAnniversaries(LocalDate from) {
+        YearMonth month = YearMonth.from(from);
+        LocalDate earliest = jdbcTemplate.queryForObject("SELECT MIN(hire_date) FROM users", LocalDate.class);
+        if (earliest == null || earliest.getYear() >= month.getYear()) {
+            return List.of();
+        }
+
+        StringJoiner ranges = new StringJoiner(" OR ", "SELECT id, hire_date FROM users WHERE ", "");
+        List<Object> args = new ArrayList<>();
+        for (int year = earliest.getYear(); year < month.getYear(); year++) {
+            ranges.add("hire_date BETWEEN ? AND ?");
+            args.add(Date.valueOf(from.withYear(year)));
+            args.add(Date.valueOf(month.withYear(year).atEndOfMonth()));
+        }
+        // A 29 February hire can still map to a day before from, so check the actual review date
+        return jdbcTemplate.query(ranges.toString(),
+                (rs, rowNum) -> new Candidate(rs.getLong("id"), rs.getDate("hire_date").toLocalDate()),
+                args.toArray()).stream()
+            .filter(candidate -> !reviewDate(candidate.hireDate(), month).isBefore(from))
+            .toList();
+    }
+
+    /** The anniversary in {@code month}; a 29 February hire date falls on the 28th in other years. */
+    static LocalDate reviewDate(LocalDate hireDate, YearMonth month) {
+        return hireDate.withYear(month.getYear());
+    }
+}
@@ -2,14 +2,25 @@ package com.craftresourcemanagement.system.controllers;
 
 import com.craftresourcemanagement.system.entities.*;
 import com.craftresourcemanagement.system.services.SystemService;
+import com.craftresourcemanagement.system.services.impl.AuditLogIngestor;
+import com.craftresourcemanagement.system.services.impl.AuditLogSearch;
+import com.craftresourcemanagement.system.services.impl.AuditPartitionManager;
+import com.craftresourcemanagement.system.services.impl.AuditRollups;
+import com.craftresourcemanagement.utils.AuditLogWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,10 +28,27 @@ import java.util.Map;
 @RequestMapping("/system")
 public class SystemController {
 
+    private static final int MAX_AUDIT_BROWSE_PAGE_SIZE = 500;
+    // set on audit history responses that do not include archived months
+    static final String HOT_ONLY_HEADER = "X-Audit-Hot-Only";
+
     private final SystemService systemService;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditLogIngestor auditLogIngestor;
+    private final AuditPartitionManager auditPartitionManager;
+    private final AuditRollups auditRollups;
+
+    @Value("${audit.ingest.max-items:10000}")
+    private int maxIngestItems;
 
-    public SystemController(SystemService systemService) {
+    public SystemController(SystemService systemService, AuditLogWriter auditLogWriter,
+                            AuditLogIngestor auditLogIngestor, AuditPartitionManager auditPartitionManager,
+                            AuditRollups auditRollups) {
         this.systemService = systemService;
+        this.auditLogWriter = auditLogWriter;
+        this.auditLogIngestor = auditLogIngestor;
+        this.auditPartitionManager = auditPartitionManager;
+        this.auditRollups = auditRollups;
     }
 
     // SystemConfig endpoints
@@ -64,6 +92,22 @@ public class SystemController {
         return ResponseEntity.ok(systemService.createAuditLogWithDescriptiveAction(auditLog));
     }
 
+    /** Stores a JSON array of audit events and acknowledges each one by its position. */
+    @PostMapping(value = "/audit-logs/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> ingestAuditLogs(@RequestBody List<AuditLog> auditLogs) {
+        if (auditLogs.size() > maxIngestItems) {
+            return ResponseEntity.status(413).body(Map.of("error",
+                "At most " + maxIngestItems + " audit logs per request"));
+        }
+        return ResponseEntity.ok(auditLogIngestor.ingest(auditLogs));
+    }
+
+    /** Streams newline-delimited JSON audit events, one per line, without buffering the body. */
+    @PostMapping(value = "/audit-logs/bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<AuditLogIngestor.Result> ingestAuditLogStream(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(auditLogIngestor.ingest(request.getReader(), maxIngestItems));
+    }
+
     @GetMapping("/audit-logs")
     public ResponseEntity<Page<AuditLog>> getAllAuditLogs(
             @RequestParam(defaultValue = "0") int page,
@@ -73,7 +117,7 @@ public class SystemController {
     }
 
     @GetMapping("/audit-logs/search")
-    public ResponseEntity<Page<AuditLog>> searchAuditLogs(
+    public ResponseEntity<?> searchAuditLogs(
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) String action,
             @RequestParam(required = false) String serviceName,
@@ -83,8 +127,56 @@ public class SystemController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(systemService.searchAuditLogs(
-            userId, action, serviceName, entityType, startDate, endDate, pageable));
+        try {
+            return ResponseEntity.ok(systemService.searchAuditLogs(
+                userId, action, serviceName, entityType, startDate, endDate, pageable));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Newest-first audit logs paged by cursor rather than offset. Pass the returned
+     * nextCursor to get the following page; total is only counted when requested
+     * ("estimate" caps the count, "exact" counts everything).
+     */
+    @GetMapping("/audit-logs/browse")
+    public ResponseEntity<?> browseAuditLogs(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String serviceName,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "none") String total) {
+        if (size < 1) {
+            return ResponseEntity.badRequest().body("size must be >= 1");
+        }
+        AuditLogSearch.TotalMode totalMode;
+        try {
+            totalMode = AuditLogSearch.TotalMode.valueOf(total.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("total must be none, estimate or exact");
+        }
+        AuditLogSearch.Slice slice;
+        try {
+            slice = systemService.browseAuditLogs(userId, action, serviceName, entityType, startDate, endDate,
+                cursor, Math.min(size, MAX_AUDIT_BROWSE_PAGE_SIZE), totalMode);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", slice.items());
+        response.put("size", slice.items().size());
+        response.put("nextCursor", slice.nextCursor());
+        if (slice.total() != null) {
+            response.put("total", slice.total());
+            response.put("totalExact", slice.totalExact());
+        }
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/audit-logs/{id}")
@@ -117,14 +209,21 @@ public class SystemController {
     }
 
     @GetMapping("/audit-logs/user/{userId}")
-    public ResponseEntity<Page<AuditLog>> getAuditLogsForUser(
+    public ResponseEntity<?> getAuditLogsForUser(
             @PathVariable Long userId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(systemService.getAuditLogsForUser(userId, startDate, endDate, pageable));
+        // without a start date only audit_logs is read, archived months are left out
+        try {
+            return ResponseEntity.ok()
+                .header(HOT_ONLY_HEADER, String.valueOf(startDate == null))
+                .body(systemService.getAuditLogsForUser(userId, startDate, endDate, pageable));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/audit-logs/entity/{entityType}/{entityId}")
@@ -134,7 +233,9 @@ public class SystemController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(systemService.getAuditLogsForEntity(entityType, entityId, pageable));
+        return ResponseEntity.ok()
+            .header(HOT_ONLY_HEADER, "true")
+            .body(systemService.getAuditLogsForEntity(entityType, entityId, pageable));
     }
 
     @GetMapping("/audit-logs/analytics/top-actions")
@@ -158,6 +259,25 @@ public class SystemController {
         return ResponseEntity.ok(systemService.getAuditStatistics(userId, action, startDate, endDate));
     }
 
+    @GetMapping("/audit-logs/writer/metrics")
+    public ResponseEntity<Map<String, Object>> getAuditWriterMetrics() {
+        return ResponseEntity.ok(auditLogWriter.getMetrics());
+    }
+
+    @GetMapping("/audit-logs/archive/metrics")
+    public ResponseEntity<Map<String, Object>> getAuditArchiveMetrics() {
+        return ResponseEntity.ok(auditPartitionManager.getMetrics());
+    }
+
+    @GetMapping("/audit-logs/rollups/metrics")
+    public ResponseEntity<Map<String, Object>> getAuditRollupMetrics() {
+        return ResponseEntity.ok(auditRollups.getMetrics());
+    }
+
+    @PostMapping("/audit-logs/archive/run")
+    public ResponseEntity<AuditPartitionManager.Run> runAuditArchive() {
+        return ResponseEntity.ok(auditPartitionManager.maintain(YearMonth.now()));
+    }
 
     // Security - Guard Posts
     @PostMapping("/security/guard-posts")
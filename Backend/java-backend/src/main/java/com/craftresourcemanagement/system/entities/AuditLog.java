@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
     @Index(name = "idx_user_id", columnList = "user_id"),
     @Index(name = "idx_timestamp", columnList = "timestamp"),
     @Index(name = "idx_action", columnList = "action"),
-    @Index(name = "idx_service_name", columnList = "service_name")
+    @Index(name = "idx_service_name", columnList = "service_name"),
+    @Index(name = "idx_audit_user_timestamp", columnList = "user_id, timestamp"),
+    @Index(name = "idx_audit_action_timestamp", columnList = "action, timestamp")
 })
 public class AuditLog {
 
@@ -8,14 +8,13 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     
-    List<AuditLog> findAllByOrderByTimestampDesc();
-    
     List<AuditLog> findTop5ByUserIdOrderByTimestampDesc(Long userId);
     Page<AuditLog> findByUserId(Long userId, Pageable pageable);
     List<AuditLog> findByServiceName(String serviceName);
@@ -65,15 +64,146 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
         Pageable pageable
     );
     
-    // Analytics queries
-    @Query("SELECT a.action, COUNT(a) FROM AuditLog a WHERE a.timestamp >= :since GROUP BY a.action ORDER BY COUNT(a) DESC")
-    List<Object[]> getTopActionsSince(@Param("since") LocalDateTime since);
-    
-    @Query("SELECT a.userId, COUNT(a) FROM AuditLog a WHERE a.timestamp >= :since GROUP BY a.userId ORDER BY COUNT(a) DESC")
-    List<Object[]> getTopUsersSince(@Param("since") LocalDateTime since);
-    
+    // Keyset browsing, newest first; the cursor is the (timestamp, id) of the last row already returned
+    @Query("SELECT a FROM AuditLog a WHERE " +
+           "(:userId IS NULL OR a.userId = :userId) AND " +
+           "(:action IS NULL OR a.action = :action) AND " +
+           "(:serviceName IS NULL OR a.serviceName = :serviceName) AND " +
+           "(:entityType IS NULL OR a.entityType = :entityType) AND " +
+           "(:startDate IS NULL OR a.timestamp >= :startDate) AND " +
+           "(:endDate IS NULL OR a.timestamp <= :endDate) AND " +
+           "(:cursorTimestamp IS NULL OR (a.timestamp <= :cursorTimestamp AND " +
+           "(a.timestamp < :cursorTimestamp OR a.id < :cursorId))) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> browseAuditLogs(
+        @Param("userId") Long userId,
+        @Param("action") String action,
+        @Param("serviceName") String serviceName,
+        @Param("entityType") String entityType,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("cursorTimestamp") LocalDateTime cursorTimestamp,
+        @Param("cursorId") Long cursorId,
+        Pageable pageable
+    );
+
+    @Query("SELECT COUNT(a) FROM AuditLog a WHERE " +
+           "(:userId IS NULL OR a.userId = :userId) AND " +
+           "(:action IS NULL OR a.action = :action) AND " +
+           "(:serviceName IS NULL OR a.serviceName = :serviceName) AND " +
+           "(:entityType IS NULL OR a.entityType = :entityType) AND " +
+           "(:startDate IS NULL OR a.timestamp >= :startDate) AND " +
+           "(:endDate IS NULL OR a.timestamp <= :endDate)")
+    long countSearch(
+        @Param("userId") Long userId,
+        @Param("action") String action,
+        @Param("serviceName") String serviceName,
+        @Param("entityType") String entityType,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+
+    // Counts at most :cap matching rows, so the cost of an estimate is bounded however large the table is
+    @Query(value = "SELECT COUNT(*) FROM (SELECT 1 FROM audit_logs a WHERE " +
+           "(:userId IS NULL OR a.user_id = :userId) AND " +
+           "(:action IS NULL OR a.action = :action) AND " +
+           "(:serviceName IS NULL OR a.service_name = :serviceName) AND " +
+           "(:entityType IS NULL OR a.entity_type = :entityType) AND " +
+           "(:startDate IS NULL OR a.timestamp >= :startDate) AND " +
+           "(:endDate IS NULL OR a.timestamp <= :endDate) " +
+           "LIMIT :cap) capped", nativeQuery = true)
+    long countSearchCapped(
+        @Param("userId") Long userId,
+        @Param("action") String action,
+        @Param("serviceName") String serviceName,
+        @Param("entityType") String entityType,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("cap") int cap
+    );
+
     // Count methods for statistics
     long countByUserIdAndTimestampBetween(Long userId, LocalDateTime startDate, LocalDateTime endDate);
     
     long countByActionAndTimestampBetween(String action, LocalDateTime startDate, LocalDateTime endDate);
+
+    // Aggregate statistics; every filter is optional and the time bounds are inclusive
+    String STATISTICS_FILTER = " WHERE (:userId IS NULL OR a.userId = :userId)" +
+           " AND (:action IS NULL OR a.action = :action)" +
+           " AND (:startDate IS NULL OR a.timestamp >= :startDate)" +
+           " AND (:endDate IS NULL OR a.timestamp <= :endDate)";
+
+    interface GroupCount {
+        String getGroupKey();
+        Long getTotal();
+    }
+
+    interface UserCount {
+        Long getUserId();
+        Long getTotal();
+    }
+
+    interface TimeBucketCount {
+        LocalDate getDay();
+        Integer getHour();
+        Long getTotal();
+    }
+
+    @Query("SELECT COUNT(a) FROM AuditLog a" + STATISTICS_FILTER)
+    long countMatching(
+        @Param("userId") Long userId,
+        @Param("action") String action,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+
+    @Query("SELECT a.serviceName AS groupKey, COUNT(a) AS total FROM AuditLog a" + STATISTICS_FILTER +
+           " GROUP BY a.serviceName ORDER BY COUNT(a) DESC")
+    List<GroupCount> countByService(
+        @Param("userId") Long userId,
+        @Param("action") String action,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        Pageable pageable
+    );
+
+    @Query("SELECT a.action AS groupKey, COUNT(a) AS total FROM AuditLog a" + STATISTICS_FILTER +
+           " GROUP BY a.action ORDER BY COUNT(a) DESC")
+    List<GroupCount> countByAction(
+        @Param("userId") Long userId,
+        @Param("action") String action,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        Pageable pageable
+    );
+
+    @Query("SELECT a.userId AS userId, COUNT(a) AS total FROM AuditLog a" + STATISTICS_FILTER +
+           " GROUP BY a.userId ORDER BY COUNT(a) DESC")
+    List<UserCount> countByUser(
+        @Param("userId") Long userId,
+        @Param("action") String action,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        Pageable pageable
+    );
+
+    @Query("SELECT cast(a.timestamp AS LocalDate) AS day, COUNT(a) AS total FROM AuditLog a" + STATISTICS_FILTER +
+           " GROUP BY cast(a.timestamp AS LocalDate) ORDER BY cast(a.timestamp AS LocalDate)")
+    List<TimeBucketCount> countByDay(
+        @Param("userId") Long userId,
+        @Param("action") String action,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+
+    @Query("SELECT cast(a.timestamp AS LocalDate) AS day, extract(HOUR FROM a.timestamp) AS hour, COUNT(a) AS total " +
+           "FROM AuditLog a" + STATISTICS_FILTER +
+           " GROUP BY cast(a.timestamp AS LocalDate), extract(HOUR FROM a.timestamp)" +
+           " ORDER BY cast(a.timestamp AS LocalDate), extract(HOUR FROM a.timestamp)")
+    List<TimeBucketCount> countByHour(
+        @Param("userId") Long userId,
+        @Param("action") String action,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
 }
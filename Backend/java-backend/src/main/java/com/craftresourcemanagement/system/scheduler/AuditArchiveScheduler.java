@@ -0,0 +1,30 @@
+package com.craftresourcemanagement.system.scheduler;
+
+import com.craftresourcemanagement.system.services.impl.AuditPartitionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+@Component
+public class AuditArchiveScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditArchiveScheduler.class);
+    private final AuditPartitionManager auditPartitionManager;
+
+    public AuditArchiveScheduler(AuditPartitionManager auditPartitionManager) {
+        this.auditPartitionManager = auditPartitionManager;
+    }
+
+    @Scheduled(cron = "0 30 1 * * *") // Daily at 01:30
+    public void archiveAuditLogs() {
+        log.info("Running audit log partition maintenance job");
+        try {
+            auditPartitionManager.maintain(YearMonth.now());
+        } catch (Exception e) {
+            log.error("Audit log partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.craftresourcemanagement.system.scheduler;
+
+import com.craftresourcemanagement.system.services.impl.AuditRollups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+public class AuditRollupScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditRollupScheduler.class);
+    private final AuditRollups auditRollups;
+
+    public AuditRollupScheduler(AuditRollups auditRollups) {
+        this.auditRollups = auditRollups;
+    }
+
+    @Scheduled(cron = "0 2 * * * *") // Hourly at minute 2
+    public void compactAuditRollups() {
+        try {
+            auditRollups.compact(LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Audit rollup compaction failed: {}", e.getMessage(), e);
+        }
+    }
+}
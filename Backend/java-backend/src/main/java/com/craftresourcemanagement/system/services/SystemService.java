@@ -1,6 +1,7 @@
 package com.craftresourcemanagement.system.services;
 
 import com.craftresourcemanagement.system.entities.*;
+import com.craftresourcemanagement.system.services.impl.AuditLogSearch;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -20,7 +21,6 @@ public interface SystemService {
     // AuditLog - Enhanced
     AuditLog createAuditLog(AuditLog auditLog);
     AuditLog createAuditLogWithDescriptiveAction(AuditLog auditLog);
-    List<AuditLog> getAllAuditLogs();
     Page<AuditLog> getAllAuditLogsPaginated(Pageable pageable);
     AuditLog getAuditLogById(Long id);
     List<AuditLog> getRecentAuditLogsForUser(Long userId);
@@ -28,6 +28,9 @@ public interface SystemService {
     Page<AuditLog> getAuditLogsForEntity(String entityType, String entityId, Pageable pageable);
     Page<AuditLog> searchAuditLogs(Long userId, String action, String serviceName, 
                                    String entityType, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+    AuditLogSearch.Slice browseAuditLogs(Long userId, String action, String serviceName, String entityType,
+                                         LocalDateTime startDate, LocalDateTime endDate, String cursor, int limit,
+                                         AuditLogSearch.TotalMode totalMode);
     List<Map<String, Object>> getTopActions(int days);
     List<Map<String, Object>> getTopUsers(int days);
     Map<String, Object> getAuditStatistics(Long userId, String action, LocalDateTime startDate, LocalDateTime endDate);
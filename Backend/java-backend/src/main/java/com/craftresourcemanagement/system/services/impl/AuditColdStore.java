@@ -0,0 +1,124 @@
+package com.craftresourcemanagement.system.services.impl;
+
+import com.craftresourcemanagement.system.entities.AuditLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File store for archived audit logs: one gzip-compressed NDJSON file per month part,
+ * {@code audit_logs-YYYY-MM.part-N.ndjson.gz} under {@code audit.archive.dir}.
+ * <p>
+ * Files are written to a temporary name and moved into place once complete, so a
+ * segment either exists whole or not at all. Archiving is off unless
+ * {@code audit.archive.enabled} is set, and then {@code audit.archive.dir} must be an
+ * absolute path so segments never land in whatever the working directory happens to be.
+ */
+@Component
+public class AuditColdStore {
+
+    private final ObjectWriter writer;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+
+    public record Written(Path path, long rows, long bytes) {
+    }
+
+    public AuditColdStore(ObjectMapper objectMapper,
+                          @Value("${audit.archive.enabled:false}") boolean enabled,
+                          @Value("${audit.archive.dir:}") String directory) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(AuditLog.class);
+        this.enabled = enabled;
+        if (enabled && (directory == null || directory.isBlank() || !Paths.get(directory).isAbsolute())) {
+            throw new IllegalStateException(
+                "audit.archive.enabled requires audit.archive.dir to be an absolute path, got '" + directory + "'");
+        }
+        this.directory = enabled ? Paths.get(directory) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Writes every row the producer emits into a new segment for the month and part. */
+    public Written write(YearMonth month, int part, Consumer<Consumer<AuditLog>> producer) throws IOException {
+        if (!enabled) {
+            throw new IllegalStateException("Audit archiving is disabled (audit.archive.enabled=false)");
+        }
+        Files.createDirectories(directory);
+        Path target = directory.resolve(fileName(month, part));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long[] rows = new long[1];
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+            producer.accept(log -> {
+                try {
+                    out.write(writer.writeValueAsString(log));
+                    out.newLine();
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new Written(target, rows[0], Files.size(target));
+    }
+
+    /** Streams the rows of a segment file to the consumer, one line at a time. */
+    public void scan(String path, Consumer<AuditLog> consumer) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(Paths.get(path))), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    consumer.accept(objectMapper.readValue(line, AuditLog.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archived audit segment " + path, e);
+        }
+    }
+
+    /** Reads a segment back end to end and returns how many rows it holds. */
+    public long count(String path) {
+        long[] rows = new long[1];
+        scan(path, log -> rows[0]++);
+        return rows[0];
+    }
+
+    /** Removes a segment file that was written but never recorded. */
+    public void discard(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot remove audit segment " + path, e);
+        }
+    }
+
+    static String fileName(YearMonth month, int part) {
+        return "audit_logs-" + month + ".part-" + part + ".ndjson.gz";
+    }
+}
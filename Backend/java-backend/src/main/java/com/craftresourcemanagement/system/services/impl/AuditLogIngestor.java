@@ -0,0 +1,224 @@
+package com.craftresourcemanagement.system.services.impl;
+
+import com.craftresourcemanagement.system.entities.AuditLog;
+import com.craftresourcemanagement.utils.AuditLogWriter;
+import com.craftresourcemanagement.utils.UserDisplayNameCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bulk intake for audit events pushed by the other services.
+ * <p>
+ * Events are validated, named from {@link UserDisplayNameCache} and written through
+ * {@link AuditLogWriter#writeNow} in multi-row INSERTs, so a batch costs one statement
+ * instead of a transaction, a user lookup and an insert per event. Every event gets an
+ * acknowledgement by position: accepted, rejected (bad input, do not resend) or failed
+ * (storage error, safe to resend). The hours of stored events are reported to
+ * {@link AuditRollups} so backdated events are counted in the hourly rollups.
+ * <p>
+ * Values that would not fit their audit_logs column are rejected per event instead of
+ * failing the whole INSERT; the action and user name this class builds itself are cut
+ * to the column size.
+ */
+@Component
+public class AuditLogIngestor {
+
+    public static final String ACCEPTED = "accepted";
+    public static final String REJECTED = "rejected";
+    public static final String FAILED = "failed";
+
+    private static final ZoneId AUDIT_ZONE = ZoneId.of("Africa/Kigali");
+    private static final int NAME_LENGTH = 255;
+    // audit_logs.timestamp is a TIMESTAMP column
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 2, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(2038, 1, 18, 0, 0);
+
+    private record Limit(String field, int length, Function<AuditLog, String> value) {
+    }
+
+    private static final List<Limit> LIMITS = List.of(
+        new Limit("action", NAME_LENGTH, AuditLog::getAction),
+        new Limit("performedBy", NAME_LENGTH, AuditLog::getPerformedBy),
+        new Limit("ipAddress", 45, AuditLog::getIpAddress),
+        new Limit("entityId", 100, AuditLog::getEntityId),
+        new Limit("entityType", 50, AuditLog::getEntityType),
+        new Limit("requestId", 100, AuditLog::getRequestId),
+        new Limit("result", 20, AuditLog::getResult),
+        new Limit("serviceName", 50, AuditLog::getServiceName),
+        new Limit("sessionId", 100, AuditLog::getSessionId));
+
+    public record Ack(int index, String status, String error) {
+    }
+
+    public record Result(int accepted, int rejected, int failed, List<Ack> items) {
+    }
+
+    private final UserDisplayNameCache userDisplayNameCache;
+    private final AuditLogWriter auditLogWriter;
+    private final ObjectMapper objectMapper;
+    private final AuditRollups auditRollups;
+    private final int chunkSize;
+
+    public AuditLogIngestor(UserDisplayNameCache userDisplayNameCache,
+                            AuditLogWriter auditLogWriter,
+                            ObjectMapper objectMapper,
+                            AuditRollups auditRollups,
+                            @Value("${audit.ingest.chunk-size:500}") int chunkSize) {
+        this.userDisplayNameCache = userDisplayNameCache;
+        this.auditLogWriter = auditLogWriter;
+        this.objectMapper = objectMapper;
+        this.auditRollups = auditRollups;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public Result ingest(List<AuditLog> logs) {
+        List<Ack> acks = new ArrayList<>(logs.size());
+        List<AuditLog> pending = new ArrayList<>(Math.min(logs.size(), chunkSize));
+        List<Integer> positions = new ArrayList<>(Math.min(logs.size(), chunkSize));
+        for (int index = 0; index < logs.size(); index++) {
+            offer(index, logs.get(index), pending, positions, acks);
+        }
+        write(pending, positions, acks);
+        return summarize(acks);
+    }
+
+    /**
+     * Reads one JSON event per line and writes them a chunk at a time, so the
+     * request body is never held in memory. Blank lines are skipped and do not
+     * take an index. Reading stops after {@code maxItems} events; the first
+     * event past the limit is rejected so the caller knows where to resend from.
+     */
+    public Result ingest(BufferedReader ndjson, int maxItems) throws IOException {
+        List<Ack> acks = new ArrayList<>();
+        List<AuditLog> pending = new ArrayList<>(chunkSize);
+        List<Integer> positions = new ArrayList<>(chunkSize);
+        int index = 0;
+        String line;
+        while ((line = ndjson.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (index >= maxItems) {
+                acks.add(new Ack(index, REJECTED, "At most " + maxItems + " audit logs per request, resend from here"));
+                break;
+            }
+            AuditLog log;
+            try {
+                log = objectMapper.readValue(line, AuditLog.class);
+            } catch (IOException e) {
+                acks.add(new Ack(index++, REJECTED, "Malformed JSON"));
+                continue;
+            }
+            offer(index++, log, pending, positions, acks);
+            if (pending.size() >= chunkSize) {
+                write(pending, positions, acks);
+            }
+        }
+        write(pending, positions, acks);
+        return summarize(acks);
+    }
+
+    /**
+     * Fills in timestamp, performer and user name, and prefixes the action with the
+     * user's name the same way single audit events are described.
+     */
+    public void enrich(AuditLog auditLog) {
+        if (auditLog.getTimestamp() == null) {
+            auditLog.setTimestamp(LocalDateTime.now(AUDIT_ZONE));
+        }
+        userDisplayNameCache.getDisplayName(auditLog.getUserId()).ifPresent(userName -> {
+            auditLog.setUserName(userName);
+            String action = auditLog.getAction();
+            if (action.startsWith("has ")) {
+                auditLog.setAction(userName + " " + action);
+            } else if (!action.toLowerCase().contains("user") && !action.toLowerCase().contains(userName.toLowerCase())) {
+                auditLog.setAction("User " + userName + " " + action);
+            }
+        });
+        auditLog.setAction(truncate(auditLog.getAction()));
+        auditLog.setUserName(truncate(auditLog.getUserName()));
+        if (auditLog.getPerformedBy() == null) {
+            auditLog.setPerformedBy(auditLog.getUserId() != null ? auditLog.getUserId().toString() : "system");
+        }
+    }
+
+    private void offer(int index, AuditLog log, List<AuditLog> pending, List<Integer> positions, List<Ack> acks) {
+        if (log == null) {
+            acks.add(new Ack(index, REJECTED, "Empty event"));
+            return;
+        }
+        if (log.getAction() == null || log.getAction().isBlank()) {
+            acks.add(new Ack(index, REJECTED, "action is required"));
+            return;
+        }
+        String invalid = invalid(log);
+        if (invalid != null) {
+            acks.add(new Ack(index, REJECTED, invalid));
+            return;
+        }
+        enrich(log);
+        pending.add(log);
+        positions.add(index);
+    }
+
+    private void write(List<AuditLog> pending, List<Integer> positions, List<Ack> acks) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        boolean[] stored = auditLogWriter.writeNow(pending);
+        List<LocalDateTime> storedTimestamps = new ArrayList<>(stored.length);
+        for (int i = 0; i < stored.length; i++) {
+            if (stored[i]) {
+                storedTimestamps.add(pending.get(i).getTimestamp());
+                acks.add(new Ack(positions.get(i), ACCEPTED, null));
+            } else {
+                acks.add(new Ack(positions.get(i), FAILED, "Storage unavailable, retry later"));
+            }
+        }
+        auditRollups.markDirty(storedTimestamps);
+        pending.clear();
+        positions.clear();
+    }
+
+    private static String invalid(AuditLog log) {
+        for (Limit limit : LIMITS) {
+            String value = limit.value().apply(log);
+            if (value != null && value.length() > limit.length()) {
+                return limit.field() + " is longer than " + limit.length() + " characters";
+            }
+        }
+        if (log.getTimestamp() != null
+                && (log.getTimestamp().isBefore(MIN_TIMESTAMP) || log.getTimestamp().isAfter(MAX_TIMESTAMP))) {
+            return "timestamp is out of range";
+        }
+        return null;
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > NAME_LENGTH ? value.substring(0, NAME_LENGTH) : value;
+    }
+
+    private static Result summarize(List<Ack> acks) {
+        acks.sort((a, b) -> Integer.compare(a.index(), b.index()));
+        int accepted = 0;
+        int rejected = 0;
+        int failed = 0;
+        for (Ack ack : acks) {
+            switch (ack.status()) {
+                case ACCEPTED -> accepted++;
+                case REJECTED -> rejected++;
+                default -> failed++;
+            }
+        }
+        return new Result(accepted, rejected, failed, acks);
+    }
+}
@@ -0,0 +1,240 @@
+package com.craftresourcemanagement.system.services.impl;
+
+import com.craftresourcemanagement.system.entities.AuditLog;
+import com.craftresourcemanagement.system.repositories.AuditLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Audit log search over hot and cold storage.
+ * <p>
+ * Searches go to audit_logs only, unless the start date falls before the oldest month
+ * still held there. In that case the archived segments overlapping the range are
+ * scanned too. Cold rows always come after hot rows, so a page is filled from the
+ * hot query first and then from the newest matching cold rows across all segments;
+ * later parts of a month can hold rows older than earlier parts, so no segment is
+ * taken as a whole before the others are looked at. How deep an offset may reach into
+ * the archive is capped; deeper pages go through {@link #browse}.
+ * <p>
+ * {@link #browse} pages by an opaque cursor on (timestamp, id) instead of an offset, so
+ * every page is an index range read however deep the caller has scrolled, and totals are
+ * only counted when asked for: exactly, or capped at {@code audit.browse.estimate-cap}.
+ * Estimates count audit_logs only and are never exact when the range reaches archived months.
+ */
+@Component
+public class AuditLogSearch {
+
+    private static final Comparator<AuditLog> NEWEST_FIRST = Comparator
+        .comparing(AuditLog::getTimestamp, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(AuditLog::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    public enum TotalMode { NONE, ESTIMATE, EXACT }
+
+    public record Slice(List<AuditLog> items, String nextCursor, Long total, Boolean totalExact) {
+    }
+
+    private record Cursor(LocalDateTime timestamp, Long id) {
+    }
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditPartitionManager partitionManager;
+    private final AuditColdStore coldStore;
+    private final int estimateCap;
+    private final int maxColdRows;
+
+    public AuditLogSearch(AuditLogRepository auditLogRepository,
+                          AuditPartitionManager partitionManager,
+                          AuditColdStore coldStore,
+                          @Value("${audit.browse.estimate-cap:10000}") int estimateCap,
+                          @Value("${audit.search.max-cold-rows:5000}") int maxColdRows) {
+        this.auditLogRepository = auditLogRepository;
+        this.partitionManager = partitionManager;
+        this.coldStore = coldStore;
+        this.estimateCap = Math.max(1, estimateCap);
+        this.maxColdRows = Math.max(1, maxColdRows);
+    }
+
+    /**
+     * One offset page of matching audit logs, newest first. Every archived row before
+     * the page has to be scanned and held to serve it, so a page that would reach more
+     * than {@code audit.search.max-cold-rows} rows into archived months (or an unpaged
+     * request that reaches them at all) is rejected with IllegalArgumentException;
+     * {@link #browse} serves those depths.
+     */
+    public Page<AuditLog> search(Long userId, String action, String serviceName, String entityType,
+                                 LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+        LocalDateTime hotStart = startDate != null ? partitionManager.getHotStart() : null;
+        if (hotStart == null || !startDate.isBefore(hotStart)) {
+            return auditLogRepository.searchAuditLogs(userId, action, serviceName, entityType, startDate, endDate, pageable);
+        }
+
+        long hotTotal = 0;
+        List<AuditLog> content = new ArrayList<>();
+        if (endDate == null || !endDate.isBefore(hotStart)) {
+            Page<AuditLog> hot = auditLogRepository.searchAuditLogs(
+                userId, action, serviceName, entityType, startDate, endDate, pageable);
+            hotTotal = hot.getTotalElements();
+            content.addAll(hot.getContent());
+        }
+
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        long coldSkip = Math.max(0, offset - hotTotal);
+        LocalDateTime coldEnd = endDate != null && endDate.isBefore(hotStart) ? endDate : hotStart;
+
+        long coldRows = coldSkip + limit - content.size();
+        if (content.size() < limit && coldRows > maxColdRows) {
+            throw new IllegalArgumentException("Page reaches " + coldRows + " rows into archived audit logs, more than "
+                + maxColdRows + "; page through them with /audit-logs/browse instead");
+        }
+
+        long[] coldTotal = new long[1];
+        List<AuditLog> cold = newestCold(startDate, coldEnd, coldRows,
+            auditLog -> matches(auditLog, userId, action, serviceName, entityType, startDate, endDate), coldTotal);
+        for (int i = (int) Math.min(coldSkip, cold.size()); i < cold.size() && content.size() < limit; i++) {
+            content.add(cold.get(i));
+        }
+        return new PageImpl<>(content, pageable, hotTotal + coldTotal[0]);
+    }
+
+    /**
+     * One page of matching audit logs, newest first, after {@code cursor} (null for the
+     * first page). {@code nextCursor} is null on the last page.
+     */
+    public Slice browse(Long userId, String action, String serviceName, String entityType,
+                        LocalDateTime startDate, LocalDateTime endDate, String cursor, int limit, TotalMode totalMode) {
+        Cursor after = decodeCursor(cursor);
+        LocalDateTime hotStart = startDate != null ? partitionManager.getHotStart() : null;
+        boolean reachesCold = hotStart != null && startDate.isBefore(hotStart);
+
+        List<AuditLog> rows = new ArrayList<>(auditLogRepository.browseAuditLogs(userId, action, serviceName, entityType,
+            startDate, endDate, after != null ? after.timestamp() : null, after != null ? after.id() : null,
+            PageRequest.of(0, limit + 1)));
+
+        if (reachesCold && rows.size() <= limit) {
+            LocalDateTime coldEnd = hotStart;
+            if (endDate != null && endDate.isBefore(coldEnd)) {
+                coldEnd = endDate;
+            }
+            if (after != null && after.timestamp().isBefore(coldEnd)) {
+                coldEnd = after.timestamp();
+            }
+            rows.addAll(newestCold(startDate, coldEnd, limit + 1 - rows.size(),
+                auditLog -> matches(auditLog, userId, action, serviceName, entityType, startDate, endDate)
+                    && (after == null || isBefore(auditLog, after)), null));
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<AuditLog> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? encodeCursor(items.get(limit - 1)) : null;
+
+        Long total = null;
+        Boolean totalExact = null;
+        if (totalMode == TotalMode.EXACT) {
+            total = auditLogRepository.countSearch(userId, action, serviceName, entityType, startDate, endDate);
+            if (reachesCold) {
+                total += countCold(userId, action, serviceName, entityType, startDate, endDate, hotStart);
+            }
+            totalExact = true;
+        } else if (totalMode == TotalMode.ESTIMATE) {
+            total = auditLogRepository.countSearchCapped(
+                userId, action, serviceName, entityType, startDate, endDate, estimateCap);
+            // archived rows are left out rather than guessed from unfiltered segment sizes
+            totalExact = total < estimateCap && !reachesCold;
+        }
+        return new Slice(items, nextCursor, total, totalExact);
+    }
+
+    /**
+     * The {@code keep} newest cold rows accepted by the filter, across every segment that
+     * overlaps the range, newest first. With {@code matched} set every segment is scanned
+     * and all accepted rows are counted into it; without it, segments that end before the
+     * oldest row kept so far are skipped once enough rows are held.
+     */
+    private List<AuditLog> newestCold(LocalDateTime from, LocalDateTime to, long keep,
+                                      Predicate<AuditLog> filter, long[] matched) {
+        PriorityQueue<AuditLog> newest = new PriorityQueue<>(NEWEST_FIRST.reversed());
+        for (AuditPartitionManager.Segment segment : partitionManager.segments(from, to)) {
+            if (matched == null && keep > 0 && newest.size() >= keep
+                    && segment.maxTimestamp().isBefore(newest.peek().getTimestamp())) {
+                continue;
+            }
+            coldStore.scan(segment.path(), auditLog -> {
+                if (filter.test(auditLog)) {
+                    if (matched != null) {
+                        matched[0]++;
+                    }
+                    newest.add(auditLog);
+                    if (newest.size() > keep) {
+                        newest.poll();
+                    }
+                }
+            });
+        }
+        List<AuditLog> rows = new ArrayList<>(newest);
+        rows.sort(NEWEST_FIRST);
+        return rows;
+    }
+
+    private long countCold(Long userId, String action, String serviceName, String entityType,
+                           LocalDateTime startDate, LocalDateTime endDate, LocalDateTime hotStart) {
+        LocalDateTime coldEnd = endDate != null && endDate.isBefore(hotStart) ? endDate : hotStart;
+        long[] count = new long[1];
+        for (AuditPartitionManager.Segment segment : partitionManager.segments(startDate, coldEnd)) {
+            coldStore.scan(segment.path(), auditLog -> {
+                if (matches(auditLog, userId, action, serviceName, entityType, startDate, endDate)) {
+                    count[0]++;
+                }
+            });
+        }
+        return count[0];
+    }
+
+    private static boolean isBefore(AuditLog auditLog, Cursor cursor) {
+        int byTime = auditLog.getTimestamp().compareTo(cursor.timestamp());
+        return byTime < 0 || (byTime == 0 && auditLog.getId() != null && auditLog.getId() < cursor.id());
+    }
+
+    static String encodeCursor(AuditLog auditLog) {
+        String raw = auditLog.getTimestamp() + "|" + auditLog.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static boolean matches(AuditLog auditLog, Long userId, String action, String serviceName,
+                                   String entityType, LocalDateTime startDate, LocalDateTime endDate) {
+        return (userId == null || userId.equals(auditLog.getUserId()))
+            && (action == null || action.equals(auditLog.getAction()))
+            && (serviceName == null || serviceName.equals(auditLog.getServiceName()))
+            && (entityType == null || entityType.equals(auditLog.getEntityType()))
+            && auditLog.getTimestamp() != null
+            && (startDate == null || !auditLog.getTimestamp().isBefore(startDate))
+            && (endDate == null || !auditLog.getTimestamp().isAfter(endDate));
+    }
+}
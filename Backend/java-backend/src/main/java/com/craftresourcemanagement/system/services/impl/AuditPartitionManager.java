@@ -0,0 +1,330 @@
+package com.craftresourcemanagement.system.services.impl;
+
+import com.craftresourcemanagement.system.entities.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps audit_logs to a hot window of recent months and moves older months to cold storage.
+ * <p>
+ * On MySQL/MariaDB audit_logs is range-partitioned by month ({@code pYYYYMM}, plus
+ * {@code p_future} for anything later); {@link #maintain} splits new monthly partitions off
+ * {@code p_future} ahead of time. Months older than {@code audit.partitions.hot-months} are
+ * streamed by id into gzip NDJSON segments through {@link AuditColdStore}, recorded in
+ * audit_log_segments, and then removed from the table: by dropping the month's partition when
+ * it holds nothing else, otherwise by batched deletes. Rows that arrive for an archived month
+ * later go into a further part of that month on the next run.
+ * <p>
+ * Archiving only runs when {@link AuditColdStore#isEnabled()}; otherwise maintenance just adds
+ * partitions. Each segment is read back and its row count checked against both the rows written
+ * and the rows still in audit_logs for that id range before anything is deleted or dropped.
+ */
+@Component
+public class AuditPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditPartitionManager.class);
+
+    static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String PARTITIONS_SQL = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_logs' AND PARTITION_NAME IS NOT NULL "
+        + "ORDER BY PARTITION_ORDINAL_POSITION";
+    private static final String ADD_PARTITION_SQL = "ALTER TABLE audit_logs REORGANIZE PARTITION " + FUTURE_PARTITION
+        + " INTO (PARTITION %s VALUES LESS THAN (UNIX_TIMESTAMP('%s 00:00:00')), PARTITION "
+        + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)";
+    private static final String SELECT_MONTH_SQL = "SELECT id, user_id, user_name, performed_by, action, timestamp, "
+        + "details, service_name, ip_address, request_id, session_id, entity_type, entity_id, result "
+        + "FROM audit_logs WHERE timestamp >= ? AND timestamp < ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String COUNT_RANGE_SQL = "SELECT COUNT(*) FROM audit_logs "
+        + "WHERE timestamp >= ? AND timestamp < ? AND id > ? AND id <= ?";
+    private static final String DELETE_MONTH_SQL =
+        "DELETE FROM audit_logs WHERE timestamp >= ? AND timestamp < ? AND id <= ? LIMIT ?";
+    private static final String INSERT_SEGMENT_SQL = "INSERT INTO audit_log_segments (segment_month, part, path, "
+        + "row_count, min_id, max_id, min_timestamp, max_timestamp, bytes, created_at) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SEGMENTS_SQL = "SELECT segment_month, part, path, row_count, min_id, max_id, "
+        + "min_timestamp, max_timestamp FROM audit_log_segments WHERE max_timestamp >= ? AND min_timestamp <= ? "
+        + "ORDER BY max_timestamp DESC, part DESC";
+
+    public record Segment(YearMonth month, int part, String path, long rows, long minId, long maxId,
+                          LocalDateTime minTimestamp, LocalDateTime maxTimestamp) {
+    }
+
+    public record Run(YearMonth hotFrom, List<String> partitionsAdded, List<Segment> archived,
+                      long rowsArchived, long elapsedMillis, LocalDateTime finishedAt) {
+    }
+
+    private static final RowMapper<AuditLog> AUDIT_LOG_MAPPER = (rs, rowNum) -> {
+        AuditLog auditLog = new AuditLog();
+        auditLog.setId(rs.getLong("id"));
+        auditLog.setUserId(rs.getObject("user_id") != null ? rs.getLong("user_id") : null);
+        auditLog.setUserName(rs.getString("user_name"));
+        auditLog.setPerformedBy(rs.getString("performed_by"));
+        auditLog.setAction(rs.getString("action"));
+        auditLog.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+        auditLog.setDetails(rs.getString("details"));
+        auditLog.setServiceName(rs.getString("service_name"));
+        auditLog.setIpAddress(rs.getString("ip_address"));
+        auditLog.setRequestId(rs.getString("request_id"));
+        auditLog.setSessionId(rs.getString("session_id"));
+        auditLog.setEntityType(rs.getString("entity_type"));
+        auditLog.setEntityId(rs.getString("entity_id"));
+        auditLog.setResult(rs.getString("result"));
+        return auditLog;
+    };
+
+    private static final RowMapper<Segment> SEGMENT_MAPPER = (rs, rowNum) -> new Segment(
+        YearMonth.from(rs.getDate("segment_month").toLocalDate()),
+        rs.getInt("part"),
+        rs.getString("path"),
+        rs.getLong("row_count"),
+        rs.getLong("min_id"),
+        rs.getLong("max_id"),
+        rs.getTimestamp("min_timestamp").toLocalDateTime(),
+        rs.getTimestamp("max_timestamp").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditColdStore coldStore;
+    private final int hotMonths;
+    private final int monthsAhead;
+    private final int batchSize;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong segmentsWritten = new AtomicLong();
+    private final AtomicLong rowsArchived = new AtomicLong();
+    private volatile Run lastRun;
+    private volatile boolean hotStartLoaded;
+    private volatile LocalDateTime hotStart;
+
+    public AuditPartitionManager(JdbcTemplate jdbcTemplate,
+                                 AuditColdStore coldStore,
+                                 @Value("${audit.partitions.hot-months:6}") int hotMonths,
+                                 @Value("${audit.partitions.months-ahead:3}") int monthsAhead,
+                                 @Value("${audit.archive.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.coldStore = coldStore;
+        this.hotMonths = Math.max(1, hotMonths);
+        this.monthsAhead = Math.max(0, monthsAhead);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /** Adds upcoming monthly partitions and archives every month before the hot window. */
+    public synchronized Run maintain(YearMonth current) {
+        long startedAt = System.currentTimeMillis();
+        List<String> partitions = partitions();
+        List<String> added = partitions.isEmpty() ? List.of() : addPartitions(partitions, current);
+
+        YearMonth hotFrom = current.minusMonths(hotMonths - 1L);
+        List<Segment> archived = new ArrayList<>();
+        YearMonth month = coldStore.isEnabled() ? oldestMonthFrom(null) : null;
+        while (month != null && month.isBefore(hotFrom)) {
+            Segment segment = archiveMonth(month, partitions);
+            if (segment != null) {
+                archived.add(segment);
+            }
+            month = oldestMonthFrom(month.plusMonths(1).atDay(1).atStartOfDay());
+        }
+        hotStartLoaded = false;
+
+        long rows = archived.stream().mapToLong(Segment::rows).sum();
+        runs.incrementAndGet();
+        segmentsWritten.addAndGet(archived.size());
+        rowsArchived.addAndGet(rows);
+        Run run = new Run(hotFrom, added, archived, rows, System.currentTimeMillis() - startedAt, LocalDateTime.now());
+        lastRun = run;
+        log.info("Audit partition maintenance: {} partitions added, {} rows archived into {} segments in {}ms",
+            added.size(), rows, archived.size(), run.elapsedMillis());
+        return run;
+    }
+
+    /**
+     * Start of the oldest month still held in audit_logs, or null when nothing has been
+     * archived yet. Queries that start before it need the cold segments as well.
+     */
+    public LocalDateTime getHotStart() {
+        if (!hotStartLoaded) {
+            try {
+                Date latest = jdbcTemplate.queryForObject("SELECT MAX(segment_month) FROM audit_log_segments", Date.class);
+                hotStart = latest != null ? YearMonth.from(latest.toLocalDate()).plusMonths(1).atDay(1).atStartOfDay() : null;
+                hotStartLoaded = true;
+            } catch (DataAccessException e) {
+                log.warn("Cannot read audit_log_segments, searching hot audit logs only: {}", e.getMessage());
+                return null;
+            }
+        }
+        return hotStart;
+    }
+
+    /** Archived segments whose rows may fall between {@code from} and {@code to}, newest first. */
+    public List<Segment> segments(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(SEGMENTS_SQL, SEGMENT_MAPPER, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    private Segment archiveMonth(YearMonth month, List<String> partitions) {
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        Date segmentMonth = Date.valueOf(month.atDay(1));
+        Long archivedMaxId = jdbcTemplate.queryForObject(
+            "SELECT MAX(max_id) FROM audit_log_segments WHERE segment_month = ?", Long.class, segmentMonth);
+        Integer parts = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM audit_log_segments WHERE segment_month = ?", Integer.class, segmentMonth);
+        long afterId = archivedMaxId != null ? archivedMaxId : 0L;
+        long archivedUpTo = afterId;
+
+        Segment segment = null;
+        if (countAfter(from, to, afterId) > 0) {
+            int part = (parts != null ? parts : 0) + 1;
+            SegmentBounds bounds = new SegmentBounds();
+            AuditColdStore.Written written;
+            try {
+                written = coldStore.write(month, part, sink -> {
+                    long lastId = afterId;
+                    List<AuditLog> batch;
+                    do {
+                        batch = jdbcTemplate.query(SELECT_MONTH_SQL, AUDIT_LOG_MAPPER, from, to, lastId, batchSize);
+                        for (AuditLog auditLog : batch) {
+                            sink.accept(auditLog);
+                            bounds.track(auditLog);
+                        }
+                        if (!batch.isEmpty()) {
+                            lastId = batch.get(batch.size() - 1).getId();
+                        }
+                    } while (batch.size() == batchSize);
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot archive audit logs for " + month, e);
+            }
+            if (written.rows() == 0) {
+                coldStore.discard(written.path());
+                return null;
+            }
+            verify(written, from, to, afterId, bounds.maxId);
+            jdbcTemplate.update(INSERT_SEGMENT_SQL, segmentMonth, part, written.path().toString(), written.rows(),
+                bounds.minId, bounds.maxId, Timestamp.valueOf(bounds.minTimestamp), Timestamp.valueOf(bounds.maxTimestamp),
+                written.bytes(), Timestamp.valueOf(LocalDateTime.now()));
+            segment = new Segment(month, part, written.path().toString(), written.rows(), bounds.minId, bounds.maxId,
+                bounds.minTimestamp, bounds.maxTimestamp);
+            archivedUpTo = bounds.maxId;
+        }
+
+        String partition = month.format(PARTITION_NAME);
+        if (partitions.contains(partition) && countAfter(from, to, archivedUpTo) == 0) {
+            jdbcTemplate.execute("ALTER TABLE audit_logs DROP PARTITION " + partition);
+            partitions.remove(partition);
+        } else {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(DELETE_MONTH_SQL, from, to, archivedUpTo, batchSize);
+            } while (deleted == batchSize);
+        }
+        return segment;
+    }
+
+    private void verify(AuditColdStore.Written written, Timestamp from, Timestamp to, long afterId, long maxId) {
+        long reread = coldStore.count(written.path().toString());
+        Long inTable = jdbcTemplate.queryForObject(COUNT_RANGE_SQL, Long.class, from, to, afterId, maxId);
+        if (reread != written.rows() || inTable == null || inTable != reread) {
+            coldStore.discard(written.path());
+            throw new IllegalStateException("Audit segment " + written.path() + " holds " + reread + " rows, wrote "
+                + written.rows() + ", audit_logs has " + inTable + " in range; leaving audit_logs untouched");
+        }
+    }
+
+    private long countAfter(Timestamp from, Timestamp to, long afterId) {
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM audit_logs WHERE timestamp >= ? AND timestamp < ? AND id > ?",
+            Long.class, from, to, afterId);
+        return count != null ? count : 0L;
+    }
+
+    private YearMonth oldestMonthFrom(LocalDateTime from) {
+        Timestamp oldest = from == null
+            ? jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM audit_logs", Timestamp.class)
+            : jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM audit_logs WHERE timestamp >= ?",
+                Timestamp.class, Timestamp.valueOf(from));
+        return oldest != null ? YearMonth.from(oldest.toLocalDateTime()) : null;
+    }
+
+    private List<String> partitions() {
+        try {
+            return new ArrayList<>(jdbcTemplate.queryForList(PARTITIONS_SQL, String.class));
+        } catch (DataAccessException e) {
+            log.debug("audit_logs partitions unavailable: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private List<String> addPartitions(List<String> partitions, YearMonth current) {
+        if (!partitions.contains(FUTURE_PARTITION)) {
+            log.warn("audit_logs has no {} partition, skipping monthly partition creation", FUTURE_PARTITION);
+            return List.of();
+        }
+        YearMonth latest = null;
+        for (String name : partitions) {
+            if (name.matches("p\\d{6}")) {
+                YearMonth month = YearMonth.parse(name, PARTITION_NAME);
+                if (latest == null || month.isAfter(latest)) {
+                    latest = month;
+                }
+            }
+        }
+        List<String> added = new ArrayList<>();
+        YearMonth last = current.plusMonths(monthsAhead);
+        for (YearMonth month = latest != null ? latest.plusMonths(1) : current; !month.isAfter(last); month = month.plusMonths(1)) {
+            String name = month.format(PARTITION_NAME);
+            jdbcTemplate.execute(String.format(ADD_PARTITION_SQL, name, month.plusMonths(1).atDay(1)));
+            partitions.add(partitions.indexOf(FUTURE_PARTITION), name);
+            added.add(name);
+        }
+        return added;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("runs", runs.get());
+        metrics.put("segmentsWritten", segmentsWritten.get());
+        metrics.put("rowsArchived", rowsArchived.get());
+        metrics.put("archiveEnabled", coldStore.isEnabled());
+        metrics.put("hotMonths", hotMonths);
+        metrics.put("hotStart", getHotStart());
+        metrics.put("lastRun", lastRun);
+        return metrics;
+    }
+
+    private static final class SegmentBounds {
+        private long minId = Long.MAX_VALUE;
+        private long maxId = Long.MIN_VALUE;
+        private LocalDateTime minTimestamp;
+        private LocalDateTime maxTimestamp;
+
+        void track(AuditLog auditLog) {
+            minId = Math.min(minId, auditLog.getId());
+            maxId = Math.max(maxId, auditLog.getId());
+            if (minTimestamp == null || auditLog.getTimestamp().isBefore(minTimestamp)) {
+                minTimestamp = auditLog.getTimestamp();
+            }
+            if (maxTimestamp == null || auditLog.getTimestamp().isAfter(maxTimestamp)) {
+                maxTimestamp = auditLog.getTimestamp();
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.craftresourcemanagement.system.services.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hourly audit counts per action, user and service, kept in audit_log_hourly_rollups.
+ * <p>
+ * {@link #compact} rebuilds every complete hour since the last run, plus
+ * {@code audit.rollups.lookback-hours} before it to pick up late events, one
+ * delete-and-insert transaction per day of hours. Events stored with an older timestamp,
+ * such as bulk-ingested backfills, are reported through {@link #markDirty}; their hours
+ * are recorded in audit_log_rollup_dirty_hours, so they survive a restart, and are
+ * rebuilt on the next run as well. Top actions and top users read the
+ * rolled-up hours and query audit_logs only for the partial hour at the start of the
+ * window and for the hours not compacted yet, so the raw scan stays about an hour long
+ * whatever the window.
+ */
+@Component
+public class AuditRollups {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditRollups.class);
+
+    static final long NO_USER = 0L;
+    private static final int CHUNK_HOURS = 24;
+
+    private static final String HOUR = "DATE_FORMAT(timestamp, '%Y-%m-%d %H:00:00')";
+    private static final String DELETE_SQL =
+        "DELETE FROM audit_log_hourly_rollups WHERE bucket_start >= ? AND bucket_start < ?";
+    private static final String ROLLUP_SQL = "INSERT INTO audit_log_hourly_rollups "
+        + "(bucket_start, action, user_id, service_name, event_count) "
+        + "SELECT " + HOUR + ", action, COALESCE(user_id, 0), COALESCE(service_name, ''), COUNT(*) "
+        + "FROM audit_logs WHERE timestamp >= ? AND timestamp < ? "
+        + "GROUP BY " + HOUR + ", action, COALESCE(user_id, 0), COALESCE(service_name, '')";
+    private static final String MARK_DIRTY_SQL = "INSERT INTO audit_log_rollup_dirty_hours (bucket_start) VALUES (?) "
+        + "ON DUPLICATE KEY UPDATE bucket_start = bucket_start";
+    private static final String DIRTY_HOURS_SQL =
+        "SELECT bucket_start FROM audit_log_rollup_dirty_hours WHERE bucket_start < ? ORDER BY bucket_start";
+    private static final String CLEAR_DIRTY_SQL =
+        "DELETE FROM audit_log_rollup_dirty_hours WHERE bucket_start >= ? AND bucket_start < ?";
+    private static final String ROLLED_SQL = "SELECT %1$s AS group_key, SUM(event_count) AS total "
+        + "FROM audit_log_hourly_rollups WHERE bucket_start >= ? AND bucket_start < ? GROUP BY %1$s";
+    private static final String RAW_SQL = "SELECT %1$s AS group_key, COUNT(*) AS total "
+        + "FROM audit_logs WHERE %2$s GROUP BY %1$s";
+    private static final String BOUNDED = "timestamp >= ? AND timestamp < ?";
+    private static final String OPEN_ENDED = "timestamp >= ?";
+
+    public record Run(LocalDateTime from, LocalDateTime to, int dirtyHours, int rowsWritten, long elapsedMillis) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long lookbackHours;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private volatile LocalDateTime rolledUpTo;
+    private volatile Run lastRun;
+
+    public AuditRollups(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${audit.rollups.lookback-hours:2}") long lookbackHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lookbackHours = Math.max(0, lookbackHours);
+    }
+
+    /** Rolls up every complete hour before {@code now} that is new or within the lookback. */
+    public synchronized Run compact(LocalDateTime now) {
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime to = now.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime from = compactionStart(to);
+        int written = 0;
+
+        // hours before the regular range that received backdated events; later ones are covered below
+        List<LocalDateTime> dirty = jdbcTemplate.query(DIRTY_HOURS_SQL,
+            (rs, rowNum) -> rs.getTimestamp("bucket_start").toLocalDateTime(), Timestamp.valueOf(from));
+        for (LocalDateTime hour : dirty) {
+            written += rebuild(hour, hour.plusHours(1));
+        }
+
+        for (LocalDateTime chunkStart = from; chunkStart.isBefore(to); chunkStart = chunkStart.plusHours(CHUNK_HOURS)) {
+            LocalDateTime chunkEnd = chunkStart.plusHours(CHUNK_HOURS).isBefore(to) ? chunkStart.plusHours(CHUNK_HOURS) : to;
+            written += rebuild(chunkStart, chunkEnd);
+        }
+        rolledUpTo = to;
+
+        Run run = new Run(from, to, dirty.size(), written, System.currentTimeMillis() - startedAt);
+        runs.incrementAndGet();
+        rowsWritten.addAndGet(written);
+        lastRun = run;
+        log.info("Audit rollups compacted {} to {} and {} backdated hours: {} rows in {}ms",
+            from, to, dirty.size(), written, run.elapsedMillis());
+        return run;
+    }
+
+    /**
+     * Records that events were stored for {@code timestamps}, so each hour older than the
+     * range the next run covers anyway is rebuilt by that run. Hours are recorded with one
+     * batched upsert; a failure is logged and leaves those hours as they were rolled up.
+     */
+    public void markDirty(Collection<LocalDateTime> timestamps) {
+        LocalDateTime watermark = timestamps.isEmpty() ? null : rolledUpTo();
+        if (watermark == null) {
+            // nothing is rolled up yet, so the first run covers every hour
+            return;
+        }
+        LocalDateTime coveredFrom = watermark.minusHours(lookbackHours);
+        Set<LocalDateTime> hours = new TreeSet<>();
+        for (LocalDateTime timestamp : timestamps) {
+            LocalDateTime hour = timestamp.truncatedTo(ChronoUnit.HOURS);
+            if (hour.isBefore(coveredFrom)) {
+                hours.add(hour);
+            }
+        }
+        if (hours.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(MARK_DIRTY_SQL, new ArrayList<>(hours), hours.size(),
+                (ps, hour) -> ps.setTimestamp(1, Timestamp.valueOf(hour)));
+        } catch (RuntimeException e) {
+            log.error("Could not record {} backdated audit hours for rollup, first {}: {}",
+                hours.size(), hours.iterator().next(), e.getMessage());
+        }
+    }
+
+    private int rebuild(LocalDateTime from, LocalDateTime to) {
+        Timestamp start = Timestamp.valueOf(from);
+        Timestamp end = Timestamp.valueOf(to);
+        Integer rows = transactionTemplate.execute(status -> {
+            // cleared first: the range lock makes a concurrent markDirty wait and survive this rebuild
+            jdbcTemplate.update(CLEAR_DIRTY_SQL, start, end);
+            jdbcTemplate.update(DELETE_SQL, start, end);
+            return jdbcTemplate.update(ROLLUP_SQL, start, end);
+        });
+        return rows != null ? rows : 0;
+    }
+
+    /** Event counts per action since {@code since}, largest first. */
+    public List<Map<String, Object>> topActions(LocalDateTime since) {
+        Map<Object, Long> counts = count("action", "action", since, rs -> rs.getString("group_key"));
+        return toRows("action", counts);
+    }
+
+    /** Event counts per user since {@code since}, largest first; events without a user count under null. */
+    public List<Map<String, Object>> topUsers(LocalDateTime since) {
+        Map<Object, Long> counts = count("COALESCE(user_id, 0)", "user_id", since, rs -> {
+            long userId = rs.getLong("group_key");
+            return userId == NO_USER ? null : userId;
+        });
+        return toRows("user", counts);
+    }
+
+    private Map<Object, Long> count(String rawColumn, String rolledColumn, LocalDateTime since, KeyReader keyReader) {
+        Map<Object, Long> counts = new HashMap<>();
+        RowCallbackHandler merge = rs -> counts.merge(keyReader.read(rs), rs.getLong("total"), Long::sum);
+        String rawBounded = String.format(RAW_SQL, rawColumn, BOUNDED);
+        String rawOpenEnded = String.format(RAW_SQL, rawColumn, OPEN_ENDED);
+
+        LocalDateTime rolledTo = rolledUpTo();
+        LocalDateTime firstFullHour = since.truncatedTo(ChronoUnit.HOURS).equals(since)
+            ? since
+            : since.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        if (rolledTo == null || !firstFullHour.isBefore(rolledTo)) {
+            jdbcTemplate.query(rawOpenEnded, merge, Timestamp.valueOf(since));
+            return counts;
+        }
+        if (since.isBefore(firstFullHour)) {
+            jdbcTemplate.query(rawBounded, merge, Timestamp.valueOf(since), Timestamp.valueOf(firstFullHour));
+        }
+        jdbcTemplate.query(String.format(ROLLED_SQL, rolledColumn), merge,
+            Timestamp.valueOf(firstFullHour), Timestamp.valueOf(rolledTo));
+        jdbcTemplate.query(rawOpenEnded, merge, Timestamp.valueOf(rolledTo));
+        return counts;
+    }
+
+    private LocalDateTime compactionStart(LocalDateTime to) {
+        LocalDateTime watermark = rolledUpTo();
+        if (watermark == null) {
+            Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM audit_logs", Timestamp.class);
+            return oldest != null ? oldest.toLocalDateTime().truncatedTo(ChronoUnit.HOURS) : to;
+        }
+        LocalDateTime from = watermark.minusHours(lookbackHours);
+        return from.isAfter(to) ? to : from;
+    }
+
+    /** End of the compacted hours: known after a run, otherwise the hour after the latest bucket. */
+    private LocalDateTime rolledUpTo() {
+        LocalDateTime known = rolledUpTo;
+        if (known != null) {
+            return known;
+        }
+        Timestamp latest = jdbcTemplate.queryForObject(
+            "SELECT MAX(bucket_start) FROM audit_log_hourly_rollups", Timestamp.class);
+        return latest != null ? latest.toLocalDateTime().plusHours(1) : null;
+    }
+
+    private static List<Map<String, Object>> toRows(String label, Map<Object, Long> counts) {
+        List<Map<String, Object>> rows = new ArrayList<>(counts.size());
+        counts.entrySet().stream()
+            .sorted(Map.Entry.<Object, Long>comparingByValue().reversed())
+            .forEach(entry -> {
+                Map<String, Object> row = new HashMap<>();
+                row.put(label, entry.getKey());
+                row.put("count", entry.getValue());
+                rows.add(row);
+            });
+        return rows;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("runs", runs.get());
+        metrics.put("rowsWritten", rowsWritten.get());
+        metrics.put("lookbackHours", lookbackHours);
+        metrics.put("rolledUpTo", rolledUpTo);
+        metrics.put("dirtyHours", jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM audit_log_rollup_dirty_hours", Long.class));
+        metrics.put("lastRun", lastRun);
+        return metrics;
+    }
+
+    @FunctionalInterface
+    private interface KeyReader {
+        Object read(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,165 @@
+package com.craftresourcemanagement.system.services.impl;
+
+import com.craftresourcemanagement.system.repositories.AuditLogRepository;
+import com.craftresourcemanagement.utils.UserDisplayNameCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Audit log statistics answered by COUNT and GROUP BY queries instead of loading rows.
+ * <p>
+ * Totals honour the optional user and action filters; breakdowns by time, service,
+ * action and user cover the requested window, or the last seven days when none is
+ * given. Windows up to two days are bucketed per hour, longer ones per day.
+ * <p>
+ * Every count is taken from audit_logs alone: months already moved to cold storage by
+ * {@link AuditPartitionManager} are not included. The result says so with {@code hotOnly}
+ * and gives {@code hotStart}, the start of the oldest month still counted (null when
+ * nothing has been archived).
+ * <p>
+ * Results are cached per filter set in time buckets of {@code audit.statistics.cache-ttl-seconds}
+ * (0 disables caching): "now" is rounded down to the start of the current bucket, so every
+ * request in the same bucket shares one computation and it expires when the bucket ends.
+ */
+@Component
+public class AuditStatistics {
+
+    static final Duration DEFAULT_WINDOW = Duration.ofDays(7);
+    static final Duration HOURLY_LIMIT = Duration.ofDays(2);
+    private static final int MAX_CACHED_FILTERS = 256;
+
+    private final AuditLogRepository auditLogRepository;
+    private final UserDisplayNameCache userDisplayNameCache;
+    private final AuditPartitionManager partitionManager;
+    private final long ttlMillis;
+    private final int topN;
+    private final Map<Key, Cached<Map<String, Object>>> cache = new ConcurrentHashMap<>();
+
+    private record Key(Long userId, String action, LocalDateTime startDate, LocalDateTime endDate, long bucket) {
+    }
+
+    private record Cached<T>(T value, long expiresAt) {
+    }
+
+    public AuditStatistics(AuditLogRepository auditLogRepository,
+                           UserDisplayNameCache userDisplayNameCache,
+                           AuditPartitionManager partitionManager,
+                           @Value("${audit.statistics.cache-ttl-seconds:30}") long ttlSeconds,
+                           @Value("${audit.statistics.top-n:20}") int topN) {
+        this.auditLogRepository = auditLogRepository;
+        this.userDisplayNameCache = userDisplayNameCache;
+        this.partitionManager = partitionManager;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.topN = Math.max(1, topN);
+    }
+
+    public Map<String, Object> getStatistics(Long userId, String action, LocalDateTime startDate, LocalDateTime endDate) {
+        String actionFilter = action == null || action.isBlank() ? null : action;
+        long nowMillis = System.currentTimeMillis();
+        if (ttlMillis <= 0) {
+            return compute(userId, actionFilter, startDate, endDate, toDateTime(nowMillis));
+        }
+
+        long bucket = nowMillis / ttlMillis;
+        Key key = new Key(userId, actionFilter, startDate, endDate, bucket);
+        Cached<Map<String, Object>> cached = cache.get(key);
+        if (cached != null && nowMillis < cached.expiresAt()) {
+            return cached.value();
+        }
+        Map<String, Object> computed = compute(userId, actionFilter, startDate, endDate, toDateTime(bucket * ttlMillis));
+        cache.entrySet().removeIf(entry -> entry.getValue().expiresAt() <= nowMillis);
+        if (cache.size() < MAX_CACHED_FILTERS) {
+            cache.put(key, new Cached<>(computed, (bucket + 1) * ttlMillis));
+        }
+        return computed;
+    }
+
+    public void invalidate() {
+        cache.clear();
+    }
+
+    private Map<String, Object> compute(Long userId, String action, LocalDateTime startDate,
+                                        LocalDateTime endDate, LocalDateTime now) {
+        LocalDateTime windowEnd = endDate != null ? endDate : now;
+        LocalDateTime windowStart = startDate != null ? startDate : windowEnd.minus(DEFAULT_WINDOW);
+        boolean hourly = !windowStart.plus(HOURLY_LIMIT).isBefore(windowEnd);
+        Pageable top = PageRequest.of(0, topN);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalLogs", auditLogRepository.countMatching(userId, action, null, null));
+        stats.put("todayLogs", auditLogRepository.countMatching(userId, action, now.toLocalDate().atStartOfDay(), now));
+        stats.put("weekLogs", auditLogRepository.countMatching(userId, action, now.minusDays(7), now));
+
+        Map<String, Object> window = new LinkedHashMap<>();
+        window.put("startDate", windowStart);
+        window.put("endDate", windowEnd);
+        window.put("granularity", hourly ? "hour" : "day");
+        stats.put("window", window);
+        stats.put("windowLogs", auditLogRepository.countMatching(userId, action, windowStart, windowEnd));
+
+        List<AuditLogRepository.TimeBucketCount> buckets = hourly
+            ? auditLogRepository.countByHour(userId, action, windowStart, windowEnd)
+            : auditLogRepository.countByDay(userId, action, windowStart, windowEnd);
+        List<Map<String, Object>> timeline = new ArrayList<>(buckets.size());
+        for (AuditLogRepository.TimeBucketCount bucket : buckets) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("period", hourly && bucket.getHour() != null
+                ? bucket.getDay().atTime(bucket.getHour(), 0)
+                : bucket.getDay());
+            row.put("count", orZero(bucket.getTotal()));
+            timeline.add(row);
+        }
+        stats.put("timeline", timeline);
+
+        stats.put("byService", toRows("service",
+            auditLogRepository.countByService(userId, action, windowStart, windowEnd, top)));
+        stats.put("byAction", toRows("action",
+            auditLogRepository.countByAction(userId, action, windowStart, windowEnd, top)));
+
+        List<AuditLogRepository.UserCount> users = auditLogRepository.countByUser(userId, action, windowStart, windowEnd, top);
+        List<Map<String, Object>> byUser = new ArrayList<>(users.size());
+        for (AuditLogRepository.UserCount user : users) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("userId", user.getUserId());
+            row.put("userName", userDisplayNameCache.getDisplayName(user.getUserId()).orElse(null));
+            row.put("count", orZero(user.getTotal()));
+            byUser.add(row);
+        }
+        stats.put("byUser", byUser);
+        stats.put("hotOnly", true);
+        stats.put("hotStart", partitionManager.getHotStart());
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private static List<Map<String, Object>> toRows(String label, List<AuditLogRepository.GroupCount> groups) {
+        List<Map<String, Object>> rows = new ArrayList<>(groups.size());
+        for (AuditLogRepository.GroupCount group : groups) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put(label, group.getGroupKey());
+            row.put("count", orZero(group.getTotal()));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
@@ -11,9 +11,6 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -30,6 +27,10 @@ public class SystemServiceImpl implements SystemService {
     private final ActiveSessionRepository activeSessionRepository;
     private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
+    private final AuditLogIngestor auditLogIngestor;
+    private final AuditStatistics auditStatistics;
+    private final AuditLogSearch auditLogSearch;
+    private final AuditRollups auditRollups;
 
     public SystemServiceImpl(SystemConfigRepository systemConfigRepository,
                              AuditLogRepository auditLogRepository,
@@ -39,7 +40,11 @@ public class SystemServiceImpl implements SystemService {
                              SupportTicketRepository supportTicketRepository,
                              ActiveSessionRepository activeSessionRepository,
                              UserRepository userRepository,
-                             NotificationRepository notificationRepository) {
+                             NotificationRepository notificationRepository,
+                             AuditLogIngestor auditLogIngestor,
+                             AuditStatistics auditStatistics,
+                             AuditLogSearch auditLogSearch,
+                             AuditRollups auditRollups) {
         this.systemConfigRepository = systemConfigRepository;
         this.auditLogRepository = auditLogRepository;
         this.guardPostRepository = guardPostRepository;
@@ -49,6 +54,10 @@ public class SystemServiceImpl implements SystemService {
         this.activeSessionRepository = activeSessionRepository;
         this.userRepository = userRepository;
         this.notificationRepository = notificationRepository;
+        this.auditLogIngestor = auditLogIngestor;
+        this.auditStatistics = auditStatistics;
+        this.auditLogSearch = auditLogSearch;
+        this.auditRollups = auditRollups;
     }
 
     // SystemConfig
@@ -111,28 +120,7 @@ public class SystemServiceImpl implements SystemService {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public AuditLog createAuditLogWithDescriptiveAction(AuditLog auditLog) {
         try {
-            if (auditLog.getTimestamp() == null) {
-                auditLog.setTimestamp(LocalDateTime.now(ZoneId.of("Africa/Kigali")));
-            }
-            
-            if (auditLog.getUserId() != null) {
-                userRepository.findById(auditLog.getUserId()).ifPresent(user -> {
-                    String userName = user.getFirstName() + " " + user.getLastName();
-                    auditLog.setUserName(userName);
-                    String action = auditLog.getAction();
-                    
-                    if (action.startsWith("has ")) {
-                        auditLog.setAction(userName + " " + action);
-                    } else if (!action.toLowerCase().contains("user") && !action.toLowerCase().contains(userName.toLowerCase())) {
-                        auditLog.setAction("User " + userName + " " + action);
-                    }
-                });
-            }
-            
-            if (auditLog.getPerformedBy() == null) {
-                auditLog.setPerformedBy(auditLog.getUserId() != null ? auditLog.getUserId().toString() : "system");
-            }
-            
+            auditLogIngestor.enrich(auditLog);
             return auditLogRepository.save(auditLog);
         } catch (Exception e) {
             // Silently fail - audits should never break operations
@@ -140,11 +128,6 @@ public class SystemServiceImpl implements SystemService {
         }
     }
 
-    @Override
-    public List<AuditLog> getAllAuditLogs() {
-        return auditLogRepository.findAllByOrderByTimestampDesc();
-    }
-
     @Override
     public Page<AuditLog> getAllAuditLogsPaginated(Pageable pageable) {
         return auditLogRepository.findByTimestampBetweenOrderByTimestampDesc(
@@ -172,9 +155,8 @@ public class SystemServiceImpl implements SystemService {
     @Override
     public Page<AuditLog> getAuditLogsForUser(Long userId, LocalDateTime startDate, 
                                               LocalDateTime endDate, Pageable pageable) {
-        if (startDate != null && endDate != null) {
-            return auditLogRepository.findByUserIdAndTimestampBetweenOrderByTimestampDesc(
-                userId, startDate, endDate, pageable);
+        if (startDate != null || endDate != null) {
+            return auditLogSearch.search(userId, null, null, null, startDate, endDate, pageable);
         }
         return auditLogRepository.findByUserIdOrderByTimestampDesc(userId, pageable);
     }
@@ -189,75 +171,30 @@ public class SystemServiceImpl implements SystemService {
     public Page<AuditLog> searchAuditLogs(Long userId, String action, String serviceName,
                                           String entityType, LocalDateTime startDate, 
                                           LocalDateTime endDate, Pageable pageable) {
-        return auditLogRepository.searchAuditLogs(
-            userId, action, serviceName, entityType, startDate, endDate, pageable);
+        return auditLogSearch.search(userId, action, serviceName, entityType, startDate, endDate, pageable);
+    }
+
+    @Override
+    public AuditLogSearch.Slice browseAuditLogs(Long userId, String action, String serviceName, String entityType,
+                                                LocalDateTime startDate, LocalDateTime endDate, String cursor, int limit,
+                                                AuditLogSearch.TotalMode totalMode) {
+        return auditLogSearch.browse(userId, action, serviceName, entityType, startDate, endDate, cursor, limit, totalMode);
     }
 
     @Override
     public List<Map<String, Object>> getTopActions(int days) {
-        LocalDateTime since = LocalDateTime.now().minusDays(days);
-        List<Object[]> results = auditLogRepository.getTopActionsSince(since);
-        List<Map<String, Object>> topActions = new ArrayList<>();
-        
-        for (Object[] result : results) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("action", result[0]);
-            map.put("count", result[1]);
-            topActions.add(map);
-        }
-        
-        return topActions;
+        return auditRollups.topActions(LocalDateTime.now().minusDays(days));
     }
 
     @Override
     public List<Map<String, Object>> getTopUsers(int days) {
-        LocalDateTime since = LocalDateTime.now().minusDays(days);
-        List<Object[]> results = auditLogRepository.getTopUsersSince(since);
-        List<Map<String, Object>> topUsers = new ArrayList<>();
-        
-        for (Object[] result : results) {
-            Map<String, Object> map = new HashMap<>();
-            Object userIdObj = result[0];
-            Long userId;
-            if (userIdObj instanceof Integer) {
-                userId = ((Integer) userIdObj).longValue();
-            } else if (userIdObj instanceof Long) {
-                userId = (Long) userIdObj;
-            } else {
-                userId = null;
-            }
-            map.put("user", userId);
-            map.put("count", result[1]);
-            topUsers.add(map);
-        }
-        
-        return topUsers;
+        return auditRollups.topUsers(LocalDateTime.now().minusDays(days));
     }
 
     @Override
     public Map<String, Object> getAuditStatistics(Long userId, String action,
                                                    LocalDateTime startDate, LocalDateTime endDate) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime todayStart = now.toLocalDate().atStartOfDay();
-        LocalDateTime weekStart = now.minusDays(7);
-        
-        long totalLogs = auditLogRepository.count();
-        
-        Page<AuditLog> todayPage = auditLogRepository.findByTimestampBetweenOrderByTimestampDesc(
-            todayStart, now, Pageable.unpaged());
-        long todayLogs = todayPage.getTotalElements();
-        
-        Page<AuditLog> weekPage = auditLogRepository.findByTimestampBetweenOrderByTimestampDesc(
-            weekStart, now, Pageable.unpaged());
-        long weekLogs = weekPage.getTotalElements();
-        
-        stats.put("totalLogs", totalLogs);
-        stats.put("todayLogs", todayLogs);
-        stats.put("weekLogs", weekLogs);
-        
-        return stats;
+        return auditStatistics.getStatistics(userId, action, startDate, endDate);
     }
 
     @Override
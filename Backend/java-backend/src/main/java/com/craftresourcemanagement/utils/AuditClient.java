@@ -2,10 +2,8 @@ package com.craftresourcemanagement.utils;
 
 import com.craftresourcemanagement.system.entities.AuditLog;
 import com.craftresourcemanagement.system.repositories.AuditLogRepository;
-import com.craftresourcemanagement.hr.repositories.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
@@ -14,72 +12,37 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 @Component
 public class AuditClient {
 
     private static final Logger logger = LoggerFactory.getLogger(AuditClient.class);
     private final AuditLogRepository auditLogRepository;
-    private final UserRepository userRepository;
-    private final ConcurrentLinkedQueue<AuditLog> auditQueue;
-    private final ScheduledExecutorService scheduler;
-    
-    @Value("${audit.batch.size:50}")
-    private int batchSize;
-    
-    @Value("${audit.flush.interval.seconds:5}")
-    private int flushIntervalSeconds;
-    
-    @Value("${audit.retry.max-attempts:3}")
-    private int maxAttempts;
-    
-    @Value("${audit.retry.backoff.delay:1000}")
-    private long backoffDelay;
-    
-    @Value("${audit.retry.backoff.multiplier:2}")
-    private double backoffMultiplier;
-    
-    @Value("${audit.retry.backoff.max-delay:5000}")
-    private long maxBackoffDelay;
+    private final UserDisplayNameCache userDisplayNameCache;
+    private final AuditLogWriter auditLogWriter;
 
     public AuditClient(AuditLogRepository auditLogRepository,
-                      UserRepository userRepository,
-                      @Value("${audit.flush.interval.seconds:5}") int flushIntervalSeconds) {
+                      UserDisplayNameCache userDisplayNameCache,
+                      AuditLogWriter auditLogWriter) {
         this.auditLogRepository = auditLogRepository;
-        this.userRepository = userRepository;
-        this.auditQueue = new ConcurrentLinkedQueue<>();
-        this.scheduler = Executors.newSingleThreadScheduledExecutor();
-        
-        // Schedule periodic batch flush
-        scheduler.scheduleAtFixedRate(this::flushQueue, 
-            flushIntervalSeconds, 
-            flushIntervalSeconds, 
-            TimeUnit.SECONDS);
+        this.userDisplayNameCache = userDisplayNameCache;
+        this.auditLogWriter = auditLogWriter;
     }
 
     /**
      * Async audit logging with queueing
      */
-    @Async
+    @Async("auditExecutor")
     public CompletableFuture<Void> logActionAsync(Long userId, String action, String details) {
         return logActionAsync(userId, action, details, null, null, null);
     }
 
-    @Async
+    @Async("auditExecutor")
     public CompletableFuture<Void> logActionAsync(Long userId, String action, String details, 
                                                     String serviceName, String entityType, String entityId) {
         try {
             AuditLog log = createAuditLog(userId, action, details, serviceName, entityType, entityId);
-            auditQueue.offer(log);
-            
-            if (auditQueue.size() >= batchSize) {
-                flushQueue();
-            }
-            
+            auditLogWriter.submit(log);
             return CompletableFuture.completedFuture(null);
         } catch (Exception e) {
             logger.error("Failed to queue audit log: {}", e.getMessage(), e);
@@ -105,31 +68,6 @@ public class AuditClient {
         }
     }
 
-    /**
-     * Flush queued audit logs in batch
-     */
-    private synchronized void flushQueue() {
-        if (auditQueue.isEmpty()) {
-            return;
-        }
-
-        try {
-            int count = 0;
-            while (!auditQueue.isEmpty() && count < batchSize) {
-                AuditLog log = auditQueue.poll();
-                if (log != null) {
-                    auditLogRepository.save(log);
-                    count++;
-                }
-            }
-            if (count > 0) {
-                logger.debug("Flushed {} audit logs from queue", count);
-            }
-        } catch (Exception e) {
-            logger.error("Error flushing audit queue: {}", e.getMessage(), e);
-        }
-    }
-
     private AuditLog createAuditLog(Long userId, String action, String details,
                                     String serviceName, String entityType, String entityId) {
         AuditLog log = new AuditLog();
@@ -142,13 +80,10 @@ public class AuditClient {
         log.setResult("success");
         log.setPerformedBy(userId != null ? userId.toString() : "system");
         
-        if (userId != null) {
-            userRepository.findById(userId).ifPresent(user -> {
-                String userName = user.getFirstName() + " " + user.getLastName();
-                log.setUserName(userName);
-                log.setAction(userName + " " + action);
-            });
-        }
+        userDisplayNameCache.getDisplayName(userId).ifPresent(userName -> {
+            log.setUserName(userName);
+            log.setAction(userName + " " + action);
+        });
         
         if (log.getAction() == null) {
             log.setAction(action);
@@ -179,15 +114,6 @@ public class AuditClient {
      */
     public void shutdown() {
         logger.info("Shutting down AuditClient, flushing remaining logs...");
-        flushQueue();
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        auditLogWriter.flush();
     }
 }
@@ -0,0 +1,303 @@
+package com.craftresourcemanagement.utils;
+
+import com.craftresourcemanagement.system.entities.AuditLog;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.exception.DataException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single background writer for audit logs.
+ *
+ * Producers put entries on a bounded queue and wait at most a short offer
+ * timeout when it is full; entries that still do not fit are dropped and
+ * counted, so auditing never stalls business operations. The writer thread
+ * drains up to one batch at a time and stores it with a single multi-row
+ * INSERT, retrying with backoff. A batch the table rejects is inserted row by
+ * row, so one bad entry only loses itself.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_PREFIX = "INSERT INTO audit_logs (user_id, user_name, performed_by, action, "
+        + "timestamp, details, service_name, ip_address, request_id, session_id, entity_type, entity_id, result) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS = 13;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<AuditLog> queue;
+    private final Thread writerThread;
+    private final Map<Integer, String> insertSqlBySize = new ConcurrentHashMap<>();
+
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final int maxAttempts;
+    private final long backoffDelay;
+    private final double backoffMultiplier;
+    private final long maxBackoffDelay;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong totalFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+    private final AtomicLong lastFlushMillis = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          @Value("${audit.writer.capacity:10000}") int capacity,
+                          @Value("${audit.batch.size:50}") int batchSize,
+                          @Value("${audit.flush.interval.seconds:5}") int flushIntervalSeconds,
+                          @Value("${audit.writer.offer-timeout-ms:20}") long offerTimeoutMillis,
+                          @Value("${audit.retry.max-attempts:3}") int maxAttempts,
+                          @Value("${audit.retry.backoff.delay:1000}") long backoffDelay,
+                          @Value("${audit.retry.backoff.multiplier:2}") double backoffMultiplier,
+                          @Value("${audit.retry.backoff.max-delay:5000}") long maxBackoffDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMillis = Math.max(1, flushIntervalSeconds) * 1000L;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffDelay = backoffDelay;
+        this.backoffMultiplier = backoffMultiplier;
+        this.maxBackoffDelay = maxBackoffDelay;
+
+        this.writerThread = new Thread(this::runWriter, "audit-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues an entry for the next batch. Returns false if the queue stayed full
+     * for the offer timeout and the entry was dropped.
+     */
+    public boolean submit(AuditLog log) {
+        try {
+            if (queue.offer(log, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                enqueued.incrementAndGet();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long total = dropped.incrementAndGet();
+        if (total == 1 || total % 1000 == 0) {
+            logger.warn("Audit queue full, {} audit logs dropped so far", total);
+        }
+        return false;
+    }
+
+    private void runWriter() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLog first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (Exception e) {
+                logger.error("Audit writer error: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes everything currently queued on the calling thread.
+     */
+    public synchronized void flush() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeWithRetry(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Writes the entries on the calling thread, bypassing the queue, one multi-row
+     * INSERT per batch. Returns, per entry, whether it was stored.
+     */
+    public boolean[] writeNow(List<AuditLog> logs) {
+        boolean[] stored = new boolean[logs.size()];
+        for (int from = 0; from < logs.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, logs.size());
+            boolean[] batchStored = writeWithRetry(logs.subList(from, to));
+            System.arraycopy(batchStored, 0, stored, from, batchStored.length);
+        }
+        return stored;
+    }
+
+    /**
+     * Writes the batch with one INSERT. A data error (a value the table rejects) is
+     * not retried: the batch goes straight to row-by-row inserts so only the bad
+     * entries are lost. Any other failure, such as a lost connection, is retried with
+     * backoff and then fails the whole batch, since single-row inserts would only
+     * fail the same way one at a time.
+     */
+    private boolean[] writeWithRetry(List<AuditLog> batch) {
+        long delay = backoffDelay;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            long start = System.nanoTime();
+            try {
+                insertBatch(batch);
+                recordFlush((System.nanoTime() - start) / 1_000_000);
+                written.addAndGet(batch.size());
+                boolean[] stored = new boolean[batch.size()];
+                Arrays.fill(stored, true);
+                return stored;
+            } catch (Exception e) {
+                if (isDataError(e)) {
+                    logger.warn("Audit batch rejected, inserting its {} logs one by one: {}", batch.size(), e.getMessage());
+                    return writeRowByRow(batch);
+                }
+                if (attempt == maxAttempts) {
+                    logger.warn("Audit batch insert failed after {} attempts: {}", attempt, e.getMessage());
+                    return dropBatch(batch);
+                }
+                logger.warn("Audit batch insert failed (attempt {}), retrying in {}ms: {}", attempt, delay, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+                delay = Math.min(maxBackoffDelay, (long) (delay * backoffMultiplier));
+            }
+        }
+        return dropBatch(batch);
+    }
+
+    private static boolean isDataError(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof DataIntegrityViolationException || t instanceof DataException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** One INSERT per entry, no retries, for a batch the table rejected. */
+    private boolean[] writeRowByRow(List<AuditLog> batch) {
+        if (batch.size() == 1) {
+            return dropBatch(batch);
+        }
+        boolean[] stored = new boolean[batch.size()];
+        int lost = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                insertBatch(batch.subList(i, i + 1));
+                stored[i] = true;
+            } catch (Exception e) {
+                lost++;
+                logger.debug("Audit log insert failed: {}", e.getMessage());
+            }
+        }
+        written.addAndGet(batch.size() - lost);
+        failed.addAndGet(lost);
+        if (lost > 0) {
+            logger.error("Dropping {} of {} audit logs that could not be inserted", lost, batch.size());
+        }
+        return stored;
+    }
+
+    private boolean[] dropBatch(List<AuditLog> batch) {
+        failed.addAndGet(batch.size());
+        logger.error("Dropping {} audit logs that could not be inserted", batch.size());
+        return new boolean[batch.size()];
+    }
+
+    private void insertBatch(List<AuditLog> batch) {
+        String sql = insertSqlBySize.computeIfAbsent(batch.size(), size ->
+            INSERT_PREFIX + String.join(", ", Collections.nCopies(size, ROW_PLACEHOLDERS)));
+        Object[] args = new Object[batch.size() * COLUMNS];
+        int i = 0;
+        for (AuditLog log : batch) {
+            args[i++] = log.getUserId();
+            args[i++] = log.getUserName();
+            args[i++] = log.getPerformedBy();
+            args[i++] = log.getAction();
+            args[i++] = log.getTimestamp() != null ? Timestamp.valueOf(log.getTimestamp()) : null;
+            args[i++] = log.getDetails();
+            args[i++] = log.getServiceName();
+            args[i++] = log.getIpAddress();
+            args[i++] = log.getRequestId();
+            args[i++] = log.getSessionId();
+            args[i++] = log.getEntityType();
+            args[i++] = log.getEntityId();
+            args[i++] = log.getResult();
+        }
+        jdbcTemplate.update(sql, args);
+    }
+
+    private void recordFlush(long millis) {
+        flushes.incrementAndGet();
+        totalFlushMillis.addAndGet(millis);
+        lastFlushMillis.set(millis);
+        maxFlushMillis.accumulateAndGet(millis, Math::max);
+    }
+
+    public Map<String, Object> getMetrics() {
+        long flushCount = flushes.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queueDepth", queue.size());
+        metrics.put("queueCapacity", queue.size() + queue.remainingCapacity());
+        metrics.put("enqueued", enqueued.get());
+        metrics.put("written", written.get());
+        metrics.put("dropped", dropped.get());
+        metrics.put("failed", failed.get());
+        metrics.put("flushes", flushCount);
+        metrics.put("lastFlushMillis", lastFlushMillis.get());
+        metrics.put("maxFlushMillis", maxFlushMillis.get());
+        metrics.put("avgFlushMillis", flushCount > 0 ? (double) totalFlushMillis.get() / flushCount : 0.0);
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        logger.info("Shutting down audit writer, flushing {} queued logs...", queue.size());
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Flushing while the writer is still mid-batch would write from two threads at once
+        if (writerThread.isAlive()) {
+            logger.warn("Audit writer did not stop in time, leaving {} queued logs unwritten", queue.size());
+            return;
+        }
+        flush();
+    }
+}
@@ -0,0 +1,76 @@
+package com.craftresourcemanagement.utils;
+
+import com.craftresourcemanagement.hr.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of "First Last" display names keyed by user ID, so that
+ * audit logging does not look the user up on every event. Unknown users are
+ * cached too. Renames show up once the entry expires, or immediately after
+ * {@link #evict(Long)}, which the employee update path calls. When full, the
+ * least recently used entry makes room for the new one.
+ */
+@Component
+public class UserDisplayNameCache {
+
+    private record Entry(String name, long expiresAt) {
+    }
+
+    private final UserRepository userRepository;
+    private final Map<Long, Entry> entries;
+    private final long ttlMillis;
+
+    public UserDisplayNameCache(UserRepository userRepository,
+                                @Value("${audit.user-name-cache.ttl-seconds:300}") long ttlSeconds,
+                                @Value("${audit.user-name-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        int capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public Optional<String> getDisplayName(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+        }
+        if (entry == null || entry.expiresAt() < now) {
+            String name = userRepository.findById(userId)
+                .map(user -> user.getFirstName() + " " + user.getLastName())
+                .orElse(null);
+            entry = new Entry(name, now + ttlMillis);
+            synchronized (entries) {
+                entries.put(userId, entry);
+            }
+        }
+        return Optional.ofNullable(entry.name());
+    }
+
+    public void evict(Long userId) {
+        if (userId != null) {
+            synchronized (entries) {
+                entries.remove(userId);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.asset.repositories.AssetRepository;
+import com.craftresourcemanagement.asset.services.impl.AssetAggregates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetAggregatesTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private AssetRepository.CountSummary summary;
+
+    @Test
+    void getCounts_MapsSummaryAndTreatsMissingSumsAsZero() {
+        when(assetRepository.summarizeCounts(any(LocalDate.class))).thenReturn(summary);
+        when(summary.getTotal()).thenReturn(4L);
+        when(summary.getDeployed()).thenReturn(1L);
+        when(summary.getReadyToDeploy()).thenReturn(null);
+
+        Map<String, Long> counts = new AssetAggregates(assetRepository, 30).getCounts();
+
+        assertEquals(4L, counts.get("list-all"));
+        assertEquals(1L, counts.get("deployed"));
+        assertEquals(0L, counts.get("ready-to-deploy"));
+        assertEquals(0L, counts.get("due-for-checkin"));
+    }
+
+    @Test
+    void getStats_DepreciatesInOnePassOverValuationRows() {
+        when(assetRepository.summarizeCounts(any(LocalDate.class))).thenReturn(summary);
+        when(summary.getTotalValue()).thenReturn(new BigDecimal("2000"));
+        AssetRepository.ValuationRow halfway = valuationRow(new BigDecimal("1200"), LocalDate.now().minusMonths(6), 12, null);
+        AssetRepository.ValuationRow undepreciated = valuationRow(new BigDecimal("800"), null, null, null);
+        when(assetRepository.findValuationRows()).thenReturn(List.of(halfway, undepreciated));
+
+        Map<String, Object> stats = new AssetAggregates(assetRepository, 30).getStats();
+
+        assertEquals(new BigDecimal("2000"), stats.get("totalValue"));
+        assertEquals(30.0, (Double) stats.get("depreciationRate"), 0.001);
+    }
+
+    @Test
+    void cachedCounts_AreReusedUntilInvalidated() {
+        when(assetRepository.summarizeCounts(any(LocalDate.class))).thenReturn(summary);
+        AssetAggregates aggregates = new AssetAggregates(assetRepository, 30);
+
+        aggregates.getCounts();
+        aggregates.getCounts();
+        verify(assetRepository, times(1)).summarizeCounts(any(LocalDate.class));
+
+        aggregates.invalidate();
+        aggregates.getCounts();
+        verify(assetRepository, times(2)).summarizeCounts(any(LocalDate.class));
+    }
+
+    @Test
+    void invalidate_InsideTransactionWaitsForCommit() {
+        when(assetRepository.summarizeCounts(any(LocalDate.class))).thenReturn(summary);
+        AssetAggregates aggregates = new AssetAggregates(assetRepository, 30);
+        aggregates.getCounts();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            aggregates.invalidate();
+            // Still inside the transaction: a reader sees the committed numbers
+            aggregates.getCounts();
+            verify(assetRepository, times(1)).summarizeCounts(any(LocalDate.class));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        aggregates.getCounts();
+        verify(assetRepository, times(2)).summarizeCounts(any(LocalDate.class));
+    }
+
+    @Test
+    void zeroTtl_DisablesCaching() {
+        when(assetRepository.summarizeCounts(any(LocalDate.class))).thenReturn(summary);
+        AssetAggregates aggregates = new AssetAggregates(assetRepository, 0);
+
+        aggregates.getCounts();
+        aggregates.getCounts();
+
+        verify(assetRepository, times(2)).summarizeCounts(any(LocalDate.class));
+    }
+
+    private AssetRepository.ValuationRow valuationRow(BigDecimal cost, LocalDate purchaseDate, Integer months, BigDecimal floor) {
+        AssetRepository.ValuationRow row = mock(AssetRepository.ValuationRow.class);
+        lenient().when(row.getPurchaseCost()).thenReturn(cost);
+        lenient().when(row.getPurchaseDate()).thenReturn(purchaseDate);
+        lenient().when(row.getMonths()).thenReturn(months);
+        lenient().when(row.getFloorValue()).thenReturn(floor);
+        return row;
+    }
+}
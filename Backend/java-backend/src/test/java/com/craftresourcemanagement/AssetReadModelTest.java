@@ -0,0 +1,130 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.asset.dto.AssetDTO;
+import com.craftresourcemanagement.asset.entities.*;
+import com.craftresourcemanagement.asset.repositories.*;
+import com.craftresourcemanagement.asset.services.impl.AssetReadModel;
+import com.craftresourcemanagement.hr.entities.User;
+import com.craftresourcemanagement.hr.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetReadModelTest {
+
+    @Mock private AssetRepository assetRepository;
+    @Mock private StatusLabelRepository statusLabelRepository;
+    @Mock private AssetModelRepository assetModelRepository;
+    @Mock private CategoryRepository categoryRepository;
+    @Mock private ManufacturerRepository manufacturerRepository;
+    @Mock private DepreciationRepository depreciationRepository;
+    @Mock private CompanyRepository companyRepository;
+    @Mock private LocationRepository locationRepository;
+    @Mock private SupplierRepository supplierRepository;
+    @Mock private UserRepository userRepository;
+
+    private AssetReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        readModel = new AssetReadModel(assetRepository, statusLabelRepository, assetModelRepository, categoryRepository,
+            manufacturerRepository, depreciationRepository, companyRepository, locationRepository, supplierRepository,
+            userRepository);
+    }
+
+    private Asset asset(long id) {
+        Asset asset = new Asset();
+        asset.setId(id);
+        asset.setAssetTag("CRMS" + id);
+        asset.setStatusId(1L);
+        asset.setModelId(1L);
+        asset.setLocationId(1L);
+        asset.setRtdLocationId(2L);
+        asset.setAssignedTo(9L);
+        asset.setAssignedType("user");
+        asset.setPurchaseCost(new BigDecimal("1200.00"));
+        asset.setPurchaseDate(LocalDate.now().minusMonths(6));
+        return asset;
+    }
+
+    @Test
+    void toDTOs_LoadsEachReferenceTableOnce() {
+        StatusLabel status = new StatusLabel();
+        status.setId(1L);
+        status.setName("Ready to Deploy");
+        AssetModel model = new AssetModel();
+        model.setId(1L);
+        model.setName("Latitude 5440");
+        model.setDepreciationId(3L);
+        Depreciation depreciation = new Depreciation();
+        depreciation.setId(3L);
+        depreciation.setMonths(12);
+        depreciation.setDepreciationMin(BigDecimal.ZERO);
+        Location office = new Location();
+        office.setId(1L);
+        office.setName("Head Office");
+        Location store = new Location();
+        store.setId(2L);
+        store.setName("Store Room");
+        User user = new User();
+        user.setId(9L);
+        user.setFirstName("Ama");
+        user.setLastName("Mensah");
+
+        when(statusLabelRepository.findAllById(anyIterable())).thenReturn(List.of(status));
+        when(assetModelRepository.findAllById(anyIterable())).thenReturn(List.of(model));
+        when(depreciationRepository.findAllById(anyIterable())).thenReturn(List.of(depreciation));
+        when(locationRepository.findAllById(anyIterable())).thenReturn(List.of(office, store));
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(user));
+
+        List<Asset> assets = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            assets.add(asset(id));
+        }
+
+        List<AssetDTO> result = readModel.toDTOs(assets);
+
+        assertEquals(50, result.size());
+        AssetDTO dto = result.get(49);
+        assertEquals("Ready to Deploy", dto.getStatusName());
+        assertEquals("Latitude 5440", dto.getModelName());
+        assertEquals("Head Office", dto.getLocationName());
+        assertEquals("Store Room", dto.getRtdLocationName());
+        assertEquals("Ama Mensah", dto.getAssignedToName());
+        assertEquals(0, new BigDecimal("600.00").compareTo(dto.getCurrentValue()));
+
+        verify(statusLabelRepository, times(1)).findAllById(anyIterable());
+        verify(assetModelRepository, times(1)).findAllById(anyIterable());
+        verify(locationRepository, times(1)).findAllById(anyIterable());
+        verify(userRepository, times(1)).findAllById(anyIterable());
+        verify(assetModelRepository, never()).findById(any());
+        verifyNoInteractions(companyRepository, supplierRepository);
+    }
+
+    @Test
+    void references_DoNotReloadRowsAcrossChunks() {
+        when(statusLabelRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(assetModelRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(locationRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        AssetReadModel.References references = readModel.references();
+        references.loadFor(List.of(asset(1L)));
+        references.loadFor(List.of(asset(2L)));
+
+        verify(statusLabelRepository, times(1)).findAllById(anyIterable());
+        verify(locationRepository, times(1)).findAllById(anyIterable());
+    }
+}
@@ -0,0 +1,95 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.asset.dto.AssetDTO;
+import com.craftresourcemanagement.asset.dto.AssetFilter;
+import com.craftresourcemanagement.asset.dto.AssetPageResponse;
+import com.craftresourcemanagement.asset.entities.Asset;
+import com.craftresourcemanagement.asset.repositories.AssetRepository;
+import com.craftresourcemanagement.asset.repositories.AssetRepositoryCustom.Cursor;
+import com.craftresourcemanagement.asset.repositories.AssetRepositoryCustom.SortField;
+import com.craftresourcemanagement.asset.services.impl.AssetReadModel;
+import com.craftresourcemanagement.asset.services.impl.AssetServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetSearchTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private AssetReadModel assetReadModel;
+
+    @InjectMocks
+    private AssetServiceImpl assetService;
+
+    private Asset asset(long id, LocalDate purchaseDate) {
+        Asset asset = new Asset();
+        asset.setId(id);
+        asset.setPurchaseDate(purchaseDate);
+        return asset;
+    }
+
+    @Test
+    void searchAssets_ReturnsCursorWhenMoreRowsExist() {
+        AssetFilter filter = new AssetFilter();
+        filter.setStatus("deployed");
+        List<Asset> rows = List.of(asset(4L, LocalDate.of(2024, 1, 5)), asset(9L, LocalDate.of(2024, 3, 1)),
+            asset(12L, LocalDate.of(2024, 3, 1)));
+        when(assetRepository.search(eq(filter), eq(SortField.PURCHASE_DATE), eq(true), isNull(), eq(3))).thenReturn(rows);
+        when(assetReadModel.toDTOs(anyList())).thenAnswer(invocation -> {
+            List<Asset> page = invocation.getArgument(0);
+            return page.stream().map(a -> new AssetDTO()).toList();
+        });
+
+        AssetPageResponse response = assetService.searchAssets(filter, "purchaseDate", "asc", null, 2);
+
+        assertEquals(2, response.getSize());
+        assertTrue(response.isHasMore());
+        Cursor cursor = Cursor.decode(response.getNextCursor(), SortField.PURCHASE_DATE);
+        assertEquals(9L, cursor.id());
+        assertEquals(LocalDate.of(2024, 3, 1), cursor.value());
+    }
+
+    @Test
+    void searchAssets_LastPageHasNoCursor() {
+        when(assetRepository.search(any(), eq(SortField.ID), eq(false), any(Cursor.class), eq(51)))
+            .thenReturn(List.of(asset(3L, null)));
+        when(assetReadModel.toDTOs(anyList())).thenReturn(List.of(new AssetDTO()));
+
+        AssetPageResponse response = assetService.searchAssets(new AssetFilter(), null, "desc",
+            new Cursor(null, 5L).encode(), 50);
+
+        assertFalse(response.isHasMore());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void cursor_RoundTripsNullAndDecimalValues() {
+        Cursor empty = Cursor.decode(new Cursor(null, 7L).encode(), SortField.NAME);
+        assertNull(empty.value());
+        assertEquals(7L, empty.id());
+
+        Cursor cost = Cursor.decode(new Cursor(new BigDecimal("1200.5000"), 8L).encode(), SortField.PURCHASE_COST);
+        assertEquals(0, new BigDecimal("1200.5").compareTo((BigDecimal) cost.value()));
+    }
+
+    @Test
+    void searchAssets_RejectsUnknownSortField() {
+        assertThrows(IllegalArgumentException.class,
+            () -> assetService.searchAssets(new AssetFilter(), "notes", "asc", null, 10));
+        verifyNoInteractions(assetRepository);
+    }
+}
@@ -2,8 +2,13 @@ package com.craftresourcemanagement;
 
 import com.craftresourcemanagement.asset.dto.AssetDTO;
 import com.craftresourcemanagement.asset.entities.Asset;
+import com.craftresourcemanagement.asset.entities.Location;
 import com.craftresourcemanagement.asset.repositories.AssetRepository;
+import com.craftresourcemanagement.asset.repositories.LocationRepository;
+import com.craftresourcemanagement.asset.repositories.StatusLabelRepository;
+import com.craftresourcemanagement.asset.services.impl.AssetAggregates;
 import com.craftresourcemanagement.asset.services.impl.AssetServiceImpl;
+import com.craftresourcemanagement.asset.services.impl.DepreciationLedger;
 import com.craftresourcemanagement.utils.AuditClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,6 +36,18 @@ class AssetServiceTest {
     @Mock
     private AuditClient auditClient;
 
+    @Mock
+    private AssetAggregates assetAggregates;
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private DepreciationLedger depreciationLedger;
+
+    @Mock
+    private StatusLabelRepository statusLabelRepository;
+
     @InjectMocks
     private AssetServiceImpl assetService;
 
@@ -70,7 +88,7 @@ class AssetServiceTest {
     @Test
     void testGetAllAssets_Success() {
         List<Asset> mockAssets = Arrays.asList(testAsset);
-        when(assetRepository.findAll()).thenReturn(mockAssets);
+        when(assetRepository.search(any(), any(), anyBoolean(), any(), anyInt())).thenReturn(mockAssets);
 
         List<AssetDTO> result = assetService.getAllAssets(null, null);
 
@@ -96,7 +114,37 @@ class AssetServiceTest {
         assetService.deleteAsset(1L, null);
 
         verify(assetRepository, times(1)).deleteById(1L);
+        verify(assetAggregates).invalidate();
+        verify(depreciationLedger).refreshAssets(List.of(1L));
     }
 
+    @Test
+    void testDeleteStatusLabel_DropsCachedAggregates() {
+        assetService.deleteStatusLabel(3L);
+
+        verify(statusLabelRepository).deleteById(3L);
+        verify(assetAggregates).invalidate();
+    }
+
+    @Test
+    void testGetAllLocations_UsesGroupedCounts() {
+        Location office = new Location();
+        office.setId(1L);
+        office.setName("Office");
+        Location store = new Location();
+        store.setId(2L);
+        store.setName("Store");
+        AssetRepository.GroupCount officeCount = mock(AssetRepository.GroupCount.class);
+        when(officeCount.getGroupId()).thenReturn(1L);
+        when(officeCount.getTotal()).thenReturn(3L);
+        when(locationRepository.findAll()).thenReturn(List.of(office, store));
+        when(assetRepository.countByLocation()).thenReturn(List.of(officeCount));
+
+        List<Map<String, Object>> result = assetService.getAllLocations();
+
+        assertEquals(3L, result.get(0).get("assets"));
+        assertEquals(0L, result.get(1).get("assets"));
+        verify(assetRepository, never()).findAll();
+    }
 
 }
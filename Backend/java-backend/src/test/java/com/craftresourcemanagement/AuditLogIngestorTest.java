@@ -0,0 +1,138 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.system.entities.AuditLog;
+import com.craftresourcemanagement.system.services.impl.AuditLogIngestor;
+import com.craftresourcemanagement.system.services.impl.AuditRollups;
+import com.craftresourcemanagement.utils.AuditLogWriter;
+import com.craftresourcemanagement.utils.UserDisplayNameCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogIngestorTest {
+
+    @Mock
+    private UserDisplayNameCache userDisplayNameCache;
+
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
+    @Mock
+    private AuditRollups auditRollups;
+
+    private AuditLogIngestor ingestor;
+
+    @BeforeEach
+    void setUp() {
+        ingestor = new AuditLogIngestor(userDisplayNameCache, auditLogWriter,
+            new ObjectMapper().findAndRegisterModules(), auditRollups, 2);
+    }
+
+    private AuditLog auditLog(Long userId, String action) {
+        AuditLog log = new AuditLog();
+        log.setUserId(userId);
+        log.setAction(action);
+        return log;
+    }
+
+    @Test
+    void ingest_AcknowledgesEveryEventByPosition() {
+        when(userDisplayNameCache.getDisplayName(7L)).thenReturn(Optional.of("Jane Doe"));
+        when(userDisplayNameCache.getDisplayName(null)).thenReturn(Optional.empty());
+        when(auditLogWriter.writeNow(anyList())).thenAnswer(inv -> {
+            boolean[] stored = new boolean[((List<?>) inv.getArgument(0)).size()];
+            java.util.Arrays.fill(stored, true);
+            return stored;
+        });
+        AuditLog named = auditLog(7L, "has logged in");
+        AuditLog anonymous = auditLog(null, "Nightly export finished");
+
+        AuditLogIngestor.Result result = ingestor.ingest(List.of(named, auditLog(7L, " "), anonymous));
+
+        assertEquals(2, result.accepted());
+        assertEquals(1, result.rejected());
+        assertEquals(List.of(AuditLogIngestor.ACCEPTED, AuditLogIngestor.REJECTED, AuditLogIngestor.ACCEPTED),
+            result.items().stream().map(AuditLogIngestor.Ack::status).toList());
+        assertEquals("Jane Doe has logged in", named.getAction());
+        assertEquals("Jane Doe", named.getUserName());
+        assertEquals("7", named.getPerformedBy());
+        assertEquals("system", anonymous.getPerformedBy());
+        assertNotNull(anonymous.getTimestamp());
+        verify(auditRollups).markDirty(List.of(named.getTimestamp(), anonymous.getTimestamp()));
+        verify(auditLogWriter, times(1)).writeNow(anyList());
+    }
+
+    @Test
+    void ingest_NdjsonRejectsMalformedLinesAndReportsStorageFailures() throws Exception {
+        when(userDisplayNameCache.getDisplayName(any())).thenReturn(Optional.empty());
+        when(auditLogWriter.writeNow(anyList())).thenReturn(new boolean[] {true, true}, new boolean[] {false});
+        String body = """
+            {"action":"Created invoice","userId":3}
+            {not json
+
+            {"action":"Approved invoice","userId":3}
+            {"action":"Paid invoice","userId":3}
+            """;
+
+        AuditLogIngestor.Result result = ingestor.ingest(new BufferedReader(new StringReader(body)), 100);
+
+        assertEquals(2, result.accepted());
+        assertEquals(1, result.rejected());
+        assertEquals(1, result.failed());
+        assertEquals(List.of(0, 1, 2, 3), result.items().stream().map(AuditLogIngestor.Ack::index).toList());
+        assertEquals("Malformed JSON", result.items().get(1).error());
+        assertEquals(AuditLogIngestor.FAILED, result.items().get(3).status());
+        verify(auditLogWriter, times(2)).writeNow(anyList());
+    }
+
+    @Test
+    void ingest_RejectsOnlyEventsThatDoNotFitTheirColumns() {
+        when(userDisplayNameCache.getDisplayName(7L)).thenReturn(Optional.of("Jane Doe"));
+        when(auditLogWriter.writeNow(anyList())).thenAnswer(inv -> new boolean[] {true});
+        AuditLog longIp = auditLog(7L, "Signed in");
+        longIp.setIpAddress("x".repeat(46));
+        AuditLog longAction = auditLog(7L, "x".repeat(255));
+        AuditLog ancient = auditLog(7L, "Signed in");
+        ancient.setTimestamp(java.time.LocalDateTime.of(1960, 1, 1, 0, 0));
+
+        AuditLogIngestor.Result result = ingestor.ingest(List.of(longIp, longAction, ancient));
+
+        assertEquals(List.of(AuditLogIngestor.REJECTED, AuditLogIngestor.ACCEPTED, AuditLogIngestor.REJECTED),
+            result.items().stream().map(AuditLogIngestor.Ack::status).toList());
+        assertEquals("ipAddress is longer than 45 characters", result.items().get(0).error());
+        assertEquals(255, longAction.getAction().length());
+        assertTrue(longAction.getAction().startsWith("User Jane Doe "));
+    }
+
+    @Test
+    void ingest_NdjsonStopsAtMaxItems() throws Exception {
+        when(userDisplayNameCache.getDisplayName(any())).thenReturn(Optional.empty());
+        when(auditLogWriter.writeNow(anyList())).thenReturn(new boolean[] {true, true});
+        String body = """
+            {"action":"Created invoice","userId":3}
+            {"action":"Approved invoice","userId":3}
+            {"action":"Paid invoice","userId":3}
+            {"action":"Closed invoice","userId":3}
+            """;
+
+        AuditLogIngestor.Result result = ingestor.ingest(new BufferedReader(new StringReader(body)), 2);
+
+        assertEquals(2, result.accepted());
+        assertEquals(1, result.rejected());
+        assertEquals(List.of(0, 1, 2), result.items().stream().map(AuditLogIngestor.Ack::index).toList());
+        verify(auditLogWriter, times(1)).writeNow(anyList());
+    }
+}
@@ -0,0 +1,223 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.system.entities.AuditLog;
+import com.craftresourcemanagement.system.repositories.AuditLogRepository;
+import com.craftresourcemanagement.system.services.impl.AuditColdStore;
+import com.craftresourcemanagement.system.services.impl.AuditLogSearch;
+import com.craftresourcemanagement.system.services.impl.AuditPartitionManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogSearchTest {
+
+    private static final LocalDateTime HOT_START = LocalDateTime.of(2026, 5, 1, 0, 0);
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private AuditPartitionManager partitionManager;
+
+    @TempDir
+    Path archiveDir;
+
+    private AuditColdStore coldStore;
+    private AuditLogSearch search;
+
+    @BeforeEach
+    void setUp() {
+        coldStore = new AuditColdStore(new ObjectMapper().findAndRegisterModules(), true, archiveDir.toString());
+        search = new AuditLogSearch(auditLogRepository, partitionManager, coldStore, 1000, 100);
+    }
+
+    private static AuditLog auditLog(long id, String action, LocalDateTime timestamp) {
+        AuditLog log = new AuditLog();
+        log.setId(id);
+        log.setUserId(3L);
+        log.setAction(action);
+        log.setPerformedBy("3");
+        log.setTimestamp(timestamp);
+        return log;
+    }
+
+    @Test
+    void search_StaysOnHotTableWhenRangeStartsInsideHotWindow() {
+        when(partitionManager.getHotStart()).thenReturn(HOT_START);
+        Page<AuditLog> hot = new PageImpl<>(List.of());
+        when(auditLogRepository.searchAuditLogs(any(), any(), any(), any(), any(), any(), any())).thenReturn(hot);
+
+        assertSame(hot, search.search(3L, null, null, null, HOT_START.plusDays(3), null, PageRequest.of(0, 20)));
+        assertSame(hot, search.search(3L, null, null, null, null, null, PageRequest.of(0, 20)));
+        verify(partitionManager, never()).segments(any(), any());
+    }
+
+    @Test
+    void search_AppendsMatchingColdRowsAfterHotRows() throws Exception {
+        YearMonth april = YearMonth.of(2026, 4);
+        LocalDateTime aprilStart = april.atDay(1).atStartOfDay();
+        AuditPartitionManager.Segment segment = writeSegment(april, List.of(
+            auditLog(10, "login", aprilStart.plusDays(2)),
+            auditLog(11, "logout", aprilStart.plusDays(3)),
+            auditLog(12, "login", aprilStart.plusDays(4))));
+        when(partitionManager.getHotStart()).thenReturn(HOT_START);
+        when(partitionManager.segments(aprilStart, HOT_START)).thenReturn(List.of(segment));
+        AuditLog hotRow = auditLog(40, "login", HOT_START.plusDays(1));
+        when(auditLogRepository.searchAuditLogs(3L, "login", null, null, aprilStart, null, PageRequest.of(0, 2)))
+            .thenReturn(new PageImpl<>(List.of(hotRow), PageRequest.of(0, 2), 1));
+
+        Page<AuditLog> page = search.search(3L, "login", null, null, aprilStart, null, PageRequest.of(0, 2));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of(40L, 12L), page.getContent().stream().map(AuditLog::getId).toList());
+    }
+
+    @Test
+    void search_SkipsHotTableForRangesThatEndBeforeIt() throws Exception {
+        YearMonth april = YearMonth.of(2026, 4);
+        LocalDateTime aprilStart = april.atDay(1).atStartOfDay();
+        LocalDateTime aprilEnd = aprilStart.plusDays(10);
+        AuditPartitionManager.Segment segment = writeSegment(april, List.of(
+            auditLog(10, "login", aprilStart.plusDays(2)),
+            auditLog(12, "login", aprilStart.plusDays(4)),
+            auditLog(13, "login", aprilStart.plusDays(20))));
+        when(partitionManager.getHotStart()).thenReturn(HOT_START);
+        when(partitionManager.segments(aprilStart, aprilEnd)).thenReturn(List.of(segment));
+
+        Page<AuditLog> page = search.search(null, null, null, null, aprilStart, aprilEnd, PageRequest.of(1, 1));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(10L), page.getContent().stream().map(AuditLog::getId).toList());
+        verifyNoInteractions(auditLogRepository);
+    }
+
+    @Test
+    void search_RejectsOffsetsDeepIntoArchivedMonths() {
+        LocalDateTime aprilStart = YearMonth.of(2026, 4).atDay(1).atStartOfDay();
+        when(partitionManager.getHotStart()).thenReturn(HOT_START);
+        when(auditLogRepository.searchAuditLogs(any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(new PageImpl<>(List.of(), PageRequest.of(6, 20), 20));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> search.search(null, null, null, null, aprilStart, null, PageRequest.of(6, 20)));
+
+        assertTrue(e.getMessage().contains("/audit-logs/browse"));
+        verify(partitionManager, never()).segments(any(), any());
+    }
+
+    @Test
+    void browse_ReturnsCursorThatResumesAfterLastRow() {
+        LocalDateTime at = LocalDateTime.of(2026, 9, 1, 10, 0);
+        when(auditLogRepository.browseAuditLogs(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), any()))
+            .thenReturn(List.of(auditLog(9, "a", at), auditLog(8, "a", at), auditLog(7, "a", at.minusHours(1))));
+        when(auditLogRepository.countSearchCapped(null, null, null, null, null, null, 1000)).thenReturn(1000L);
+
+        AuditLogSearch.Slice first = search.browse(null, null, null, null, null, null, null, 2, AuditLogSearch.TotalMode.ESTIMATE);
+
+        assertEquals(List.of(9L, 8L), first.items().stream().map(AuditLog::getId).toList());
+        assertNotNull(first.nextCursor());
+        assertEquals(1000L, first.total());
+        assertFalse(first.totalExact());
+
+        when(auditLogRepository.browseAuditLogs(null, null, null, null, null, null, at, 8L, PageRequest.of(0, 3)))
+            .thenReturn(List.of(auditLog(7, "a", at.minusHours(1))));
+        AuditLogSearch.Slice second = search.browse(null, null, null, null, null, null, first.nextCursor(), 2, AuditLogSearch.TotalMode.NONE);
+
+        assertEquals(List.of(7L), second.items().stream().map(AuditLog::getId).toList());
+        assertNull(second.nextCursor());
+        assertNull(second.total());
+        assertThrows(IllegalArgumentException.class,
+            () -> search.browse(null, null, null, null, null, null, "not-a-cursor", 2, AuditLogSearch.TotalMode.NONE));
+    }
+
+    @Test
+    void browse_ContinuesIntoColdSegmentsWhenHotRowsRunOut() throws Exception {
+        YearMonth april = YearMonth.of(2026, 4);
+        LocalDateTime aprilStart = april.atDay(1).atStartOfDay();
+        AuditPartitionManager.Segment segment = writeSegment(april, List.of(
+            auditLog(10, "login", aprilStart.plusDays(2)),
+            auditLog(11, "login", aprilStart.plusDays(3)),
+            auditLog(12, "login", aprilStart.plusDays(4))));
+        when(partitionManager.getHotStart()).thenReturn(HOT_START);
+        when(partitionManager.segments(eq(aprilStart), any())).thenReturn(List.of(segment));
+        when(auditLogRepository.browseAuditLogs(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(List.of(auditLog(40, "login", HOT_START.plusDays(1))));
+
+        AuditLogSearch.Slice first = search.browse(null, "login", null, null, aprilStart, null, null, 2, AuditLogSearch.TotalMode.NONE);
+        assertEquals(List.of(40L, 12L), first.items().stream().map(AuditLog::getId).toList());
+
+        when(auditLogRepository.browseAuditLogs(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(List.of());
+        AuditLogSearch.Slice second = search.browse(null, "login", null, null, aprilStart, null, first.nextCursor(), 2, AuditLogSearch.TotalMode.NONE);
+        assertEquals(List.of(11L, 10L), second.items().stream().map(AuditLog::getId).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void browse_MergesOverlappingSegmentsNewestFirst() throws Exception {
+        YearMonth april = YearMonth.of(2026, 4);
+        LocalDateTime aprilStart = april.atDay(1).atStartOfDay();
+        // part 2 holds late arrivals, some of them newer than anything in part 1
+        AuditPartitionManager.Segment late = writeSegment(april, 2, List.of(
+            auditLog(30, "login", aprilStart.plusDays(1)),
+            auditLog(31, "login", aprilStart.plusDays(20))));
+        AuditPartitionManager.Segment early = writeSegment(april, 1, List.of(
+            auditLog(10, "login", aprilStart.plusDays(2)),
+            auditLog(11, "login", aprilStart.plusDays(3))));
+        when(partitionManager.getHotStart()).thenReturn(HOT_START);
+        when(partitionManager.segments(eq(aprilStart), any())).thenReturn(List.of(early, late));
+        when(auditLogRepository.browseAuditLogs(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(List.of());
+
+        AuditLogSearch.Slice first = search.browse(null, null, null, null, aprilStart, null, null, 2, AuditLogSearch.TotalMode.NONE);
+        assertEquals(List.of(31L, 11L), first.items().stream().map(AuditLog::getId).toList());
+
+        AuditLogSearch.Slice second = search.browse(null, null, null, null, aprilStart, null, first.nextCursor(), 2, AuditLogSearch.TotalMode.NONE);
+        assertEquals(List.of(10L, 30L), second.items().stream().map(AuditLog::getId).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void browse_EstimateLeavesColdRowsOutAndIsNotExact() {
+        LocalDateTime aprilStart = YearMonth.of(2026, 4).atDay(1).atStartOfDay();
+        when(partitionManager.getHotStart()).thenReturn(HOT_START);
+        when(auditLogRepository.browseAuditLogs(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(List.of(auditLog(40, "login", HOT_START.plusDays(1)), auditLog(39, "login", HOT_START.plusDays(1))));
+        when(auditLogRepository.countSearchCapped(null, "login", null, null, aprilStart, null, 1000)).thenReturn(5L);
+
+        AuditLogSearch.Slice slice = search.browse(null, "login", null, null, aprilStart, null, null, 1, AuditLogSearch.TotalMode.ESTIMATE);
+
+        assertEquals(5L, slice.total());
+        assertFalse(slice.totalExact());
+        verify(partitionManager, never()).segments(any(), any());
+    }
+
+    private AuditPartitionManager.Segment writeSegment(YearMonth month, List<AuditLog> rows) throws Exception {
+        return writeSegment(month, 1, rows);
+    }
+
+    private AuditPartitionManager.Segment writeSegment(YearMonth month, int part, List<AuditLog> rows) throws Exception {
+        AuditColdStore.Written written = coldStore.write(month, part, sink -> rows.forEach(sink));
+        assertEquals(rows.size(), written.rows());
+        return new AuditPartitionManager.Segment(month, part, written.path().toString(), written.rows(),
+            rows.get(0).getId(), rows.get(rows.size() - 1).getId(),
+            rows.get(0).getTimestamp(), rows.get(rows.size() - 1).getTimestamp());
+    }
+}
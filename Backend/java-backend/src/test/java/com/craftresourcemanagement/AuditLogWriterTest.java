@@ -0,0 +1,163 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.hr.entities.User;
+import com.craftresourcemanagement.hr.repositories.UserRepository;
+import com.craftresourcemanagement.system.entities.AuditLog;
+import com.craftresourcemanagement.utils.AuditLogWriter;
+import com.craftresourcemanagement.utils.UserDisplayNameCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private AuditLogWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    private AuditLog auditLog(String action) {
+        AuditLog log = new AuditLog();
+        log.setAction(action);
+        log.setPerformedBy("system");
+        log.setTimestamp(LocalDateTime.now());
+        return log;
+    }
+
+    @Test
+    void flush_WritesQueuedLogsAsOneMultiRowInsert() {
+        writer = new AuditLogWriter(jdbcTemplate, 100, 50, 60, 0, 1, 0, 1, 0);
+        writer.shutdown();
+
+        writer.submit(auditLog("first"));
+        writer.submit(auditLog("second"));
+        writer.submit(auditLog("third"));
+        writer.flush();
+
+        verify(jdbcTemplate, times(1)).update(argThat((String sql) -> sql.startsWith("INSERT INTO audit_logs")
+            && sql.split("\\(\\?", -1).length - 1 == 3), (Object[]) any());
+        Map<String, Object> metrics = writer.getMetrics();
+        assertEquals(3L, metrics.get("written"));
+        assertEquals(0, metrics.get("queueDepth"));
+    }
+
+    @Test
+    void submit_DropsWhenQueueIsFull() {
+        writer = new AuditLogWriter(jdbcTemplate, 1, 50, 60, 0, 1, 0, 1, 0);
+        writer.shutdown();
+
+        assertTrue(writer.submit(auditLog("kept")));
+        assertFalse(writer.submit(auditLog("dropped")));
+        assertEquals(1L, writer.getMetrics().get("dropped"));
+    }
+
+    @Test
+    void flush_CountsFailedBatchAfterRetries() {
+        writer = new AuditLogWriter(jdbcTemplate, 10, 50, 60, 0, 2, 0, 1, 0);
+        writer.shutdown();
+        when(jdbcTemplate.update(anyString(), (Object[]) any())).thenThrow(new RuntimeException("db down"));
+
+        writer.submit(auditLog("lost"));
+        writer.flush();
+
+        verify(jdbcTemplate, times(2)).update(anyString(), (Object[]) any());
+        assertEquals(1L, writer.getMetrics().get("failed"));
+    }
+
+    @Test
+    void writeNow_FallsBackToSingleRowInsertsWhenBatchKeepsFailing() {
+        writer = new AuditLogWriter(jdbcTemplate, 10, 50, 60, 0, 2, 0, 1, 0);
+        writer.shutdown();
+        AuditLog bad = auditLog("bad");
+        when(jdbcTemplate.update(anyString(), (Object[]) any())).thenAnswer(inv -> {
+            for (Object arg : inv.getArguments()) {
+                if ("bad".equals(arg)) {
+                    throw new DataIntegrityViolationException("Data too long");
+                }
+            }
+            return 1;
+        });
+
+        boolean[] stored = writer.writeNow(java.util.List.of(auditLog("first"), bad, auditLog("third")));
+
+        assertArrayEquals(new boolean[] {true, false, true}, stored);
+        // The rejected batch is not retried: one batch insert, then one per row
+        verify(jdbcTemplate, times(4)).update(anyString(), (Object[]) any());
+        assertEquals(2L, writer.getMetrics().get("written"));
+        assertEquals(1L, writer.getMetrics().get("failed"));
+    }
+
+    @Test
+    void writeNow_FailsWholeBatchWithoutRowInsertsWhenConnectionFails() {
+        writer = new AuditLogWriter(jdbcTemplate, 10, 50, 60, 0, 2, 0, 1, 0);
+        writer.shutdown();
+        when(jdbcTemplate.update(anyString(), (Object[]) any()))
+            .thenThrow(new CannotGetJdbcConnectionException("Connection refused"));
+
+        boolean[] stored = writer.writeNow(java.util.List.of(auditLog("first"), auditLog("second"), auditLog("third")));
+
+        assertArrayEquals(new boolean[] {false, false, false}, stored);
+        verify(jdbcTemplate, times(2)).update(anyString(), (Object[]) any());
+        assertEquals(3L, writer.getMetrics().get("failed"));
+    }
+
+    @Test
+    void userDisplayNameCache_LooksUpEachUserOnce() {
+        User user = new User();
+        user.setFirstName("Ama");
+        user.setLastName("Owusu");
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+        when(userRepository.findById(6L)).thenReturn(Optional.empty());
+        UserDisplayNameCache cache = new UserDisplayNameCache(userRepository, 300, 100);
+
+        assertEquals(Optional.of("Ama Owusu"), cache.getDisplayName(5L));
+        assertEquals(Optional.of("Ama Owusu"), cache.getDisplayName(5L));
+        assertEquals(Optional.empty(), cache.getDisplayName(6L));
+        assertEquals(Optional.empty(), cache.getDisplayName(6L));
+
+        verify(userRepository, times(1)).findById(5L);
+        verify(userRepository, times(1)).findById(6L);
+    }
+
+    @Test
+    void userDisplayNameCache_EvictsLeastRecentlyUsedWhenFull() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        UserDisplayNameCache cache = new UserDisplayNameCache(userRepository, 300, 2);
+
+        cache.getDisplayName(1L);
+        cache.getDisplayName(2L);
+        cache.getDisplayName(1L);
+        cache.getDisplayName(3L);
+        cache.getDisplayName(1L);
+        cache.getDisplayName(2L);
+
+        // 2 was the least recently used when 3 arrived, so only it is looked up again
+        assertEquals(2, cache.size());
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(2)).findById(2L);
+    }
+}
@@ -0,0 +1,111 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.system.entities.AuditLog;
+import com.craftresourcemanagement.system.services.impl.AuditColdStore;
+import com.craftresourcemanagement.system.services.impl.AuditPartitionManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditPartitionManagerTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2026, 10);
+    private static final LocalDateTime MARCH = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final String COUNT_AFTER_SQL =
+        "SELECT COUNT(*) FROM audit_logs WHERE timestamp >= ? AND timestamp < ? AND id > ?";
+    private static final String COUNT_RANGE_SQL =
+        "SELECT COUNT(*) FROM audit_logs WHERE timestamp >= ? AND timestamp < ? AND id > ? AND id <= ?";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path archiveDir;
+
+    private AuditPartitionManager manager(AuditColdStore coldStore) {
+        return new AuditPartitionManager(jdbcTemplate, coldStore, 6, 3, 5000);
+    }
+
+    private AuditColdStore enabledStore() {
+        return new AuditColdStore(new ObjectMapper().findAndRegisterModules(), true, archiveDir.toString());
+    }
+
+    private void stubMarchRows(long inTable) {
+        List<AuditLog> rows = Stream.of(10L, 11L, 12L).map(id -> {
+            AuditLog log = new AuditLog();
+            log.setId(id);
+            log.setAction("login");
+            log.setTimestamp(MARCH.plusDays(id));
+            return log;
+        }).toList();
+        lenient().when(jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM audit_logs", Timestamp.class))
+            .thenReturn(Timestamp.valueOf(MARCH.plusDays(10)));
+        lenient().when(jdbcTemplate.queryForObject(eq(COUNT_AFTER_SQL), eq(Long.class), (Object[]) any())).thenReturn(3L);
+        when(jdbcTemplate.query(startsWith("SELECT id, user_id"), ArgumentMatchers.<RowMapper<AuditLog>>any(), (Object[]) any()))
+            .thenReturn(rows);
+        lenient().when(jdbcTemplate.queryForObject(eq(COUNT_RANGE_SQL), eq(Long.class), (Object[]) any())).thenReturn(inTable);
+    }
+
+    @Test
+    void coldStore_RequiresAbsoluteDirectoryWhenEnabled() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertThrows(IllegalStateException.class, () -> new AuditColdStore(objectMapper, true, ""));
+        assertThrows(IllegalStateException.class, () -> new AuditColdStore(objectMapper, true, "audit-archive"));
+        assertFalse(new AuditColdStore(objectMapper, false, "").isEnabled());
+    }
+
+    @Test
+    void maintain_ArchivesNothingWhenArchivingIsDisabled() {
+        AuditPartitionManager.Run run = manager(new AuditColdStore(new ObjectMapper(), false, "")).maintain(CURRENT);
+
+        assertTrue(run.archived().isEmpty());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Timestamp.class));
+        verify(jdbcTemplate, never()).update(anyString(), (Object[]) any());
+    }
+
+    @Test
+    void maintain_RecordsVerifiedSegmentBeforeDeletingRows() throws Exception {
+        stubMarchRows(3L);
+
+        AuditPartitionManager.Run run = manager(enabledStore()).maintain(CURRENT);
+
+        assertEquals(3, run.rowsArchived());
+        assertTrue(Files.exists(Path.of(run.archived().get(0).path())));
+        var order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO audit_log_segments"), (Object[]) any());
+        order.verify(jdbcTemplate).update(startsWith("DELETE FROM audit_logs"), (Object[]) any());
+    }
+
+    @Test
+    void maintain_LeavesAuditLogsUntouchedWhenSegmentCountDoesNotMatch() throws Exception {
+        stubMarchRows(4L);
+        AuditPartitionManager manager = manager(enabledStore());
+
+        assertThrows(IllegalStateException.class, () -> manager.maintain(CURRENT));
+
+        verify(jdbcTemplate, never()).update(anyString(), (Object[]) any());
+        verify(jdbcTemplate, never()).execute(anyString());
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.system.services.impl.AuditRollups;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditRollupsTest {
+
+    private static final LocalDateTime LATEST_BUCKET = LocalDateTime.of(2026, 10, 1, 9, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuditRollups rollups;
+
+    @BeforeEach
+    void setUp() {
+        rollups = new AuditRollups(jdbcTemplate, transactionManager, 2);
+    }
+
+    private static Answer<Void> rows(Object... keysAndTotals) {
+        return invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < keysAndTotals.length; i += 2) {
+                ResultSet rs = mock(ResultSet.class);
+                if (keysAndTotals[i] instanceof String key) {
+                    when(rs.getString("group_key")).thenReturn(key);
+                } else {
+                    when(rs.getLong("group_key")).thenReturn((Long) keysAndTotals[i]);
+                }
+                when(rs.getLong("total")).thenReturn((Long) keysAndTotals[i + 1]);
+                handler.processRow(rs);
+            }
+            return null;
+        };
+    }
+
+    @Test
+    void topActions_MergesRolledHoursWithRawLeadingAndTrailingHours() throws Exception {
+        when(jdbcTemplate.queryForObject(contains("MAX(bucket_start)"), eq(Timestamp.class)))
+            .thenReturn(Timestamp.valueOf(LATEST_BUCKET));
+        doAnswer(rows("login", 2L)).when(jdbcTemplate)
+            .query(contains("timestamp < ?"), any(RowCallbackHandler.class), (Object[]) any());
+        doAnswer(rows("login", 40L, "logout", 30L)).when(jdbcTemplate)
+            .query(contains("audit_log_hourly_rollups"), any(RowCallbackHandler.class), (Object[]) any());
+        doAnswer(rows("logout", 15L)).when(jdbcTemplate)
+            .query(eq("SELECT action AS group_key, COUNT(*) AS total FROM audit_logs WHERE timestamp >= ? GROUP BY action"),
+                any(RowCallbackHandler.class), (Object[]) any());
+
+        List<Map<String, Object>> top = rollups.topActions(LocalDateTime.of(2026, 10, 1, 7, 30));
+
+        assertEquals("logout", top.get(0).get("action"));
+        assertEquals(45L, top.get(0).get("count"));
+        assertEquals(42L, top.get(1).get("count"));
+        verify(jdbcTemplate).query(contains("audit_log_hourly_rollups"), any(RowCallbackHandler.class),
+            eq(Timestamp.valueOf(LocalDateTime.of(2026, 10, 1, 8, 0))), eq(Timestamp.valueOf(LATEST_BUCKET.plusHours(1))));
+    }
+
+    @Test
+    void topUsers_ReadsRawRowsUntilFirstCompactionAndReportsMissingUserAsNull() throws Exception {
+        when(jdbcTemplate.queryForObject(contains("MAX(bucket_start)"), eq(Timestamp.class))).thenReturn(null);
+        doAnswer(rows(7L, 3L, 0L, 5L)).when(jdbcTemplate)
+            .query(anyString(), any(RowCallbackHandler.class), (Object[]) any());
+
+        List<Map<String, Object>> top = rollups.topUsers(LocalDateTime.of(2026, 10, 1, 7, 30));
+
+        assertEquals(2, top.size());
+        assertNull(top.get(0).get("user"));
+        assertEquals(7L, top.get(1).get("user"));
+        verify(jdbcTemplate, never()).query(contains("audit_log_hourly_rollups"), any(RowCallbackHandler.class), (Object[]) any());
+    }
+
+    @Test
+    void compact_RebuildsCompleteHoursFromWatermarkMinusLookback() {
+        when(jdbcTemplate.queryForObject(contains("MAX(bucket_start)"), eq(Timestamp.class)))
+            .thenReturn(Timestamp.valueOf(LATEST_BUCKET));
+        when(jdbcTemplate.update(anyString(), (Object[]) any()))
+            .thenAnswer(invocation -> invocation.<String>getArgument(0).startsWith("INSERT") ? 12 : 3);
+
+        AuditRollups.Run run = rollups.compact(LocalDateTime.of(2026, 10, 1, 12, 30));
+
+        Timestamp from = Timestamp.valueOf(LocalDateTime.of(2026, 10, 1, 8, 0));
+        Timestamp to = Timestamp.valueOf(LocalDateTime.of(2026, 10, 1, 12, 0));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM audit_log_hourly_rollups"), eq(from), eq(to));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO audit_log_hourly_rollups"), eq(from), eq(to));
+        assertEquals(12, run.rowsWritten());
+        assertEquals(to.toLocalDateTime(), rollups.getMetrics().get("rolledUpTo"));
+    }
+
+    @Test
+    void markDirty_RecordsOnlyHoursBeforeTheNextRunsRange() {
+        when(jdbcTemplate.queryForObject(contains("MAX(bucket_start)"), eq(Timestamp.class)))
+            .thenReturn(Timestamp.valueOf(LATEST_BUCKET));
+
+        LocalDateTime backdated = LocalDateTime.of(2026, 9, 3, 14, 0);
+        rollups.markDirty(List.of(backdated.plusMinutes(25), backdated.plusMinutes(40), LocalDateTime.of(2026, 10, 1, 9, 10)));
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO audit_log_rollup_dirty_hours"), eq(List.of(backdated)), eq(1),
+            any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void compact_RebuildsRecordedHoursOutsideTheLookbackAndClearsThem() {
+        when(jdbcTemplate.queryForObject(contains("MAX(bucket_start)"), eq(Timestamp.class)))
+            .thenReturn(Timestamp.valueOf(LATEST_BUCKET));
+        LocalDateTime backdated = LocalDateTime.of(2026, 9, 3, 14, 0);
+        when(jdbcTemplate.query(startsWith("SELECT bucket_start FROM audit_log_rollup_dirty_hours"), any(RowMapper.class),
+            (Object[]) any())).thenReturn(List.of(backdated));
+        when(jdbcTemplate.update(anyString(), (Object[]) any()))
+            .thenAnswer(invocation -> invocation.<String>getArgument(0).startsWith("INSERT") ? 1 : 0);
+
+        AuditRollups.Run run = rollups.compact(LocalDateTime.of(2026, 10, 1, 12, 30));
+
+        Timestamp hour = Timestamp.valueOf(backdated);
+        Timestamp hourEnd = Timestamp.valueOf(backdated.plusHours(1));
+        assertEquals(1, run.dirtyHours());
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(startsWith("DELETE FROM audit_log_rollup_dirty_hours"), eq(hour), eq(hourEnd));
+        inOrder.verify(jdbcTemplate).update(startsWith("INSERT INTO audit_log_hourly_rollups"), eq(hour), eq(hourEnd));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO audit_log_hourly_rollups"),
+            eq(Timestamp.valueOf(LocalDateTime.of(2026, 10, 1, 8, 0))), eq(Timestamp.valueOf(LocalDateTime.of(2026, 10, 1, 12, 0))));
+    }
+}
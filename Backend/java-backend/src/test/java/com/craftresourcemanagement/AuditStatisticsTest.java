@@ -0,0 +1,91 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.system.repositories.AuditLogRepository;
+import com.craftresourcemanagement.system.services.impl.AuditPartitionManager;
+import com.craftresourcemanagement.system.services.impl.AuditStatistics;
+import com.craftresourcemanagement.utils.UserDisplayNameCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditStatisticsTest {
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private UserDisplayNameCache userDisplayNameCache;
+
+    @Mock
+    private AuditPartitionManager partitionManager;
+
+    private static AuditLogRepository.TimeBucketCount bucket(LocalDate day, Integer hour, long total) {
+        return new AuditLogRepository.TimeBucketCount() {
+            public LocalDate getDay() { return day; }
+            public Integer getHour() { return hour; }
+            public Long getTotal() { return total; }
+        };
+    }
+
+    private static AuditLogRepository.UserCount userCount(Long userId, long total) {
+        return new AuditLogRepository.UserCount() {
+            public Long getUserId() { return userId; }
+            public Long getTotal() { return total; }
+        };
+    }
+
+    @Test
+    void getStatistics_AppliesFiltersAndBucketsShortWindowsByHour() {
+        LocalDateTime start = LocalDateTime.of(2026, 10, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2026, 10, 1, 23, 59);
+        LocalDate day = start.toLocalDate();
+        when(auditLogRepository.countMatching(eq(4L), eq("login"), any(), any())).thenReturn(12L);
+        when(auditLogRepository.countByHour(4L, "login", start, end))
+            .thenReturn(List.of(bucket(day, 8, 5), bucket(day, 9, 7)));
+        when(auditLogRepository.countByUser(eq(4L), eq("login"), eq(start), eq(end), any(Pageable.class)))
+            .thenReturn(List.of(userCount(4L, 12)));
+        when(userDisplayNameCache.getDisplayName(4L)).thenReturn(Optional.of("Jane Doe"));
+        when(partitionManager.getHotStart()).thenReturn(LocalDateTime.of(2026, 5, 1, 0, 0));
+
+        Map<String, Object> stats = new AuditStatistics(auditLogRepository, userDisplayNameCache, partitionManager, 30, 20)
+            .getStatistics(4L, "login", start, end);
+
+        assertEquals(12L, stats.get("windowLogs"));
+        assertEquals("hour", ((Map<?, ?>) stats.get("window")).get("granularity"));
+        List<?> timeline = (List<?>) stats.get("timeline");
+        assertEquals(day.atTime(8, 0), ((Map<?, ?>) timeline.get(0)).get("period"));
+        assertEquals("Jane Doe", ((Map<?, ?>) ((List<?>) stats.get("byUser")).get(0)).get("userName"));
+        assertEquals(true, stats.get("hotOnly"));
+        assertEquals(LocalDateTime.of(2026, 5, 1, 0, 0), stats.get("hotStart"));
+        verify(auditLogRepository).countMatching(4L, "login", null, null);
+        verify(auditLogRepository, never()).countByDay(any(), any(), any(), any());
+        verify(auditLogRepository, never()).findByTimestampBetweenOrderByTimestampDesc(any(), any(), any());
+    }
+
+    @Test
+    void getStatistics_ServesRepeatedFiltersFromCacheUntilDisabled() {
+        AuditStatistics cached = new AuditStatistics(auditLogRepository, userDisplayNameCache, partitionManager, 3600, 20);
+        cached.getStatistics(null, "", null, null);
+        cached.getStatistics(null, null, null, null);
+        assertSame(cached.getStatistics(null, null, null, null), cached.getStatistics(null, "", null, null));
+        verify(auditLogRepository, times(1)).countByDay(isNull(), isNull(), any(), any());
+
+        AuditStatistics uncached = new AuditStatistics(auditLogRepository, userDisplayNameCache, partitionManager, 0, 20);
+        uncached.getStatistics(null, null, null, null);
+        uncached.getStatistics(null, null, null, null);
+        verify(auditLogRepository, times(3)).countByDay(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,108 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.finance.services.impl.DepartmentClient;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepartmentClientTest {
+
+    private static final List<Map<String, Object>> DEPARTMENTS = List.of(
+            Map.of("id", 1, "name", "Finance"),
+            Map.of("id", 2, "name", "Human Resources"));
+
+    private static class StubDepartmentClient extends DepartmentClient {
+        private final AtomicInteger fetches = new AtomicInteger();
+        private final AtomicBoolean failing = new AtomicBoolean();
+        private volatile Duration delay = Duration.ZERO;
+
+        StubDepartmentClient(Duration ttl) {
+            super(null, ttl, Duration.ofMinutes(1), Duration.ofSeconds(5));
+        }
+
+        @Override
+        protected Mono<List<Map<String, Object>>> fetchDepartments() {
+            fetches.incrementAndGet();
+            if (failing.get()) {
+                return Mono.error(new IllegalStateException("lookup service down"));
+            }
+            return Mono.just(DEPARTMENTS).delayElement(delay);
+        }
+    }
+
+    @Test
+    void lookupsShareOneDownload() {
+        StubDepartmentClient client = new StubDepartmentClient(Duration.ofMinutes(5));
+
+        assertEquals("Finance", client.getDepartmentNameById(1L));
+        assertEquals("Human Resources", client.getDepartmentNameById(2L));
+        assertNull(client.getDepartmentNameById(99L));
+
+        assertEquals(1, client.fetches.get());
+        assertEquals(2L, client.getMetrics().get("hits"));
+        assertEquals(1L, client.getMetrics().get("misses"));
+    }
+
+    @Test
+    void resolveOmitsUnknownIds() {
+        StubDepartmentClient client = new StubDepartmentClient(Duration.ofMinutes(5));
+
+        Map<Long, String> names = client.resolve(Set.of(1L, 2L, 42L));
+
+        assertEquals(Map.of(1L, "Finance", 2L, "Human Resources"), names);
+        assertEquals(1, client.fetches.get());
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        StubDepartmentClient client = new StubDepartmentClient(Duration.ofMinutes(5));
+        client.delay = Duration.ofMillis(100);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> results = new java.util.ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return client.getDepartmentNameById(1L);
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertEquals("Finance", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, client.fetches.get());
+    }
+
+    @Test
+    void failedRefreshServesStaleDirectory() throws Exception {
+        StubDepartmentClient client = new StubDepartmentClient(Duration.ofMillis(1));
+        assertEquals("Finance", client.getDepartmentNameById(1L));
+
+        Thread.sleep(5);
+        client.failing.set(true);
+
+        assertEquals("Finance", client.getDepartmentNameById(1L));
+        // The failed refresh is not retried until the retry delay has passed
+        assertEquals("Finance", client.getDepartmentNameById(1L));
+        assertEquals(2, client.fetches.get());
+        assertEquals(1L, client.getMetrics().get("loadFailures"));
+    }
+}
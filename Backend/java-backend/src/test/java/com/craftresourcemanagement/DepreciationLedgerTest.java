@@ -0,0 +1,157 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.asset.entities.Asset;
+import com.craftresourcemanagement.asset.entities.AssetDepreciationSnapshot;
+import com.craftresourcemanagement.asset.entities.AssetModel;
+import com.craftresourcemanagement.asset.entities.Depreciation;
+import com.craftresourcemanagement.asset.repositories.AssetDepreciationSnapshotRepository;
+import com.craftresourcemanagement.asset.repositories.AssetModelRepository;
+import com.craftresourcemanagement.asset.repositories.AssetRepository;
+import com.craftresourcemanagement.asset.repositories.DepreciationRepository;
+import com.craftresourcemanagement.asset.services.impl.DepreciationLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepreciationLedgerTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private AssetModelRepository assetModelRepository;
+
+    @Mock
+    private DepreciationRepository depreciationRepository;
+
+    @Mock
+    private AssetDepreciationSnapshotRepository snapshotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DepreciationLedger ledger;
+
+    private final LocalDate currentPeriod = YearMonth.now().atDay(1);
+
+    @BeforeEach
+    void setUp() {
+        ledger = new DepreciationLedger(assetRepository, assetModelRepository, depreciationRepository,
+            snapshotRepository, transactionManager);
+    }
+
+    private Asset asset(long id, LocalDate purchaseDate) {
+        Asset asset = new Asset();
+        asset.setId(id);
+        asset.setAssetTag("AST" + id);
+        asset.setModelId(10L);
+        asset.setPurchaseDate(purchaseDate);
+        asset.setPurchaseCost(new BigDecimal("1200.00"));
+        return asset;
+    }
+
+    private AssetModel model() {
+        AssetModel model = new AssetModel();
+        model.setId(10L);
+        model.setName("Laptop");
+        model.setDepreciationId(20L);
+        return model;
+    }
+
+    private Depreciation schedule() {
+        Depreciation depreciation = new Depreciation();
+        depreciation.setId(20L);
+        depreciation.setName("Computers");
+        depreciation.setMonths(12);
+        depreciation.setDepreciationMin(new BigDecimal("0"));
+        return depreciation;
+    }
+
+    private AssetDepreciationSnapshot snapshot(LocalDate period, long assetId, String currentValue) {
+        AssetDepreciationSnapshot snapshot = new AssetDepreciationSnapshot();
+        snapshot.setPeriod(period);
+        snapshot.setAssetId(assetId);
+        snapshot.setPurchaseDate(LocalDate.of(2020, 1, 1));
+        snapshot.setPurchaseCost(new BigDecimal("1200.00"));
+        snapshot.setCurrentValue(new BigDecimal(currentValue));
+        return snapshot;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refreshAssets_WritesMonthEndValueForChangedAsset() {
+        Asset asset = asset(1L, YearMonth.now().minusMonths(6).atDay(1));
+        when(snapshotRepository.existsByPeriod(currentPeriod)).thenReturn(true);
+        when(assetRepository.findAllById(List.of(1L))).thenReturn(List.of(asset));
+        when(assetModelRepository.findAllById(any())).thenReturn(List.of(model()));
+        when(depreciationRepository.findAllById(any())).thenReturn(List.of(schedule()));
+
+        ledger.refreshAssets(List.of(1L));
+
+        ArgumentCaptor<List<AssetDepreciationSnapshot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(saved.capture());
+        AssetDepreciationSnapshot snapshot = saved.getValue().get(0);
+        assertEquals(currentPeriod, snapshot.getPeriod());
+        assertEquals(0, new BigDecimal("100.00").compareTo(snapshot.getMonthlyDepreciation()));
+        assertEquals(0, new BigDecimal("600.00").compareTo(snapshot.getCurrentValue()));
+        assertEquals("Computers", snapshot.getDepreciationName());
+    }
+
+    @Test
+    void refreshAssets_DropsRowOfDeletedAsset() {
+        when(snapshotRepository.existsByPeriod(currentPeriod)).thenReturn(true);
+        when(assetRepository.findAllById(List.of(5L))).thenReturn(List.of());
+
+        ledger.refreshAssets(List.of(5L));
+
+        verify(snapshotRepository).deleteByPeriodAndAssetIds(eq(currentPeriod), eq(Set.of(5L)));
+        verify(snapshotRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void refreshAssets_SkipsMonthThatWasNotRolledForward() {
+        when(snapshotRepository.existsByPeriod(currentPeriod)).thenReturn(false);
+
+        ledger.refreshAssets(List.of(1L));
+
+        verifyNoInteractions(assetRepository);
+    }
+
+    @Test
+    void report_AddsDeltaAgainstPreviousMonth() {
+        YearMonth month = YearMonth.of(2024, 5);
+        LocalDate period = month.atDay(1);
+        LocalDate previousPeriod = month.minusMonths(1).atDay(1);
+        when(snapshotRepository.findByPeriodAndAssetIdGreaterThanOrderByAssetIdAsc(eq(period), eq(0L), any(Pageable.class)))
+            .thenReturn(List.of(snapshot(period, 1L, "500.00"), snapshot(period, 2L, "900.00")));
+        when(snapshotRepository.findByPeriodAndAssetIdIn(previousPeriod, List.of(1L, 2L)))
+            .thenReturn(List.of(snapshot(previousPeriod, 1L, "600.00")));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        ledger.streamReport(month, 10, rows::addAll);
+
+        assertEquals(2, rows.size());
+        assertEquals("2024-05", rows.get(0).get("period"));
+        assertEquals(new BigDecimal("100.00"), rows.get(0).get("periodDepreciation"));
+        assertNull(rows.get(1).get("previousValue"));
+        verify(snapshotRepository, never()).existsByPeriod(any());
+    }
+}
@@ -2,12 +2,16 @@ package com.craftresourcemanagement;
 
 import com.craftresourcemanagement.finance.entities.Budget;
 import com.craftresourcemanagement.finance.entities.AccountPayable;
+import com.craftresourcemanagement.finance.entities.ChartOfAccount;
 import com.craftresourcemanagement.finance.dto.BudgetResponse;
 import com.craftresourcemanagement.finance.repositories.BudgetRepository;
 import com.craftresourcemanagement.finance.repositories.AccountPayableRepository;
+import com.craftresourcemanagement.finance.repositories.ChartOfAccountRepository;
+import com.craftresourcemanagement.finance.repositories.JournalEntryRepository;
 import com.craftresourcemanagement.finance.services.impl.FinanceServiceImpl;
 import com.craftresourcemanagement.finance.services.impl.DepartmentClient;
 import com.craftresourcemanagement.finance.services.InvoiceNumberService;
+import com.craftresourcemanagement.finance.services.AccountingIntegrationService;
 import com.craftresourcemanagement.utils.OpenAIClient;
 import com.craftresourcemanagement.utils.AuditClient;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,7 +25,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,12 +42,21 @@ class FinanceServiceTest {
     @Mock
     private AccountPayableRepository accountPayableRepository;
 
+    @Mock
+    private ChartOfAccountRepository chartOfAccountRepository;
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
     @Mock
     private DepartmentClient departmentClient;
 
     @Mock
     private InvoiceNumberService invoiceNumberService;
 
+    @Mock
+    private AccountingIntegrationService accountingIntegrationService;
+
     @Mock
     private OpenAIClient openAIClient;
 
@@ -56,8 +71,8 @@ class FinanceServiceTest {
 
     @BeforeEach
     void setUp() {
-        financeService = new FinanceServiceImpl(null, budgetRepository, null, accountPayableRepository, 
-            null, null, openAIClient, departmentClient, auditClient, invoiceNumberService);
+        financeService = new FinanceServiceImpl(chartOfAccountRepository, budgetRepository, journalEntryRepository, accountPayableRepository, 
+            null, null, openAIClient, departmentClient, auditClient, invoiceNumberService, accountingIntegrationService);
         
         testBudget = new Budget();
         testBudget.setBudgetName("Test Budget");
@@ -85,6 +100,23 @@ class FinanceServiceTest {
         verify(budgetRepository, times(1)).findAll();
     }
 
+    @Test
+    void testGetAllBudgets_ResolvesDepartmentsInOneCall() {
+        Budget other = new Budget();
+        other.setBudgetName("Other Budget");
+        other.setDepartmentId(2L);
+        testBudget.setDepartmentId(1L);
+        when(budgetRepository.findAll()).thenReturn(Arrays.asList(testBudget, other));
+        when(departmentClient.resolve(Set.of(1L, 2L))).thenReturn(Map.of(1L, "Finance"));
+
+        List<BudgetResponse> result = financeService.getAllBudgets();
+
+        assertEquals("Finance", result.get(0).getDepartmentName());
+        assertNull(result.get(1).getDepartmentName());
+        verify(departmentClient, times(1)).resolve(any());
+        verify(departmentClient, never()).getDepartmentNameById(any());
+    }
+
     @Test
     void testGetBudgetById_Success() {
         // Arrange
@@ -151,9 +183,61 @@ class FinanceServiceTest {
         verify(accountPayableRepository, times(1)).save(any(AccountPayable.class));
     }
 
+    @Test
+    void testUpdateAccountPayableStatus_PostsEntryBeforeSavingStatus() {
+        when(accountPayableRepository.findById(4L)).thenReturn(Optional.of(testAccountPayable));
+        when(accountPayableRepository.save(any(AccountPayable.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AccountPayable result = financeService.updateAccountPayableStatus(4L, "Approved");
 
+        assertEquals("Approved", result.getStatus());
+        var order = inOrder(accountingIntegrationService, accountPayableRepository);
+        order.verify(accountingIntegrationService).createJournalEntryForPayable(testAccountPayable);
+        order.verify(accountPayableRepository).save(testAccountPayable);
+    }
 
+    @Test
+    void testUpdateAccountPayableStatus_RejectedEntryLeavesStatusUnsaved() {
+        when(accountPayableRepository.findById(4L)).thenReturn(Optional.of(testAccountPayable));
+        doThrow(new IllegalArgumentException("unbalanced")).when(accountingIntegrationService).createPaymentMadeEntry(testAccountPayable);
 
+        assertThrows(IllegalArgumentException.class, () -> financeService.updateAccountPayableStatus(4L, "Paid"));
 
+        verify(accountPayableRepository, never()).save(any(AccountPayable.class));
+    }
 
+    @Test
+    void testGetChartOfAccountsAsOf_UsesOneGroupedQuery() {
+        ChartOfAccount bank = account("1120", "asset");
+        ChartOfAccount revenue = account("4100", "revenue");
+        ChartOfAccount unused = account("3000", "equity");
+        JournalEntryRepository.AccountTotals bankTotals = totals("1120", "4250.00", "0");
+        JournalEntryRepository.AccountTotals revenueTotals = totals("4100", "-5000.00", "300.00");
+        LocalDate asOf = LocalDate.of(2025, 7, 31);
+        when(chartOfAccountRepository.findAll()).thenReturn(List.of(bank, revenue, unused));
+        when(journalEntryRepository.sumByAccountCodeAsOf(asOf)).thenReturn(List.of(bankTotals, revenueTotals));
+
+        List<ChartOfAccount> result = financeService.getChartOfAccountsAsOf(asOf);
+
+        assertEquals(3, result.size());
+        assertEquals(4250.0, bank.getBalance());
+        assertEquals(5300.0, revenue.getBalance());
+        assertEquals(0.0, unused.getBalance());
+        verify(journalEntryRepository, never()).sumByAccountCode();
+    }
+
+    private ChartOfAccount account(String code, String type) {
+        ChartOfAccount account = new ChartOfAccount();
+        account.setAccountCode(code);
+        account.setAccountType(type);
+        return account;
+    }
+
+    private JournalEntryRepository.AccountTotals totals(String code, String debitMinusCredit, String unsided) {
+        JournalEntryRepository.AccountTotals totals = mock(JournalEntryRepository.AccountTotals.class);
+        when(totals.getAccountCode()).thenReturn(code);
+        when(totals.getDebitMinusCredit()).thenReturn(new BigDecimal(debitMinusCredit));
+        when(totals.getUnsidedAmount()).thenReturn(new BigDecimal(unsided));
+        return totals;
+    }
 }
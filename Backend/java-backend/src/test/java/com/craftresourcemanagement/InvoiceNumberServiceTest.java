@@ -0,0 +1,145 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.finance.repositories.AccountPayableRepository;
+import com.craftresourcemanagement.finance.repositories.AccountReceivableRepository;
+import com.craftresourcemanagement.finance.repositories.InvoiceSequenceRepository;
+import com.craftresourcemanagement.finance.services.InvoiceNumberService;
+import com.craftresourcemanagement.finance.services.SequenceAllocator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceNumberServiceTest {
+
+    private static final int WRITERS = 32;
+    private static final int INVOICES_PER_WRITER = 250;
+
+    @Mock
+    private InvoiceSequenceRepository invoiceSequenceRepository;
+
+    @Mock
+    private AccountPayableRepository accountPayableRepository;
+
+    @Mock
+    private AccountReceivableRepository accountReceivableRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void generateInvoiceNumbers_UseDailyPrefixAndSeparateSequences() {
+        StubAllocator allocator = new StubAllocator(0);
+        InvoiceNumberService service = new InvoiceNumberService(invoiceSequenceRepository, accountPayableRepository,
+                accountReceivableRepository, allocator, 100);
+        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+
+        assertEquals("AP-" + today + "-0001", service.generateAccountPayableInvoiceNumber());
+        assertEquals("AP-" + today + "-0002", service.generateAccountPayableInvoiceNumber());
+        assertEquals("AR-" + today + "-0001", service.generateAccountReceivableInvoiceNumber());
+        assertEquals(Set.of("AP-" + today, "AR-" + today), allocator.highWaterMarks.keySet());
+    }
+
+    @Test
+    void generateInvoiceNumbers_StartAboveNumbersAlreadyIssuedToday() {
+        StubAllocator allocator = new StubAllocator(0);
+        InvoiceNumberService service = new InvoiceNumberService(invoiceSequenceRepository, accountPayableRepository,
+                accountReceivableRepository, allocator, 100);
+        String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        when(accountPayableRepository.findMaxInvoiceSuffix("AP-" + today + "-")).thenReturn(453L);
+
+        assertEquals("AP-" + today + "-0454", service.generateAccountPayableInvoiceNumber());
+        assertEquals("AP-" + today + "-0455", service.generateAccountPayableInvoiceNumber());
+    }
+
+    /**
+     * 32 parallel writers against a sequence whose every reservation costs a simulated
+     * 1 ms database round trip. With blocks of 100 the writers share 80 round trips
+     * instead of one locked round trip per invoice, so the run must finish well inside
+     * the 8 s that 8000 serialized round trips would take.
+     */
+    @Test
+    void generateInvoiceNumbers_ShareReservationsUnder32Writers() throws Exception {
+        StubAllocator allocator = new StubAllocator(1);
+        InvoiceNumberService service = new InvoiceNumberService(invoiceSequenceRepository, accountPayableRepository,
+                accountReceivableRepository, allocator, 100);
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        long elapsedMillis;
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    for (int n = 0; n < INVOICES_PER_WRITER; n++) {
+                        assertTrue(issued.add(service.generateAccountPayableInvoiceNumber()));
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int total = WRITERS * INVOICES_PER_WRITER;
+        assertEquals(total, issued.size());
+        assertEquals(total / 100, allocator.reservations.get());
+        double perSecond = total * 1000.0 / Math.max(1, elapsedMillis);
+        System.out.printf("Invoice numbers: %d writers, %d invoices, %d reservations, %.0f invoices/s%n",
+                WRITERS, total, allocator.reservations.get(), perSecond);
+        assertTrue(elapsedMillis < total / 4, "took " + elapsedMillis + " ms for " + total + " invoices");
+    }
+
+    /** Keeps high-water marks in memory; each reservation optionally sleeps to stand in for the UPDATE. */
+    private class StubAllocator extends SequenceAllocator {
+        private final Map<String, AtomicLong> highWaterMarks = new ConcurrentHashMap<>();
+        private final AtomicInteger reservations = new AtomicInteger();
+        private final long roundTripMillis;
+
+        StubAllocator(long roundTripMillis) {
+            super(invoiceSequenceRepository, transactionManager);
+            this.roundTripMillis = roundTripMillis;
+        }
+
+        @Override
+        protected long reserve(String sequenceType, String prefix, int blockSize, LongSupplier seed) {
+            reservations.incrementAndGet();
+            if (roundTripMillis > 0) {
+                try {
+                    Thread.sleep(roundTripMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return highWaterMarks.computeIfAbsent(sequenceType, key -> new AtomicLong(seed.getAsLong())).addAndGet(blockSize);
+        }
+    }
+}
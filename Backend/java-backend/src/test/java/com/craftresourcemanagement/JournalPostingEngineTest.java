@@ -0,0 +1,130 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.finance.entities.AccountPayable;
+import com.craftresourcemanagement.finance.services.AccountingIntegrationService;
+import com.craftresourcemanagement.finance.services.JournalPostingEngine;
+import com.craftresourcemanagement.finance.services.JournalPostingEngine.Line;
+import com.craftresourcemanagement.finance.services.JournalPostingEngine.Posting;
+import com.craftresourcemanagement.finance.services.JournalPostingEngine.Progress;
+import com.craftresourcemanagement.finance.services.SequenceAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JournalPostingEngineTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SequenceAllocator sequenceAllocator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JournalPostingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new JournalPostingEngine(jdbcTemplate, sequenceAllocator, transactionManager, 50, 5);
+    }
+
+    @Test
+    void post_WritesAllLinesInOneBatchUnderOneEntryNumber() {
+        when(sequenceAllocator.next(anyString(), eq("JE"), eq(50))).thenReturn(7L);
+
+        String entryNumber = engine.post(posting(
+            Line.debit("5000", new BigDecimal("60.00"), null, null),
+            Line.debit("5100", new BigDecimal("40.00"), null, null),
+            Line.credit("2000", new BigDecimal("100"), null, "AP-1-CR")));
+
+        assertTrue(entryNumber.matches("JE-\\d{8}-007"));
+        ArgumentCaptor<Collection<?>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture(), eq(3), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(3, rows.getValue().size());
+    }
+
+    @Test
+    void accountingIntegration_SkipsZeroAmountInvoiceEntries() {
+        AccountPayable payable = new AccountPayable();
+        payable.setInvoiceNumber("AP-20240118-0001");
+        payable.setAmount(BigDecimal.ZERO);
+
+        new AccountingIntegrationService(engine).createJournalEntryForPayable(payable);
+
+        verifyNoInteractions(jdbcTemplate, sequenceAllocator);
+    }
+
+    @Test
+    void post_RejectsUnbalancedPostingWithoutWriting() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> engine.post(posting(
+            Line.debit("5000", new BigDecimal("100.00"), null, null),
+            Line.credit("2000", new BigDecimal("99.99"), null, null))));
+
+        assertTrue(e.getMessage().contains("unbalanced"));
+        verifyNoInteractions(jdbcTemplate, sequenceAllocator);
+    }
+
+    @Test
+    void post_RejectsLineWithBothSides() {
+        assertThrows(IllegalArgumentException.class, () -> engine.post(posting(
+            new Line("5000", new BigDecimal("10"), new BigDecimal("10"), null, null),
+            Line.credit("2000", BigDecimal.ZERO, null, null))));
+    }
+
+    @Test
+    void postAll_ChunksWholePostingsAndReportsProgress() {
+        AtomicLong numbers = new AtomicLong();
+        when(sequenceAllocator.next(anyString(), eq("JE"), eq(50))).thenAnswer(inv -> numbers.incrementAndGet());
+        List<Posting> postings = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            postings.add(posting(
+                Line.debit("5000", BigDecimal.TEN, null, null),
+                Line.credit("2000", BigDecimal.TEN, null, null)));
+        }
+        List<Progress> reported = new ArrayList<>();
+
+        Progress result = engine.postAll(postings, reported::add);
+
+        // Five lines per chunk never splits a two-line posting: 4 + 4 + 2 lines
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(3, reported.size());
+        assertEquals(new Progress(2, 5, 4, 1), reported.get(0));
+        assertEquals(new Progress(5, 5, 10, 3), result);
+    }
+
+    @Test
+    void postAll_ValidatesEverythingBeforeWriting() {
+        List<Posting> postings = List.of(
+            posting(Line.debit("5000", BigDecimal.TEN, null, null), Line.credit("2000", BigDecimal.TEN, null, null)),
+            posting(Line.debit("5000", BigDecimal.TEN, null, null)));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> engine.postAll(postings, null));
+
+        assertTrue(e.getMessage().startsWith("Posting 1"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static Posting posting(Line... lines) {
+        return new Posting(LocalDate.of(2024, 1, 31), "Month-end accrual", 3L, List.of(lines));
+    }
+}
@@ -0,0 +1,137 @@
+package com.craftresourcemanagement;
+
+import com.craftresourcemanagement.finance.entities.InvoiceSequence;
+import com.craftresourcemanagement.finance.repositories.InvoiceSequenceRepository;
+import com.craftresourcemanagement.finance.services.SequenceAllocator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SequenceAllocatorTest {
+
+    @Mock
+    private InvoiceSequenceRepository invoiceSequenceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void next_ServesWholeBlockFromOneReservation() {
+        CountingAllocator allocator = new CountingAllocator();
+
+        for (long expected = 1; expected <= 10; expected++) {
+            assertEquals(expected, allocator.next("JE-20240118", "JE", 5));
+        }
+
+        assertEquals(2, allocator.reservations.get());
+    }
+
+    @Test
+    void next_StartsNewSequenceForNewDay() {
+        CountingAllocator allocator = new CountingAllocator();
+
+        assertEquals(1, allocator.next("JE-20240118", "JE", 5));
+        assertEquals(2, allocator.next("JE-20240118", "JE", 5));
+        assertEquals(1, allocator.next("JE-20240119", "JE", 5));
+        assertEquals(2, allocator.reservations.get());
+    }
+
+    @Test
+    void next_IsUniqueAcrossConcurrentCallers() throws Exception {
+        CountingAllocator allocator = new CountingAllocator();
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] workers = new Future<?>[8];
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = pool.submit(() -> {
+                    for (int n = 0; n < 500; n++) {
+                        assertTrue(seen.add(allocator.next("JE-20240118", "JE", 50)));
+                    }
+                });
+            }
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(4000, seen.size());
+        assertEquals(80, allocator.reservations.get());
+    }
+
+    @Test
+    void next_CreatesSeededRowAndPurgesKeysOutsideRetention() {
+        SequenceAllocator allocator = new SequenceAllocator(invoiceSequenceRepository, transactionManager);
+
+        assertEquals(41, allocator.next("AP-20240118", "AP", 10, () -> 40L));
+
+        ArgumentCaptor<InvoiceSequence> created = ArgumentCaptor.forClass(InvoiceSequence.class);
+        verify(invoiceSequenceRepository).saveAndFlush(created.capture());
+        assertEquals(50L, created.getValue().getLastNumber());
+        verify(invoiceSequenceRepository).deleteKeysBefore("AP-%", "AP-20240111");
+    }
+
+    @Test
+    void next_RetriesReservationThatLostALock() {
+        SequenceAllocator allocator = new SequenceAllocator(invoiceSequenceRepository, transactionManager);
+        InvoiceSequence sequence = new InvoiceSequence("JE-20240118", "JE");
+        sequence.setLastNumber(20L);
+        when(invoiceSequenceRepository.reserveBlock("JE-20240118", 10))
+            .thenThrow(new DeadlockLoserDataAccessException("Deadlock found", null))
+            .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"))
+            .thenReturn(1);
+        when(invoiceSequenceRepository.findBySequenceType("JE-20240118")).thenReturn(Optional.of(sequence));
+
+        assertEquals(11, allocator.next("JE-20240118", "JE", 10));
+        verify(invoiceSequenceRepository, times(3)).reserveBlock("JE-20240118", 10);
+    }
+
+    @Test
+    void next_GivesUpAfterRepeatedLockFailures() {
+        SequenceAllocator allocator = new SequenceAllocator(invoiceSequenceRepository, transactionManager);
+        when(invoiceSequenceRepository.reserveBlock("JE-20240118", 10))
+            .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+
+        assertThrows(CannotAcquireLockException.class, () -> allocator.next("JE-20240118", "JE", 10));
+        verify(invoiceSequenceRepository, times(3)).reserveBlock("JE-20240118", 10);
+    }
+
+    /** Stands in for the table: keeps a high-water mark per key and counts round trips. */
+    private class CountingAllocator extends SequenceAllocator {
+        private final Map<String, AtomicLong> highWaterMarks = new ConcurrentHashMap<>();
+        private final AtomicInteger reservations = new AtomicInteger();
+
+        CountingAllocator() {
+            super(invoiceSequenceRepository, transactionManager);
+        }
+
+        @Override
+        protected long reserve(String sequenceType, String prefix, int blockSize, LongSupplier seed) {
+            reservations.incrementAndGet();
+            return highWaterMarks.computeIfAbsent(sequenceType, key -> new AtomicLong(seed.getAsLong())).addAndGet(blockSize);
+        }
+    }
+}
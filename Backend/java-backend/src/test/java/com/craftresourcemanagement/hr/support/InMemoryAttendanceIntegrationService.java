@@ -0,0 +1,50 @@
+package com.craftresourcemanagement.hr.support;
+
+import com.craftresourcemanagement.hr.services.AttendanceIntegrationService;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stand-in for the Python attendance service. Records are served
+ * from a map; users registered as failing produce an error like a timed-out call.
+ */
+public class InMemoryAttendanceIntegrationService extends AttendanceIntegrationService {
+
+    private final Map<Long, List<Map<String, Object>>> records = new HashMap<>();
+    private final Set<Long> failingUsers = new HashSet<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    public InMemoryAttendanceIntegrationService() {
+        super(null, 4, Duration.ofSeconds(5));
+    }
+
+    public InMemoryAttendanceIntegrationService withRecords(Long userId, List<Map<String, Object>> userRecords) {
+        records.put(userId, userRecords);
+        return this;
+    }
+
+    public InMemoryAttendanceIntegrationService failingFor(Long userId) {
+        failingUsers.add(userId);
+        return this;
+    }
+
+    public int getCalls() {
+        return calls.get();
+    }
+
+    @Override
+    protected Mono<List<Map<String, Object>>> fetchUserAttendance(Long userId, String startDate, String endDate) {
+        calls.incrementAndGet();
+        if (failingUsers.contains(userId)) {
+            return Mono.error(new IllegalStateException("attendance service unavailable"));
+        }
+        return Mono.just(records.getOrDefault(userId, List.of()));
+    }
+}
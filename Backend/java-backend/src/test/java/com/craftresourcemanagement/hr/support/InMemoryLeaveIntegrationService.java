@@ -0,0 +1,38 @@
+package com.craftresourcemanagement.hr.support;
+
+import com.craftresourcemanagement.hr.services.LeaveIntegrationService;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stand-in for the Node.js leave service.
+ */
+public class InMemoryLeaveIntegrationService extends LeaveIntegrationService {
+
+    private final Map<Long, List<Map<String, Object>>> leaves = new HashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    public InMemoryLeaveIntegrationService() {
+        super(null, 4, Duration.ofSeconds(5));
+    }
+
+    public InMemoryLeaveIntegrationService withLeaves(Long userId, List<Map<String, Object>> userLeaves) {
+        leaves.put(userId, userLeaves);
+        return this;
+    }
+
+    public int getCalls() {
+        return calls.get();
+    }
+
+    @Override
+    protected Mono<List<Map<String, Object>>> fetchUserLeaveRequests(Long userId, String status) {
+        calls.incrementAndGet();
+        return Mono.just(leaves.getOrDefault(userId, List.of()));
+    }
+}
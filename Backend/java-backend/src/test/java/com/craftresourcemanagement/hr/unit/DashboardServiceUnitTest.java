@@ -1,6 +1,9 @@
 package com.craftresourcemanagement.hr.unit;
 
+import com.craftresourcemanagement.hr.entities.User;
 import com.craftresourcemanagement.hr.repositories.*;
+import com.craftresourcemanagement.hr.services.AttendanceIntegrationService;
+import com.craftresourcemanagement.hr.services.LeaveIntegrationService;
 import com.craftresourcemanagement.hr.services.impl.DashboardServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +12,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +26,8 @@ class DashboardServiceUnitTest {
     @Mock private PayrollRunRepository payrollRunRepository;
     @Mock private PerformanceReviewRepository performanceReviewRepository;
     @Mock private EmployeeTrainingRepository employeeTrainingRepository;
+    @Mock private AttendanceIntegrationService attendanceIntegrationService;
+    @Mock private LeaveIntegrationService leaveIntegrationService;
 
     @InjectMocks
     private DashboardServiceImpl dashboardService;
@@ -101,4 +107,29 @@ class DashboardServiceUnitTest {
         when(userRepository.countByDepartmentId(1L)).thenReturn(50L);
         assertEquals(50L, userRepository.countByDepartmentId(1L));
     }
+
+    @Test
+    void getTeamAttendanceOverview_UsesBulkLookups() {
+        User active = new User();
+        active.setId(1L);
+        active.setFirstName("Ada");
+        active.setLastName("Mensah");
+        User inactive = new User();
+        inactive.setId(2L);
+        inactive.setIsActive(0);
+        when(userRepository.findByDepartmentId(3)).thenReturn(List.of(active, inactive));
+        when(attendanceIntegrationService.getAttendanceByDateRange(List.of(1L), "2026-01-01", "2026-01-31"))
+            .thenReturn(Map.of(1L, List.of(Map.of("is_late", true), Map.of("is_late", false))));
+        when(leaveIntegrationService.getLeaveRequestsByDateRange(List.of(1L), "approved",
+            LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31)))
+            .thenReturn(Map.of(1L, List.of(Map.of("totalDays", 2))));
+
+        Map<String, Object> overview = dashboardService.getTeamAttendanceOverview(3,
+            LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31));
+
+        assertEquals(1, overview.get("employeeCount"));
+        assertEquals(2L, overview.get("daysPresent"));
+        assertEquals(1L, overview.get("lateDays"));
+        assertEquals(1L, overview.get("employeesOnLeave"));
+    }
 }
@@ -15,6 +15,8 @@ import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfi
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
@@ -86,13 +88,35 @@ class EmployeeControllerUnitTest {
 
     @Test
     void listEmployees_Success() throws Exception {
-        when(employeeService.listAllEmployees()).thenReturn(Arrays.asList(testUser));
+        when(employeeService.listAllEmployees(PageRequest.of(0, 500, Sort.by("id")))).thenReturn(Arrays.asList(testUser));
 
         mockMvc.perform(get("/hr/employees/list"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].employeeId").value("EMP001"));
     }
 
+    @Test
+    void listEmployees_WithoutPagingReadsEveryPage() throws Exception {
+        User[] fullPage = new User[500];
+        Arrays.fill(fullPage, testUser);
+        when(employeeService.listAllEmployees(PageRequest.of(0, 500, Sort.by("id")))).thenReturn(Arrays.asList(fullPage));
+        when(employeeService.listAllEmployees(PageRequest.of(1, 500, Sort.by("id")))).thenReturn(Arrays.asList(testUser));
+
+        mockMvc.perform(get("/hr/employees/list"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(501))
+                .andExpect(header().doesNotExist("X-Page-Size"));
+    }
+
+    @Test
+    void listEmployees_ReportsCappedPageSize() throws Exception {
+        when(employeeService.listAllEmployees(PageRequest.of(2, 500, Sort.by("id")))).thenReturn(Arrays.asList(testUser));
+
+        mockMvc.perform(get("/hr/employees/list").param("page", "2").param("size", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Page-Size", "500"));
+    }
+
     @Test
     void getProvisionedEmployees_Success() throws Exception {
         when(employeeService.getProvisionedEmployees()).thenReturn(Arrays.asList(testUser));
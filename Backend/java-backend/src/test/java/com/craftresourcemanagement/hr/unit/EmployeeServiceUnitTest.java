@@ -3,10 +3,12 @@ package com.craftresourcemanagement.hr.unit;
 import com.craftresourcemanagement.hr.entities.EmployeeTraining;
 import com.craftresourcemanagement.hr.entities.User;
 import com.craftresourcemanagement.hr.repositories.EmployeeTrainingRepository;
-import com.craftresourcemanagement.hr.repositories.PerformanceReviewRepository;
 import com.craftresourcemanagement.hr.repositories.UserRepository;
 import com.craftresourcemanagement.hr.services.impl.EmployeeServiceImpl;
+import com.craftresourcemanagement.hr.services.impl.PeopleStats;
+import com.craftresourcemanagement.hr.services.impl.PerformanceReviewScheduler;
 import com.craftresourcemanagement.utils.AuditClient;
+import com.craftresourcemanagement.utils.UserDisplayNameCache;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.StoredProcedureQuery;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +17,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -37,7 +42,11 @@ class EmployeeServiceUnitTest {
     @Mock
     private EmployeeTrainingRepository trainingRepository;
     @Mock
-    private PerformanceReviewRepository performanceReviewRepository;
+    private PerformanceReviewScheduler performanceReviewScheduler;
+    @Mock
+    private PeopleStats peopleStats;
+    @Mock
+    private UserDisplayNameCache userDisplayNameCache;
     @Mock
     private StoredProcedureQuery storedProcedureQuery;
 
@@ -61,10 +70,57 @@ class EmployeeServiceUnitTest {
 
     @Test
     void listAllEmployees_Success() {
-        when(userRepository.findAll()).thenReturn(Arrays.asList(testUser));
-        List<User> result = employeeService.listAllEmployees();
+        Pageable page = PageRequest.of(0, 50);
+        when(userRepository.findAll(page)).thenReturn(new PageImpl<>(Arrays.asList(testUser)));
+        List<User> result = employeeService.listAllEmployees(page);
+        assertEquals(1, result.size());
+        verify(userRepository).findAll(page);
+    }
+
+    @Test
+    void getFilteredUsers_Admin_QueriesAdminRoles() {
+        Pageable page = PageRequest.of(0, 50);
+        when(userRepository.findByRoleIdIn(List.of(1, 2, 3), page)).thenReturn(List.of(testUser));
+        List<User> result = employeeService.getFilteredUsers("admin", null, null, page);
         assertEquals(1, result.size());
-        verify(userRepository).findAll();
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void getEmployeeDirectory_PushesFiltersAndEscapedSearchToQuery() {
+        when(userRepository.findDirectoryPage(eq(40L), eq(6), eq(true), anyCollection(), eq(1), isNull(),
+                eq("%jo!_d%"), any(Pageable.class))).thenReturn(List.of());
+
+        employeeService.getEmployeeDirectory("assets", null, null, "active", " Jo_D ", 40L, 26);
+
+        verify(userRepository).findDirectoryPage(eq(40L), eq(6), eq(true), anyCollection(), eq(1), isNull(),
+            eq("%jo!_d%"), eq(PageRequest.of(0, 26)));
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void getEmployeeDirectory_AdminTabMatchesAdminRoleIds() {
+        employeeService.getEmployeeDirectory("admin", null, null, null, null, 0L, 10);
+
+        verify(userRepository).findDirectoryPage(eq(0L), isNull(), eq(false), eq(List.of(1, 2, 3)), isNull(), isNull(),
+            isNull(), eq(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void getEmployeeDirectory_AdminTabWithNonAdminRoleIsEmpty() {
+        assertTrue(employeeService.getEmployeeDirectory("admin", null, 5, null, null, 0L, 10).isEmpty());
+
+        employeeService.getEmployeeDirectory("admin", null, 2, null, null, 0L, 10);
+
+        verify(userRepository).findDirectoryPage(eq(0L), isNull(), eq(false), eq(List.of(2)), isNull(), isNull(),
+            isNull(), any(Pageable.class));
+    }
+
+    @Test
+    void autoSchedulePerformanceReviews_DelegatesCurrentMonthToScheduler() {
+        employeeService.autoSchedulePerformanceReviews();
+        verify(performanceReviewScheduler).schedule(LocalDate.now());
+        verify(userRepository, never()).findAll();
     }
 
     @Test
@@ -104,6 +160,7 @@ class EmployeeServiceUnitTest {
         when(userRepository.save(any(User.class))).thenReturn(testUser);
         User result = employeeService.toggleUserStatus(1L);
         assertEquals(1, result.getIsActive());
+        verify(peopleStats).invalidate();
     }
 
     @Test
@@ -0,0 +1,50 @@
+package com.craftresourcemanagement.hr.unit;
+
+import com.craftresourcemanagement.hr.support.InMemoryAttendanceIntegrationService;
+import com.craftresourcemanagement.hr.support.InMemoryLeaveIntegrationService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntegrationServicesUnitTest {
+
+    @Test
+    void getAttendanceByDateRange_KeysResultsByUserAndOmitsFailures() {
+        InMemoryAttendanceIntegrationService attendance = new InMemoryAttendanceIntegrationService()
+            .withRecords(1L, List.of(Map.of("overtime_hours", "2")))
+            .failingFor(3L);
+
+        Map<Long, List<Map<String, Object>>> result = attendance
+            .getAttendanceByDateRange(List.of(1L, 2L, 3L, 1L), "2026-01-01", "2026-01-31");
+
+        assertEquals(1, result.get(1L).size());
+        assertTrue(result.get(2L).isEmpty());
+        assertFalse(result.containsKey(3L));
+        assertEquals(3, attendance.getCalls());
+    }
+
+    @Test
+    void getAttendanceByDateRange_EmptyInput() {
+        InMemoryAttendanceIntegrationService attendance = new InMemoryAttendanceIntegrationService();
+        assertTrue(attendance.getAttendanceByDateRange(List.of(), "2026-01-01", "2026-01-31").isEmpty());
+        assertEquals(0, attendance.getCalls());
+    }
+
+    @Test
+    void getLeaveRequestsByDateRange_KeepsOnlyOverlappingLeaves() {
+        InMemoryLeaveIntegrationService leave = new InMemoryLeaveIntegrationService()
+            .withLeaves(1L, List.of(
+                Map.of("startDate", "2025-12-28", "endDate", "2026-01-02", "totalDays", 6),
+                Map.of("startDate", "2026-02-03", "endDate", "2026-02-04", "totalDays", 2),
+                Map.of("totalDays", 1)));
+
+        Map<Long, List<Map<String, Object>>> result = leave.getLeaveRequestsByDateRange(
+            List.of(1L), "approved", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31));
+
+        assertEquals(2, result.get(1L).size());
+    }
+}
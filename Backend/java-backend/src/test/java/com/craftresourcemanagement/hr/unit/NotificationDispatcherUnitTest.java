@@ -0,0 +1,105 @@
+package com.craftresourcemanagement.hr.unit;
+
+import com.craftresourcemanagement.hr.services.NotificationDispatcher;
+import com.craftresourcemanagement.hr.services.NotificationDispatcher.Delivery;
+import com.craftresourcemanagement.hr.services.NotificationDispatcher.InAppNotification;
+import com.craftresourcemanagement.hr.services.NotificationDispatcher.JobResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherUnitTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void sendInApp_WritesOneMultiRowInsertPerBatch() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(jdbcTemplate, Runnable::run, 2, 0, 3, 0, 2, 0);
+        List<InAppNotification> notifications = List.of(
+            new InAppNotification(1L, "Hi", "One", "INFO"),
+            new InAppNotification(2L, "Hi", "Two", "INFO"),
+            new InAppNotification(3L, "Hi", "Three", "INFO"));
+
+        JobResult result = dispatcher.sendInApp("birthday-greetings", notifications);
+
+        assertEquals(3, result.sent());
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).update(sql.capture(), (Object[]) any());
+        assertEquals(List.of(2, 1), sql.getAllValues().stream()
+            .map(statement -> statement.split("\\(\\?").length - 1)
+            .toList());
+        assertTrue(sql.getValue().startsWith("INSERT INTO notifications"));
+    }
+
+    @Test
+    void sendInApp_DeadLettersOnlyRowsThatFailOnTheirOwn() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(jdbcTemplate, Runnable::run, 3, 0, 2, 0, 2, 0);
+        when(jdbcTemplate.update(startsWith("INSERT INTO notifications"), (Object[]) any())).thenAnswer(inv -> {
+            for (Object arg : inv.getArguments()) {
+                if ("Broken".equals(arg)) {
+                    throw new IllegalStateException("Data too long for column 'message'");
+                }
+            }
+            return 1;
+        });
+
+        JobResult result = dispatcher.sendInApp("birthday-greetings", List.of(
+            new InAppNotification(1L, "Hi", "One", "INFO"),
+            new InAppNotification(2L, "Hi", "Broken", "INFO"),
+            new InAppNotification(3L, "Hi", "Three", "INFO")));
+
+        assertEquals(2, result.sent());
+        assertEquals(1, result.deadLettered());
+        verify(jdbcTemplate, times(5)).update(startsWith("INSERT INTO notifications"), (Object[]) any());
+        verify(jdbcTemplate).update(startsWith("INSERT INTO notification_dead_letters"), eq("birthday-greetings"),
+            eq("in-app"), eq("2"), contains("Broken"), eq("Data too long for column 'message'"), eq(2), any());
+    }
+
+    @Test
+    void post_RetriesThenDeadLettersFailedDeliveries() {
+        AtomicInteger calls = new AtomicInteger();
+        Set<String> delivered = ConcurrentHashMap.newKeySet();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(jdbcTemplate, Runnable::run, 50, 0, 3, 0, 2, 0) {
+            @Override
+            protected void send(String url, Object body) {
+                calls.incrementAndGet();
+                if ("bad@test.com".equals(((Map<?, ?>) body).get("to"))) {
+                    throw new IllegalStateException("mailbox unavailable");
+                }
+                delivered.add((String) ((Map<?, ?>) body).get("to"));
+            }
+        };
+
+        JobResult result = dispatcher.post("payslip-email", "http://node/api/communication/send-email", List.of(
+            new Delivery("ok@test.com", Map.of("to", "ok@test.com")),
+            new Delivery("bad@test.com", Map.of("to", "bad@test.com"))));
+
+        assertEquals(1, result.sent());
+        assertEquals(1, result.deadLettered());
+        assertEquals(4, calls.get());
+        assertEquals(Set.of("ok@test.com"), delivered);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO notification_dead_letters"), eq("payslip-email"),
+            eq("http://node/api/communication/send-email"), eq("bad@test.com"), contains("bad@test.com"),
+            eq("mailbox unavailable"), eq(3), any());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> metrics = (Map<String, Object>) dispatcher.getMetrics().get("payslip-email");
+        assertEquals(1L, metrics.get("deadLettered"));
+        assertEquals(2L, metrics.get("retries"));
+    }
+}
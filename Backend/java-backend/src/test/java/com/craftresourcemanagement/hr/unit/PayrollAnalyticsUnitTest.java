@@ -0,0 +1,95 @@
+package com.craftresourcemanagement.hr.unit;
+
+import com.craftresourcemanagement.hr.entities.PayrollRun;
+import com.craftresourcemanagement.hr.entities.PayrollRunAggregate;
+import com.craftresourcemanagement.hr.repositories.PayrollRunAggregateRepository;
+import com.craftresourcemanagement.hr.repositories.PayrollRunRepository;
+import com.craftresourcemanagement.hr.services.impl.PayrollAnalytics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayrollAnalyticsUnitTest {
+
+    @Mock private PayrollRunRepository payrollRunRepository;
+    @Mock private PayrollRunAggregateRepository aggregateRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private PayrollAnalytics payrollAnalytics;
+
+    @BeforeEach
+    void setUp() {
+        payrollAnalytics = new PayrollAnalytics(payrollRunRepository, aggregateRepository, jdbcTemplate);
+    }
+
+    @Test
+    void trend_ListsRunsOldestFirstWithBreakdownAndNetChange() throws Exception {
+        PayrollRun december = run(2L, 12, "1000.00");
+        PayrollRun january = run(4L, 1, "1250.00");
+        when(payrollRunRepository.findByStatusInOrderByEndDateDescIdDesc(anyCollection(), any(Pageable.class)))
+            .thenReturn(List.of(january, december));
+        when(aggregateRepository.findByPayrollRunIdInAndDimensionOrderByPayrollRunIdAscDimensionIdAsc(
+                List.of(2L, 4L), PayrollRunAggregate.JOB_GRADE))
+            .thenReturn(List.of(aggregate(2L, 1L, 3), aggregate(4L, 1L, 3), aggregate(4L, 2L, 1)));
+
+        List<Map<String, Object>> trend = payrollAnalytics.trend(2, "job-grade");
+
+        assertEquals(List.of(2L, 4L), trend.stream().map(row -> row.get("runId")).toList());
+        assertNull(trend.get(0).get("netChange"));
+        assertEquals(0, new BigDecimal("250.00").compareTo((BigDecimal) trend.get(1).get("netChange")));
+        assertEquals(4, trend.get(1).get("employees"));
+        assertEquals(2, ((List<?>) trend.get(1).get("breakdown")).size());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void trend_RejectsUnknownDimension() {
+        assertThrows(IllegalArgumentException.class, () -> payrollAnalytics.trend(6, "location"));
+        verifyNoInteractions(payrollRunRepository, aggregateRepository);
+    }
+
+    @Test
+    void rebuild_ReplacesBothDimensionsForRun() {
+        payrollAnalytics.rebuild(9L);
+
+        verify(jdbcTemplate).update(startsWith("DELETE FROM payroll_run_aggregates"), eq(9L));
+        verify(jdbcTemplate).update(contains("u.department_id"), eq(PayrollRunAggregate.DEPARTMENT), eq(9L));
+        verify(jdbcTemplate).update(contains("u.job_grade_id"), eq(PayrollRunAggregate.JOB_GRADE), eq(9L));
+    }
+
+    private PayrollRun run(long id, int month, String net) throws Exception {
+        PayrollRun run = new PayrollRun();
+        java.lang.reflect.Field idField = PayrollRun.class.getDeclaredField("id");
+        idField.setAccessible(true);
+        idField.set(run, id);
+        run.setRunMonth(month);
+        run.setStatus("COMPLETED");
+        run.setTotalNet(new BigDecimal(net));
+        return run;
+    }
+
+    private PayrollRunAggregate aggregate(long runId, long gradeId, int employees) {
+        PayrollRunAggregate aggregate = new PayrollRunAggregate();
+        aggregate.setPayrollRunId(runId);
+        aggregate.setDimension(PayrollRunAggregate.JOB_GRADE);
+        aggregate.setDimensionId(gradeId);
+        aggregate.setEmployees(employees);
+        aggregate.setTotalGross(BigDecimal.TEN);
+        aggregate.setTotalDeductions(BigDecimal.ONE);
+        aggregate.setTotalNet(BigDecimal.TEN);
+        return aggregate;
+    }
+}
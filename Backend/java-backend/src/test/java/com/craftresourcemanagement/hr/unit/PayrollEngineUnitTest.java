@@ -0,0 +1,213 @@
+package com.craftresourcemanagement.hr.unit;
+
+import com.craftresourcemanagement.hr.entities.PayrollRun;
+import com.craftresourcemanagement.hr.entities.Payslip;
+import com.craftresourcemanagement.hr.entities.User;
+import com.craftresourcemanagement.hr.repositories.*;
+import com.craftresourcemanagement.hr.services.impl.PayrollEngine;
+import com.craftresourcemanagement.hr.support.InMemoryAttendanceIntegrationService;
+import com.craftresourcemanagement.hr.support.InMemoryLeaveIntegrationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayrollEngineUnitTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private JobGradeRepository jobGradeRepository;
+    @Mock private PayrollRunRepository payrollRunRepository;
+    @Mock private PayslipRepository payslipRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private InMemoryAttendanceIntegrationService attendanceIntegrationService;
+    private InMemoryLeaveIntegrationService leaveIntegrationService;
+    private PayrollEngine payrollEngine;
+    private PayrollRun payrollRun;
+
+    @BeforeEach
+    void setUp() {
+        attendanceIntegrationService = new InMemoryAttendanceIntegrationService();
+        leaveIntegrationService = new InMemoryLeaveIntegrationService();
+        payrollEngine = new PayrollEngine(userRepository, jobGradeRepository, payrollRunRepository, payslipRepository,
+            attendanceIntegrationService, leaveIntegrationService, jdbcTemplate, transactionManager, Runnable::run);
+
+        // Lease claims, heartbeats and progress updates all succeed unless a test says otherwise
+        lenient().when(jdbcTemplate.update(anyString(), (Object[]) any())).thenReturn(1);
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> {
+                int[] counts = new int[invocation.<List<?>>getArgument(1).size()];
+                Arrays.fill(counts, 1);
+                return new int[][] {counts};
+            });
+
+        payrollRun = new PayrollRun();
+        payrollRun.setId(7L);
+        payrollRun.setStartDate(LocalDate.of(2026, 1, 1));
+        payrollRun.setEndDate(LocalDate.of(2026, 1, 31));
+        payrollRun.setStatus("PROCESSING");
+    }
+
+    private User employee(long id, Double salary) {
+        User user = new User();
+        user.setId(id);
+        user.setSalary(salary);
+        return user;
+    }
+
+    @Test
+    void process_SkipsEmployeesAlreadyPaidForRun() {
+        when(userRepository.findActiveForPayroll(null)).thenReturn(List.of(employee(1L, 1600.0), employee(2L, 1600.0)));
+        when(payslipRepository.findUserIdsByPayrollRunId(7L)).thenReturn(List.of(1L));
+        when(payrollRunRepository.save(any(PayrollRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(payrollRunRepository.findById(7L)).thenReturn(Optional.of(payrollRun));
+        attendanceIntegrationService.withRecords(2L, List.of(Map.of("overtime_hours", "10")));
+
+        PayrollEngine.Result result = payrollEngine.process(payrollRun,
+            new PayrollEngine.Options(null, true, false, false));
+
+        assertEquals(2, result.employeeCount());
+        assertEquals(1, result.payslips().size());
+        assertEquals("COMPLETED", result.payrollRun().getStatus());
+        // 1600 base + 10h * (1600 / 160) * 1.5 overtime
+        assertEquals(0, new BigDecimal("1750").compareTo(result.payslips().get(0).getGrossPay()));
+        assertEquals(1, attendanceIntegrationService.getCalls());
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO payslips"), anyList(), eq(1),
+            any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void process_AddsDepartmentAndJobGradeAggregatesWithPayslips() {
+        User first = employee(1L, 1000.0);
+        first.setDepartmentId(3);
+        first.setJobGradeId(5);
+        User second = employee(2L, 2000.0);
+        second.setDepartmentId(4);
+        second.setJobGradeId(5);
+        when(userRepository.findActiveForPayroll(null)).thenReturn(List.of(first, second));
+        when(payslipRepository.findUserIdsByPayrollRunId(7L)).thenReturn(List.of());
+        when(payrollRunRepository.save(any(PayrollRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(payrollRunRepository.findById(7L)).thenReturn(Optional.of(payrollRun));
+
+        payrollEngine.process(payrollRun, new PayrollEngine.Options(null, false, false, false));
+
+        // Departments 3 and 4 plus the shared grade 5, upserted in the payslip transaction
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO payroll_run_aggregates"), anyList(), eq(3),
+            any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void process_UsesFallbackOvertimeWhenAttendanceLookupFails() {
+        when(userRepository.findActiveForPayroll(null)).thenReturn(List.of(employee(1L, 1000.0), employee(2L, 1000.0)));
+        when(payslipRepository.findUserIdsByPayrollRunId(7L)).thenReturn(List.of());
+        when(payrollRunRepository.save(any(PayrollRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(payrollRunRepository.findById(7L)).thenReturn(Optional.of(payrollRun));
+        attendanceIntegrationService.failingFor(2L);
+
+        PayrollEngine.Result result = payrollEngine.process(payrollRun,
+            new PayrollEngine.Options(null, true, false, false));
+
+        Map<Long, BigDecimal> grossByUser = new java.util.HashMap<>();
+        result.payslips().forEach(p -> grossByUser.put(p.getUser().getId(), p.getGrossPay()));
+        assertEquals(0, new BigDecimal("1000").compareTo(grossByUser.get(1L)));
+        assertEquals(0, new BigDecimal("1150").compareTo(grossByUser.get(2L)));
+    }
+
+    @Test
+    void process_FallsBackOnOvertimeAndDeductsUnpaidLeave() {
+        when(userRepository.findActiveForPayroll(null)).thenReturn(List.of(employee(3L, 2200.0)));
+        when(payslipRepository.findUserIdsByPayrollRunId(7L)).thenReturn(List.of());
+        when(payrollRunRepository.save(any(PayrollRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(payrollRunRepository.findById(7L)).thenReturn(Optional.of(payrollRun));
+        attendanceIntegrationService.failingFor(3L);
+        leaveIntegrationService.withLeaves(3L, List.of(Map.of("isPaid", "false", "totalDays", "2",
+            "startDate", "2026-01-12", "endDate", "2026-01-13")));
+
+        Payslip payslip = payrollEngine.process(payrollRun, new PayrollEngine.Options(null, true, false, true))
+            .payslips().get(0);
+
+        // 2200 base + 15% fallback overtime - 2 unpaid days at 2200 / 22
+        assertEquals(0, new BigDecimal("2330").compareTo(payslip.getGrossPay()));
+        assertEquals(0, payslip.getGrossPay().subtract(payslip.getTaxDeductions()).subtract(new BigDecimal("350"))
+            .compareTo(payslip.getNetPay()));
+    }
+
+    @Test
+    void process_CountsOnlyEmployeesThatGotAPayslip() {
+        when(userRepository.findActiveForPayroll(null)).thenReturn(List.of(employee(1L, 1000.0), employee(2L, null)));
+        when(payslipRepository.findUserIdsByPayrollRunId(7L)).thenReturn(List.of());
+        when(payrollRunRepository.save(any(PayrollRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(payrollRunRepository.findById(7L)).thenReturn(Optional.of(payrollRun));
+
+        payrollEngine.process(payrollRun, new PayrollEngine.Options(null, false, false, false));
+
+        assertEquals(2, payrollRun.getTotalEmployees());
+        verify(jdbcTemplate).update(contains("processed_employees = COALESCE(processed_employees, 0) + ?"),
+            eq(1), any(), any(), any(), eq(7L));
+    }
+
+    @Test
+    void process_LeavesPayslipsWrittenMeanwhileOutOfTotalsAndResult() {
+        when(userRepository.findActiveForPayroll(null)).thenReturn(List.of(employee(1L, 1000.0), employee(2L, 2000.0)));
+        when(payslipRepository.findUserIdsByPayrollRunId(7L)).thenReturn(List.of());
+        when(payrollRunRepository.save(any(PayrollRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(payrollRunRepository.findById(7L)).thenReturn(Optional.of(payrollRun));
+        when(jdbcTemplate.queryForList(startsWith("SELECT user_id FROM payslips"), eq(Long.class), (Object[]) any()))
+            .thenReturn(List.of(1L));
+
+        PayrollEngine.Result result = payrollEngine.process(payrollRun, new PayrollEngine.Options(null, false, false, false));
+
+        assertEquals(List.of(2L), result.payslips().stream().map(p -> p.getUser().getId()).toList());
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO payslips"), anyList(), eq(1),
+            any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).update(contains("processed_employees = COALESCE(processed_employees, 0) + ?"),
+            eq(1), argThat((BigDecimal gross) -> gross.compareTo(new BigDecimal("2000")) == 0), any(), any(), eq(7L));
+    }
+
+    @Test
+    void resume_UsesRecordedOptionsAndKeepsTotal() {
+        payrollRun.setDepartmentId(4);
+        payrollRun.setIncludeOvertime(false);
+        payrollRun.setIncludeBonuses(true);
+        payrollRun.setIncludeDeductions(false);
+        payrollRun.setTotalEmployees(10);
+        when(userRepository.findActiveForPayroll(4)).thenReturn(List.of(employee(1L, 1000.0)));
+        when(payslipRepository.findUserIdsByPayrollRunId(7L)).thenReturn(List.of());
+        when(payrollRunRepository.findById(7L)).thenReturn(Optional.of(payrollRun));
+
+        PayrollEngine.Result result = payrollEngine.resume(payrollRun);
+
+        // 1000 base + 10% bonus, no overtime or deductions
+        assertEquals(0, new BigDecimal("1100").compareTo(result.payslips().get(0).getGrossPay()));
+        assertEquals(10, result.payrollRun().getTotalEmployees());
+        verify(payrollRunRepository, never()).save(any(PayrollRun.class));
+    }
+
+    @Test
+    void resume_RefusesRunWhoseLeaseIsStillHeld() {
+        payrollRun.setIncludeOvertime(true);
+        payrollRun.setIncludeBonuses(false);
+        payrollRun.setIncludeDeductions(true);
+        when(jdbcTemplate.update(contains("SET processing_owner = ?"), (Object[]) any())).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> payrollEngine.resume(payrollRun));
+        verifyNoInteractions(userRepository, payslipRepository);
+    }
+}
@@ -4,6 +4,8 @@ import com.craftresourcemanagement.hr.entities.*;
 import com.craftresourcemanagement.hr.repositories.*;
 import com.craftresourcemanagement.hr.services.HRNotificationService;
 import com.craftresourcemanagement.hr.services.NotificationService;
+import com.craftresourcemanagement.hr.services.impl.PayrollAnalytics;
+import com.craftresourcemanagement.hr.services.impl.PayrollEngine;
 import com.craftresourcemanagement.hr.services.impl.PayrollServiceImpl;
 import com.craftresourcemanagement.utils.AuditClient;
 import com.craftresourcemanagement.utils.OpenAIClient;
@@ -13,15 +15,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +46,8 @@ class PayrollServiceUnitTest {
     @Mock private AuditClient auditClient;
     @Mock private NotificationService notificationService;
     @Mock private HRNotificationService hrNotificationService;
+    @Mock private PayrollEngine payrollEngine;
+    @Mock private PayrollAnalytics payrollAnalytics;
 
     @InjectMocks
     private PayrollServiceImpl payrollService;
@@ -112,6 +121,7 @@ class PayrollServiceUnitTest {
         doNothing().when(payrollRunRepository).deleteById(1L);
         payrollService.deletePayrollRun(1L);
         verify(payrollRunRepository).deleteById(1L);
+        verify(payrollAnalytics).deleteRun(1L);
     }
 
     @Test
@@ -128,6 +138,39 @@ class PayrollServiceUnitTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void streamPayslipExportRows_SeeksPastLastIdUntilShortChunk() {
+        PayslipRepository.ExportRow first = exportRow(10L);
+        PayslipRepository.ExportRow second = exportRow(20L);
+        PayslipRepository.ExportRow third = exportRow(30L);
+        when(payslipRepository.findExportRowsByPayrollRunId(eq(5L), eq(0L), any())).thenReturn(List.of(first, second));
+        when(payslipRepository.findExportRowsByPayrollRunId(eq(5L), eq(20L), any())).thenReturn(List.of(third));
+        List<List<PayslipRepository.ExportRow>> chunks = new ArrayList<>();
+
+        payrollService.streamPayslipExportRows(5L, 2, chunks::add);
+
+        assertEquals(List.of(List.of(first, second), List.of(third)), chunks);
+        verify(payslipRepository, never()).findAll();
+    }
+
+    @Test
+    void getPayslipSummariesByPeriod_UsesPagedProjection() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        PageRequest pageable = PageRequest.of(0, 50);
+        Page<PayslipRepository.PayslipSummary> page = new PageImpl<>(List.of(mock(PayslipRepository.PayslipSummary.class)));
+        when(payslipRepository.findSummariesByPayPeriod(from, to, pageable)).thenReturn(page);
+
+        assertSame(page, payrollService.getPayslipSummariesByPeriod(from, to, pageable));
+        verify(payslipRepository, never()).findAll();
+    }
+
+    private PayslipRepository.ExportRow exportRow(Long id) {
+        PayslipRepository.ExportRow row = mock(PayslipRepository.ExportRow.class);
+        lenient().when(row.getId()).thenReturn(id);
+        return row;
+    }
+
     @Test
     void getPayslipById_Found() {
         when(payslipRepository.findById(1L)).thenReturn(Optional.of(testPayslip));
@@ -286,9 +329,9 @@ class PayrollServiceUnitTest {
 
     @Test
     void processPayroll_Success() {
-        lenient().when(userRepository.findAll()).thenReturn(Arrays.asList(testUser));
         lenient().when(payrollRunRepository.save(any(PayrollRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        lenient().when(payslipRepository.save(any(Payslip.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(payrollEngine.process(any(PayrollRun.class), any(PayrollEngine.Options.class)))
+            .thenAnswer(invocation -> new PayrollEngine.Result(invocation.getArgument(0), List.of(testPayslip), 1));
         
         PayrollRun result = payrollService.processPayroll(
             LocalDate.now().minusDays(30), LocalDate.now(), LocalDate.now().plusDays(5),
@@ -296,5 +339,16 @@ class PayrollServiceUnitTest {
         );
         
         assertNotNull(result);
+        verify(payrollEngine).process(any(PayrollRun.class), any(PayrollEngine.Options.class));
+        verify(notificationService).sendBulkPayrollNotifications(List.of(testPayslip));
+    }
+
+    @Test
+    void resumePayroll_RejectsCompletedRun() {
+        testPayrollRun.setStatus("COMPLETED");
+        when(payrollRunRepository.findById(1L)).thenReturn(Optional.of(testPayrollRun));
+        assertThrows(RuntimeException.class,
+            () -> payrollService.resumePayroll(1L, 1L));
+        verifyNoInteractions(payrollEngine);
     }
 }
@@ -0,0 +1,79 @@
+package com.craftresourcemanagement.hr.unit;
+
+import com.craftresourcemanagement.hr.repositories.UserRepository;
+import com.craftresourcemanagement.hr.services.impl.PeopleStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PeopleStatsUnitTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserRepository.PeopleSummary summary;
+
+    @Test
+    void getCounts_MapsTabsFromOneSummaryQuery() {
+        when(userRepository.summarizePeople(List.of(1, 2, 3), 6)).thenReturn(summary);
+        when(summary.getTotal()).thenReturn(12L);
+        when(summary.getAdmins()).thenReturn(3L);
+        when(summary.getAssets()).thenReturn(null);
+        when(summary.getInactive()).thenReturn(2L);
+
+        Map<String, Long> counts = new PeopleStats(userRepository, 30).getCounts();
+
+        assertEquals(Map.of("all", 12L, "admin", 3L, "assets", 0L, "deleted", 2L), counts);
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void getStats_IncludesGroupedBreakdowns() {
+        when(userRepository.summarizePeople(anyCollection(), anyInt())).thenReturn(summary);
+        UserRepository.GroupCount finance = groupCount(2, 5L);
+        when(userRepository.countByDepartment()).thenReturn(List.of(finance));
+        when(userRepository.countByRole()).thenReturn(List.of());
+        when(userRepository.countByJobGrade()).thenReturn(List.of());
+        UserRepository.StatusCount active = mock(UserRepository.StatusCount.class);
+        when(active.getStatus()).thenReturn("ACTIVE");
+        when(active.getTotal()).thenReturn(5L);
+        when(userRepository.countByAccountStatus()).thenReturn(List.of(active));
+
+        Map<String, Object> stats = new PeopleStats(userRepository, 30).getStats();
+
+        assertEquals(Map.of(2, 5L), stats.get("byDepartment"));
+        assertEquals(Map.of("ACTIVE", 5L), stats.get("byStatus"));
+        assertEquals(0L, stats.get("total"));
+    }
+
+    @Test
+    void cachedCounts_AreReusedUntilInvalidated() {
+        when(userRepository.summarizePeople(anyCollection(), anyInt())).thenReturn(summary);
+        PeopleStats peopleStats = new PeopleStats(userRepository, 30);
+
+        peopleStats.getCounts();
+        peopleStats.getCounts();
+        verify(userRepository, times(1)).summarizePeople(anyCollection(), anyInt());
+
+        peopleStats.invalidate();
+        peopleStats.getCounts();
+        verify(userRepository, times(2)).summarizePeople(anyCollection(), anyInt());
+    }
+
+    private UserRepository.GroupCount groupCount(Integer groupId, Long total) {
+        UserRepository.GroupCount row = mock(UserRepository.GroupCount.class);
+        when(row.getGroupId()).thenReturn(groupId);
+        when(row.getTotal()).thenReturn(total);
+        return row;
+    }
+}
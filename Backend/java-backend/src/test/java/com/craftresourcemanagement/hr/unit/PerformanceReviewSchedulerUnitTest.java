@@ -0,0 +1,136 @@
+package com.craftresourcemanagement.hr.unit;
+
+import com.craftresourcemanagement.hr.services.impl.PerformanceReviewScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PerformanceReviewSchedulerUnitTest {
+
+    private static final LocalDate MARCH_2026 = LocalDate.of(2026, 3, 1);
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    private PerformanceReviewScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new PerformanceReviewScheduler(jdbcTemplate, 1L, 500);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void schedule_SelectsAnniversariesByHireDateRangesAndSkipsExistingReviews() throws Exception {
+        when(jdbcTemplate.queryForObject("SELECT MIN(hire_date) FROM users", LocalDate.class))
+            .thenReturn(LocalDate.of(2024, 7, 1));
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<RowMapper<Object>> mapper = ArgumentCaptor.forClass(RowMapper.class);
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        when(jdbcTemplate.query(sql.capture(), mapper.capture(), args.capture())).thenAnswer(invocation -> {
+            RowMapper<Object> rowMapper = invocation.getArgument(1);
+            return List.of(rowMapper.mapRow(hire(10L, "2024-03-31"), 0), rowMapper.mapRow(hire(11L, "2025-03-02"), 1));
+        });
+        when(jdbcTemplate.queryForList(startsWith("SELECT employee_id FROM performance_reviews"), eq(Long.class), any(), any()))
+            .thenReturn(List.of(10L), List.of(10L, 11L));
+
+        PerformanceReviewScheduler.Run run = scheduler.schedule(MARCH_2026);
+
+        assertEquals(2, sql.getValue().split("BETWEEN").length - 1);
+        assertEquals(List.of(Date.valueOf("2024-03-01"), Date.valueOf("2024-03-31"),
+            Date.valueOf("2025-03-01"), Date.valueOf("2025-03-31")), args.getAllValues());
+        assertEquals(2, run.candidates());
+        assertEquals(1, run.alreadyScheduled());
+        assertEquals(1, run.scheduled());
+
+        ArgumentCaptor<List<Object>> pending = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Object>> setter =
+            ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO performance_reviews"),
+            pending.capture(), eq(500), setter.capture());
+        assertEquals(1, pending.getValue().size());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, pending.getValue().get(0));
+        verify(ps).setLong(1, 11L);
+        verify(ps).setLong(2, 11L);
+        verify(ps).setDate(4, Date.valueOf("2026-03-02"));
+        assertEquals(1L, scheduler.getMetrics().get("reviewsScheduled"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void schedule_LeavesAnniversariesAlreadyPastThisMonthAlone() throws Exception {
+        when(jdbcTemplate.queryForObject("SELECT MIN(hire_date) FROM users", LocalDate.class))
+            .thenReturn(LocalDate.of(2025, 1, 1));
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), args.capture())).thenAnswer(invocation -> {
+            RowMapper<Object> rowMapper = invocation.getArgument(1);
+            return List.of(rowMapper.mapRow(hire(11L, "2025-03-02"), 0), rowMapper.mapRow(hire(12L, "2025-03-20"), 1));
+        });
+        when(jdbcTemplate.queryForList(startsWith("SELECT employee_id FROM performance_reviews"), eq(Long.class), any(), any()))
+            .thenReturn(List.of(), List.of(12L));
+
+        PerformanceReviewScheduler.Run run = scheduler.schedule(LocalDate.of(2026, 3, 15));
+
+        assertEquals(List.of(Date.valueOf("2025-03-15"), Date.valueOf("2025-03-31")), args.getAllValues());
+        assertEquals(1, run.candidates());
+        assertEquals(1, run.scheduled());
+        ArgumentCaptor<List<Object>> pending = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), pending.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1, pending.getValue().size());
+    }
+
+    @Test
+    void schedule_CountsOnlyReviewsThisRunInserted() throws Exception {
+        when(jdbcTemplate.queryForObject("SELECT MIN(hire_date) FROM users", LocalDate.class))
+            .thenReturn(LocalDate.of(2025, 1, 1));
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), (Object[]) any())).thenAnswer(invocation -> {
+            RowMapper<Object> rowMapper = invocation.getArgument(1);
+            return List.of(rowMapper.mapRow(hire(11L, "2025-03-02"), 0));
+        });
+        // A concurrent run inserted the review first; the insert only touched its row
+        when(jdbcTemplate.queryForList(startsWith("SELECT employee_id FROM performance_reviews"), eq(Long.class), any(), any()))
+            .thenReturn(List.of());
+
+        PerformanceReviewScheduler.Run run = scheduler.schedule(MARCH_2026);
+
+        assertEquals(0, run.scheduled());
+        assertEquals(0L, scheduler.getMetrics().get("reviewsScheduled"));
+    }
+
+    @Test
+    void schedule_WritesNothingWhenNoEmployeeWasHiredBeforeTheYear() {
+        when(jdbcTemplate.queryForObject("SELECT MIN(hire_date) FROM users", LocalDate.class))
+            .thenReturn(LocalDate.of(2026, 1, 5));
+
+        PerformanceReviewScheduler.Run run = scheduler.schedule(MARCH_2026);
+
+        assertEquals(0, run.scheduled());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1L, scheduler.getMetrics().get("runs"));
+    }
+
+    private ResultSet hire(long id, String hireDate) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getDate("hire_date")).thenReturn(Date.valueOf(hireDate));
+        return rs;
+    }
+}
@@ -376,6 +376,32 @@ INSERT INTO `assets` (`id`, `asset_tag`, `name`, `serial`, `model_id`, `status_i
 
 -- --------------------------------------------------------
 
+--
+-- Table structure for table `asset_depreciation_snapshots`
+--
+
+CREATE TABLE `asset_depreciation_snapshots` (
+  `id` bigint(20) NOT NULL,
+  `period` date NOT NULL,
+  `asset_id` bigint(20) NOT NULL,
+  `asset_tag` varchar(255) DEFAULT NULL,
+  `serial` varchar(255) DEFAULT NULL,
+  `model_id` bigint(20) DEFAULT NULL,
+  `model_name` varchar(255) DEFAULT NULL,
+  `model_number` varchar(100) DEFAULT NULL,
+  `depreciation_id` bigint(20) DEFAULT NULL,
+  `depreciation_name` varchar(100) DEFAULT NULL,
+  `number_of_months` int(11) DEFAULT NULL,
+  `purchase_date` date DEFAULT NULL,
+  `purchase_cost` decimal(13,4) DEFAULT NULL,
+  `monthly_depreciation` decimal(13,4) DEFAULT NULL,
+  `accumulated_depreciation` decimal(13,4) DEFAULT NULL,
+  `current_value` decimal(13,4) DEFAULT NULL,
+  `computed_at` timestamp NULL DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- --------------------------------------------------------
+
 --
 -- Table structure for table `asset_disposals`
 --
@@ -563,6 +589,50 @@ DELIMITER ;
 
 -- --------------------------------------------------------
 
+--
+-- Table structure for table `audit_log_hourly_rollups`
+--
+
+CREATE TABLE `audit_log_hourly_rollups` (
+  `bucket_start` datetime NOT NULL,
+  `action` varchar(255) NOT NULL,
+  `user_id` bigint(20) NOT NULL DEFAULT 0,
+  `service_name` varchar(50) NOT NULL DEFAULT '',
+  `event_count` bigint(20) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `audit_log_rollup_dirty_hours`
+--
+
+CREATE TABLE `audit_log_rollup_dirty_hours` (
+  `bucket_start` datetime NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `audit_log_segments`
+--
+
+CREATE TABLE `audit_log_segments` (
+  `id` bigint(20) NOT NULL,
+  `segment_month` date NOT NULL,
+  `part` int(11) NOT NULL,
+  `path` varchar(500) NOT NULL,
+  `row_count` bigint(20) NOT NULL,
+  `min_id` bigint(20) NOT NULL,
+  `max_id` bigint(20) NOT NULL,
+  `min_timestamp` datetime NOT NULL,
+  `max_timestamp` datetime NOT NULL,
+  `bytes` bigint(20) NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp()
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- --------------------------------------------------------
+
 --
 -- Table structure for table `audit_logs`
 --
@@ -2192,14 +2262,6 @@ CREATE TABLE `invoice_sequences` (
   `sequence_type` varchar(255) NOT NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
---
--- Dumping data for table `invoice_sequences`
---
-
-INSERT INTO `invoice_sequences` (`id`, `last_number`, `prefix`, `sequence_type`) VALUES
-(1, 7, 'AP', 'AP'),
-(2, 1, 'AR', 'AR');
-
 -- --------------------------------------------------------
 
 --
@@ -3039,6 +3101,23 @@ INSERT INTO `manufacturers` (`id`, `name`, `url`, `support_url`, `support_phone`
 
 -- --------------------------------------------------------
 
+--
+-- Table structure for table `notification_dead_letters`
+--
+
+CREATE TABLE `notification_dead_letters` (
+  `id` bigint(20) NOT NULL,
+  `job` varchar(100) NOT NULL,
+  `destination` varchar(255) NOT NULL,
+  `recipient` varchar(255) DEFAULT NULL,
+  `payload` text NOT NULL,
+  `error` varchar(1000) DEFAULT NULL,
+  `attempts` int(11) NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp()
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- --------------------------------------------------------
+
 --
 -- Table structure for table `notifications`
 --
@@ -3083,6 +3162,23 @@ CREATE TABLE `onboarding_checklists` (
 
 -- --------------------------------------------------------
 
+--
+-- Table structure for table `payroll_run_aggregates`
+--
+
+CREATE TABLE `payroll_run_aggregates` (
+  `id` bigint(20) NOT NULL,
+  `payroll_run_id` bigint(20) NOT NULL,
+  `dimension` varchar(20) NOT NULL,
+  `dimension_id` bigint(20) NOT NULL,
+  `employees` int(11) NOT NULL,
+  `total_gross` decimal(15,2) NOT NULL,
+  `total_deductions` decimal(15,2) NOT NULL,
+  `total_net` decimal(15,2) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- --------------------------------------------------------
+
 --
 -- Table structure for table `payroll_runs`
 --
@@ -3101,7 +3197,15 @@ CREATE TABLE `payroll_runs` (
   `closed_by` int(11) DEFAULT NULL,
   `closed_at` timestamp NULL DEFAULT NULL,
   `created_at` timestamp NOT NULL DEFAULT current_timestamp(),
-  `run_date` datetime(6) NOT NULL
+  `run_date` datetime(6) NOT NULL,
+  `total_employees` int(11) DEFAULT NULL,
+  `processed_employees` int(11) DEFAULT 0,
+  `department_id` int(11) DEFAULT NULL,
+  `include_overtime` tinyint(1) DEFAULT NULL,
+  `include_bonuses` tinyint(1) DEFAULT NULL,
+  `include_deductions` tinyint(1) DEFAULT NULL,
+  `processing_owner` varchar(36) DEFAULT NULL,
+  `heartbeat_at` datetime DEFAULT NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 --
@@ -3982,7 +4086,18 @@ ALTER TABLE `assets`
   ADD KEY `idx_asset_tag` (`asset_tag`),
   ADD KEY `idx_serial` (`serial`),
   ADD KEY `idx_model_id` (`model_id`),
-  ADD KEY `idx_status_id` (`status_id`);
+  ADD KEY `idx_status_id` (`status_id`),
+  ADD KEY `idx_assets_assigned_to` (`assigned_to`),
+  ADD KEY `idx_assets_name` (`name`),
+  ADD KEY `idx_assets_purchase_date` (`purchase_date`),
+  ADD KEY `idx_assets_created_at` (`created_at`);
+
+--
+-- Indexes for table `asset_depreciation_snapshots`
+--
+ALTER TABLE `asset_depreciation_snapshots`
+  ADD PRIMARY KEY (`id`),
+  ADD UNIQUE KEY `uk_depreciation_snapshot_period_asset` (`period`,`asset_id`);
 
 --
 -- Indexes for table `asset_disposals`
@@ -4014,15 +4129,37 @@ ALTER TABLE `asset_models`
 ALTER TABLE `attendance`
   ADD PRIMARY KEY (`id`);
 
+--
+-- Indexes for table `audit_log_hourly_rollups`
+--
+ALTER TABLE `audit_log_hourly_rollups`
+  ADD PRIMARY KEY (`bucket_start`,`action`,`user_id`,`service_name`);
+
+--
+-- Indexes for table `audit_log_rollup_dirty_hours`
+--
+ALTER TABLE `audit_log_rollup_dirty_hours`
+  ADD PRIMARY KEY (`bucket_start`);
+
+--
+-- Indexes for table `audit_log_segments`
+--
+ALTER TABLE `audit_log_segments`
+  ADD PRIMARY KEY (`id`),
+  ADD UNIQUE KEY `uk_audit_log_segments_month_part` (`segment_month`,`part`),
+  ADD KEY `idx_audit_log_segments_range` (`min_timestamp`,`max_timestamp`);
+
 --
 -- Indexes for table `audit_logs`
 --
 ALTER TABLE `audit_logs`
-  ADD PRIMARY KEY (`id`),
+  ADD PRIMARY KEY (`id`,`timestamp`),
   ADD KEY `idx_user_id` (`user_id`),
   ADD KEY `idx_timestamp` (`timestamp`),
   ADD KEY `idx_action` (`action`),
-  ADD KEY `idx_service_name` (`service_name`);
+  ADD KEY `idx_service_name` (`service_name`),
+  ADD KEY `idx_audit_user_timestamp` (`user_id`,`timestamp`),
+  ADD KEY `idx_audit_action_timestamp` (`action`,`timestamp`);
 
 --
 -- Indexes for table `categories`
@@ -4121,12 +4258,25 @@ ALTER TABLE `employee_trainings`
 ALTER TABLE `guard_posts`
   ADD PRIMARY KEY (`id`);
 
+--
+-- Indexes for table `invoice_sequences`
+--
+ALTER TABLE `invoice_sequences`
+  ADD PRIMARY KEY (`id`),
+  ADD UNIQUE KEY `uk_invoice_sequences_sequence_type` (`sequence_type`);
+
 --
 -- Indexes for table `job_postings`
 --
 ALTER TABLE `job_postings`
   ADD PRIMARY KEY (`id`);
 
+--
+-- Indexes for table `journal_entries`
+--
+ALTER TABLE `journal_entries`
+  ADD KEY `idx_journal_entries_account_date` (`account_code`,`entry_date`);
+
 --
 -- Indexes for table `licenses`
 --
@@ -4166,17 +4316,59 @@ ALTER TABLE `manufacturers`
   ADD PRIMARY KEY (`id`),
   ADD UNIQUE KEY `name` (`name`);
 
+--
+-- Indexes for table `notification_dead_letters`
+--
+ALTER TABLE `notification_dead_letters`
+  ADD PRIMARY KEY (`id`),
+  ADD KEY `idx_notification_dead_letters_job` (`job`,`created_at`);
+
 --
 -- Indexes for table `onboarding_checklists`
 --
 ALTER TABLE `onboarding_checklists`
   ADD PRIMARY KEY (`id`);
 
+--
+-- Indexes for table `payroll_run_aggregates`
+--
+ALTER TABLE `payroll_run_aggregates`
+  ADD PRIMARY KEY (`id`),
+  ADD UNIQUE KEY `uk_payroll_run_aggregate` (`payroll_run_id`,`dimension`,`dimension_id`);
+
 --
 -- Indexes for table `payslips`
 --
+-- Keep the first payslip per run and employee before the pair is made unique
+DELETE `p` FROM `payslips` `p`
+  JOIN `payslips` `kept` ON `kept`.`payroll_run_id` = `p`.`payroll_run_id`
+    AND `kept`.`user_id` = `p`.`user_id` AND `kept`.`id` < `p`.`id`;
+
 ALTER TABLE `payslips`
-  ADD KEY `FKc3j0otrqdsqy6qmu526pv4rl6` (`user_id`);
+  ADD KEY `FKc3j0otrqdsqy6qmu526pv4rl6` (`user_id`),
+  ADD UNIQUE KEY `uk_payslips_run_user` (`payroll_run_id`,`user_id`),
+  ADD KEY `idx_payslips_run_id` (`payroll_run_id`,`id`),
+  ADD KEY `idx_payslips_period` (`pay_period_start`,`pay_period_end`);
+
+--
+-- Indexes for table `performance_reviews`
+--
+-- The table had no primary key, so give rows that share an id fresh ids above the
+-- current maximum; the kept review below is then chosen by a unique id
+SELECT COALESCE(MAX(`id`), 0) INTO @next_review_id FROM `performance_reviews`;
+UPDATE `performance_reviews` `r`
+  JOIN (SELECT `id` FROM `performance_reviews` GROUP BY `id` HAVING COUNT(*) > 1) `shared` ON `shared`.`id` = `r`.`id`
+  SET `r`.`id` = (@next_review_id := @next_review_id + 1);
+
+-- Keep the first review per employee and date before the pair is made unique
+DELETE `r` FROM `performance_reviews` `r`
+  JOIN `performance_reviews` `kept` ON `kept`.`employee_id` = `r`.`employee_id`
+    AND `kept`.`review_date` = `r`.`review_date` AND `kept`.`id` < `r`.`id`;
+
+ALTER TABLE `performance_reviews`
+  ADD PRIMARY KEY (`id`),
+  ADD UNIQUE KEY `uk_performance_reviews_employee_date` (`employee_id`,`review_date`),
+  ADD KEY `idx_performance_reviews_date` (`review_date`);
 
 --
 -- Indexes for table `permissions`
@@ -4217,7 +4409,11 @@ ALTER TABLE `suppliers`
 -- Indexes for table `users`
 --
 ALTER TABLE `users`
-  ADD PRIMARY KEY (`id`);
+  ADD PRIMARY KEY (`id`),
+  ADD KEY `idx_users_department` (`department_id`,`id`),
+  ADD KEY `idx_users_role` (`role_id`,`id`),
+  ADD KEY `idx_users_active` (`is_active`,`id`),
+  ADD KEY `idx_users_hire_date` (`hire_date`);
 
 --
 -- AUTO_INCREMENT for dumped tables
@@ -4229,6 +4425,12 @@ ALTER TABLE `users`
 ALTER TABLE `assets`
   MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT, AUTO_INCREMENT=17;
 
+--
+-- AUTO_INCREMENT for table `asset_depreciation_snapshots`
+--
+ALTER TABLE `asset_depreciation_snapshots`
+  MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT;
+
 --
 -- AUTO_INCREMENT for table `asset_disposals`
 --
@@ -4253,12 +4455,39 @@ ALTER TABLE `asset_models`
 ALTER TABLE `attendance`
   MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT;
 
+--
+-- AUTO_INCREMENT for table `audit_log_segments`
+--
+ALTER TABLE `audit_log_segments`
+  MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT;
+
 --
 -- AUTO_INCREMENT for table `audit_logs`
 --
 ALTER TABLE `audit_logs`
   MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT, AUTO_INCREMENT=45;
 
+--
+-- Monthly partitions for table `audit_logs`; later months are split off p_future by the archive job
+--
+ALTER TABLE `audit_logs`
+  PARTITION BY RANGE (UNIX_TIMESTAMP(`timestamp`)) (
+  PARTITION p_before VALUES LESS THAN (UNIX_TIMESTAMP('2026-01-01 00:00:00')),
+  PARTITION p202601 VALUES LESS THAN (UNIX_TIMESTAMP('2026-02-01 00:00:00')),
+  PARTITION p202602 VALUES LESS THAN (UNIX_TIMESTAMP('2026-03-01 00:00:00')),
+  PARTITION p202603 VALUES LESS THAN (UNIX_TIMESTAMP('2026-04-01 00:00:00')),
+  PARTITION p202604 VALUES LESS THAN (UNIX_TIMESTAMP('2026-05-01 00:00:00')),
+  PARTITION p202605 VALUES LESS THAN (UNIX_TIMESTAMP('2026-06-01 00:00:00')),
+  PARTITION p202606 VALUES LESS THAN (UNIX_TIMESTAMP('2026-07-01 00:00:00')),
+  PARTITION p202607 VALUES LESS THAN (UNIX_TIMESTAMP('2026-08-01 00:00:00')),
+  PARTITION p202608 VALUES LESS THAN (UNIX_TIMESTAMP('2026-09-01 00:00:00')),
+  PARTITION p202609 VALUES LESS THAN (UNIX_TIMESTAMP('2026-10-01 00:00:00')),
+  PARTITION p202610 VALUES LESS THAN (UNIX_TIMESTAMP('2026-11-01 00:00:00')),
+  PARTITION p202611 VALUES LESS THAN (UNIX_TIMESTAMP('2026-12-01 00:00:00')),
+  PARTITION p202612 VALUES LESS THAN (UNIX_TIMESTAMP('2027-01-01 00:00:00')),
+  PARTITION p_future VALUES LESS THAN MAXVALUE
+  );
+
 --
 -- AUTO_INCREMENT for table `categories`
 --
@@ -4319,6 +4548,12 @@ ALTER TABLE `employee_offboarding`
 ALTER TABLE `guard_posts`
   MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT, AUTO_INCREMENT=2;
 
+--
+-- AUTO_INCREMENT for table `invoice_sequences`
+--
+ALTER TABLE `invoice_sequences`
+  MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT, AUTO_INCREMENT=3;
+
 --
 -- AUTO_INCREMENT for table `job_postings`
 --
@@ -4349,12 +4584,30 @@ ALTER TABLE `locations`
 ALTER TABLE `manufacturers`
   MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT, AUTO_INCREMENT=8;
 
+--
+-- AUTO_INCREMENT for table `notification_dead_letters`
+--
+ALTER TABLE `notification_dead_letters`
+  MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT;
+
 --
 -- AUTO_INCREMENT for table `onboarding_checklists`
 --
 ALTER TABLE `onboarding_checklists`
   MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT;
 
+--
+-- AUTO_INCREMENT for table `payroll_run_aggregates`
+--
+ALTER TABLE `payroll_run_aggregates`
+  MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT;
+
+--
+-- AUTO_INCREMENT for table `performance_reviews`
+--
+ALTER TABLE `performance_reviews`
+  MODIFY `id` bigint(20) NOT NULL AUTO_INCREMENT;
+
 --
 -- AUTO_INCREMENT for table `permissions`
 --